@@ -0,0 +1,146 @@
+package org.vaadin.application.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.vaadin.application.model.Budget;
+import org.vaadin.application.model.Expense;
+import org.vaadin.application.model.Income;
+import org.vaadin.application.model.TransactionRecord;
+
+/**
+ * Synthetic datasets for the benchmarks.
+ *
+ * <p>
+ * Every dataset is generated from a fixed seed, so a run on one commit sees
+ * exactly the same rows as a run on another. Dates are spread over the
+ * {@value #HISTORY_DAYS} days up to today, amounts are between 1.00 and 500.00,
+ * and one expense in five has no budget.
+ * </p>
+ */
+public final class BenchmarkData {
+
+    /** Seed of every dataset. */
+    public static final long SEED = 42;
+
+    /** Number of days the generated dates are spread over. */
+    public static final int HISTORY_DAYS = 3 * 365;
+
+    private static final String[] BUDGET_NAMES = { "Groceries", "Rent", "Travel", "Utilities" };
+
+    private static final String[] PAYMENT_FREQUENCIES = { "Weekly", "Biweekly", "Monthly" };
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Generates expenses in random date order.
+     *
+     * @param count the number of expenses
+     * @return the expenses
+     */
+    public static List<Expense> expenses(int count) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        List<Budget> budgets = new ArrayList<>();
+        for (int i = 0; i < BUDGET_NAMES.length; i++) {
+            Budget budget = new Budget();
+            budget.setId(i + 1L);
+            budget.setName(BUDGET_NAMES[i]);
+            budgets.add(budget);
+        }
+        LocalDate today = LocalDate.now();
+        List<Expense> expenses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Expense expense = new Expense();
+            expense.setId(i + 1L);
+            expense.setDescription("Expense " + i);
+            expense.setAmount(amount(random));
+            expense.setDate(today.minusDays(random.nextInt(HISTORY_DAYS)));
+            int budget = random.nextInt(budgets.size() + 1);
+            expense.setBudget(budget == budgets.size() ? null : budgets.get(budget));
+            expenses.add(expense);
+        }
+        return expenses;
+    }
+
+    /**
+     * Converts expenses to the rows of {@code ExpenseRepository.findLedgerRows}.
+     *
+     * @param expenses the expenses
+     * @return rows of date, amount, budget ID, budget name and category ID, in
+     *         date order
+     */
+    public static List<Object[]> expenseLedgerRows(List<Expense> expenses) {
+        List<Object[]> rows = new ArrayList<>(expenses.size());
+        for (Expense expense : expenses) {
+            Budget budget = expense.getBudget();
+            rows.add(new Object[] { expense.getDate(), expense.getAmount(), budget == null ? null : budget.getId(),
+                    budget == null ? null : budget.getName(), null });
+        }
+        rows.sort(Comparator.comparing(row -> (LocalDate) row[0]));
+        return rows;
+    }
+
+    /**
+     * Generates incomes in random date order.
+     *
+     * @param count the number of incomes
+     * @return the incomes
+     */
+    public static List<Income> incomes(int count) {
+        SplittableRandom random = new SplittableRandom(SEED + 1);
+        LocalDate today = LocalDate.now();
+        List<Income> incomes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Income income = new Income();
+            income.setId(i + 1L);
+            income.setSource("Income " + i);
+            income.setAmount(amount(random));
+            income.setDate(today.minusDays(random.nextInt(HISTORY_DAYS)));
+            income.setPaymentFrequency(PAYMENT_FREQUENCIES[random.nextInt(PAYMENT_FREQUENCIES.length)]);
+            incomes.add(income);
+        }
+        return incomes;
+    }
+
+    /**
+     * Converts incomes to the rows of {@code IncomeRepository.findLedgerRows}.
+     *
+     * @param incomes the incomes
+     * @return rows of date, amount and payment frequency, in date order
+     */
+    public static List<Object[]> incomeLedgerRows(List<Income> incomes) {
+        List<Object[]> rows = new ArrayList<>(incomes.size());
+        for (Income income : incomes) {
+            rows.add(new Object[] { income.getDate(), income.getAmount(), income.getPaymentFrequency() });
+        }
+        rows.sort(Comparator.comparing(row -> (LocalDate) row[0]));
+        return rows;
+    }
+
+    /**
+     * Generates summary report records in random date order, one in four an
+     * income.
+     *
+     * @param count the number of records
+     * @return the records
+     */
+    public static List<TransactionRecord> transactionRecords(int count) {
+        SplittableRandom random = new SplittableRandom(SEED + 2);
+        LocalDate today = LocalDate.now();
+        List<TransactionRecord> records = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String type = random.nextInt(4) == 0 ? "Income" : "Expense";
+            records.add(new TransactionRecord(today.minusDays(random.nextInt(HISTORY_DAYS)), amount(random),
+                    type + " " + i, type));
+        }
+        return records;
+    }
+
+    private static BigDecimal amount(SplittableRandom random) {
+        return BigDecimal.valueOf(100 + random.nextInt(49_901), 2);
+    }
+}
@@ -0,0 +1,104 @@
+package org.vaadin.application.model;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.vaadin.application.benchmark.BenchmarkData;
+
+/**
+ * Benchmarks the summary report: ordering the transaction records latest first
+ * with {@link TransactionRecord#LATEST_FIRST}, and laying them out as PDF table
+ * rows with {@link SummaryFile#addRecords}.
+ *
+ * <p>
+ * The PDF of a million records holds over 60,000 pages in memory, so the PDF
+ * benchmark runs up to 100,000 records unless {@code -p pdfRows=1000000} is
+ * given together with a larger heap ({@code -jvmArgs -Xmx8g}).
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SummaryReportBenchmark {
+
+    /**
+     * Records for the ordering benchmark.
+     */
+    @State(Scope.Benchmark)
+    public static class Records {
+        @Param({ "1000", "100000", "1000000" })
+        private int rows;
+
+        private List<TransactionRecord> records;
+
+        @Setup
+        public void setUp() {
+            records = BenchmarkData.transactionRecords(rows);
+        }
+    }
+
+    /**
+     * A fresh queue and document for each PDF layout.
+     */
+    @State(Scope.Thread)
+    public static class Report {
+        @Param({ "1000", "100000" })
+        private int pdfRows;
+
+        private List<TransactionRecord> records;
+
+        private PriorityQueue<TransactionRecord> queue;
+
+        private SummaryFile summaryFile;
+
+        @Setup(Level.Trial)
+        public void generate() {
+            records = BenchmarkData.transactionRecords(pdfRows);
+        }
+
+        @Setup(Level.Invocation)
+        public void setUp() {
+            queue = new PriorityQueue<>(TransactionRecord.LATEST_FIRST);
+            queue.addAll(records);
+            summaryFile = new SummaryFile();
+        }
+
+        @TearDown(Level.Invocation)
+        public void tearDown() throws IOException {
+            summaryFile.closeStream();
+            summaryFile.getDocument().close();
+        }
+    }
+
+    @Benchmark
+    public void orderLatestFirst(Records state, Blackhole blackhole) {
+        PriorityQueue<TransactionRecord> queue = new PriorityQueue<>(TransactionRecord.LATEST_FIRST);
+        queue.addAll(state.records);
+        while (!queue.isEmpty()) {
+            blackhole.consume(queue.poll());
+        }
+    }
+
+    @Benchmark
+    public SummaryFile addRecords(Report state) {
+        state.summaryFile.addRecords(state.queue);
+        return state.summaryFile;
+    }
+}
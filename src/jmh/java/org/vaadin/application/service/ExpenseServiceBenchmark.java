@@ -0,0 +1,80 @@
+package org.vaadin.application.service;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.vaadin.application.benchmark.BenchmarkData;
+import org.vaadin.application.model.Expense;
+import org.vaadin.application.model.MonthlySeries;
+import org.vaadin.application.repository.ExpenseRepository;
+
+/**
+ * Benchmarks {@link ExpenseService#getExpensesForPreviousMonths} on the
+ * in-memory ledger and on the entity list it falls back to. Repository and
+ * cache are stub-only mocks returning prebuilt data, so the database is not
+ * part of the measurement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExpenseServiceBenchmark {
+
+    private static final Long USER_ID = 1L;
+
+    @Param({ "1000", "100000", "1000000" })
+    private int rows;
+
+    private ExpenseService ledgerService;
+
+    private ExpenseService listService;
+
+    @Setup
+    public void setUp() {
+        List<Expense> expenses = BenchmarkData.expenses(rows);
+        UserLedger ledger = UserLedger.build(BenchmarkData.expenseLedgerRows(expenses), List.of());
+
+        ExpenseRepository expenseRepository = mock(ExpenseRepository.class, withSettings().stubOnly());
+        when(expenseRepository.findByUserId(USER_ID)).thenReturn(expenses);
+        LedgerCache ledgerCache = mock(LedgerCache.class, withSettings().stubOnly());
+        when(ledgerCache.get(USER_ID)).thenReturn(ledger);
+        LedgerCache disabledLedgerCache = mock(LedgerCache.class, withSettings().stubOnly());
+
+        ledgerService = service(expenseRepository, ledgerCache);
+        listService = service(expenseRepository, disabledLedgerCache);
+    }
+
+    @Benchmark
+    public MonthlySeries previousMonthsFromLedger() {
+        return ledgerService.getExpensesForPreviousMonths(USER_ID, 12, "Groceries");
+    }
+
+    @Benchmark
+    public MonthlySeries previousMonthsFromEntities() {
+        return listService.getExpensesForPreviousMonths(USER_ID, 12, "Groceries");
+    }
+
+    private static ExpenseService service(ExpenseRepository expenseRepository, LedgerCache ledgerCache) {
+        ExpenseService service = new ExpenseService();
+        ReflectionTestUtils.setField(service, "expenseRepository", expenseRepository);
+        ReflectionTestUtils.setField(service, "ledgerCache", ledgerCache);
+        return service;
+    }
+}
@@ -0,0 +1,154 @@
+package org.vaadin.application.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.vaadin.application.benchmark.BenchmarkData;
+import org.vaadin.application.model.SearchHit;
+import org.vaadin.application.repository.ExpenseRepository;
+import org.vaadin.application.repository.IncomeRepository;
+import org.vaadin.application.repository.InvoiceRepository;
+import org.vaadin.application.repository.NoteRepository;
+
+/**
+ * Benchmarks {@link FullTextSearchService#search} on an index of generated
+ * expense descriptions, spread over {@value #USERS} users. The index is built
+ * once per parameter through the rebuild path, from stub repositories, so the
+ * database is not part of the measurement.
+ *
+ * <p>
+ * Sample-time mode reports the latency percentiles, including p0.99. The 10
+ * million document index takes several minutes and a few GB of disk to build,
+ * so it is not a default parameter; run it alone with
+ * {@code -Djmh.args="FullTextSearchBenchmark -p documents=10000000"}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Threads(4)
+public class FullTextSearchBenchmark {
+
+    private static final int USERS = 1000;
+
+    private static final String[] WORDS = { "uber", "lyft", "groceries", "rent", "coffee", "airport", "hotel",
+        "electricity", "insurance", "restaurant", "pharmacy", "gym", "subscription", "parking", "fuel", "train",
+        "books", "clothing", "internet", "phone", "dentist", "cinema", "gift", "furniture", "repair" };
+
+    private static final String[] QUERIES = { "uber", "groc", "restaurnt", "hotel airport", "insurance" };
+
+    @Param({ "100000", "1000000" })
+    private int documents;
+
+    private Path indexDir;
+
+    private FullTextSearchService searchService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        ExpenseRepository expenseRepository = mock(ExpenseRepository.class, withSettings().stubOnly());
+        when(expenseRepository.findSearchDocuments(anyLong(), any()))
+                .thenAnswer(call -> page(call.getArgument(0), call.getArgument(1)));
+        IncomeRepository incomeRepository = mock(IncomeRepository.class, withSettings().stubOnly());
+        when(incomeRepository.findSearchDocuments(anyLong(), any())).thenReturn(List.of());
+        InvoiceRepository invoiceRepository = mock(InvoiceRepository.class, withSettings().stubOnly());
+        when(invoiceRepository.findSearchDocuments(any())).thenReturn(List.of());
+        NoteRepository noteRepository = mock(NoteRepository.class, withSettings().stubOnly());
+        when(noteRepository.findSearchDocuments(anyLong(), any())).thenReturn(List.of());
+
+        indexDir = Files.createTempDirectory("search-benchmark");
+        searchService = new FullTextSearchService();
+        ReflectionTestUtils.setField(searchService, "expenseRepository", expenseRepository);
+        ReflectionTestUtils.setField(searchService, "incomeRepository", incomeRepository);
+        ReflectionTestUtils.setField(searchService, "invoiceRepository", invoiceRepository);
+        ReflectionTestUtils.setField(searchService, "noteRepository", noteRepository);
+        ReflectionTestUtils.setField(searchService, "backgroundExecutor", (Executor) Runnable::run);
+        ReflectionTestUtils.setField(searchService, "indexDir", indexDir.toString());
+        ReflectionTestUtils.setField(searchService, "commitIntervalSeconds", 3600L);
+        ReflectionTestUtils.setField(searchService, "maxResults", 1000);
+        searchService.open();
+        if (!searchService.rebuild()) {
+            throw new IllegalStateException("Building the benchmark index failed");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        searchService.close();
+        try (Stream<Path> files = Files.walk(indexDir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public List<SearchHit> search(QueryState state) {
+        return searchService.search(state.nextUser(), QUERIES[state.next(QUERIES.length)], null, 0, 20);
+    }
+
+    /**
+     * The random user and query of each call, per benchmark thread.
+     */
+    @State(Scope.Thread)
+    public static class QueryState {
+
+        private final SplittableRandom random = new SplittableRandom(BenchmarkData.SEED);
+
+        long nextUser() {
+            return 1 + random.nextInt(USERS);
+        }
+
+        int next(int bound) {
+            return random.nextInt(bound);
+        }
+    }
+
+    /**
+     * Generates the page of expense documents after an ID: the ID, the user
+     * and a description of two to five words, seeded by the ID.
+     */
+    private List<Object[]> page(long after, Pageable pageable) {
+        long last = Math.min(documents, after + pageable.getPageSize());
+        List<Object[]> rows = new ArrayList<>((int) Math.max(0, last - after));
+        for (long id = after + 1; id <= last; id++) {
+            SplittableRandom random = new SplittableRandom(BenchmarkData.SEED ^ id);
+            StringBuilder description = new StringBuilder(WORDS[random.nextInt(WORDS.length)]);
+            for (int i = random.nextInt(1, 5); i > 0; i--) {
+                description.append(' ').append(WORDS[random.nextInt(WORDS.length)]);
+            }
+            rows.add(new Object[] { id, 1 + id % USERS, description.toString() });
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,79 @@
+package org.vaadin.application.service;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.vaadin.application.benchmark.BenchmarkData;
+import org.vaadin.application.model.Income;
+import org.vaadin.application.repository.IncomeRepository;
+
+/**
+ * Benchmarks {@link IncomeService#getTotalIncomeAllMonths} on the in-memory
+ * ledger and on the entity list it falls back to, with stub-only mocks in
+ * place of the repository and cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IncomeServiceBenchmark {
+
+    private static final Long USER_ID = 1L;
+
+    @Param({ "1000", "100000", "1000000" })
+    private int rows;
+
+    private IncomeService ledgerService;
+
+    private IncomeService listService;
+
+    @Setup
+    public void setUp() {
+        List<Income> incomes = BenchmarkData.incomes(rows);
+        UserLedger ledger = UserLedger.build(List.of(), BenchmarkData.incomeLedgerRows(incomes));
+
+        IncomeRepository incomeRepository = mock(IncomeRepository.class, withSettings().stubOnly());
+        when(incomeRepository.findByUserId(USER_ID)).thenReturn(incomes);
+        LedgerCache ledgerCache = mock(LedgerCache.class, withSettings().stubOnly());
+        when(ledgerCache.get(USER_ID)).thenReturn(ledger);
+        LedgerCache disabledLedgerCache = mock(LedgerCache.class, withSettings().stubOnly());
+
+        ledgerService = service(incomeRepository, ledgerCache);
+        listService = service(incomeRepository, disabledLedgerCache);
+    }
+
+    @Benchmark
+    public BigDecimal totalIncomeFromLedger() {
+        return ledgerService.getTotalIncomeAllMonths(USER_ID);
+    }
+
+    @Benchmark
+    public BigDecimal totalIncomeFromEntities() {
+        return listService.getTotalIncomeAllMonths(USER_ID);
+    }
+
+    private static IncomeService service(IncomeRepository incomeRepository, LedgerCache ledgerCache) {
+        IncomeService service = new IncomeService();
+        ReflectionTestUtils.setField(service, "incomeRepository", incomeRepository);
+        ReflectionTestUtils.setField(service, "ledgerCache", ledgerCache);
+        return service;
+    }
+}
@@ -0,0 +1,67 @@
+package org.vaadin.application.service;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.vaadin.application.benchmark.BenchmarkData;
+
+/**
+ * Benchmarks keeping a cached {@link UserLedger} current after an expense is
+ * updated: rebuilding it from all of the user's rows, as on a cache miss,
+ * against applying the write as one removed and one added row, as
+ * {@link LedgerCache} does. The rebuild excludes the two database queries that
+ * precede it in production, so it is a lower bound of the cost it replaces.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserLedgerBenchmark {
+
+    @Param({ "1000", "100000", "1000000" })
+    private int rows;
+
+    private List<Object[]> expenseRows;
+
+    private List<Object[]> incomeRows;
+
+    private UserLedger ledger;
+
+    private List<Object[]> removed;
+
+    private List<Object[]> added;
+
+    @Setup
+    public void setUp() {
+        expenseRows = BenchmarkData.expenseLedgerRows(BenchmarkData.expenses(rows));
+        incomeRows = BenchmarkData.incomeLedgerRows(BenchmarkData.incomes(rows / 10));
+        ledger = UserLedger.build(expenseRows, incomeRows);
+        Object[] previous = expenseRows.get(rows / 2);
+        removed = List.<Object[]>of(previous);
+        added = List.<Object[]>of(new Object[] { previous[0], ((BigDecimal) previous[1]).add(BigDecimal.ONE),
+                previous[2], previous[3], previous[4] });
+    }
+
+    @Benchmark
+    public UserLedger rebuild() {
+        return UserLedger.build(expenseRows, incomeRows);
+    }
+
+    @Benchmark
+    public UserLedger applyUpdate() {
+        return ledger.withExpenses(added, removed);
+    }
+}
@@ -0,0 +1,70 @@
+package org.vaadin.application.views;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.vaadin.application.benchmark.BenchmarkData;
+import org.vaadin.application.model.Expense;
+import org.vaadin.application.model.MonthlySeries;
+
+/**
+ * Benchmarks the forecast math of {@link NetCashflowForecastView}: monthly
+ * totals of the past year built from the expenses, extended by the linear
+ * trend of {@link NetCashflowForecastView#forecast}, and the resulting net
+ * cashflow against a fixed monthly income.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ForecastBenchmark {
+
+    private static final int PREVIOUS_MONTHS = 12;
+
+    private static final int FORECAST_MONTHS = 12;
+
+    @Param({ "1000", "100000", "1000000" })
+    private int rows;
+
+    private List<Expense> expenses;
+
+    private MonthlySeries pastExpenses;
+
+    @Setup
+    public void setUp() {
+        expenses = BenchmarkData.expenses(rows);
+        pastExpenses = pastExpenses();
+    }
+
+    @Benchmark
+    public MonthlySeries forecastFromExpenses() {
+        MonthlySeries predicted = NetCashflowForecastView.forecast(pastExpenses(), FORECAST_MONTHS);
+        return new MonthlySeries(predicted.getStart(), predicted.size()).fill(500_000).subtract(predicted);
+    }
+
+    @Benchmark
+    public MonthlySeries forecastOnly() {
+        return NetCashflowForecastView.forecast(pastExpenses, FORECAST_MONTHS);
+    }
+
+    private MonthlySeries pastExpenses() {
+        MonthlySeries series = new MonthlySeries(YearMonth.now().minusMonths(PREVIOUS_MONTHS), PREVIOUS_MONTHS + 1);
+        for (Expense expense : expenses) {
+            series.add(expense.getDate(), expense.getAmount());
+        }
+        return series;
+    }
+}
@@ -1,11 +1,14 @@
 package org.vaadin.application;
 
 import com.vaadin.flow.component.page.AppShellConfigurator;
+import com.vaadin.flow.component.page.Push;
 import com.vaadin.flow.server.PWA;
 import com.vaadin.flow.theme.Theme;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.vaadin.application.config.AotStartupGuard;
 
 /**
  * The entry point of the Spring Boot application. This class is responsible for
@@ -28,6 +31,11 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * </p>
  *
  * <p>
+ * The {@code @Push} annotation enables server push, which lets open views be
+ * updated when the user's data changes in another tab or through the REST API.
+ * </p>
+ *
+ * <p>
  * The {@code @Theme} annotation specifies the theme to be used for styling the
  * Vaadin
  * components in the application.
@@ -39,17 +47,43 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 @SpringBootApplication
 @PWA(name = "Project Base for Vaadin with Spring", shortName = "Project Base")
 @Theme("my-theme")
+@Push
 public class Application implements AppShellConfigurator {
 
+    /**
+     * System property with the number of startup steps to record, 0 or unset
+     * to record none.
+     */
+    static final String STARTUP_STEPS_PROPERTY = "fintrack.startup.steps";
+
     /**
      * The main method serves as the entry point of the Spring Boot application.
      * It delegates to Spring Boot's {@link SpringApplication#run} method to launch
      * the application.
      *
+     * <p>
+     * When the {@code fintrack.startup.steps} system property is positive, that
+     * many steps of the startup, such as the creation of each bean, are recorded
+     * with their durations and served by the {@code startup} actuator endpoint.
+     * The Docker image records them.
+     * </p>
+     *
+     * <p>
+     * When the application runs on the AOT bean definitions of the Docker image,
+     * {@link AotStartupGuard} stops it if profiles or settings the definitions
+     * were not generated for are requested.
+     * </p>
+     *
      * @param args command-line arguments passed to the application (if any)
      */
     public static void main(String[] args) {
-        SpringApplication.run(Application.class, args);
+        SpringApplication application = new SpringApplication(Application.class);
+        application.addListeners(new AotStartupGuard());
+        int startupSteps = Integer.getInteger(STARTUP_STEPS_PROPERTY, 0);
+        if (startupSteps > 0) {
+            application.setApplicationStartup(new BufferingApplicationStartup(startupSteps));
+        }
+        application.run(args);
     }
 
 }
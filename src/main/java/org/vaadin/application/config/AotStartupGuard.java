@@ -0,0 +1,68 @@
+package org.vaadin.application.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.springframework.aot.AotDetector;
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.env.Environment;
+import org.springframework.util.StringUtils;
+
+/**
+ * Stops the application at startup when it runs on the Spring AOT bean
+ * definitions of the production image but is configured for something they
+ * cannot provide.
+ *
+ * <p>
+ * With {@code spring.aot.enabled=true}, {@code @Profile} beans and
+ * auto-configuration conditions are decided when the image is built, for the
+ * {@code prod} profile only. Any other profile, such as {@code jfr} or
+ * {@code datagen}, an OTLP tracing endpoint and virtual threads would be
+ * silently ignored, so startup fails with a message naming them instead.
+ * </p>
+ */
+public class AotStartupGuard implements ApplicationListener<ApplicationEnvironmentPreparedEvent> {
+
+    /** The profiles the AOT bean definitions are generated for by the {@code production} Maven profile. */
+    static final Set<String> AOT_PROFILES = Set.of("prod");
+
+    static final String OTLP_ENDPOINT_PROPERTY = "management.otlp.tracing.endpoint";
+
+    static final String VIRTUAL_THREADS_PROPERTY = "spring.threads.virtual.enabled";
+
+    @Override
+    public void onApplicationEvent(ApplicationEnvironmentPreparedEvent event) {
+        if (AotDetector.useGeneratedArtifacts()) {
+            check(event.getEnvironment());
+        }
+    }
+
+    /**
+     * Checks that an environment only uses what the AOT bean definitions were
+     * generated for.
+     *
+     * @param environment the environment of the starting application
+     * @throws IllegalStateException naming the settings that need a run without
+     *                               AOT
+     */
+    static void check(Environment environment) {
+        List<String> unsupported = new ArrayList<>();
+        for (String profile : environment.getActiveProfiles()) {
+            if (!AOT_PROFILES.contains(profile)) {
+                unsupported.add("profile " + profile);
+            }
+        }
+        if (StringUtils.hasText(environment.getProperty(OTLP_ENDPOINT_PROPERTY))) {
+            unsupported.add(OTLP_ENDPOINT_PROPERTY);
+        }
+        if (environment.getProperty(VIRTUAL_THREADS_PROPERTY, Boolean.class, false)) {
+            unsupported.add(VIRTUAL_THREADS_PROPERTY);
+        }
+        if (!unsupported.isEmpty()) {
+            throw new IllegalStateException("The Spring AOT bean definitions were generated for the profiles "
+                    + AOT_PROFILES + " and ignore " + String.join(", ", unsupported)
+                    + "; run without -Dspring.aot.enabled=true to use them");
+        }
+    }
+}
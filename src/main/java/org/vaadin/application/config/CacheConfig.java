@@ -0,0 +1,78 @@
+package org.vaadin.application.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.util.Collections;
+import java.util.List;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Configures the application-level caches used for reference data that is read
+ * on nearly every request and rarely changes.
+ *
+ * <p>
+ * Each cache is a Caffeine cache keyed by user ID (or by the user's own ID for
+ * {@link #USERS}). Its size and expiry are set by a Caffeine spec read from
+ * {@code fintrack.cache.specs.<cache-name>}, falling back to
+ * {@code fintrack.cache.default-spec}. Statistics are always recorded so that
+ * the actuator can export hit, miss and eviction counts as metrics.
+ * </p>
+ *
+ * <p>
+ * Entries are evicted per user by {@code @CacheEvict} on the service write
+ * methods. Inside a transaction the eviction is deferred until it commits, so a
+ * concurrent read cannot cache data from before the write. Only the caches
+ * listed here exist; a typo in a cache name fails at the first call instead of
+ * silently creating a new cache.
+ * </p>
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /** Users by ID, read by {@code UserService.findUserById}. */
+    public static final String USERS = "users";
+
+    /** Budgets by user ID, read by {@code BudgetService.getBudgetsByUserId}. */
+    public static final String BUDGETS_BY_USER = "budgetsByUser";
+
+    /** Expense categories by user ID, read by {@code ExpenseCategoryService}. */
+    public static final String EXPENSE_CATEGORIES_BY_USER = "expenseCategoriesByUser";
+
+    /** Latest business profile by user ID, read by {@code BusinessProfileService}. */
+    public static final String BUSINESS_PROFILE_BY_USER = "businessProfileByUser";
+
+    /** Employees by user ID, read by {@code EmployeeService.getEmployeesByUserId}. */
+    public static final String EMPLOYEES_BY_USER = "employeesByUser";
+
+    /** Every cache managed by the application. */
+    public static final List<String> CACHE_NAMES = List.of(USERS, BUDGETS_BY_USER, EXPENSE_CATEGORIES_BY_USER,
+            BUSINESS_PROFILE_BY_USER, EMPLOYEES_BY_USER);
+
+    /** Spec used for caches without their own configuration. */
+    static final String DEFAULT_SPEC = "maximumSize=10000,expireAfterWrite=10m";
+
+    /**
+     * Creates the cache manager with one Caffeine cache per entry of
+     * {@link #CACHE_NAMES}.
+     *
+     * @param environment the environment holding the cache specs
+     * @return the configured cache manager
+     */
+    @Bean
+    public CacheManager cacheManager(Environment environment) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCacheNames(Collections.emptyList());
+        String defaultSpec = environment.getProperty("fintrack.cache.default-spec", DEFAULT_SPEC);
+        for (String cacheName : CACHE_NAMES) {
+            String spec = environment.getProperty("fintrack.cache.specs." + cacheName, defaultSpec);
+            cacheManager.registerCustomCache(cacheName, Caffeine.from(spec).recordStats().build());
+        }
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
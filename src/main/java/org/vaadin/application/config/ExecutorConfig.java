@@ -0,0 +1,64 @@
+package org.vaadin.application.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Configures the executor used for background work started by the UI, such as
+ * generating summary reports and delivering change notifications to open
+ * views.
+ *
+ * <p>
+ * Running this work off the request thread means the {@code VaadinSession}
+ * lock is not held while it waits on the database or the file system. When
+ * {@code spring.threads.virtual.enabled} is set (see the {@code jdk21} Maven
+ * profile and the {@code virtual-threads} Spring profile) every task runs on
+ * its own virtual thread. Otherwise a small bounded pool of platform threads is
+ * used.
+ * </p>
+ *
+ * <p>
+ * Tasks run with the observation of the code that submitted them, so that a
+ * summary report shows in the trace of the click that started it.
+ * </p>
+ */
+@Configuration
+public class ExecutorConfig {
+
+    /** Name of the executor bean for background work. */
+    public static final String BACKGROUND_EXECUTOR = "backgroundExecutor";
+
+    /**
+     * Creates the background executor.
+     *
+     * @param virtualThreads whether tasks should run on virtual threads
+     * @param poolSize       number of platform threads when virtual threads are
+     *                       disabled
+     * @param queueCapacity  number of tasks that may wait for a platform thread
+     * @return the background executor
+     */
+    @Bean(name = BACKGROUND_EXECUTOR)
+    public AsyncTaskExecutor backgroundExecutor(
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            @Value("${fintrack.background-executor.pool-size:4}") int poolSize,
+            @Value("${fintrack.background-executor.queue-capacity:500}") int queueCapacity) {
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("background-");
+            executor.setVirtualThreads(true);
+            executor.setTaskDecorator(new ContextPropagatingTaskDecorator());
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("background-");
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setTaskDecorator(new ContextPropagatingTaskDecorator());
+        return executor;
+    }
+}
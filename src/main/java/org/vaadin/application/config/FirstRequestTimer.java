@@ -0,0 +1,92 @@
+package org.vaadin.application.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Measures the time to first request: the time from the start of the JVM until
+ * the first HTTP request has been served.
+ *
+ * <p>
+ * Spring Boot's {@code application.ready.time} stops when the context is
+ * ready, before the beans left to lazy initialization, the Vaadin servlet and
+ * the JIT have done their share, so it understates how long a new container
+ * takes to answer. The first request served, whatever it is, is logged and
+ * published as the {@code application.first.request.time} gauge, which stays
+ * NaN until then.
+ * </p>
+ */
+@Component
+public class FirstRequestTimer implements Filter {
+
+    /** Name of the gauge of the time to first request. */
+    static final String METRIC_NAME = "application.first.request.time";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FirstRequestTimer.class);
+
+    private final long jvmStartMillis;
+
+    /** Milliseconds from JVM start to the end of the first request, -1 until then. */
+    private final AtomicLong firstRequestMillis = new AtomicLong(-1);
+
+    /**
+     * Creates the timer.
+     *
+     * @param registry the registry to publish the gauge in
+     */
+    public FirstRequestTimer(MeterRegistry registry) {
+        this(registry, ManagementFactory.getRuntimeMXBean().getStartTime());
+    }
+
+    FirstRequestTimer(MeterRegistry registry, long jvmStartMillis) {
+        this.jvmStartMillis = jvmStartMillis;
+        TimeGauge.builder(METRIC_NAME, firstRequestMillis, TimeUnit.MILLISECONDS,
+                        millis -> millis.get() < 0 ? Double.NaN : millis.get())
+                .description("Time from JVM start until the first HTTP request was served")
+                .register(registry);
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        if (firstRequestMillis.get() >= 0) {
+            chain.doFilter(request, response);
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            long millis = System.currentTimeMillis() - jvmStartMillis;
+            if (firstRequestMillis.compareAndSet(-1, millis)) {
+                LOGGER.info("First request ({}) served {} ms after JVM start", describe(request), millis);
+            }
+        }
+    }
+
+    /**
+     * Returns the time to first request.
+     *
+     * @return the milliseconds from JVM start until the first request was
+     *         served, -1 if none has been
+     */
+    long getFirstRequestMillis() {
+        return firstRequestMillis.get();
+    }
+
+    private static String describe(ServletRequest request) {
+        return request instanceof HttpServletRequest http ? http.getMethod() + " " + http.getRequestURI() : "?";
+    }
+}
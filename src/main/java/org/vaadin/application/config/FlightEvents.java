@@ -0,0 +1,200 @@
+package org.vaadin.application.config;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder events for the business operations of FinTrack.
+ *
+ * <p>
+ * Each event is timed from {@code begin()} to {@code commit()} and carries the
+ * user it was done for, 0 if not known, and the number of rows it read or
+ * wrote, so that a recording shows which users and data volumes the slow
+ * operations belong to, next to the garbage collection, lock and I/O events of
+ * the JVM. The events are recorded by the {@code jfr} profile, see
+ * {@link FlightRecording}, or by any recording started with
+ * {@code jcmd <pid> JFR.start}. When no recording is running, {@code commit()}
+ * returns at once, and {@code shouldCommit()} can be used to skip filling in
+ * the fields. Events are committed in a {@code finally} block, so that
+ * operations that throw are recorded too, marked as failed.
+ * </p>
+ */
+public final class FlightEvents {
+
+    private static final String CATEGORY = "FinTrack";
+
+    private FlightEvents() {
+    }
+
+    /**
+     * An expense or income is added, updated or deleted, one at a time or as a
+     * batch.
+     */
+    @Name("fintrack.Write")
+    @Label("Write")
+    @Category({ CATEGORY, "Service" })
+    @Description("An expense or income write")
+    @StackTrace(false)
+    public static final class Write extends Event {
+
+        @Label("Entity")
+        @Description("expense or income")
+        public String entity;
+
+        @Label("Operation")
+        @Description("add, update, delete or batch")
+        public String operation;
+
+        @Label("User ID")
+        public long userId;
+
+        @Label("Rows")
+        public int rows;
+
+        @Label("Failed")
+        @Description("The write threw an exception")
+        public boolean failed = true;
+
+        /**
+         * Creates the event of a write.
+         *
+         * @param entity    {@code expense} or {@code income}
+         * @param operation {@code add}, {@code update}, {@code delete} or
+         *                  {@code batch}
+         */
+        public Write(String entity, String operation) {
+            this.entity = entity;
+            this.operation = operation;
+        }
+
+        /**
+         * Records the user and rows of a write that succeeded.
+         *
+         * @param writtenUserId the owner of the written rows, or null if not
+         *                      known
+         * @param writtenRows   the number of rows written
+         */
+        public void written(Long writtenUserId, int writtenRows) {
+            userId = writtenUserId == null ? 0 : writtenUserId;
+            rows = writtenRows;
+            failed = false;
+        }
+
+        /**
+         * Ends the event and commits it, if a recording wants it. Called in a
+         * {@code finally} block; a write that did not reach
+         * {@link #written(Long, int)} is recorded as failed.
+         */
+        public void finish() {
+            end();
+            if (shouldCommit()) {
+                commit();
+            }
+        }
+    }
+
+    /**
+     * The expense forecast of one budget is computed from the past months.
+     */
+    @Name("fintrack.Forecast")
+    @Label("Forecast")
+    @Category({ CATEGORY, "View" })
+    @Description("An expense forecast, including the query of the past months")
+    @StackTrace(false)
+    public static final class Forecast extends Event {
+
+        @Label("User ID")
+        public long userId;
+
+        @Label("Budget")
+        public String budget;
+
+        @Label("Rows")
+        @Description("Past months the forecast is based on")
+        public int rows;
+
+        @Label("Months")
+        @Description("Months forecast")
+        public int months;
+
+        @Label("Failed")
+        public boolean failed;
+    }
+
+    /**
+     * A PDF financial summary is built and written.
+     */
+    @Name("fintrack.PdfReport")
+    @Label("PDF Report")
+    @Category({ CATEGORY, "View" })
+    @Description("A PDF financial summary, including the queries of its data")
+    @StackTrace(false)
+    public static final class PdfReport extends Event {
+
+        @Label("User ID")
+        public long userId;
+
+        @Label("Rows")
+        @Description("Transactions listed in the report")
+        public int rows;
+
+        @Label("Size")
+        @DataAmount
+        public long bytes;
+
+        @Label("Failed")
+        public boolean failed;
+    }
+
+    /**
+     * A user logs in, which checks the password with BCrypt.
+     */
+    @Name("fintrack.Login")
+    @Label("Login")
+    @Category({ CATEGORY, "Service" })
+    @Description("A login, including the BCrypt check of the password")
+    @StackTrace(false)
+    public static final class Login extends Event {
+
+        @Label("User ID")
+        public long userId;
+
+        @Label("Rows")
+        @Description("Users found by the name, 0 or 1")
+        public int rows;
+
+        @Label("Succeeded")
+        public boolean succeeded;
+    }
+
+    /**
+     * A call of a Spring Data repository method.
+     */
+    @Name("fintrack.RepositoryQuery")
+    @Label("Repository Query")
+    @Category({ CATEGORY, "Repository" })
+    @Description("A call of a repository method")
+    public static final class RepositoryQuery extends Event {
+
+        @Label("Repository")
+        public String repository;
+
+        @Label("Method")
+        public String method;
+
+        @Label("User ID")
+        public long userId;
+
+        @Label("Rows")
+        @Description("Rows returned; a single value counts as one")
+        public int rows;
+
+        @Label("Failed")
+        public boolean failed;
+    }
+}
@@ -0,0 +1,150 @@
+package org.vaadin.application.config;
+
+import jakarta.annotation.PreDestroy;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.List;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps a JDK Flight Recorder recording running while the application is up,
+ * with the {@code jfr} profile, and serves it at {@code /actuator/jfr}.
+ *
+ * <p>
+ * The recording uses the low-overhead {@code default} settings of the JDK plus
+ * the {@link FlightEvents} of FinTrack, and is bounded by
+ * {@code fintrack.jfr.max-size-bytes} and {@code fintrack.jfr.max-age-minutes}:
+ * older data is dropped as new data comes in, so it can run indefinitely.
+ * Repository queries shorter than {@code fintrack.jfr.query-threshold-millis}
+ * are not recorded. A GET of the endpoint dumps what is recorded so far to a
+ * temporary file and downloads it, for JDK Mission Control or
+ * {@code jfr print}; the recording keeps running.
+ * </p>
+ *
+ * <p>
+ * The {@code default} settings also record the environment variables and
+ * system properties of the JVM, which hold the database password, so those
+ * events are disabled. Only this recording is dumped, not the data of other
+ * recordings in the JVM. The {@code jfr} profile serves the actuator endpoints
+ * on a separate management port bound to localhost.
+ * </p>
+ */
+@Component
+@Profile("jfr")
+@WebEndpoint(id = "jfr")
+public class FlightRecording {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FlightRecording.class);
+
+    /** Events of the {@code default} settings that can contain credentials. */
+    static final List<String> SECRET_EVENTS = List.of("jdk.InitialEnvironmentVariable", "jdk.InitialSystemProperty");
+
+    private final Recording recording;
+
+    /**
+     * Starts the recording.
+     *
+     * @param maxSizeBytes         the size on disk above which the oldest data
+     *                             is dropped
+     * @param maxAgeMinutes        the age after which data is dropped
+     * @param queryThresholdMillis the duration below which repository queries
+     *                             are not recorded
+     * @throws IOException    if the {@code default} settings cannot be read
+     * @throws ParseException if the {@code default} settings cannot be parsed
+     */
+    public FlightRecording(@Value("${fintrack.jfr.max-size-bytes:104857600}") long maxSizeBytes,
+            @Value("${fintrack.jfr.max-age-minutes:60}") long maxAgeMinutes,
+            @Value("${fintrack.jfr.query-threshold-millis:0}") long queryThresholdMillis)
+            throws IOException, ParseException {
+        recording = new Recording(Configuration.getConfiguration("default"));
+        recording.setName("fintrack");
+        recording.setToDisk(true);
+        recording.setMaxSize(maxSizeBytes);
+        recording.setMaxAge(Duration.ofMinutes(maxAgeMinutes));
+        for (String event : SECRET_EVENTS) {
+            recording.disable(event);
+        }
+        recording.enable(FlightEvents.Write.class);
+        recording.enable(FlightEvents.Forecast.class);
+        recording.enable(FlightEvents.PdfReport.class);
+        recording.enable(FlightEvents.Login.class);
+        recording.enable(FlightEvents.RepositoryQuery.class)
+                .withThreshold(Duration.ofMillis(queryThresholdMillis));
+        recording.start();
+        LOGGER.info("Flight recording started, keeping up to {} MB and {} minutes", maxSizeBytes / (1024 * 1024),
+                maxAgeMinutes);
+    }
+
+    /**
+     * Dumps the data recorded so far.
+     *
+     * @return the recording as a {@code .jfr} file, deleted once it has been
+     *         sent
+     * @throws IOException if the recording cannot be written
+     */
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> dump() throws IOException {
+        Path file = Files.createTempFile("fintrack-", ".jfr");
+        try {
+            recording.dump(file);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return new WebEndpointResponse<>(new TemporaryFileResource(file), WebEndpointResponse.STATUS_OK);
+    }
+
+    /**
+     * Stops the recording when the application shuts down.
+     */
+    @PreDestroy
+    public void shutdown() {
+        recording.close();
+    }
+
+    /**
+     * A file that is deleted when the stream that reads it is closed.
+     */
+    private static final class TemporaryFileResource extends FileSystemResource {
+
+        private TemporaryFileResource(Path file) {
+            super(file);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return new FilterInputStream(super.getInputStream()) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        Files.deleteIfExists(getFile().toPath());
+                    }
+                }
+            };
+        }
+
+        @Override
+        public boolean isFile() {
+            // Served as a stream, so that it is read once and then deleted
+            return false;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package org.vaadin.application.config;
+
+import com.vaadin.flow.server.VaadinServiceInitListener;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.vaadin.application.service.LedgerCache;
+import org.vaadin.application.service.RangeSumIndex;
+
+/**
+ * Registers the application gauges exported through the actuator's
+ * {@code metrics} and {@code prometheus} endpoints.
+ *
+ * <p>
+ * Spring Boot already binds the JVM (memory, GC, threads, class loading), the
+ * Hikari connection pool, the Hibernate statistics and the repository
+ * invocation timers. This configuration adds what only the application knows:
+ * the number of open Vaadin sessions and the estimated size of the per-user
+ * in-memory ledgers and range-sum trees, so that heap growth can be attributed
+ * to them. It also installs the {@link SqlStatementCounter} used by
+ * {@link NavigationMetrics}.
+ * </p>
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Counts the open Vaadin sessions as {@code vaadin.sessions.active}.
+     *
+     * @param registry the registry to register the gauge in
+     * @return the listener that follows session creation and destruction
+     */
+    @Bean
+    public VaadinServiceInitListener vaadinSessionMetrics(MeterRegistry registry) {
+        AtomicInteger sessions = new AtomicInteger();
+        Gauge.builder("vaadin.sessions.active", sessions, AtomicInteger::get)
+                .description("Open Vaadin sessions")
+                .register(registry);
+        return event -> {
+            event.getSource().addSessionInitListener(sessionEvent -> sessions.incrementAndGet());
+            event.getSource().addSessionDestroyListener(sessionEvent -> sessions.decrementAndGet());
+        };
+    }
+
+    /**
+     * Exports the estimated size of the in-memory caches built from the
+     * database as {@code fintrack.memory.cached} with a {@code cache} tag.
+     *
+     * @param ledgerCache   the per-user ledger cache
+     * @param rangeSumIndex the per-user range-sum trees
+     * @return the binder registering the gauges
+     */
+    @Bean
+    public MeterBinder cachedBytesMetrics(LedgerCache ledgerCache, RangeSumIndex rangeSumIndex) {
+        return registry -> {
+            Gauge.builder("fintrack.memory.cached", ledgerCache, LedgerCache::getCachedBytes)
+                    .description("Estimated size of in-memory data built from the database")
+                    .tag("cache", "ledgers")
+                    .baseUnit("bytes")
+                    .register(registry);
+            Gauge.builder("fintrack.memory.cached", rangeSumIndex, RangeSumIndex::getCachedBytes)
+                    .description("Estimated size of in-memory data built from the database")
+                    .tag("cache", "rangeSums")
+                    .baseUnit("bytes")
+                    .register(registry);
+        };
+    }
+
+    /**
+     * Installs the {@link SqlStatementCounter} as Hibernate's statement
+     * inspector.
+     *
+     * @return the customizer adding the inspector to the Hibernate properties
+     */
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCounter() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementCounter());
+    }
+}
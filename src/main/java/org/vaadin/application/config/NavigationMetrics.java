@@ -0,0 +1,298 @@
+package org.vaadin.application.config;
+
+import com.vaadin.flow.component.ComponentUtil;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.router.AfterNavigationEvent;
+import com.vaadin.flow.router.BeforeEnterEvent;
+import com.vaadin.flow.server.ServiceInitEvent;
+import com.vaadin.flow.server.VaadinServiceInitListener;
+import com.vaadin.flow.server.VaadinServletRequest;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Measures every navigation between Vaadin routes.
+ *
+ * <p>
+ * A navigation starts at the UI's first before-enter event, so a reroute by
+ * {@code MainLayout} counts towards the route finally shown, and its
+ * construction ends after the route chain is attached. Per route (the simple
+ * name of the view class) the following are recorded:
+ * </p>
+ * <ul>
+ * <li>{@code vaadin.navigation.construction}: server-side time from before-enter
+ * to after-navigation, with a percentile histogram;</li>
+ * <li>{@code vaadin.navigation.sql.statements}: statements Hibernate prepared
+ * for the request on the request thread, including lazy data provider queries
+ * that run while the response is written;</li>
+ * <li>{@code vaadin.navigation.components}: components attached to the UI after
+ * the navigation;</li>
+ * <li>{@code vaadin.navigation.response.size}: bytes of the Vaadin response
+ * carrying the navigation, before any compression.</li>
+ * </ul>
+ *
+ * <p>
+ * The response size and final statement count are only known once the request
+ * completes, so this bean is also a servlet filter that counts the bytes of
+ * Vaadin requests ({@code v-r=} in the query string) and records the navigation
+ * left in the request. Navigations outside a request, such as from
+ * {@code UI.access}, are recorded without a response size. Navigations slower
+ * than {@code fintrack.navigation.slow-threshold-millis} are also logged.
+ * </p>
+ */
+@Component
+public class NavigationMetrics implements VaadinServiceInitListener, Filter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NavigationMetrics.class);
+
+    /** Request attribute holding the navigation handled by the request. */
+    static final String REQUEST_ATTRIBUTE = NavigationMetrics.class.getName() + ".navigation";
+
+    /**
+     * One navigation, from its first before-enter event to the end of its
+     * request.
+     */
+    static final class Navigation {
+        private final long startNanos;
+        private final long startStatements;
+        private String route;
+        private long constructionNanos;
+        private long statements;
+        private int components;
+
+        Navigation(long startNanos, long startStatements) {
+            this.startNanos = startNanos;
+            this.startStatements = startStatements;
+        }
+
+        void complete(String route, long endNanos, long endStatements, int components) {
+            this.route = route;
+            this.constructionNanos = endNanos - startNanos;
+            this.statements = endStatements - startStatements;
+            this.components = components;
+        }
+
+        boolean isComplete() {
+            return route != null;
+        }
+
+        String getRoute() {
+            return route;
+        }
+    }
+
+    private final MeterRegistry registry;
+
+    private final long slowThresholdNanos;
+
+    /**
+     * Creates the navigation metrics.
+     *
+     * @param registry            the registry to record the metrics in
+     * @param slowThresholdMillis the construction time from which a navigation
+     *                            is logged
+     */
+    public NavigationMetrics(MeterRegistry registry,
+            @Value("${fintrack.navigation.slow-threshold-millis:500}") long slowThresholdMillis) {
+        this.registry = registry;
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMillis);
+    }
+
+    @Override
+    public void serviceInit(ServiceInitEvent event) {
+        event.getSource().addUIInitListener(uiEvent -> {
+            UI ui = uiEvent.getUI();
+            ui.addBeforeEnterListener(this::beforeEnter);
+            ui.addAfterNavigationListener(navigationEvent -> afterNavigation(ui, navigationEvent));
+        });
+    }
+
+    private void beforeEnter(BeforeEnterEvent event) {
+        HttpServletRequest request = currentRequest();
+        Navigation navigation = request == null ? null : (Navigation) request.getAttribute(REQUEST_ATTRIBUTE);
+        if (navigation != null && !navigation.isComplete()) {
+            return;
+        }
+        if (navigation != null) {
+            record(navigation, -1);
+        }
+        navigation = new Navigation(System.nanoTime(), SqlStatementCounter.current());
+        if (request != null) {
+            request.setAttribute(REQUEST_ATTRIBUTE, navigation);
+        } else {
+            ComponentUtil.setData(event.getUI(), Navigation.class, navigation);
+        }
+    }
+
+    private void afterNavigation(UI ui, AfterNavigationEvent event) {
+        HttpServletRequest request = currentRequest();
+        Navigation navigation;
+        if (request != null) {
+            navigation = (Navigation) request.getAttribute(REQUEST_ATTRIBUTE);
+        } else {
+            navigation = ComponentUtil.getData(ui, Navigation.class);
+            ComponentUtil.setData(ui, Navigation.class, null);
+        }
+        if (navigation == null || navigation.isComplete() || event.getActiveChain().isEmpty()) {
+            return;
+        }
+        navigation.complete(event.getActiveChain().get(0).getClass().getSimpleName(), System.nanoTime(),
+                SqlStatementCounter.current(), countComponents(ui));
+        if (request == null) {
+            record(navigation, -1);
+        }
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        if (!(request instanceof HttpServletRequest httpRequest)
+                || !(response instanceof HttpServletResponse httpResponse)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        String query = httpRequest.getQueryString();
+        CountingResponse countingResponse = query != null && query.contains("v-r=")
+                ? new CountingResponse(httpResponse)
+                : null;
+        try {
+            chain.doFilter(request, countingResponse != null ? countingResponse : response);
+        } finally {
+            Object navigation = request.getAttribute(REQUEST_ATTRIBUTE);
+            if (navigation != null) {
+                request.removeAttribute(REQUEST_ATTRIBUTE);
+                finish((Navigation) navigation, countingResponse != null ? countingResponse.bytes : -1);
+            }
+        }
+    }
+
+    private void finish(Navigation navigation, long responseBytes) {
+        if (navigation.isComplete()) {
+            navigation.statements = SqlStatementCounter.current() - navigation.startStatements;
+            record(navigation, responseBytes);
+        }
+    }
+
+    /**
+     * Records a completed navigation.
+     *
+     * @param navigation    the navigation
+     * @param responseBytes the size of its response, negative if unknown
+     */
+    void record(Navigation navigation, long responseBytes) {
+        Timer.builder("vaadin.navigation.construction")
+                .description("Server-side construction time of a route")
+                .tag("route", navigation.route)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(navigation.constructionNanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("vaadin.navigation.sql.statements")
+                .description("SQL statements prepared while navigating to a route")
+                .tag("route", navigation.route)
+                .register(registry)
+                .record(navigation.statements);
+        DistributionSummary.builder("vaadin.navigation.components")
+                .description("Components attached after navigating to a route")
+                .tag("route", navigation.route)
+                .register(registry)
+                .record(navigation.components);
+        if (responseBytes >= 0) {
+            DistributionSummary.builder("vaadin.navigation.response.size")
+                    .description("Size of the response carrying a navigation")
+                    .tag("route", navigation.route)
+                    .baseUnit("bytes")
+                    .register(registry)
+                    .record(responseBytes);
+        }
+        if (navigation.constructionNanos >= slowThresholdNanos) {
+            LOGGER.warn("Slow navigation to {}: {} ms, {} SQL statements, {} components, {} response bytes",
+                    navigation.route, TimeUnit.NANOSECONDS.toMillis(navigation.constructionNanos),
+                    navigation.statements, navigation.components, responseBytes >= 0 ? responseBytes : "unknown");
+        }
+    }
+
+    /**
+     * Counts a component and all its descendants.
+     *
+     * @param component the root component
+     * @return the number of components in the tree
+     */
+    static int countComponents(com.vaadin.flow.component.Component component) {
+        return 1 + component.getChildren().mapToInt(NavigationMetrics::countComponents).sum();
+    }
+
+    private static HttpServletRequest currentRequest() {
+        VaadinServletRequest request = VaadinServletRequest.getCurrent();
+        return request == null ? null : request.getHttpServletRequest();
+    }
+
+    /**
+     * Response counting the bytes written to its output stream.
+     */
+    private static final class CountingResponse extends HttpServletResponseWrapper {
+        private long bytes;
+        private ServletOutputStream outputStream;
+
+        private CountingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                ServletOutputStream delegate = super.getOutputStream();
+                outputStream = new ServletOutputStream() {
+                    @Override
+                    public boolean isReady() {
+                        return delegate.isReady();
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener writeListener) {
+                        delegate.setWriteListener(writeListener);
+                    }
+
+                    @Override
+                    public void write(int b) throws IOException {
+                        delegate.write(b);
+                        bytes++;
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        delegate.write(b, off, len);
+                        bytes += len;
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        delegate.flush();
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        delegate.close();
+                    }
+                };
+            }
+            return outputStream;
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package org.vaadin.application.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.common.InstrumentationScopeInfo;
+import io.opentelemetry.sdk.resources.Resource;
+import io.opentelemetry.sdk.trace.data.EventData;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Appends the finished spans to a local file in the OTLP JSON format, one
+ * export request per line, so that traces can be kept without running a
+ * collector.
+ *
+ * <p>
+ * The file is the format of the OpenTelemetry Collector's file exporter: it can
+ * be read back by the collector's {@code otlpjsonfile} receiver and forwarded
+ * to any tracing backend, or searched with {@code jq}. When it exceeds
+ * {@code fintrack.tracing.file-max-bytes}, it is renamed with a {@code .1}
+ * suffix, replacing the previous one, and a new file is started. An empty
+ * {@code fintrack.tracing.file} disables the exporter. The file is closed when
+ * the tracer provider shuts down with the application.
+ * </p>
+ */
+@Component
+public class OtlpJsonFileSpanExporter implements SpanExporter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OtlpJsonFileSpanExporter.class);
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Path file;
+
+    private final long maxBytes;
+
+    private OutputStream output;
+
+    private long bytes;
+
+    private boolean failed;
+
+    /**
+     * Creates the exporter. The file is opened with the first export.
+     *
+     * @param file     the file to append to, empty to disable the exporter
+     * @param maxBytes the size from which the file is rotated
+     */
+    public OtlpJsonFileSpanExporter(@Value("${fintrack.tracing.file:}") String file,
+            @Value("${fintrack.tracing.file-max-bytes:104857600}") long maxBytes) {
+        this.file = file.isBlank() ? null : Path.of(file);
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    public synchronized CompletableResultCode export(Collection<SpanData> spans) {
+        if (file == null || spans.isEmpty()) {
+            return CompletableResultCode.ofSuccess();
+        }
+        try {
+            byte[] line = (MAPPER.writeValueAsString(toOtlp(spans)) + "\n").getBytes(StandardCharsets.UTF_8);
+            if (output != null && bytes > 0 && bytes + line.length > maxBytes) {
+                rotate();
+            }
+            if (output == null) {
+                open();
+            }
+            output.write(line);
+            output.flush();
+            bytes += line.length;
+            failed = false;
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException e) {
+            if (!failed) {
+                LOGGER.warn("Could not write spans to {}", file, e);
+                failed = true;
+            }
+            close();
+            return CompletableResultCode.ofFailure();
+        }
+    }
+
+    private void open() throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        output = new BufferedOutputStream(Files.newOutputStream(file, StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND));
+        bytes = Files.size(file);
+    }
+
+    private void rotate() throws IOException {
+        close();
+        Files.move(file, file.resolveSibling(file.getFileName() + ".1"), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private void close() {
+        if (output != null) {
+            try {
+                output.close();
+            } catch (IOException e) {
+                LOGGER.debug("Could not close {}", file, e);
+            }
+            output = null;
+        }
+    }
+
+    @Override
+    public synchronized CompletableResultCode flush() {
+        try {
+            if (output != null) {
+                output.flush();
+            }
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException e) {
+            return CompletableResultCode.ofFailure();
+        }
+    }
+
+    @Override
+    public synchronized CompletableResultCode shutdown() {
+        close();
+        return CompletableResultCode.ofSuccess();
+    }
+
+    /**
+     * Converts spans to an OTLP JSON export request, grouped by resource and
+     * instrumentation scope.
+     *
+     * @param spans the spans to convert
+     * @return the {@code ExportTraceServiceRequest} as JSON
+     */
+    static ObjectNode toOtlp(Collection<SpanData> spans) {
+        Map<Resource, Map<InstrumentationScopeInfo, List<SpanData>>> grouped = new LinkedHashMap<>();
+        for (SpanData span : spans) {
+            grouped.computeIfAbsent(span.getResource(), key -> new LinkedHashMap<>())
+                    .computeIfAbsent(span.getInstrumentationScopeInfo(), key -> new ArrayList<>())
+                    .add(span);
+        }
+
+        ObjectNode request = MAPPER.createObjectNode();
+        ArrayNode resourceSpans = request.putArray("resourceSpans");
+        grouped.forEach((resource, byScope) -> {
+            ObjectNode resourceNode = resourceSpans.addObject();
+            putAttributes(resourceNode.putObject("resource"), resource.getAttributes());
+            ArrayNode scopeSpans = resourceNode.putArray("scopeSpans");
+            byScope.forEach((scope, scopeSpanList) -> {
+                ObjectNode scopeNode = scopeSpans.addObject();
+                ObjectNode scopeInfo = scopeNode.putObject("scope").put("name", scope.getName());
+                if (scope.getVersion() != null) {
+                    scopeInfo.put("version", scope.getVersion());
+                }
+                ArrayNode spanNodes = scopeNode.putArray("spans");
+                for (SpanData span : scopeSpanList) {
+                    putSpan(spanNodes.addObject(), span);
+                }
+            });
+        });
+        return request;
+    }
+
+    private static void putSpan(ObjectNode node, SpanData span) {
+        node.put("traceId", span.getTraceId());
+        node.put("spanId", span.getSpanId());
+        if (span.getParentSpanContext().isValid()) {
+            node.put("parentSpanId", span.getParentSpanId());
+        }
+        node.put("name", span.getName());
+        // OTLP numbers the kinds from 1, with 0 for unspecified
+        node.put("kind", span.getKind().ordinal() + 1);
+        // 64-bit integers are strings in OTLP JSON
+        node.put("startTimeUnixNano", String.valueOf(span.getStartEpochNanos()));
+        node.put("endTimeUnixNano", String.valueOf(span.getEndEpochNanos()));
+        putAttributes(node, span.getAttributes());
+        if (!span.getEvents().isEmpty()) {
+            ArrayNode events = node.putArray("events");
+            for (EventData event : span.getEvents()) {
+                ObjectNode eventNode = events.addObject()
+                        .put("timeUnixNano", String.valueOf(event.getEpochNanos()))
+                        .put("name", event.getName());
+                putAttributes(eventNode, event.getAttributes());
+            }
+        }
+        ObjectNode status = node.putObject("status").put("code", span.getStatus().getStatusCode().ordinal());
+        if (!span.getStatus().getDescription().isEmpty()) {
+            status.put("message", span.getStatus().getDescription());
+        }
+    }
+
+    private static void putAttributes(ObjectNode node, Attributes attributes) {
+        ArrayNode array = node.putArray("attributes");
+        attributes.forEach((key, value) -> {
+            ObjectNode attribute = array.addObject().put("key", key.getKey());
+            putValue(attribute.putObject("value"), value);
+        });
+    }
+
+    private static void putValue(ObjectNode node, Object value) {
+        if (value instanceof Boolean bool) {
+            node.put("boolValue", bool);
+        } else if (value instanceof Long number) {
+            node.put("intValue", String.valueOf(number));
+        } else if (value instanceof Double number) {
+            node.put("doubleValue", number);
+        } else if (value instanceof List<?> list) {
+            ArrayNode values = node.putObject("arrayValue").putArray("values");
+            for (Object element : list) {
+                putValue(values.addObject(), element);
+            }
+        } else {
+            node.put("stringValue", String.valueOf(value));
+        }
+    }
+}
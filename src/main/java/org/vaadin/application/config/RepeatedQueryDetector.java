@@ -0,0 +1,132 @@
+package org.vaadin.application.config;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Warns when the same query shape runs too often in one request, which usually
+ * means a lazy association or a repository call inside a loop (an N+1 select).
+ *
+ * <p>
+ * Meant for development: it is active when
+ * {@code fintrack.sql.repeated-query-threshold} is positive. For each HTTP
+ * request it counts the statements seen by the {@link SqlStatementCounter} on
+ * the request thread, keyed by their shape: the SQL with whitespace collapsed
+ * and parameter lists such as {@code in (?, ?, ?)} reduced to {@code (?)}. The
+ * first time a shape exceeds the threshold, a warning is logged with the stack
+ * trace of the statement, which points at the code issuing it. Each shape is
+ * reported at most once per request.
+ * </p>
+ */
+@Component
+public class RepeatedQueryDetector implements Filter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RepeatedQueryDetector.class);
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+
+    /**
+     * Query shapes counted on one thread.
+     */
+    private static final class Scope {
+        private final int threshold;
+        private final Map<String, int[]> counts = new HashMap<>();
+
+        private Scope(int threshold) {
+            this.threshold = threshold;
+        }
+    }
+
+    private static final ThreadLocal<Scope> SCOPE = new ThreadLocal<>();
+
+    private final int threshold;
+
+    /**
+     * Creates the detector.
+     *
+     * @param threshold the number of times a query shape may run in one
+     *                  request, 0 to disable detection
+     */
+    public RepeatedQueryDetector(@Value("${fintrack.sql.repeated-query-threshold:0}") int threshold) {
+        this.threshold = threshold;
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        if (threshold <= 0 || SCOPE.get() != null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        begin(threshold);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            end();
+        }
+    }
+
+    /**
+     * Starts counting query shapes on the current thread.
+     *
+     * @param threshold the number of times a shape may run before a warning
+     */
+    static void begin(int threshold) {
+        SCOPE.set(new Scope(threshold));
+    }
+
+    /**
+     * Stops counting query shapes on the current thread.
+     */
+    static void end() {
+        SCOPE.remove();
+    }
+
+    /**
+     * Counts a statement, warning the first time its shape exceeds the
+     * threshold. Does nothing outside a request.
+     *
+     * @param sql the statement
+     * @return true if a warning was logged
+     */
+    static boolean onStatement(String sql) {
+        Scope scope = SCOPE.get();
+        if (scope == null) {
+            return false;
+        }
+        String shape = shape(sql);
+        int count = ++scope.counts.computeIfAbsent(shape, key -> new int[1])[0];
+        if (count != scope.threshold + 1) {
+            return false;
+        }
+        LOGGER.warn("Query ran more than {} times in one request, possibly an N+1 select: {}", scope.threshold,
+                shape, new Throwable("Repeated query"));
+        return true;
+    }
+
+    /**
+     * Returns the shape of a statement, which is the same for every execution
+     * of one query.
+     *
+     * @param sql the statement
+     * @return the statement with whitespace collapsed and parameter lists
+     *         reduced to one parameter
+     */
+    static String shape(String sql) {
+        String collapsed = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        return PARAMETER_LIST.matcher(collapsed).replaceAll("(?)");
+    }
+}
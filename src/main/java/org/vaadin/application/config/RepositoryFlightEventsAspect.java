@@ -0,0 +1,131 @@
+package org.vaadin.application.config;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records a {@link FlightEvents.RepositoryQuery} event for every call of a
+ * Spring Data repository method.
+ *
+ * <p>
+ * The user of a call is taken from its {@code userId} parameter, by name or by
+ * {@link Param}, so finders such as {@code findByUserId} are attributed to
+ * their user; other calls, such as {@code findById} or {@code save}, record 0.
+ * Rows are counted from the result: the size of a collection, slice or array,
+ * 0 or 1 for an optional or a single value. The fields are only filled in when
+ * a recording wants the event.
+ * </p>
+ */
+@Aspect
+@Component
+public class RepositoryFlightEventsAspect {
+
+    private static final String USER_ID = "userId";
+
+    /** Index of the {@code userId} parameter of each method, -1 if it has none. */
+    private final Map<Method, Integer> userIdParameters = new ConcurrentHashMap<>();
+
+    /**
+     * Records a repository call.
+     *
+     * @param joinPoint the call
+     * @return the result of the call
+     * @throws Throwable whatever the call throws
+     */
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object record(ProceedingJoinPoint joinPoint) throws Throwable {
+        FlightEvents.RepositoryQuery event = new FlightEvents.RepositoryQuery();
+        event.begin();
+        Object result = null;
+        boolean failed = true;
+        try {
+            result = joinPoint.proceed();
+            failed = false;
+            return result;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+                event.repository = repositoryName(joinPoint, method);
+                event.method = method.getName();
+                event.userId = userId(method, joinPoint.getArgs());
+                event.rows = rows(result);
+                event.failed = failed;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Names the repository of a call by its application interface, so that
+     * inherited methods such as {@code findById} are not attributed to
+     * {@code CrudRepository}.
+     *
+     * @param joinPoint the call
+     * @param method    the called method
+     * @return the simple name of the repository interface
+     */
+    static String repositoryName(ProceedingJoinPoint joinPoint, Method method) {
+        // Repositories are JDK proxies implementing the application interface
+        for (Class<?> type : joinPoint.getThis().getClass().getInterfaces()) {
+            if (type.getName().startsWith("org.vaadin.application.")) {
+                return type.getSimpleName();
+            }
+        }
+        return method.getDeclaringClass().getSimpleName();
+    }
+
+    private long userId(Method method, Object[] args) {
+        int index = userIdParameters.computeIfAbsent(method, RepositoryFlightEventsAspect::userIdParameter);
+        return index >= 0 && args[index] instanceof Number number ? number.longValue() : 0;
+    }
+
+    private static int userIdParameter(Method method) {
+        Parameter[] parameters = method.getParameters();
+        for (int i = 0; i < parameters.length; i++) {
+            Param param = parameters[i].getAnnotation(Param.class);
+            if ((param != null && USER_ID.equals(param.value()))
+                    || (parameters[i].isNamePresent() && USER_ID.equals(parameters[i].getName()))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Counts the rows of a repository result.
+     *
+     * @param result the result, null for none
+     * @return the number of rows
+     */
+    static int rows(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result.getClass().isArray()) {
+            return Array.getLength(result);
+        }
+        return 1;
+    }
+}
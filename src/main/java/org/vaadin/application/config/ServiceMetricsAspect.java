@@ -0,0 +1,99 @@
+package org.vaadin.application.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+
+/**
+ * Times every public method call on the beans of the
+ * {@code org.vaadin.application.service} package.
+ *
+ * <p>
+ * Each call is recorded in the {@value #METRIC_NAME} timer, tagged with the
+ * service class, the method name and whether the call returned normally
+ * ({@code SUCCESS}) or threw ({@code ERROR}). Timers publish a percentile
+ * histogram so that latency quantiles can be aggregated across instances. The
+ * two timers of each method are looked up once and kept, so a call costs two
+ * clock reads and one map lookup. Calls a service makes on itself bypass the
+ * proxy and are not timed separately.
+ * </p>
+ *
+ * <p>
+ * Repository calls are timed by Spring Boot as
+ * {@code spring.data.repository.invocations}, tagged by repository, method and
+ * state.
+ * </p>
+ */
+@Aspect
+@Component
+public class ServiceMetricsAspect {
+
+    /** Name of the timer recording service calls. */
+    public static final String METRIC_NAME = "fintrack.service.invocations";
+
+    /**
+     * The timers of one method, by outcome.
+     */
+    private static final class MethodTimers {
+        private final Timer success;
+        private final Timer error;
+
+        private MethodTimers(Timer success, Timer error) {
+            this.success = success;
+            this.error = error;
+        }
+    }
+
+    private final MeterRegistry registry;
+
+    private final Map<Method, MethodTimers> timers = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the aspect.
+     *
+     * @param registry the registry to record the timers in
+     */
+    public ServiceMetricsAspect(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Times a service call.
+     *
+     * @param joinPoint the call
+     * @return the result of the call
+     * @throws Throwable whatever the call throws
+     */
+    @Around("within(org.vaadin.application.service..*) && execution(public * *(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        MethodTimers methodTimers = timers.computeIfAbsent(method,
+                key -> new MethodTimers(timer(joinPoint, "SUCCESS"), timer(joinPoint, "ERROR")));
+        Timer.Sample sample = Timer.start(registry);
+        try {
+            Object result = joinPoint.proceed();
+            sample.stop(methodTimers.success);
+            return result;
+        } catch (Throwable e) {
+            sample.stop(methodTimers.error);
+            throw e;
+        }
+    }
+
+    private Timer timer(ProceedingJoinPoint joinPoint, String outcome) {
+        return Timer.builder(METRIC_NAME)
+                .description("Calls of service methods")
+                .tag("class", joinPoint.getSignature().getDeclaringType().getSimpleName())
+                .tag("method", joinPoint.getSignature().getName())
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
@@ -0,0 +1,342 @@
+package org.vaadin.application.config;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.HasElement;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.function.DeploymentConfiguration;
+import com.vaadin.flow.router.Router;
+import com.vaadin.flow.server.VaadinContext;
+import com.vaadin.flow.server.VaadinService;
+import com.vaadin.flow.server.VaadinSession;
+import com.vaadin.flow.server.WrappedSession;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.http.HttpSession;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import org.apache.lucene.util.RamUsageEstimator;
+import org.hibernate.collection.spi.PersistentCollection;
+import org.hibernate.proxy.HibernateProxy;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.context.ApplicationContext;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Estimates the heap retained by a Vaadin session by walking the objects
+ * reachable from it and adding up their shallow sizes.
+ *
+ * <p>
+ * Each view of each UI is walked first and charged with everything it reaches
+ * that was not charged before: its components, the entities held by grids,
+ * combo boxes and maps, listeners and their captured values. What remains of a
+ * UI is charged to {@code UI}, and what the session holds besides its UIs,
+ * such as session-scoped beans, to {@code session}. Shared objects are never
+ * charged: Spring beans and whatever else the {@code shared} predicate
+ * accepts, classes, enums and the Vaadin service with its router and
+ * configuration.
+ * </p>
+ *
+ * <p>
+ * Fields of JDK classes cannot be read reflectively, so JDK collections and
+ * maps are walked through their elements, with a fixed estimate per element for
+ * their internal structure. Uninitialized Hibernate collections and proxies are
+ * not loaded. The walk stops after {@code maxObjects} objects, in which case
+ * the estimate is a lower bound.
+ * </p>
+ */
+final class SessionFootprint {
+
+    /** Charged with what a UI holds besides its views. */
+    static final String UI_PART = "UI";
+
+    /** Charged with what a session holds besides its UIs. */
+    static final String SESSION_PART = "session";
+
+    /** Estimated internal bytes per entry of a JDK map: the entry object and its table slot. */
+    private static final long MAP_ENTRY_BYTES = RamUsageEstimator.alignObjectSize(
+            RamUsageEstimator.NUM_BYTES_OBJECT_HEADER + 3L * RamUsageEstimator.NUM_BYTES_OBJECT_REF + Integer.BYTES)
+            + RamUsageEstimator.NUM_BYTES_OBJECT_REF;
+
+    /** Estimated internal bytes per element of a JDK collection: its array slot or node. */
+    private static final long COLLECTION_ELEMENT_BYTES = 2L * RamUsageEstimator.NUM_BYTES_OBJECT_REF;
+
+    private static final List<Class<?>> SHARED_TYPES = List.of(Class.class, ClassLoader.class, Thread.class,
+            Enum.class, VaadinService.class, VaadinContext.class, Router.class, DeploymentConfiguration.class,
+            WrappedSession.class, HttpSession.class, ServletContext.class, ApplicationContext.class,
+            BeanFactory.class);
+
+    /** Reference fields of each class that can be read reflectively. */
+    private static final ClassValue<ClassLayout> LAYOUTS = new ClassValue<>() {
+        @Override
+        protected ClassLayout computeValue(Class<?> type) {
+            return new ClassLayout(type);
+        }
+    };
+
+    /**
+     * The readable reference fields of a class, and whether some could not be
+     * read.
+     */
+    private static final class ClassLayout {
+        private final List<Field> references = new ArrayList<>();
+        private boolean opaque;
+
+        private ClassLayout(Class<?> type) {
+            for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+                for (Field field : current.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers()) || field.getType().isPrimitive()) {
+                        continue;
+                    }
+                    if (field.trySetAccessible()) {
+                        references.add(field);
+                    } else {
+                        opaque = true;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * The estimated size of one session.
+     */
+    static final class Footprint {
+        private final Map<String, Long> bytesByPart;
+        private final boolean truncated;
+
+        private Footprint(Map<String, Long> bytesByPart, boolean truncated) {
+            this.bytesByPart = bytesByPart;
+            this.truncated = truncated;
+        }
+
+        /**
+         * Gets the estimated size of the whole session.
+         *
+         * @return the size in bytes
+         */
+        long getBytes() {
+            return bytesByPart.values().stream().mapToLong(Long::longValue).sum();
+        }
+
+        /**
+         * Gets the estimated size charged to each view class, to {@code UI} and
+         * to {@code session}.
+         *
+         * @return the sizes in bytes, largest first
+         */
+        Map<String, Long> getBytesByPart() {
+            return bytesByPart;
+        }
+
+        /**
+         * Returns whether the walk stopped at the object limit.
+         *
+         * @return true if the sizes are lower bounds
+         */
+        boolean isTruncated() {
+            return truncated;
+        }
+    }
+
+    private final Predicate<Object> shared;
+
+    private final int maxObjects;
+
+    /**
+     * Creates an estimator.
+     *
+     * @param shared     accepts objects shared between sessions, which are not
+     *                   charged or walked
+     * @param maxObjects the number of objects after which a walk stops
+     */
+    SessionFootprint(Predicate<Object> shared, int maxObjects) {
+        this.shared = shared;
+        this.maxObjects = maxObjects;
+    }
+
+    /**
+     * Estimates the size of a session. The caller must hold the session lock.
+     *
+     * @param session the session to measure
+     * @return the estimated size, per view
+     */
+    Footprint measure(VaadinSession session) {
+        Walk walk = new Walk();
+        Map<String, Long> bytesByPart = new LinkedHashMap<>();
+        Collection<UI> uis = session.getUIs();
+        for (UI ui : uis) {
+            measure(ui, walk, bytesByPart);
+        }
+        Set<Object> stops = identitySet();
+        stops.addAll(uis);
+        bytesByPart.merge(SESSION_PART, walk.walk(session, stops), Long::sum);
+        return walk.footprint(bytesByPart);
+    }
+
+    /**
+     * Estimates the size of the UIs of one session.
+     *
+     * @param uis the UIs to measure
+     * @return the estimated size, per view
+     */
+    Footprint measure(Collection<UI> uis) {
+        Walk walk = new Walk();
+        Map<String, Long> bytesByPart = new LinkedHashMap<>();
+        for (UI ui : uis) {
+            measure(ui, walk, bytesByPart);
+        }
+        return walk.footprint(bytesByPart);
+    }
+
+    private static void measure(UI ui, Walk walk, Map<String, Long> bytesByPart) {
+        List<HasElement> views = new ArrayList<>(ui.getInternals().getActiveRouterTargetsChain());
+        if (views.isEmpty()) {
+            ui.getChildren().forEach(views::add);
+        }
+
+        // A view reaches its layout and the UI through its parent; stop there so
+        // that each view is only charged with what it holds itself
+        Set<Object> boundaries = identitySet();
+        boundaries.add(ui);
+        boundaries.add(ui.getElement().getNode());
+        boundaries.add(ui.getInternals().getStateTree());
+        for (HasElement view : views) {
+            boundaries.add(view);
+            boundaries.add(view.getElement().getNode());
+        }
+        for (HasElement view : views) {
+            Set<Object> stops = identitySet();
+            stops.addAll(boundaries);
+            stops.remove(view);
+            stops.remove(view.getElement().getNode());
+            bytesByPart.merge(ClassUtils.getUserClass(view).getSimpleName(), walk.walk(view, stops), Long::sum);
+        }
+        bytesByPart.merge(UI_PART, walk.walk(ui, Collections.emptySet()), Long::sum);
+    }
+
+    private static Set<Object> identitySet() {
+        return Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+
+    private boolean isShared(Object object) {
+        if (object instanceof VaadinSession || shared.test(object)) {
+            return true;
+        }
+        for (Class<?> type : SHARED_TYPES) {
+            if (type.isInstance(object)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * One walk over a session, remembering the objects already charged.
+     */
+    private final class Walk {
+        private final Set<Object> visited = identitySet();
+        private final Deque<Object> pending = new ArrayDeque<>();
+        private boolean truncated;
+
+        /**
+         * Walks the objects reachable from a root, not walking past the stops,
+         * and returns the size of those not charged before.
+         */
+        private long walk(Object root, Set<Object> stops) {
+            long bytes = 0;
+            pending.push(root);
+            while (!pending.isEmpty()) {
+                Object object = pending.pop();
+                if (stops.contains(object) || (object != root && isShared(object)) || !visited.add(object)) {
+                    continue;
+                }
+                if (visited.size() > maxObjects) {
+                    truncated = true;
+                    pending.clear();
+                    break;
+                }
+                bytes += RamUsageEstimator.shallowSizeOf(object) + references(object);
+            }
+            return bytes;
+        }
+
+        /**
+         * Queues the objects referenced by an object.
+         *
+         * @return the estimated internal size of a JDK collection or map, which
+         *         is not walked
+         */
+        private long references(Object object) {
+            Class<?> type = object.getClass();
+            if (type.isArray()) {
+                if (!type.getComponentType().isPrimitive()) {
+                    for (int i = 0, length = Array.getLength(object); i < length; i++) {
+                        push(Array.get(object, i));
+                    }
+                }
+                return 0;
+            }
+            if (object instanceof String string) {
+                return RamUsageEstimator.sizeOf(string) - RamUsageEstimator.shallowSizeOf(string);
+            }
+            if (object instanceof HibernateProxy
+                    || (object instanceof PersistentCollection<?> collection && !collection.wasInitialized())) {
+                return 0;
+            }
+
+            ClassLayout layout = LAYOUTS.get(type);
+            for (Field field : layout.references) {
+                try {
+                    push(field.get(object));
+                } catch (IllegalAccessException e) {
+                    // Not readable after all; the field is not walked
+                }
+            }
+            if (!layout.opaque) {
+                return 0;
+            }
+            try {
+                if (object instanceof Map<?, ?> map) {
+                    map.forEach((key, value) -> {
+                        push(key);
+                        push(value);
+                    });
+                    return map.size() * MAP_ENTRY_BYTES;
+                }
+                if (object instanceof Collection<?> collection) {
+                    collection.forEach(this::push);
+                    return collection.size() * COLLECTION_ELEMENT_BYTES;
+                }
+            } catch (RuntimeException e) {
+                // Modified concurrently; what was reached so far is counted
+            }
+            return 0;
+        }
+
+        private void push(Object object) {
+            if (object != null) {
+                pending.push(object);
+            }
+        }
+
+        private Footprint footprint(Map<String, Long> bytesByPart) {
+            Map<String, Long> sorted = bytesByPart.entrySet().stream()
+                    .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                    .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (first, second) -> first,
+                            LinkedHashMap::new));
+            return new Footprint(sorted, truncated);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package org.vaadin.application.config;
+
+import com.vaadin.flow.server.ServiceInitEvent;
+import com.vaadin.flow.server.VaadinServiceInitListener;
+import com.vaadin.flow.server.VaadinSession;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically estimates the heap retained by each open Vaadin session with
+ * {@link SessionFootprint}.
+ *
+ * <p>
+ * Every sample is recorded in the {@code vaadin.session.memory} histogram, and
+ * the sum over all sessions of the last round is exported as
+ * {@code vaadin.session.memory.total}, next to {@code fintrack.memory.cached},
+ * so that heap growth can be attributed to sessions. A session whose estimate
+ * exceeds {@code fintrack.session-memory.budget-bytes} is logged once, with
+ * the bytes charged to each of its views.
+ * </p>
+ *
+ * <p>
+ * Sessions that are busy handling a request when their turn comes are skipped
+ * until the next round, so sampling never delays a user. Spring beans are
+ * shared by all sessions and are not charged to any of them.
+ * </p>
+ */
+@Component
+public class SessionMemoryMetrics implements VaadinServiceInitListener {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SessionMemoryMetrics.class);
+
+    /** Name of the per-session histogram. */
+    static final String METRIC_NAME = "vaadin.session.memory";
+
+    private final Set<VaadinSession> sessions = ConcurrentHashMap.newKeySet();
+
+    private final Set<VaadinSession> reportedSessions = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong totalBytes = new AtomicLong();
+
+    private final DistributionSummary sessionBytes;
+
+    private final ConfigurableListableBeanFactory beanFactory;
+
+    private final long budgetBytes;
+
+    private final int maxObjects;
+
+    private final ScheduledExecutorService sampler;
+
+    private volatile SessionFootprint footprint;
+
+    /**
+     * Creates the session memory metrics and starts sampling.
+     *
+     * @param registry              the registry to record the metrics in
+     * @param beanFactory           the bean factory whose singletons are
+     *                              shared by all sessions
+     * @param sampleIntervalSeconds the time between two rounds of sampling, 0
+     *                              to disable sampling
+     * @param budgetBytes           the estimate from which a session is logged
+     * @param maxObjects            the number of objects after which the walk
+     *                              of a session stops
+     */
+    public SessionMemoryMetrics(MeterRegistry registry, ConfigurableListableBeanFactory beanFactory,
+            @Value("${fintrack.session-memory.sample-interval-seconds:60}") long sampleIntervalSeconds,
+            @Value("${fintrack.session-memory.budget-bytes:5242880}") long budgetBytes,
+            @Value("${fintrack.session-memory.max-objects:500000}") int maxObjects) {
+        this.beanFactory = beanFactory;
+        this.budgetBytes = budgetBytes;
+        this.maxObjects = maxObjects;
+        this.sessionBytes = DistributionSummary.builder(METRIC_NAME)
+                .description("Estimated heap retained by a Vaadin session")
+                .baseUnit("bytes")
+                .publishPercentileHistogram()
+                .register(registry);
+        Gauge.builder(METRIC_NAME + ".total", totalBytes, AtomicLong::get)
+                .description("Estimated heap retained by all Vaadin sessions")
+                .baseUnit("bytes")
+                .register(registry);
+        this.sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-memory-sampler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (sampleIntervalSeconds > 0) {
+            sampler.scheduleWithFixedDelay(this::sample, sampleIntervalSeconds, sampleIntervalSeconds,
+                    TimeUnit.SECONDS);
+        }
+    }
+
+    @Override
+    public void serviceInit(ServiceInitEvent event) {
+        event.getSource().addSessionInitListener(sessionEvent -> sessions.add(sessionEvent.getSession()));
+        event.getSource().addSessionDestroyListener(sessionEvent -> {
+            sessions.remove(sessionEvent.getSession());
+            reportedSessions.remove(sessionEvent.getSession());
+        });
+    }
+
+    /**
+     * Estimates every open session that is not busy and records the results.
+     */
+    void sample() {
+        long total = 0;
+        for (VaadinSession session : sessions) {
+            try {
+                if (!session.getLockInstance().tryLock()) {
+                    continue;
+                }
+                SessionFootprint.Footprint sessionFootprint;
+                try {
+                    sessionFootprint = footprint().measure(session);
+                } finally {
+                    session.getLockInstance().unlock();
+                }
+                total += sessionFootprint.getBytes();
+                record(session, sessionFootprint);
+            } catch (RuntimeException e) {
+                LOGGER.debug("Could not estimate the size of a Vaadin session", e);
+            }
+        }
+        totalBytes.set(total);
+    }
+
+    /**
+     * Records the estimated size of a session, and logs it the first time it
+     * exceeds the budget.
+     *
+     * @param session         the measured session
+     * @param sessionFootprint its estimated size
+     */
+    void record(VaadinSession session, SessionFootprint.Footprint sessionFootprint) {
+        long bytes = sessionFootprint.getBytes();
+        sessionBytes.record(bytes);
+        if (bytes > budgetBytes && reportedSessions.add(session)) {
+            LOGGER.warn("Vaadin session holds an estimated {}{} KB, over the budget of {} KB: {}",
+                    sessionFootprint.isTruncated() ? "at least " : "", bytes / 1024, budgetBytes / 1024,
+                    sessionFootprint.getBytesByPart().entrySet().stream()
+                            .map(part -> part.getKey() + " " + part.getValue() / 1024 + " KB")
+                            .collect(Collectors.joining(", ")));
+        }
+    }
+
+    private SessionFootprint footprint() {
+        SessionFootprint current = footprint;
+        if (current == null) {
+            Set<Object> singletons = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (String name : beanFactory.getSingletonNames()) {
+                Object singleton = beanFactory.getSingleton(name);
+                if (singleton != null) {
+                    singletons.add(singleton);
+                }
+            }
+            current = new SessionFootprint(singletons::contains, maxObjects);
+            footprint = current;
+        }
+        return current;
+    }
+
+    /**
+     * Stops sampling when the application shuts down.
+     */
+    @PreDestroy
+    public void shutdown() {
+        sampler.shutdownNow();
+    }
+}
@@ -0,0 +1,166 @@
+package org.vaadin.application.config;
+
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Logs every sampled trace slower than
+ * {@code fintrack.tracing.slow-threshold-millis} as a tree of its spans, with
+ * the offset and duration of each, so that the time of a slow request can be
+ * attributed to its services and queries straight from the log.
+ *
+ * <p>
+ * Spans finish before their parents, so the spans of a trace are held until
+ * its local root, the span without a parent in this application, finishes. At
+ * most {@code fintrack.tracing.max-buffered-spans} are held; the oldest traces
+ * are dropped beyond that. Spans that finish after their root, such as those of
+ * a PDF summary written on the background executor, are logged on their own
+ * if their trace was slow. A threshold of 0 disables the logger.
+ * </p>
+ */
+@Component
+public class SlowTraceLogger implements SpanExporter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SlowTraceLogger.class);
+
+    /** Number of slow traces whose late spans are still logged. */
+    private static final int SLOW_TRACES_KEPT = 1000;
+
+    private final long thresholdNanos;
+
+    private final int maxBufferedSpans;
+
+    /** The finished spans of each trace whose root has not finished, oldest trace first. */
+    private final Map<String, List<SpanData>> pending = new LinkedHashMap<>();
+
+    private final Map<String, Boolean> slowTraces = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > SLOW_TRACES_KEPT;
+        }
+    };
+
+    private int bufferedSpans;
+
+    /**
+     * Creates the logger.
+     *
+     * @param thresholdMillis  the duration from which a trace is logged, 0 to
+     *                         disable the logger
+     * @param maxBufferedSpans the number of spans held while waiting for their
+     *                         roots
+     */
+    public SlowTraceLogger(@Value("${fintrack.tracing.slow-threshold-millis:1000}") long thresholdMillis,
+            @Value("${fintrack.tracing.max-buffered-spans:10000}") int maxBufferedSpans) {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.maxBufferedSpans = maxBufferedSpans;
+    }
+
+    @Override
+    public synchronized CompletableResultCode export(Collection<SpanData> spans) {
+        if (thresholdNanos <= 0) {
+            return CompletableResultCode.ofSuccess();
+        }
+        List<SpanData> roots = new ArrayList<>();
+        for (SpanData span : spans) {
+            if (slowTraces.containsKey(span.getTraceId())) {
+                LOGGER.warn("Span of slow trace {} finished after its root: {}", span.getTraceId(),
+                        describe(span, span.getStartEpochNanos()));
+            } else if (!span.getParentSpanContext().isValid() || span.getParentSpanContext().isRemote()) {
+                roots.add(span);
+            } else {
+                pending.computeIfAbsent(span.getTraceId(), key -> new ArrayList<>()).add(span);
+                bufferedSpans++;
+            }
+        }
+        for (SpanData root : roots) {
+            List<SpanData> descendants = pending.remove(root.getTraceId());
+            if (descendants != null) {
+                bufferedSpans -= descendants.size();
+            }
+            if (duration(root) >= thresholdNanos) {
+                slowTraces.put(root.getTraceId(), Boolean.TRUE);
+                LOGGER.warn("Slow trace {}, {}:{}", root.getTraceId(), millis(duration(root)),
+                        format(root, descendants == null ? List.of() : descendants));
+            }
+        }
+        Iterator<List<SpanData>> oldest = pending.values().iterator();
+        while (bufferedSpans > maxBufferedSpans && oldest.hasNext()) {
+            bufferedSpans -= oldest.next().size();
+            oldest.remove();
+        }
+        return CompletableResultCode.ofSuccess();
+    }
+
+    /**
+     * Returns the number of spans held while waiting for their roots.
+     *
+     * @return the number of held spans
+     */
+    synchronized int getBufferedSpans() {
+        return bufferedSpans;
+    }
+
+    /**
+     * Formats a root span and its descendants as an indented tree, children in
+     * the order they started.
+     *
+     * @param root        the root span
+     * @param descendants the other spans of its trace
+     * @return one line per span, each starting with a line break
+     */
+    static String format(SpanData root, Collection<SpanData> descendants) {
+        Map<String, List<SpanData>> children = new HashMap<>();
+        for (SpanData span : descendants) {
+            children.computeIfAbsent(span.getParentSpanId(), key -> new ArrayList<>()).add(span);
+        }
+        children.values().forEach(list -> list.sort(Comparator.comparingLong(SpanData::getStartEpochNanos)));
+        StringBuilder tree = new StringBuilder();
+        append(tree, root, root.getStartEpochNanos(), 0, children);
+        return tree.toString();
+    }
+
+    private static void append(StringBuilder tree, SpanData span, long traceStart, int depth,
+            Map<String, List<SpanData>> children) {
+        tree.append('\n').append("  ".repeat(depth + 1)).append(describe(span, traceStart));
+        for (SpanData child : children.getOrDefault(span.getSpanId(), List.of())) {
+            append(tree, child, traceStart, depth + 1, children);
+        }
+    }
+
+    private static String describe(SpanData span, long traceStart) {
+        StringJoiner attributes = new StringJoiner(", ", " {", "}").setEmptyValue("");
+        span.getAttributes().forEach((key, value) -> attributes.add(key.getKey() + "=" + value));
+        String description = span.getName() + " +" + millis(span.getStartEpochNanos() - traceStart) + " "
+                + millis(duration(span)) + attributes;
+        if (span.getStatus().getStatusCode() == StatusCode.ERROR) {
+            description += " ERROR " + span.getStatus().getDescription();
+        }
+        return description;
+    }
+
+    private static long duration(SpanData span) {
+        return span.getEndEpochNanos() - span.getStartEpochNanos();
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.1f ms", nanos / 1_000_000.0);
+    }
+}
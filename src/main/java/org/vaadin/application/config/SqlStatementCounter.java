@@ -0,0 +1,86 @@
+package org.vaadin.application.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on each thread, by kind.
+ *
+ * <p>
+ * Installed as Hibernate's statement inspector by {@link MetricsConfig}. The
+ * counts only grow; callers take the difference of two readings on the same
+ * thread. Statements issued through plain JDBC, such as the batch inserts, are
+ * not counted. Each statement is also passed to the
+ * {@link RepeatedQueryDetector}.
+ * </p>
+ */
+public final class SqlStatementCounter implements StatementInspector {
+
+    /**
+     * Kind of a statement, from its first keyword.
+     */
+    public enum Kind {
+        SELECT, INSERT, UPDATE, DELETE, OTHER;
+
+        /**
+         * Returns the kind of a statement.
+         *
+         * @param sql the statement
+         * @return its kind; {@code WITH} queries count as selects
+         */
+        public static Kind of(String sql) {
+            int start = 0;
+            while (start < sql.length() && (Character.isWhitespace(sql.charAt(start)) || sql.charAt(start) == '(')) {
+                start++;
+            }
+            if (startsWith(sql, start, "select") || startsWith(sql, start, "with")) {
+                return SELECT;
+            } else if (startsWith(sql, start, "insert")) {
+                return INSERT;
+            } else if (startsWith(sql, start, "update")) {
+                return UPDATE;
+            } else if (startsWith(sql, start, "delete")) {
+                return DELETE;
+            }
+            return OTHER;
+        }
+
+        private static boolean startsWith(String sql, int offset, String keyword) {
+            return sql.regionMatches(true, offset, keyword, 0, keyword.length());
+        }
+    }
+
+    private static final Kind[] KINDS = Kind.values();
+
+    private static final ThreadLocal<long[]> COUNTS = ThreadLocal.withInitial(() -> new long[KINDS.length]);
+
+    /**
+     * Returns the number of statements prepared so far on the current thread.
+     *
+     * @return the statement count
+     */
+    public static long current() {
+        long total = 0;
+        for (long count : COUNTS.get()) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Returns the number of statements of one kind prepared so far on the
+     * current thread.
+     *
+     * @param kind the kind of statement
+     * @return the statement count
+     */
+    public static long current(Kind kind) {
+        return COUNTS.get()[kind.ordinal()];
+    }
+
+    @Override
+    public String inspect(String sql) {
+        COUNTS.get()[Kind.of(sql).ordinal()]++;
+        RepeatedQueryDetector.onStatement(sql);
+        return sql;
+    }
+}
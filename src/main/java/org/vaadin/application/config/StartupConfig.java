@@ -0,0 +1,43 @@
+package org.vaadin.application.config;
+
+import com.vaadin.flow.server.VaadinServiceInitListener;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.Filter;
+import javax.sql.DataSource;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.vaadin.application.service.SessionService;
+import org.vaadin.application.service.UserService;
+
+/**
+ * Decides which beans are still created at startup when the {@code prod}
+ * profile turns on lazy initialization.
+ *
+ * <p>
+ * With {@code spring.main.lazy-initialization=true}, a bean is created with its
+ * first use, so that the search index, the ledgers, the reports and the other
+ * services not needed to show the login page no longer delay readiness. The
+ * beans below are kept eager: the database connection pool, the entity manager
+ * factory and the repositories, whose queries are validated at startup; the
+ * servlet filters and Vaadin listeners, which have to see the first request;
+ * and the user and session services behind the login.
+ * </p>
+ */
+@Configuration
+public class StartupConfig {
+
+    /**
+     * Keeps the beans needed to serve the first request eager.
+     *
+     * @return the filter excluding them from lazy initialization
+     */
+    @Bean
+    static LazyInitializationExcludeFilter eagerBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(DataSource.class, EntityManagerFactory.class,
+                PlatformTransactionManager.class, Repository.class, Filter.class, VaadinServiceInitListener.class,
+                UserService.class, SessionService.class);
+    }
+}
@@ -0,0 +1,101 @@
+package org.vaadin.application.config;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import java.lang.reflect.Method;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+
+/**
+ * Opens a tracing span for every public service method call and every
+ * repository call made within a trace.
+ *
+ * <p>
+ * Traces are started by Spring MVC for each HTTP request, REST or Vaadin, and
+ * by {@link VaadinRequestTracing} for the Vaadin request inside it, so a slow
+ * dashboard load shows as a tree of request, service and repository spans.
+ * Spans are named {@code Class.method} and tagged with
+ * {@code code.namespace} and {@code code.function}; repository spans also
+ * carry {@code db.statements}, the SQL statements Hibernate prepared during
+ * the call as counted by {@link SqlStatementCounter}, which exposes lazy
+ * loading. Calls outside a trace, such as those of background sampling, do not
+ * start one.
+ * </p>
+ *
+ * <p>
+ * Service and repository calls are already timed as metrics by
+ * {@link ServiceMetricsAspect} and Spring Data, so spans are created through
+ * the {@link Tracer} rather than as observations, which would record those
+ * timers a second time.
+ * </p>
+ */
+@Aspect
+@Component
+public class TracingAspect {
+
+    private final Tracer tracer;
+
+    /**
+     * Creates the aspect.
+     *
+     * @param tracer the tracer to create spans with
+     */
+    public TracingAspect(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    /**
+     * Traces a service call.
+     *
+     * @param joinPoint the call
+     * @return the result of the call
+     * @throws Throwable whatever the call throws
+     */
+    @Around("within(org.vaadin.application.service..*) && execution(public * *(..))")
+    public Object traceService(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (tracer.currentSpan() == null) {
+            return joinPoint.proceed();
+        }
+        return trace(joinPoint, joinPoint.getSignature().getDeclaringType().getSimpleName(), false);
+    }
+
+    /**
+     * Traces a repository call.
+     *
+     * @param joinPoint the call
+     * @return the result of the call
+     * @throws Throwable whatever the call throws
+     */
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object traceRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (tracer.currentSpan() == null) {
+            return joinPoint.proceed();
+        }
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        return trace(joinPoint, RepositoryFlightEventsAspect.repositoryName(joinPoint, method), true);
+    }
+
+    private Object trace(ProceedingJoinPoint joinPoint, String type, boolean repository) throws Throwable {
+        String method = joinPoint.getSignature().getName();
+        Span span = tracer.nextSpan()
+                .name(type + "." + method)
+                .tag("code.namespace", type)
+                .tag("code.function", method)
+                .start();
+        long statementsBefore = repository ? SqlStatementCounter.current() : 0;
+        try (Tracer.SpanInScope scope = tracer.withSpan(span)) {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            span.error(e);
+            throw e;
+        } finally {
+            if (repository) {
+                span.tag("db.statements", SqlStatementCounter.current() - statementsBefore);
+            }
+            span.end();
+        }
+    }
+}
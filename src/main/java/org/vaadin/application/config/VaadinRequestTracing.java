@@ -0,0 +1,98 @@
+package org.vaadin.application.config;
+
+import com.vaadin.flow.server.ServiceInitEvent;
+import com.vaadin.flow.server.VaadinRequest;
+import com.vaadin.flow.server.VaadinRequestInterceptor;
+import com.vaadin.flow.server.VaadinResponse;
+import com.vaadin.flow.server.VaadinServiceInitListener;
+import com.vaadin.flow.server.VaadinSession;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Observes the handling of every Vaadin request, which traces it as a span
+ * below the HTTP request and times it as {@code vaadin.request}.
+ *
+ * <p>
+ * The span is named after the request type, for example {@code vaadin uidl}
+ * for the events and property changes of a UI or {@code vaadin init} for the
+ * creation of a UI, and the services called while handling the request become
+ * its children. It is tagged with the type, the UI ID and the route navigated
+ * to, as recorded by {@link NavigationMetrics}, or {@code none} if the request
+ * did not navigate.
+ * </p>
+ */
+@Component
+public class VaadinRequestTracing implements VaadinServiceInitListener, VaadinRequestInterceptor {
+
+    /** Name of the observation of a Vaadin request. */
+    static final String OBSERVATION_NAME = "vaadin.request";
+
+    private static final String OBSERVATION_ATTRIBUTE = VaadinRequestTracing.class.getName() + ".observation";
+
+    private static final String SCOPE_ATTRIBUTE = VaadinRequestTracing.class.getName() + ".scope";
+
+    private static final String NONE = "none";
+
+    private final ObservationRegistry registry;
+
+    /**
+     * Creates the request tracing.
+     *
+     * @param registry the registry to create the observations in
+     */
+    public VaadinRequestTracing(ObservationRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void serviceInit(ServiceInitEvent event) {
+        event.addVaadinRequestInterceptor(this);
+    }
+
+    @Override
+    public void requestStart(VaadinRequest request, VaadinResponse response) {
+        String type = request.getParameter("v-r");
+        if (type == null) {
+            type = "page";
+        }
+        String uiId = request.getParameter("v-uiId");
+        Observation observation = Observation.createNotStarted(OBSERVATION_NAME, registry)
+                .contextualName("vaadin " + type)
+                .lowCardinalityKeyValue("vaadin.request.type", type)
+                .lowCardinalityKeyValue("vaadin.route", NONE)
+                .highCardinalityKeyValue("vaadin.ui.id", uiId == null ? NONE : uiId)
+                .start();
+        request.setAttribute(OBSERVATION_ATTRIBUTE, observation);
+        request.setAttribute(SCOPE_ATTRIBUTE, observation.openScope());
+    }
+
+    @Override
+    public void handleException(VaadinRequest request, VaadinResponse response, VaadinSession session,
+            Exception exception) {
+        Object observation = request.getAttribute(OBSERVATION_ATTRIBUTE);
+        if (observation != null) {
+            ((Observation) observation).error(exception);
+        }
+    }
+
+    @Override
+    public void requestEnd(VaadinRequest request, VaadinResponse response, VaadinSession session) {
+        Object scope = request.getAttribute(SCOPE_ATTRIBUTE);
+        Object observation = request.getAttribute(OBSERVATION_ATTRIBUTE);
+        request.removeAttribute(SCOPE_ATTRIBUTE);
+        request.removeAttribute(OBSERVATION_ATTRIBUTE);
+        if (scope != null) {
+            ((Observation.Scope) scope).close();
+        }
+        if (observation != null) {
+            Object navigation = request.getAttribute(NavigationMetrics.REQUEST_ATTRIBUTE);
+            if (navigation != null && ((NavigationMetrics.Navigation) navigation).isComplete()) {
+                ((Observation) observation).lowCardinalityKeyValue("vaadin.route",
+                        ((NavigationMetrics.Navigation) navigation).getRoute());
+            }
+            ((Observation) observation).stop();
+        }
+    }
+}
@@ -2,8 +2,10 @@ package org.vaadin.application.controllers;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.vaadin.application.model.Asset;
 import org.vaadin.application.service.AssetService;
+import org.vaadin.application.service.ChangeTracker;
 
 import java.util.List;
 
@@ -19,14 +21,23 @@ public class AssetController {
     @Autowired
     private AssetService assetService;
 
+    @Autowired
+    private ChangeTracker changeTracker;
+
     /**
      * Retrieves a list of assets associated with a specific user ID.
      *
-     * @param userId the ID of the user whose assets are to be retrieved
-     * @return a list of assets associated with the specified user ID
+     * @param userId  the ID of the user whose assets are to be retrieved
+     * @param request the current request, used to answer with 304 Not Modified
+     *                when the client already has the current list
+     * @return a list of assets associated with the specified user ID, or null if
+     *         not modified
      */
     @GetMapping("/user/{userId}")
-    public List<Asset> getAssetsByUserId(@PathVariable Long userId) {
+    public List<Asset> getAssetsByUserId(@PathVariable Long userId, WebRequest request) {
+        if (request.checkNotModified(changeTracker.getEntityTag(userId))) {
+            return null;
+        }
         return assetService.getAssetsByUserId(userId);
     }
 
@@ -2,8 +2,10 @@ package org.vaadin.application.controllers;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.vaadin.application.model.Budget;
 import org.vaadin.application.service.BudgetService;
+import org.vaadin.application.service.ChangeTracker;
 
 import java.util.List;
 
@@ -20,14 +22,23 @@ public class BudgetController {
     @Autowired
     private BudgetService budgetService;
 
+    @Autowired
+    private ChangeTracker changeTracker;
+
     /**
      * Retrieves a list of budgets associated with a specific user ID.
      *
-     * @param userId the ID of the user whose budgets are to be retrieved
-     * @return a list of budgets associated with the specified user ID
+     * @param userId  the ID of the user whose budgets are to be retrieved
+     * @param request the current request, used to answer with 304 Not Modified
+     *                when the client already has the current list
+     * @return a list of budgets associated with the specified user ID, or null if
+     *         not modified
      */
     @GetMapping("/user/{userId}")
-    public List<Budget> getBudgetsByUserId(@PathVariable Long userId) {
+    public List<Budget> getBudgetsByUserId(@PathVariable Long userId, WebRequest request) {
+        if (request.checkNotModified(changeTracker.getEntityTag(userId))) {
+            return null;
+        }
         return budgetService.getBudgetsByUserId(userId);
     }
 
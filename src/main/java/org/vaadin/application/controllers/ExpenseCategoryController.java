@@ -2,7 +2,9 @@ package org.vaadin.application.controllers;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.vaadin.application.model.ExpenseCategory;
+import org.vaadin.application.service.ChangeTracker;
 import org.vaadin.application.service.ExpenseCategoryService;
 
 import java.util.List;
@@ -19,14 +21,23 @@ public class ExpenseCategoryController {
     @Autowired
     private ExpenseCategoryService expenseCategoryService;
 
+    @Autowired
+    private ChangeTracker changeTracker;
+
     /**
      * Retrieves a list of expense categories associated with a specific user ID.
      *
-     * @param userId the ID of the user whose expense categories are to be retrieved
-     * @return a list of expense categories associated with the specified user ID
+     * @param userId  the ID of the user whose expense categories are to be retrieved
+     * @param request the current request, used to answer with 304 Not Modified
+     *                when the client already has the current list
+     * @return a list of expense categories associated with the specified user ID, or null if
+     *         not modified
      */
     @GetMapping("/user/{userId}")
-    public List<ExpenseCategory> getExpenseCategoriesByUserId(@PathVariable Long userId) {
+    public List<ExpenseCategory> getExpenseCategoriesByUserId(@PathVariable Long userId, WebRequest request) {
+        if (request.checkNotModified(changeTracker.getEntityTag(userId))) {
+            return null;
+        }
         return expenseCategoryService.getExpenseCategoriesByUserId(userId);
     }
 
@@ -1,16 +1,30 @@
 package org.vaadin.application.controllers;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.vaadin.application.model.BatchResult;
 import org.vaadin.application.model.Expense;
+import org.vaadin.application.model.ExpenseCursor;
+import org.vaadin.application.model.ExpenseFilter;
+import org.vaadin.application.service.BatchImportService;
+import org.vaadin.application.service.BatchWriter;
+import org.vaadin.application.service.ChangeTracker;
 import org.vaadin.application.service.ExpenseService;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 /**
  * Rest controller for managing expense-related operations.
  * This controller provides endpoints to get expenses by user ID,
- * add a new expense, and delete an existing expense.
+ * search them page by page, add a new expense or many expenses at once, and delete an existing expense.
  */
 @RestController
 @RequestMapping("/expense")
@@ -19,17 +33,60 @@ public class ExpenseController {
     @Autowired
     private ExpenseService expenseService;
 
+    @Autowired
+    private BatchImportService batchImportService;
+
+    @Autowired
+    private BatchWriter batchWriter;
+
+    @Autowired
+    private ChangeTracker changeTracker;
+
     /**
      * Retrieves a list of expenses associated with a specific user ID.
      *
-     * @param userId the ID of the user whose expenses are to be retrieved
-     * @return a list of expenses associated with the specified user ID
+     * @param userId  the ID of the user whose expenses are to be retrieved
+     * @param request the current request, used to answer with 304 Not Modified
+     *                when the client already has the current list
+     * @return a list of expenses associated with the specified user ID, or null if
+     *         not modified
      */
     @GetMapping("/user/{userId}")
-    public List<Expense> getExpensesByUserId(@PathVariable Long userId) {
+    public List<Expense> getExpensesByUserId(@PathVariable Long userId, WebRequest request) {
+        if (request.checkNotModified(changeTracker.getEntityTag(userId))) {
+            return null;
+        }
         return expenseService.getExpensesByUserId(userId);
     }
 
+    /**
+     * Searches the expenses of a user, one page at a time. Supports the
+     * {@code page}, {@code size} and {@code sort} parameters; expenses can be
+     * sorted by date, amount, description and ID. To fetch the next page
+     * without the database skipping all previous rows, pass the last expense
+     * of the current page as {@code afterId} together with its values of the
+     * sorted properties ({@code afterDate}, {@code afterAmount},
+     * {@code afterDescription}) instead of a page number.
+     *
+     * @param userId   the ID of the user whose expenses are to be searched
+     * @param filter   the criteria the expenses must match
+     * @param after    the last expense of the previous page, if set
+     * @param pageable the page and sort order to return
+     * @return a slice of the matching expenses, or a bad request response for
+     *         an unsupported sort property or an incomplete cursor
+     */
+    @GetMapping("/search/user/{userId}")
+    public ResponseEntity<?> searchExpenses(@PathVariable Long userId, @ModelAttribute ExpenseFilter filter,
+            @ModelAttribute ExpenseCursor after, Pageable pageable) {
+        Slice<Expense> expenses;
+        try {
+            expenses = expenseService.searchExpenses(userId, filter, pageable, after);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>(expenses, HttpStatus.OK);
+    }
+
     /**
      * Adds a new expense.
      *
@@ -41,6 +98,20 @@ public class ExpenseController {
         return expenseService.addExpense(expense);
     }
 
+    /**
+     * Adds many expenses in one request. The body is either a JSON array or
+     * newline-delimited JSON with one expense per line, and is processed as a
+     * stream in chunked transactions.
+     *
+     * @param body the request body
+     * @return the result of every expense received
+     * @throws IOException if the body cannot be read
+     */
+    @PostMapping(value = "/batch", consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public BatchResult addExpenses(InputStream body) throws IOException {
+        return batchImportService.addExpenses(batchWriter.readItems(body, Expense.class));
+    }
+
     /**
      * Deletes an expense by its ID.
      *
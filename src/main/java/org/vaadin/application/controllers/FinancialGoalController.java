@@ -2,7 +2,9 @@ package org.vaadin.application.controllers;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.vaadin.application.model.FinancialGoal;
+import org.vaadin.application.service.ChangeTracker;
 import org.vaadin.application.service.FinancialGoalService;
 
 import java.util.List;
@@ -19,14 +21,23 @@ public class FinancialGoalController {
     @Autowired
     private FinancialGoalService financialGoalService;
 
+    @Autowired
+    private ChangeTracker changeTracker;
+
     /**
      * Retrieves a list of financial goals associated with a specific user ID.
      *
-     * @param userId the ID of the user whose financial goals are to be retrieved
-     * @return a list of financial goals associated with the specified user ID
+     * @param userId  the ID of the user whose financial goals are to be retrieved
+     * @param request the current request, used to answer with 304 Not Modified
+     *                when the client already has the current list
+     * @return a list of financial goals associated with the specified user ID, or null if
+     *         not modified
      */
     @GetMapping("/user/{userId}")
-    public List<FinancialGoal> getFinancialGoalsByUserId(@PathVariable Long userId) {
+    public List<FinancialGoal> getFinancialGoalsByUserId(@PathVariable Long userId, WebRequest request) {
+        if (request.checkNotModified(changeTracker.getEntityTag(userId))) {
+            return null;
+        }
         return financialGoalService.getFinancialGoalsByUserId(userId);
     }
 
@@ -1,16 +1,24 @@
 package org.vaadin.application.controllers;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.vaadin.application.model.BatchResult;
 import org.vaadin.application.model.Income;
+import org.vaadin.application.service.BatchImportService;
+import org.vaadin.application.service.BatchWriter;
+import org.vaadin.application.service.ChangeTracker;
 import org.vaadin.application.service.IncomeService;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 /**
  * Rest controller for managing income-related operations.
  * This controller provides endpoints to get incomes by user ID,
- * add a new income, and delete an existing income.
+ * add a new income or many incomes at once, and delete an existing income.
  */
 @RestController
 @RequestMapping("/income")
@@ -19,14 +27,29 @@ public class IncomeController {
     @Autowired
     private IncomeService incomeService;
 
+    @Autowired
+    private BatchImportService batchImportService;
+
+    @Autowired
+    private BatchWriter batchWriter;
+
+    @Autowired
+    private ChangeTracker changeTracker;
+
     /**
      * Retrieves a list of incomes associated with a specific user ID.
      *
-     * @param userId the ID of the user whose incomes are to be retrieved
-     * @return a list of incomes associated with the specified user ID
+     * @param userId  the ID of the user whose incomes are to be retrieved
+     * @param request the current request, used to answer with 304 Not Modified
+     *                when the client already has the current list
+     * @return a list of incomes associated with the specified user ID, or null if
+     *         not modified
      */
     @GetMapping("/user/{userId}")
-    public List<Income> getIncomesByUserId(@PathVariable Long userId) {
+    public List<Income> getIncomesByUserId(@PathVariable Long userId, WebRequest request) {
+        if (request.checkNotModified(changeTracker.getEntityTag(userId))) {
+            return null;
+        }
         return incomeService.getIncomesByUserId(userId);
     }
 
@@ -41,6 +64,20 @@ public class IncomeController {
         return incomeService.addIncome(income);
     }
 
+    /**
+     * Adds many incomes in one request. The body is either a JSON array or
+     * newline-delimited JSON with one income per line, and is processed as a
+     * stream in chunked transactions.
+     *
+     * @param body the request body
+     * @return the result of every income received
+     * @throws IOException if the body cannot be read
+     */
+    @PostMapping(value = "/batch", consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public BatchResult addIncomes(InputStream body) throws IOException {
+        return batchImportService.addIncomes(batchWriter.readItems(body, Income.class));
+    }
+
     /**
      * Deletes an income by its ID.
      *
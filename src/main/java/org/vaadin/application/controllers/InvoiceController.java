@@ -0,0 +1,91 @@
+package org.vaadin.application.controllers;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.vaadin.application.model.BatchResult;
+import org.vaadin.application.model.Invoice;
+import org.vaadin.application.service.BatchImportService;
+import org.vaadin.application.service.BatchWriter;
+import org.vaadin.application.service.ChangeTracker;
+import org.vaadin.application.service.InvoiceService;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Rest controller for managing invoice-related operations.
+ * This controller provides endpoints to get invoices by user ID,
+ * add a new invoice or many invoices at once, and delete an existing invoice.
+ */
+@RestController
+@RequestMapping("/invoice")
+public class InvoiceController {
+
+    @Autowired
+    private InvoiceService invoiceService;
+
+    @Autowired
+    private BatchImportService batchImportService;
+
+    @Autowired
+    private BatchWriter batchWriter;
+
+    @Autowired
+    private ChangeTracker changeTracker;
+
+    /**
+     * Retrieves a list of invoices associated with a specific user ID.
+     *
+     * @param userId  the ID of the user whose invoices are to be retrieved
+     * @param request the current request, used to answer with 304 Not Modified
+     *                when the client already has the current list
+     * @return a list of invoices associated with the specified user ID, or null if
+     *         not modified
+     */
+    @GetMapping("/user/{userId}")
+    public List<Invoice> getInvoicesByUserId(@PathVariable Long userId, WebRequest request) {
+        if (request.checkNotModified(changeTracker.getEntityTag(userId))) {
+            return null;
+        }
+        return invoiceService.getInvoicesByUserId(userId);
+    }
+
+    /**
+     * Adds a new invoice.
+     *
+     * @param invoice the invoice object to be added
+     * @return the newly added invoice object
+     */
+    @PostMapping("/add")
+    public Invoice addInvoice(@RequestBody Invoice invoice) {
+        return invoiceService.addInvoice(invoice);
+    }
+
+    /**
+     * Adds many invoices in one request. The body is either a JSON array or
+     * newline-delimited JSON with one invoice per line, and is processed as a
+     * stream in chunked transactions.
+     *
+     * @param body the request body
+     * @return the result of every invoice received
+     * @throws IOException if the body cannot be read
+     */
+    @PostMapping(value = "/batch", consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public BatchResult addInvoices(InputStream body) throws IOException {
+        return batchImportService.addInvoices(batchWriter.readItems(body, Invoice.class));
+    }
+
+    /**
+     * Deletes an invoice by its ID.
+     *
+     * @param id the ID of the invoice to be deleted
+     */
+    @DeleteMapping("/delete/{id}")
+    public void deleteInvoice(@PathVariable UUID id) {
+        invoiceService.deleteInvoice(id);
+    }
+}
@@ -0,0 +1,76 @@
+package org.vaadin.application.controllers;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.vaadin.application.model.Series;
+import org.vaadin.application.service.ChangeTracker;
+import org.vaadin.application.service.ReportService;
+
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * Rest controller for aggregated reports.
+ * This controller provides an endpoint that returns expense, income or net
+ * totals per time bucket, so clients do not need to fetch and sum raw rows.
+ */
+@RestController
+@RequestMapping("/reports")
+public class ReportController {
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private ChangeTracker changeTracker;
+
+    /**
+     * Retrieves a series of totals for a user, for example
+     * {@code /reports/series/user/1?metric=expense&bucket=month&groupBy=budget&from=2024-01-01&to=2024-12-31}.
+     *
+     * @param userId  the ID of the user whose totals are to be retrieved
+     * @param metric  {@code expense}, {@code income} or {@code net}
+     * @param bucket  {@code day}, {@code week}, {@code month}, {@code quarter}
+     *                or {@code year}
+     * @param groupBy {@code budget} or {@code category} to split expenses into
+     *                one column per group
+     * @param from    the first day to include
+     * @param to      the last day to include
+     * @param request the current request, used to answer with 304 Not Modified
+     *                when the client already has the current series
+     * @return the series, or a bad request response describing an invalid
+     *         parameter
+     */
+    @GetMapping("/series/user/{userId}")
+    public ResponseEntity<?> getSeries(@PathVariable Long userId, @RequestParam String metric,
+            @RequestParam String bucket, @RequestParam(required = false) String groupBy,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to, WebRequest request) {
+        Series series;
+        try {
+            Series.Metric seriesMetric = parse(Series.Metric.class, "metric", metric);
+            Series.Bucket seriesBucket = parse(Series.Bucket.class, "bucket", bucket);
+            Series.GroupBy seriesGroupBy = groupBy == null ? Series.GroupBy.NONE
+                    : parse(Series.GroupBy.class, "groupBy", groupBy);
+            if (request.checkNotModified(changeTracker.getEntityTag(userId))) {
+                return null;
+            }
+            series = reportService.getSeries(userId, seriesMetric, seriesBucket, seriesGroupBy, from, to);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>(series, HttpStatus.OK);
+    }
+
+    private static <E extends Enum<E>> E parse(Class<E> type, String name, String value) {
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported " + name + ": " + value);
+        }
+    }
+}
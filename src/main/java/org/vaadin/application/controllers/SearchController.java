@@ -0,0 +1,80 @@
+package org.vaadin.application.controllers;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.vaadin.application.model.SearchHit;
+import org.vaadin.application.service.FullTextSearchService;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Rest controller for full-text search over a user's expenses, incomes,
+ * invoices and notes.
+ */
+@RestController
+@RequestMapping("/search")
+public class SearchController {
+
+    @Autowired
+    private FullTextSearchService fullTextSearchService;
+
+    /**
+     * Searches the text of a user's entities, for example
+     * {@code /search/user/1?q=uber&types=expense,invoice&offset=0&limit=50}.
+     *
+     * @param userId the ID of the user whose entities are to be searched
+     * @param q      the words to search for; each may be a prefix or slightly
+     *               misspelled
+     * @param types  {@code expense}, {@code income}, {@code invoice} or
+     *               {@code note}; all kinds when omitted
+     * @param offset the number of best hits to skip
+     * @param limit  the maximum number of hits to return
+     * @return the IDs of the matching entities, best match first, or a bad
+     *         request response describing an invalid parameter
+     */
+    @GetMapping("/user/{userId}")
+    public ResponseEntity<?> search(@PathVariable Long userId, @RequestParam String q,
+            @RequestParam(required = false) List<String> types, @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "50") int limit) {
+        List<SearchHit> hits;
+        try {
+            Set<SearchHit.Type> searchTypes = EnumSet.noneOf(SearchHit.Type.class);
+            if (types != null) {
+                for (String type : types) {
+                    searchTypes.add(parseType(type));
+                }
+            }
+            hits = fullTextSearchService.search(userId, q, searchTypes, offset, limit);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>(hits, HttpStatus.OK);
+    }
+
+    /**
+     * Starts rebuilding the search index from the database. Searches keep
+     * returning the previous results until the rebuild completes.
+     *
+     * @return 202 Accepted, or 409 Conflict if a rebuild is already running
+     */
+    @PostMapping("/rebuild")
+    public ResponseEntity<String> rebuild() {
+        if (!fullTextSearchService.startRebuild()) {
+            return new ResponseEntity<>("A rebuild is already running.", HttpStatus.CONFLICT);
+        }
+        return new ResponseEntity<>("Rebuild started.", HttpStatus.ACCEPTED);
+    }
+
+    private static SearchHit.Type parseType(String value) {
+        try {
+            return SearchHit.Type.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported type: " + value);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package org.vaadin.application.controllers;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+import org.vaadin.application.model.SyncPage;
+import org.vaadin.application.service.SyncService;
+
+/**
+ * Rest controller for delta synchronization.
+ * This controller provides an endpoint that returns only the expenses,
+ * incomes, budgets, invoices and assets of a user that changed or were deleted
+ * since the client last synchronized.
+ */
+@RestController
+@RequestMapping("/sync")
+public class SyncController {
+
+    @Autowired
+    private SyncService syncService;
+
+    /**
+     * Retrieves the changes of a user after a given change sequence. A client
+     * starts with {@code since=0}, then repeats the request with the returned
+     * {@code nextSince} while {@code hasMore} is true, and keeps the last
+     * {@code nextSince} for its next synchronization.
+     *
+     * @param userId the ID of the user whose changes are to be retrieved
+     * @param since  the highest change sequence already seen by the client
+     * @param limit  the maximum number of changes to return
+     * @return one page of changes in change sequence order
+     */
+    @GetMapping("/user/{userId}")
+    public SyncPage getChanges(@PathVariable Long userId, @RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "500") int limit) {
+        return syncService.getChanges(userId, since, limit);
+    }
+}
@@ -4,14 +4,15 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.DecimalMin;
 import java.math.BigDecimal;
+import java.time.Instant;
 
 /**
  * Entity representing an asset.
  * An asset is associated with a user and has a name and value.
  */
 @Entity
-@Table(name = "asset")
-public class Asset {
+@Table(name = "asset", indexes = @Index(name = "idx_asset_user_sequence", columnList = "user_id, change_sequence"))
+public class Asset implements ChangeTracked {
     /**
      * The unique identifier for the asset.
      */
@@ -56,6 +57,19 @@ public class Asset {
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
+    /**
+     * The owner's change sequence at the last write of the asset.
+     * Assigned by the service layer on every write.
+     */
+    @Column(name = "change_sequence")
+    private Long changeSequence;
+
+    /**
+     * The time of the last write of the asset.
+     */
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
     // Getters and Setters
 
     /**
@@ -165,4 +179,24 @@ public class Asset {
     public void setUser(User user) {
         this.user = user;
     }
+
+    @Override
+    public Long getChangeSequence() {
+        return changeSequence;
+    }
+
+    @Override
+    public void setChangeSequence(Long changeSequence) {
+        this.changeSequence = changeSequence;
+    }
+
+    @Override
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    @Override
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
 }
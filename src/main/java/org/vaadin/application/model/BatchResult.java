@@ -0,0 +1,145 @@
+package org.vaadin.application.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Result of a batch write, with one entry per item received in the request.
+ * Items are reported in request order and identified by their zero-based
+ * position in the request.
+ */
+public class BatchResult {
+
+    /**
+     * The outcome of a single item.
+     */
+    public enum Status {
+        /** The item was stored. */
+        CREATED,
+        /** The item failed validation and was not stored. */
+        INVALID,
+        /** The item was valid but its chunk could not be stored. */
+        FAILED
+    }
+
+    /**
+     * The result for a single item of the batch.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Item {
+        private final int index;
+        private final Status status;
+        private final Object id;
+        private final String error;
+
+        private Item(int index, Status status, Object id, String error) {
+            this.index = index;
+            this.status = status;
+            this.id = id;
+            this.error = error;
+        }
+
+        /**
+         * Creates the result of a stored item.
+         *
+         * @param index the position of the item in the request
+         * @param id    the generated ID of the item
+         * @return the item result
+         */
+        public static Item created(int index, Object id) {
+            return new Item(index, Status.CREATED, id, null);
+        }
+
+        /**
+         * Creates the result of an item that failed validation.
+         *
+         * @param index the position of the item in the request
+         * @param error a description of the validation failure
+         * @return the item result
+         */
+        public static Item invalid(int index, String error) {
+            return new Item(index, Status.INVALID, null, error);
+        }
+
+        /**
+         * Creates the result of a valid item that could not be stored.
+         *
+         * @param index the position of the item in the request
+         * @param error a description of the failure
+         * @return the item result
+         */
+        public static Item failed(int index, String error) {
+            return new Item(index, Status.FAILED, null, error);
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public Object getId() {
+            return id;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+
+    private final List<Item> items = new ArrayList<>();
+    private int created;
+
+    /**
+     * Adds the result of one item.
+     *
+     * @param item the item result
+     */
+    public void add(Item item) {
+        items.add(item);
+        if (item.getStatus() == Status.CREATED) {
+            created++;
+        }
+    }
+
+    /**
+     * Gets the number of items received.
+     *
+     * @return the number of items received
+     */
+    public int getReceived() {
+        return items.size();
+    }
+
+    /**
+     * Gets the number of items that were stored.
+     *
+     * @return the number of stored items
+     */
+    public int getCreated() {
+        return created;
+    }
+
+    /**
+     * Gets the number of items that were not stored.
+     *
+     * @return the number of rejected items
+     */
+    public int getRejected() {
+        return items.size() - created;
+    }
+
+    /**
+     * Gets the per-item results in request order.
+     *
+     * @return the item results
+     */
+    public List<Item> getItems() {
+        items.sort(Comparator.comparingInt(Item::getIndex));
+        return items;
+    }
+}
@@ -4,14 +4,15 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.DecimalMin;
 import java.math.BigDecimal;
+import java.time.Instant;
 
 /**
  * Entity representing a budget.
  * A budget is associated with a user and has a name and amount.
  */
 @Entity
-@Table(name = "budget")
-public class Budget {
+@Table(name = "budget", indexes = @Index(name = "idx_budget_user_sequence", columnList = "user_id, change_sequence"))
+public class Budget implements ChangeTracked {
     /**
      * The unique identifier for the budget.
      */
@@ -42,6 +43,19 @@ public class Budget {
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
+    /**
+     * The owner's change sequence at the last write of the budget.
+     * Assigned by the service layer on every write.
+     */
+    @Column(name = "change_sequence")
+    private Long changeSequence;
+
+    /**
+     * The time of the last write of the budget.
+     */
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
     /**
      * The icon associated with the budget.
      */
@@ -161,4 +175,24 @@ public class Budget {
     public void setCurrentAmount(BigDecimal currentAmount) {
         this.currentAmount = currentAmount;
     }
-}
\ No newline at end of file
+
+    @Override
+    public Long getChangeSequence() {
+        return changeSequence;
+    }
+
+    @Override
+    public void setChangeSequence(Long changeSequence) {
+        this.changeSequence = changeSequence;
+    }
+
+    @Override
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    @Override
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
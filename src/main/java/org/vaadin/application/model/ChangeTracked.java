@@ -0,0 +1,50 @@
+package org.vaadin.application.model;
+
+import java.time.Instant;
+
+/**
+ * An entity whose writes are recorded for delta synchronization.
+ *
+ * <p>
+ * Every write assigns the entity the next value of its user's change
+ * sequence, so a client that remembers the highest sequence it has seen can ask
+ * for exactly the rows written since.
+ * </p>
+ */
+public interface ChangeTracked {
+
+    /**
+     * Gets the user who owns the entity.
+     *
+     * @return the owning user
+     */
+    User getUser();
+
+    /**
+     * Gets the user's change sequence at the last write of the entity.
+     *
+     * @return the change sequence, or null if the entity was never written
+     */
+    Long getChangeSequence();
+
+    /**
+     * Sets the user's change sequence at the last write of the entity.
+     *
+     * @param changeSequence the change sequence to set
+     */
+    void setChangeSequence(Long changeSequence);
+
+    /**
+     * Gets the time of the last write of the entity.
+     *
+     * @return the time of the last write
+     */
+    Instant getUpdatedAt();
+
+    /**
+     * Sets the time of the last write of the entity.
+     *
+     * @param updatedAt the time to set
+     */
+    void setUpdatedAt(Instant updatedAt);
+}
@@ -6,7 +6,8 @@ import jakarta.validation.constraints.DecimalMin;
 
 import java.io.Serializable;
 import java.math.BigDecimal;
-import java.util.Date;
+import java.time.Instant;
+import java.time.LocalDate;
 
 /**
  * Entity representing an expense.
@@ -14,8 +15,14 @@ import java.util.Date;
  * It has a description, amount, and date.
  */
 @Entity
-@Table(name = "expense")
-public class Expense implements Serializable {
+@Table(name = "expense", indexes = {
+        @Index(name = "idx_expense_user_sequence", columnList = "user_id, change_sequence"),
+        @Index(name = "idx_expense_user_date", columnList = "user_id, date"),
+        @Index(name = "idx_expense_user_amount", columnList = "user_id, amount"),
+        @Index(name = "idx_expense_user_budget_date", columnList = "user_id, budget_id, date"),
+        @Index(name = "idx_expense_user_category_date", columnList = "user_id, category_id, date"),
+        @Index(name = "idx_expense_user_description", columnList = "user_id, description") })
+public class Expense implements Serializable, ChangeTracked {
     /**
      * The unique identifier for the expense.
      */
@@ -43,8 +50,7 @@ public class Expense implements Serializable {
      * Cannot be null.
      */
     @NotNull
-    @Temporal(TemporalType.DATE)
-    private Date date;
+    private LocalDate date;
 
     /**
      * The category to which the expense belongs.
@@ -62,6 +68,19 @@ public class Expense implements Serializable {
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
+    /**
+     * The owner's change sequence at the last write of the expense.
+     * Assigned by the service layer on every write.
+     */
+    @Column(name = "change_sequence")
+    private Long changeSequence;
+
+    /**
+     * The time of the last write of the expense.
+     */
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
     // New relationship to Budget
     @ManyToOne
     @JoinColumn(name = "budget_id")
@@ -128,7 +147,7 @@ public class Expense implements Serializable {
      *
      * @return the date of the expense
      */
-    public Date getDate() {
+    public LocalDate getDate() {
         return date;
     }
 
@@ -137,7 +156,7 @@ public class Expense implements Serializable {
      *
      * @param date the date to set
      */
-    public void setDate(Date date) {
+    public void setDate(LocalDate date) {
         this.date = date;
     }
 
@@ -185,4 +204,24 @@ public class Expense implements Serializable {
     public void setBudget(Budget budget) {
         this.budget = budget;
     }
+
+    @Override
+    public Long getChangeSequence() {
+        return changeSequence;
+    }
+
+    @Override
+    public void setChangeSequence(Long changeSequence) {
+        this.changeSequence = changeSequence;
+    }
+
+    @Override
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    @Override
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
 }
@@ -0,0 +1,113 @@
+package org.vaadin.application.model;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import org.springframework.format.annotation.DateTimeFormat;
+
+/**
+ * Position in a sorted expense search after which the next page starts: the
+ * ID of the last expense of the previous page and its values of the sort
+ * properties.
+ *
+ * <p>
+ * Searching from a cursor (keyset paging) seeks directly to the position in
+ * the index that matches the sort order, so a deep page costs as much as the
+ * first one; with a page offset, the database reads and skips every row
+ * before the page. Only the values of the properties the search is sorted by
+ * need to be set.
+ * </p>
+ */
+public class ExpenseCursor implements Serializable {
+
+    /**
+     * The ID of the last expense of the previous page.
+     */
+    private Long afterId;
+
+    /**
+     * The date of the last expense of the previous page.
+     */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate afterDate;
+
+    /**
+     * The amount of the last expense of the previous page.
+     */
+    private BigDecimal afterAmount;
+
+    /**
+     * The description of the last expense of the previous page.
+     */
+    private String afterDescription;
+
+    /**
+     * Creates the cursor after an expense.
+     *
+     * @param expense the last expense of a page
+     * @return the cursor
+     */
+    public static ExpenseCursor after(Expense expense) {
+        ExpenseCursor cursor = new ExpenseCursor();
+        cursor.setAfterId(expense.getId());
+        cursor.setAfterDate(expense.getDate());
+        cursor.setAfterAmount(expense.getAmount());
+        cursor.setAfterDescription(expense.getDescription());
+        return cursor;
+    }
+
+    /**
+     * Returns the value of a sort property at the cursor.
+     *
+     * @param property the property, one of {@code date}, {@code amount},
+     *                 {@code description} and {@code id}
+     * @return the value, or null if it is not set
+     * @throws IllegalArgumentException if the property is not one of these
+     */
+    public Comparable<?> getValue(String property) {
+        switch (property) {
+            case "date":
+                return afterDate;
+            case "amount":
+                return afterAmount;
+            case "description":
+                return afterDescription;
+            case "id":
+                return afterId;
+            default:
+                throw new IllegalArgumentException("Cannot page expenses by " + property);
+        }
+    }
+
+    public Long getAfterId() {
+        return afterId;
+    }
+
+    public void setAfterId(Long afterId) {
+        this.afterId = afterId;
+    }
+
+    public LocalDate getAfterDate() {
+        return afterDate;
+    }
+
+    public void setAfterDate(LocalDate afterDate) {
+        this.afterDate = afterDate;
+    }
+
+    public BigDecimal getAfterAmount() {
+        return afterAmount;
+    }
+
+    public void setAfterAmount(BigDecimal afterAmount) {
+        this.afterAmount = afterAmount;
+    }
+
+    public String getAfterDescription() {
+        return afterDescription;
+    }
+
+    public void setAfterDescription(String afterDescription) {
+        this.afterDescription = afterDescription;
+    }
+}
@@ -0,0 +1,106 @@
+package org.vaadin.application.model;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import org.springframework.format.annotation.DateTimeFormat;
+
+/**
+ * Criteria for searching a user's expenses. Every criterion is optional; unset
+ * criteria do not restrict the result.
+ */
+public class ExpenseFilter implements Serializable {
+
+    /**
+     * The first date to include.
+     */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from;
+
+    /**
+     * The last date to include.
+     */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to;
+
+    /**
+     * The smallest amount to include.
+     */
+    private BigDecimal minAmount;
+
+    /**
+     * The largest amount to include.
+     */
+    private BigDecimal maxAmount;
+
+    /**
+     * The ID of the budget the expenses must belong to.
+     */
+    private Long budgetId;
+
+    /**
+     * The ID of the expense category the expenses must belong to.
+     */
+    private Long categoryId;
+
+    /**
+     * Text the description must start with, ignoring case.
+     */
+    private String text;
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+
+    public BigDecimal getMinAmount() {
+        return minAmount;
+    }
+
+    public void setMinAmount(BigDecimal minAmount) {
+        this.minAmount = minAmount;
+    }
+
+    public BigDecimal getMaxAmount() {
+        return maxAmount;
+    }
+
+    public void setMaxAmount(BigDecimal maxAmount) {
+        this.maxAmount = maxAmount;
+    }
+
+    public Long getBudgetId() {
+        return budgetId;
+    }
+
+    public void setBudgetId(Long budgetId) {
+        this.budgetId = budgetId;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+}
@@ -6,7 +6,8 @@ import jakarta.validation.constraints.DecimalMin;
 
 import java.io.Serializable;
 import java.math.BigDecimal;
-import java.util.Date;
+import java.time.Instant;
+import java.time.LocalDate;
 
 /**
  * Entity representing an income.
@@ -14,8 +15,10 @@ import java.util.Date;
  * source, amount, date, and payment frequency.
  */
 @Entity
-@Table(name = "income")
-public class Income implements Serializable {
+@Table(name = "income", indexes = {
+        @Index(name = "idx_income_user_sequence", columnList = "user_id, change_sequence"),
+        @Index(name = "idx_income_user_date", columnList = "user_id, date") })
+public class Income implements Serializable, ChangeTracked {
     /**
      * The unique identifier for the income.
      */
@@ -43,8 +46,7 @@ public class Income implements Serializable {
      * Cannot be null.
      */
     @NotNull
-    @Temporal(TemporalType.DATE)
-    private Date date;
+    private LocalDate date;
 
     /**
      * The user associated with the income.
@@ -54,6 +56,19 @@ public class Income implements Serializable {
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
+    /**
+     * The owner's change sequence at the last write of the income.
+     * Assigned by the service layer on every write.
+     */
+    @Column(name = "change_sequence")
+    private Long changeSequence;
+
+    /**
+     * The time of the last write of the income.
+     */
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
     /**
      * The payment frequency of the income (e.g., weekly, monthly).
      * Cannot be null.
@@ -122,7 +137,7 @@ public class Income implements Serializable {
      *
      * @return the date of the income
      */
-    public Date getDate() {
+    public LocalDate getDate() {
         return date;
     }
 
@@ -131,7 +146,7 @@ public class Income implements Serializable {
      *
      * @param date the date to set
      */
-    public void setDate(Date date) {
+    public void setDate(LocalDate date) {
         this.date = date;
     }
 
@@ -170,4 +185,24 @@ public class Income implements Serializable {
     public void setPaymentFrequency(String paymentFrequency) {
         this.paymentFrequency = paymentFrequency;
     }
+
+    @Override
+    public Long getChangeSequence() {
+        return changeSequence;
+    }
+
+    @Override
+    public void setChangeSequence(Long changeSequence) {
+        this.changeSequence = changeSequence;
+    }
+
+    @Override
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    @Override
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
 }
@@ -4,7 +4,8 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.DecimalMin;
 
-import java.util.Date;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.UUID;
 
 /**
@@ -12,8 +13,8 @@ import java.util.UUID;
  * An invoice has a recipient name, an amount payable, and additional details like issue date, etc.
  */
 @Entity
-@Table(name = "invoice")
-public class Invoice {
+@Table(name = "invoice", indexes = @Index(name = "idx_invoice_user_sequence", columnList = "user_id, change_sequence"))
+public class Invoice implements ChangeTracked {
 
     /**
      * The unique identifier for the invoice.
@@ -49,14 +50,14 @@ public class Invoice {
      * Cannot be null.
      */
     @NotNull
-    private Date issueDate;
+    private LocalDate issueDate;
 
     /**
      * The due date of the invoice.
      * Cannot be null.
      */
     @NotNull
-    private Date dueDate;
+    private LocalDate dueDate;
 
     /**
      * The description or purpose of the invoice.
@@ -77,6 +78,19 @@ public class Invoice {
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
+    /**
+     * The owner's change sequence at the last write of the invoice.
+     * Assigned by the service layer on every write.
+     */
+    @Column(name = "change_sequence")
+    private Long changeSequence;
+
+    /**
+     * The time of the last write of the invoice.
+     */
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
     public UUID getId() {
         return id;
     }
@@ -109,19 +123,19 @@ public class Invoice {
         this.amount = amount;
     }
 
-    public Date getIssueDate() {
+    public LocalDate getIssueDate() {
         return issueDate;
     }
 
-    public void setIssueDate(Date issueDate) {
+    public void setIssueDate(LocalDate issueDate) {
         this.issueDate = issueDate;
     }
 
-    public Date getDueDate() {
+    public LocalDate getDueDate() {
         return dueDate;
     }
 
-    public void setDueDate(Date dueDate) {
+    public void setDueDate(LocalDate dueDate) {
         this.dueDate = dueDate;
     }
 
@@ -158,4 +172,24 @@ public class Invoice {
     public void setUser(User user) {
         this.user = user;
     }
+
+    @Override
+    public Long getChangeSequence() {
+        return changeSequence;
+    }
+
+    @Override
+    public void setChangeSequence(Long changeSequence) {
+        this.changeSequence = changeSequence;
+    }
+
+    @Override
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    @Override
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
 }
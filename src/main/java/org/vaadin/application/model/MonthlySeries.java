@@ -0,0 +1,283 @@
+package org.vaadin.application.model;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+
+/**
+ * Amounts for consecutive calendar months, held as cents in one
+ * {@code long[]} indexed from a start month.
+ *
+ * <p>
+ * Unlike a map keyed by {@link java.time.Month}, a series can span any number
+ * of months without two years' months colliding, keeps its months in
+ * chronological order, and stores its values without boxing. The arithmetic
+ * methods update the series in place with plain loops over the array and
+ * return it, so that several steps can be chained without allocating.
+ * </p>
+ */
+public final class MonthlySeries implements Serializable {
+
+    private final YearMonth start;
+    private final long[] cents;
+
+    /**
+     * Creates a series of zeros.
+     *
+     * @param start  the first month
+     * @param length the number of months
+     */
+    public MonthlySeries(YearMonth start, int length) {
+        this(start, new long[length]);
+    }
+
+    /**
+     * Creates a series backed by an array of cents, which is used directly and
+     * not copied.
+     *
+     * @param start the first month
+     * @param cents the amount in cents of each month from {@code start} on
+     */
+    public MonthlySeries(YearMonth start, long[] cents) {
+        this.start = start;
+        this.cents = cents;
+    }
+
+    /**
+     * Returns the first month of the series.
+     *
+     * @return the first month
+     */
+    public YearMonth getStart() {
+        return start;
+    }
+
+    /**
+     * Returns the last month of the series.
+     *
+     * @return the last month
+     */
+    public YearMonth getEnd() {
+        return start.plusMonths(cents.length - 1L);
+    }
+
+    /**
+     * Returns the number of months in the series.
+     *
+     * @return the number of months
+     */
+    public int size() {
+        return cents.length;
+    }
+
+    /**
+     * Returns the month at a position.
+     *
+     * @param index the zero-based position
+     * @return the month
+     */
+    public YearMonth getMonth(int index) {
+        return start.plusMonths(index);
+    }
+
+    /**
+     * Returns the position of a month.
+     *
+     * @param month the month
+     * @return the zero-based position, which is negative or at least
+     *         {@link #size()} for months outside the series
+     */
+    public int indexOf(YearMonth month) {
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, start.until(month, ChronoUnit.MONTHS)));
+    }
+
+    /**
+     * Returns the amount of a month in cents.
+     *
+     * @param index the zero-based position of the month
+     * @return the amount in cents
+     */
+    public long getCents(int index) {
+        return cents[index];
+    }
+
+    /**
+     * Returns the amount of a month.
+     *
+     * @param index the zero-based position of the month
+     * @return the amount, with two decimal places
+     */
+    public BigDecimal getAmount(int index) {
+        return BigDecimal.valueOf(cents[index], 2);
+    }
+
+    /**
+     * Sets the amount of a month in cents.
+     *
+     * @param index the zero-based position of the month
+     * @param value the amount in cents
+     */
+    public void setCents(int index, long value) {
+        cents[index] = value;
+    }
+
+    /**
+     * Adds an amount to the month containing a date. Dates outside the series
+     * are ignored.
+     *
+     * @param date   the date of the amount
+     * @param amount the amount, rounded to cents
+     * @return true if the date falls within the series
+     */
+    public boolean add(LocalDate date, BigDecimal amount) {
+        int index = indexOf(YearMonth.from(date));
+        if (index < 0 || index >= cents.length) {
+            return false;
+        }
+        cents[index] += toCents(amount);
+        return true;
+    }
+
+    /**
+     * Adds the amounts of another series, month by month. Months of the other
+     * series outside this one are ignored.
+     *
+     * @param other the series to add
+     * @return this series
+     */
+    public MonthlySeries add(MonthlySeries other) {
+        int offset = indexOf(other.start);
+        int from = Math.max(0, offset);
+        int to = (int) Math.min(cents.length, (long) offset + other.cents.length);
+        for (int i = from; i < to; i++) {
+            cents[i] += other.cents[i - offset];
+        }
+        return this;
+    }
+
+    /**
+     * Subtracts the amounts of another series, month by month. Months of the
+     * other series outside this one are ignored.
+     *
+     * @param other the series to subtract
+     * @return this series
+     */
+    public MonthlySeries subtract(MonthlySeries other) {
+        int offset = indexOf(other.start);
+        int from = Math.max(0, offset);
+        int to = (int) Math.min(cents.length, (long) offset + other.cents.length);
+        for (int i = from; i < to; i++) {
+            cents[i] -= other.cents[i - offset];
+        }
+        return this;
+    }
+
+    /**
+     * Multiplies every amount by a factor, rounding to the nearest cent.
+     *
+     * @param factor the factor
+     * @return this series
+     */
+    public MonthlySeries scale(double factor) {
+        for (int i = 0; i < cents.length; i++) {
+            cents[i] = Math.round(cents[i] * factor);
+        }
+        return this;
+    }
+
+    /**
+     * Sets every month to the same amount.
+     *
+     * @param value the amount in cents
+     * @return this series
+     */
+    public MonthlySeries fill(long value) {
+        Arrays.fill(cents, value);
+        return this;
+    }
+
+    /**
+     * Raises every amount below a minimum to that minimum.
+     *
+     * @param minimum the smallest amount in cents to keep
+     * @return this series
+     */
+    public MonthlySeries atLeast(long minimum) {
+        for (int i = 0; i < cents.length; i++) {
+            cents[i] = Math.max(cents[i], minimum);
+        }
+        return this;
+    }
+
+    /**
+     * Sums all months.
+     *
+     * @return the total in cents
+     */
+    public long sum() {
+        long total = 0;
+        for (long value : cents) {
+            total += value;
+        }
+        return total;
+    }
+
+    /**
+     * Returns a copy of the series that is not affected by later changes to
+     * this one.
+     *
+     * @return the copy
+     */
+    public MonthlySeries copy() {
+        return new MonthlySeries(start, cents.clone());
+    }
+
+    /**
+     * Returns the amounts in currency units, for charts.
+     *
+     * @return the amount of each month
+     */
+    public double[] toDoubleArray() {
+        double[] amounts = new double[cents.length];
+        for (int i = 0; i < cents.length; i++) {
+            amounts[i] = cents[i] / 100.0;
+        }
+        return amounts;
+    }
+
+    /**
+     * Converts an amount to cents, rounding half up.
+     *
+     * @param amount the amount, or null for zero
+     * @return the amount in cents
+     */
+    public static long toCents(BigDecimal amount) {
+        return amount == null ? 0 : amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof MonthlySeries)) {
+            return false;
+        }
+        MonthlySeries other = (MonthlySeries) o;
+        return start.equals(other.start) && Arrays.equals(cents, other.cents);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * start.hashCode() + Arrays.hashCode(cents);
+    }
+
+    @Override
+    public String toString() {
+        return "MonthlySeries{start=" + start + ", cents=" + Arrays.toString(cents) + "}";
+    }
+}
@@ -0,0 +1,47 @@
+package org.vaadin.application.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * The total amount of one day or month, optionally for one group such as a
+ * budget or an expense category, as returned by the aggregation queries.
+ */
+public class PeriodTotal {
+
+    private final LocalDate period;
+    private final Long groupKey;
+    private final String groupLabel;
+    private final BigDecimal total;
+
+    /**
+     * Creates a period total.
+     *
+     * @param period     the day, or the first day of the month, of the total
+     * @param groupKey   the ID of the group, or null
+     * @param groupLabel the name of the group, or null
+     * @param total      the total amount
+     */
+    public PeriodTotal(LocalDate period, Long groupKey, String groupLabel, BigDecimal total) {
+        this.period = period;
+        this.groupKey = groupKey;
+        this.groupLabel = groupLabel;
+        this.total = total;
+    }
+
+    public LocalDate getPeriod() {
+        return period;
+    }
+
+    public Long getGroupKey() {
+        return groupKey;
+    }
+
+    public String getGroupLabel() {
+        return groupLabel;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+}
@@ -0,0 +1,55 @@
+package org.vaadin.application.model;
+
+/**
+ * One result of a full-text search: the kind and ID of a matching entity and
+ * how well it matched. Entities are not loaded, so callers fetch only the ones
+ * they display.
+ */
+public class SearchHit {
+
+    /**
+     * The kinds of entities that are searchable, with the text indexed for each.
+     */
+    public enum Type {
+        /** Expenses, by description. */
+        EXPENSE,
+        /** Incomes, by source. */
+        INCOME,
+        /** Invoices, by description. */
+        INVOICE,
+        /** Notes, by content. */
+        NOTE
+    }
+
+    private final Type type;
+    private final String id;
+    private final float score;
+
+    public SearchHit(Type type, String id, float score) {
+        this.type = type;
+        this.id = id;
+        this.score = score;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Gets the ID of the matching entity, as text because invoices have UUIDs.
+     *
+     * @return the ID of the entity
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Gets the relevance of the match; higher scores are better matches.
+     *
+     * @return the relevance score
+     */
+    public float getScore() {
+        return score;
+    }
+}
@@ -0,0 +1,198 @@
+package org.vaadin.application.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.IsoFields;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Aggregated amounts of a user over consecutive time buckets, in column form:
+ * one list of bucket start dates and, per group, one array of totals aligned
+ * with it.
+ */
+public class Series {
+
+    /**
+     * The amount that is aggregated.
+     */
+    public enum Metric {
+        /** The sum of expenses. */
+        EXPENSE,
+        /**
+         * The sum of incomes. Recurring incomes are counted once, on their
+         * date, as in {@code IncomeService.getTotalIncomeBetween}, not as
+         * monthly amounts.
+         */
+        INCOME,
+        /** Incomes minus expenses. */
+        NET
+    }
+
+    /**
+     * The length of a time bucket. Weeks start on Monday.
+     */
+    public enum Bucket {
+        DAY,
+        WEEK,
+        MONTH,
+        QUARTER,
+        YEAR;
+
+        /**
+         * Returns the start of the bucket containing a date.
+         *
+         * @param date the date
+         * @return the first day of its bucket
+         */
+        public LocalDate start(LocalDate date) {
+            switch (this) {
+                case DAY:
+                    return date;
+                case WEEK:
+                    return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                case MONTH:
+                    return date.withDayOfMonth(1);
+                case QUARTER:
+                    return date.with(IsoFields.DAY_OF_QUARTER, 1);
+                default:
+                    return date.withDayOfYear(1);
+            }
+        }
+
+        /**
+         * Returns the start of the bucket following the one starting at a date.
+         *
+         * @param start the first day of a bucket
+         * @return the first day of the next bucket
+         */
+        public LocalDate next(LocalDate start) {
+            switch (this) {
+                case DAY:
+                    return start.plusDays(1);
+                case WEEK:
+                    return start.plusWeeks(1);
+                case MONTH:
+                    return start.plusMonths(1);
+                case QUARTER:
+                    return start.plusMonths(3);
+                default:
+                    return start.plusYears(1);
+            }
+        }
+
+        /**
+         * Tells whether the bucket needs daily totals, or can be built from
+         * monthly totals.
+         *
+         * @return true for day and week buckets
+         */
+        public boolean isDaily() {
+            return this == DAY || this == WEEK;
+        }
+    }
+
+    /**
+     * How expenses are split into separate columns.
+     */
+    public enum GroupBy {
+        /** A single column. */
+        NONE,
+        /** One column per budget, and one for expenses without a budget. */
+        BUDGET,
+        /** One column per expense category, and one for uncategorized expenses. */
+        CATEGORY
+    }
+
+    /**
+     * The totals of one group for every bucket.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Column {
+        private final Long key;
+        private final String label;
+        private final BigDecimal[] values;
+
+        /**
+         * Creates a column of zero totals.
+         *
+         * @param key     the ID of the budget or category, or null
+         * @param label   the name of the budget or category, or null
+         * @param buckets the number of buckets
+         */
+        public Column(Long key, String label, int buckets) {
+            this.key = key;
+            this.label = label;
+            this.values = new BigDecimal[buckets];
+            Arrays.fill(values, BigDecimal.ZERO);
+        }
+
+        /**
+         * Adds an amount to the total of one bucket.
+         *
+         * @param bucket the index of the bucket
+         * @param amount the amount to add
+         */
+        public void add(int bucket, BigDecimal amount) {
+            values[bucket] = values[bucket].add(amount);
+        }
+
+        public Long getKey() {
+            return key;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public BigDecimal[] getValues() {
+            return values;
+        }
+    }
+
+    private final Metric metric;
+    private final Bucket bucket;
+    private final GroupBy groupBy;
+    private final List<LocalDate> buckets;
+    private final List<Column> columns;
+
+    /**
+     * Creates a series.
+     *
+     * @param metric  the amount aggregated
+     * @param bucket  the length of each bucket
+     * @param groupBy how the amounts are split into columns
+     * @param buckets the start date of every bucket
+     * @param columns the totals per group, aligned with the buckets
+     */
+    public Series(Metric metric, Bucket bucket, GroupBy groupBy, List<LocalDate> buckets, List<Column> columns) {
+        this.metric = metric;
+        this.bucket = bucket;
+        this.groupBy = groupBy;
+        this.buckets = buckets;
+        this.columns = columns;
+    }
+
+    public Metric getMetric() {
+        return metric;
+    }
+
+    public Bucket getBucket() {
+        return bucket;
+    }
+
+    public GroupBy getGroupBy() {
+        return groupBy;
+    }
+
+    public List<LocalDate> getBuckets() {
+        return buckets;
+    }
+
+    public List<Column> getColumns() {
+        return columns;
+    }
+}
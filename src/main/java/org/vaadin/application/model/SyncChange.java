@@ -0,0 +1,75 @@
+package org.vaadin.application.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.time.Instant;
+
+/**
+ * One changed or deleted row returned by the delta synchronization endpoint.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SyncChange {
+
+    private final long sequence;
+    private final SyncEntityType type;
+    private final Object id;
+    private final boolean deleted;
+    private final Instant updatedAt;
+    private final Object data;
+
+    private SyncChange(long sequence, SyncEntityType type, Object id, boolean deleted, Instant updatedAt,
+            Object data) {
+        this.sequence = sequence;
+        this.type = type;
+        this.id = id;
+        this.deleted = deleted;
+        this.updatedAt = updatedAt;
+        this.data = data;
+    }
+
+    /**
+     * Creates the change of a row that was added or updated.
+     *
+     * @param type   the kind of entity
+     * @param id     the ID of the entity
+     * @param entity the entity in its current state
+     * @return the change
+     */
+    public static SyncChange written(SyncEntityType type, Object id, ChangeTracked entity) {
+        return new SyncChange(entity.getChangeSequence(), type, id, false, entity.getUpdatedAt(), entity);
+    }
+
+    /**
+     * Creates the change of a row that was deleted.
+     *
+     * @param tombstone the tombstone of the deleted entity
+     * @return the change
+     */
+    public static SyncChange deleted(SyncTombstone tombstone) {
+        return new SyncChange(tombstone.getChangeSequence(), tombstone.getEntityType(), tombstone.getEntityId(),
+                true, tombstone.getDeletedAt(), null);
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public SyncEntityType getType() {
+        return type;
+    }
+
+    public Object getId() {
+        return id;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public Object getData() {
+        return data;
+    }
+}
@@ -0,0 +1,12 @@
+package org.vaadin.application.model;
+
+/**
+ * The kinds of entity that are returned by the delta synchronization endpoint.
+ */
+public enum SyncEntityType {
+    EXPENSE,
+    INCOME,
+    BUDGET,
+    INVOICE,
+    ASSET
+}
@@ -0,0 +1,44 @@
+package org.vaadin.application.model;
+
+import java.util.List;
+
+/**
+ * One page of changes returned by the delta synchronization endpoint.
+ *
+ * <p>
+ * Changes are ordered by the user's change sequence. A client passes
+ * {@link #getNextSince()} as {@code since} to fetch the next page, and keeps it
+ * to resume synchronizing later.
+ * </p>
+ */
+public class SyncPage {
+
+    private final List<SyncChange> changes;
+    private final long nextSince;
+    private final boolean hasMore;
+
+    /**
+     * Creates a page of changes.
+     *
+     * @param changes   the changes, in sequence order
+     * @param nextSince the sequence to continue from
+     * @param hasMore   whether more changes follow this page
+     */
+    public SyncPage(List<SyncChange> changes, long nextSince, boolean hasMore) {
+        this.changes = changes;
+        this.nextSince = nextSince;
+        this.hasMore = hasMore;
+    }
+
+    public List<SyncChange> getChanges() {
+        return changes;
+    }
+
+    public long getNextSince() {
+        return nextSince;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+}
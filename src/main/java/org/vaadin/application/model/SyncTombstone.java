@@ -0,0 +1,109 @@
+package org.vaadin.application.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.Instant;
+
+/**
+ * Entity recording the deletion of a change-tracked entity, so that clients
+ * synchronizing incrementally learn about rows that no longer exist.
+ */
+@Entity
+@Table(name = "sync_tombstone",
+        indexes = @Index(name = "idx_sync_tombstone_user_sequence", columnList = "user_id, change_sequence"))
+public class SyncTombstone {
+
+    /**
+     * The unique identifier for the tombstone.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * The ID of the user who owned the deleted entity.
+     * Cannot be null.
+     */
+    @NotNull
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /**
+     * The kind of entity that was deleted.
+     * Cannot be null.
+     */
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false, length = 16)
+    private SyncEntityType entityType;
+
+    /**
+     * The ID of the deleted entity, as a string so that numeric and UUID IDs
+     * share one column.
+     * Cannot be null.
+     */
+    @NotNull
+    @Column(name = "entity_id", nullable = false, length = 36)
+    private String entityId;
+
+    /**
+     * The user's change sequence assigned to the deletion.
+     */
+    @Column(name = "change_sequence", nullable = false)
+    private long changeSequence;
+
+    /**
+     * The time of the deletion.
+     */
+    @Column(name = "deleted_at", nullable = false)
+    private Instant deletedAt;
+
+    /**
+     * Creates an empty tombstone, as required by JPA.
+     */
+    protected SyncTombstone() {
+    }
+
+    /**
+     * Creates a tombstone for a deleted entity.
+     *
+     * @param userId         the ID of the user who owned the entity
+     * @param entityType     the kind of entity deleted
+     * @param entityId       the ID of the deleted entity
+     * @param changeSequence the change sequence assigned to the deletion
+     * @param deletedAt      the time of the deletion
+     */
+    public SyncTombstone(Long userId, SyncEntityType entityType, String entityId, long changeSequence,
+            Instant deletedAt) {
+        this.userId = userId;
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.changeSequence = changeSequence;
+        this.deletedAt = deletedAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public SyncEntityType getEntityType() {
+        return entityType;
+    }
+
+    public String getEntityId() {
+        return entityId;
+    }
+
+    public long getChangeSequence() {
+        return changeSequence;
+    }
+
+    public Instant getDeletedAt() {
+        return deletedAt;
+    }
+}
@@ -0,0 +1,366 @@
+package org.vaadin.application.model;
+
+import java.time.LocalDate;
+
+/**
+ * Settings of a synthetic data load: how many users to create, how much data
+ * each of them owns and how it is distributed.
+ *
+ * <p>
+ * Per-user counts are averages; each user receives between half and one and a
+ * half times the configured number of each kind of row. The same settings and
+ * seed always produce the same rows.
+ * </p>
+ */
+public class SyntheticDataSpec {
+
+    private long seed = 42;
+    private int users = 100;
+    private String userNamePrefix = "synthetic";
+    private String password = "password";
+    private LocalDate endDate;
+    private int historyMonths = 24;
+    private int budgetsPerUser = 4;
+    private int categoriesPerUser = 6;
+    private int expensesPerUser = 500;
+    private int incomesPerUser = 3;
+    private int invoicesPerUser = 20;
+    private int assetsPerUser = 3;
+    private int goalsPerUser = 2;
+    private int employeesPerUser = 2;
+    private double seasonality = 0.3;
+    private double unbudgetedShare = 0.2;
+    private int batchSize = 5000;
+    private int threads = 4;
+
+    /**
+     * Gets the seed of the random streams.
+     *
+     * @return the seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Sets the seed of the random streams.
+     *
+     * @param seed the seed
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Gets the number of users to create.
+     *
+     * @return the number of users
+     */
+    public int getUsers() {
+        return users;
+    }
+
+    /**
+     * Sets the number of users to create.
+     *
+     * @param users the number of users
+     */
+    public void setUsers(int users) {
+        this.users = users;
+    }
+
+    /**
+     * Gets the prefix of the generated user names, which are followed by the
+     * seed and the user's number.
+     *
+     * @return the prefix
+     */
+    public String getUserNamePrefix() {
+        return userNamePrefix;
+    }
+
+    /**
+     * Sets the prefix of the generated user names.
+     *
+     * @param userNamePrefix the prefix
+     */
+    public void setUserNamePrefix(String userNamePrefix) {
+        this.userNamePrefix = userNamePrefix;
+    }
+
+    /**
+     * Gets the password of every generated user.
+     *
+     * @return the plain password
+     */
+    public String getPassword() {
+        return password;
+    }
+
+    /**
+     * Sets the password of every generated user.
+     *
+     * @param password the plain password
+     */
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    /**
+     * Gets the last day generated data may fall on.
+     *
+     * @return the last day, or null for today
+     */
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    /**
+     * Sets the last day generated data may fall on. Fixing it makes a load
+     * reproducible on any day.
+     *
+     * @param endDate the last day, or null for today
+     */
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    /**
+     * Gets the number of months, up to and including the month of the end
+     * date, that dated rows are spread over.
+     *
+     * @return the number of months
+     */
+    public int getHistoryMonths() {
+        return historyMonths;
+    }
+
+    /**
+     * Sets the number of months that dated rows are spread over.
+     *
+     * @param historyMonths the number of months
+     */
+    public void setHistoryMonths(int historyMonths) {
+        this.historyMonths = historyMonths;
+    }
+
+    /**
+     * Gets the average number of budgets per user.
+     *
+     * @return the average number of budgets
+     */
+    public int getBudgetsPerUser() {
+        return budgetsPerUser;
+    }
+
+    /**
+     * Sets the average number of budgets per user.
+     *
+     * @param budgetsPerUser the average number of budgets
+     */
+    public void setBudgetsPerUser(int budgetsPerUser) {
+        this.budgetsPerUser = budgetsPerUser;
+    }
+
+    /**
+     * Gets the average number of expense categories per user.
+     *
+     * @return the average number of categories
+     */
+    public int getCategoriesPerUser() {
+        return categoriesPerUser;
+    }
+
+    /**
+     * Sets the average number of expense categories per user.
+     *
+     * @param categoriesPerUser the average number of categories
+     */
+    public void setCategoriesPerUser(int categoriesPerUser) {
+        this.categoriesPerUser = categoriesPerUser;
+    }
+
+    /**
+     * Gets the average number of expenses per user.
+     *
+     * @return the average number of expenses
+     */
+    public int getExpensesPerUser() {
+        return expensesPerUser;
+    }
+
+    /**
+     * Sets the average number of expenses per user.
+     *
+     * @param expensesPerUser the average number of expenses
+     */
+    public void setExpensesPerUser(int expensesPerUser) {
+        this.expensesPerUser = expensesPerUser;
+    }
+
+    /**
+     * Gets the average number of recurring incomes per user.
+     *
+     * @return the average number of incomes
+     */
+    public int getIncomesPerUser() {
+        return incomesPerUser;
+    }
+
+    /**
+     * Sets the average number of recurring incomes per user.
+     *
+     * @param incomesPerUser the average number of incomes
+     */
+    public void setIncomesPerUser(int incomesPerUser) {
+        this.incomesPerUser = incomesPerUser;
+    }
+
+    /**
+     * Gets the average number of invoices per user.
+     *
+     * @return the average number of invoices
+     */
+    public int getInvoicesPerUser() {
+        return invoicesPerUser;
+    }
+
+    /**
+     * Sets the average number of invoices per user.
+     *
+     * @param invoicesPerUser the average number of invoices
+     */
+    public void setInvoicesPerUser(int invoicesPerUser) {
+        this.invoicesPerUser = invoicesPerUser;
+    }
+
+    /**
+     * Gets the average number of assets per user.
+     *
+     * @return the average number of assets
+     */
+    public int getAssetsPerUser() {
+        return assetsPerUser;
+    }
+
+    /**
+     * Sets the average number of assets per user.
+     *
+     * @param assetsPerUser the average number of assets
+     */
+    public void setAssetsPerUser(int assetsPerUser) {
+        this.assetsPerUser = assetsPerUser;
+    }
+
+    /**
+     * Gets the average number of financial goals per user.
+     *
+     * @return the average number of goals
+     */
+    public int getGoalsPerUser() {
+        return goalsPerUser;
+    }
+
+    /**
+     * Sets the average number of financial goals per user.
+     *
+     * @param goalsPerUser the average number of goals
+     */
+    public void setGoalsPerUser(int goalsPerUser) {
+        this.goalsPerUser = goalsPerUser;
+    }
+
+    /**
+     * Gets the average number of employees per user.
+     *
+     * @return the average number of employees
+     */
+    public int getEmployeesPerUser() {
+        return employeesPerUser;
+    }
+
+    /**
+     * Sets the average number of employees per user.
+     *
+     * @param employeesPerUser the average number of employees
+     */
+    public void setEmployeesPerUser(int employeesPerUser) {
+        this.employeesPerUser = employeesPerUser;
+    }
+
+    /**
+     * Gets the seasonal swing of the number of expenses per month.
+     *
+     * @return the relative difference between December, the busiest month,
+     *         and the average month
+     */
+    public double getSeasonality() {
+        return seasonality;
+    }
+
+    /**
+     * Sets the seasonal swing of the number of expenses per month.
+     *
+     * @param seasonality the relative difference between December and the
+     *                    average month, between 0 and 1
+     */
+    public void setSeasonality(double seasonality) {
+        this.seasonality = seasonality;
+    }
+
+    /**
+     * Gets the share of expenses without a budget.
+     *
+     * @return the share, between 0 and 1
+     */
+    public double getUnbudgetedShare() {
+        return unbudgetedShare;
+    }
+
+    /**
+     * Sets the share of expenses without a budget.
+     *
+     * @param unbudgetedShare the share, between 0 and 1
+     */
+    public void setUnbudgetedShare(double unbudgetedShare) {
+        this.unbudgetedShare = unbudgetedShare;
+    }
+
+    /**
+     * Gets the number of rows sent to the database in one batch and committed
+     * together.
+     *
+     * @return the batch size
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Sets the number of rows sent to the database in one batch.
+     *
+     * @param batchSize the batch size
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Gets the number of connections loading users in parallel.
+     *
+     * @return the number of threads
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Sets the number of connections loading users in parallel. The generated
+     * rows do not depend on it.
+     *
+     * @param threads the number of threads
+     */
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+}
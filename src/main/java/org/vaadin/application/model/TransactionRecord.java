@@ -2,8 +2,14 @@ package org.vaadin.application.model;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Comparator;
 
 public class TransactionRecord {
+
+    /** Orders records by transaction date, latest first, as in the summary report. */
+    public static final Comparator<TransactionRecord> LATEST_FIRST =
+            Comparator.comparing(TransactionRecord::getTransactionDate).reversed();
+
     private LocalDate transactionDate;
     private BigDecimal amount;
     private String details;
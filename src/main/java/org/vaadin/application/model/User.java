@@ -76,6 +76,15 @@ public class User {
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Set<Income> incomes;
 
+    /**
+     * The last change sequence assigned to a write of the user's data.
+     * Only advanced through {@code UserRepository.advanceChangeSequence}, which
+     * also locks the row until the writing transaction ends, so that sequences
+     * commit in order.
+     */
+    @Column(name = "change_sequence", insertable = false, updatable = false)
+    private Long changeSequence;
+
     // Getters and Setters
 
     /**
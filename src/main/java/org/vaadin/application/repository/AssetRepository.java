@@ -1,9 +1,13 @@
 package org.vaadin.application.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.vaadin.application.model.Asset;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository interface for managing {@link Asset} entities.
@@ -19,4 +23,25 @@ public interface AssetRepository extends JpaRepository<Asset, Long> {
      * @return a list of Assets associated with the specified user ID
      */
     List<Asset> findByUserId(Long userId);
+
+    /**
+     * Finds the assets of a user written after a given change sequence, in
+     * sequence order.
+     *
+     * @param userId   the ID of the user whose assets are to be retrieved
+     * @param since    the change sequence after which to look
+     * @param pageable the maximum number of assets to return
+     * @return the changed assets, ordered by change sequence
+     */
+    List<Asset> findByUserIdAndChangeSequenceGreaterThanOrderByChangeSequence(Long userId, Long since,
+            Pageable pageable);
+
+    /**
+     * Finds the ID of the user who owns the asset with the given ID.
+     *
+     * @param id the ID of the asset
+     * @return the owning user's ID, or empty if the asset does not exist
+     */
+    @Query("SELECT a.user.id FROM Asset a WHERE a.id = :id")
+    Optional<Long> findUserIdById(@Param("id") Long id);
 }
@@ -1,9 +1,18 @@
 package org.vaadin.application.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import org.vaadin.application.model.Budget;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository interface for managing {@link Budget} entities.
@@ -19,4 +28,52 @@ public interface BudgetRepository extends JpaRepository<Budget, Long> {
      * @return a list of budgets associated with the specified user ID
      */
     List<Budget> findByUserId(Long userId);
+
+    /**
+     * Finds the ID of the user who owns the budget with the given ID.
+     *
+     * @param id the ID of the budget
+     * @return the owning user's ID, or empty if the budget does not exist
+     */
+    @Query("SELECT b.user.id FROM Budget b WHERE b.id = :id")
+    Optional<Long> findUserIdById(@Param("id") Long id);
+
+    /**
+     * Finds which of the given budget IDs belong to a user.
+     *
+     * @param userId the ID of the user
+     * @param ids    the budget IDs to look up
+     * @return the IDs of the budgets owned by the user
+     */
+    @Query("SELECT b.id FROM Budget b WHERE b.user.id = :userId AND b.id IN :ids")
+    List<Long> findIdsByUserIdAndIdIn(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+    /**
+     * Adds an amount to the current amount of a budget in a single update,
+     * without loading the budget.
+     *
+     * @param id             the ID of the budget
+     * @param delta          the amount to add, negative to subtract
+     * @param changeSequence the owner's change sequence assigned to the write
+     * @param updatedAt      the time of the write
+     * @return the number of budgets updated
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Budget b SET b.currentAmount = b.currentAmount + :delta, b.changeSequence = :changeSequence, "
+            + "b.updatedAt = :updatedAt WHERE b.id = :id")
+    int addToCurrentAmount(@Param("id") Long id, @Param("delta") BigDecimal delta,
+            @Param("changeSequence") Long changeSequence, @Param("updatedAt") Instant updatedAt);
+
+    /**
+     * Finds the budgets of a user written after a given change sequence, in
+     * sequence order.
+     *
+     * @param userId   the ID of the user whose budgets are to be retrieved
+     * @param since    the change sequence after which to look
+     * @param pageable the maximum number of budgets to return
+     * @return the changed budgets, ordered by change sequence
+     */
+    List<Budget> findByUserIdAndChangeSequenceGreaterThanOrderByChangeSequence(Long userId, Long since,
+            Pageable pageable);
 }
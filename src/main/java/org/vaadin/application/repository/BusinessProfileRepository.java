@@ -1,8 +1,11 @@
 package org.vaadin.application.repository;
 
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.vaadin.application.model.BusinessProfile;
 
 /**
@@ -18,4 +21,13 @@ public interface BusinessProfileRepository extends JpaRepository<BusinessProfile
      * @return a list of BusinessProfiles associated with the specified user ID
      */
     List<BusinessProfile> findByUserId(Long userId);
+
+    /**
+     * Finds the ID of the user who owns the business profile with the given ID.
+     *
+     * @param id the ID of the business profile
+     * @return the owning user's ID, or empty if the business profile does not exist
+     */
+    @Query("SELECT p.user.id FROM BusinessProfile p WHERE p.id = :id")
+    Optional<Long> findUserIdById(@Param("id") Long id);
 }
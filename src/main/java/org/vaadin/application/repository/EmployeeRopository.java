@@ -1,8 +1,11 @@
 package org.vaadin.application.repository;
 
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.vaadin.application.model.Employee;
 
 /**
@@ -18,5 +21,13 @@ public interface EmployeeRopository extends JpaRepository<Employee, Long> {
      * @return a list of Employees associated with the specified user ID
      */
     List<Employee> findByUserId(Long userId);
-    
+
+    /**
+     * Finds the ID of the user who employs the employee with the given ID.
+     *
+     * @param id the ID of the employee
+     * @return the owning user's ID, or empty if the employee does not exist
+     */
+    @Query("SELECT e.user.id FROM Employee e WHERE e.id = :id")
+    Optional<Long> findUserIdById(@Param("id") Long id);
 }
@@ -0,0 +1,26 @@
+package org.vaadin.application.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import org.vaadin.application.model.Expense;
+import org.vaadin.application.model.PeriodTotal;
+import org.vaadin.application.model.Series;
+
+/**
+ * Repository fragment for summing {@link Expense} amounts per period in the
+ * database.
+ */
+public interface ExpenseAggregation {
+
+    /**
+     * Sums the expenses of a user per day or per month between two dates.
+     *
+     * @param userId  the ID of the user
+     * @param from    the first day to include
+     * @param to      the last day to include
+     * @param daily   true to sum per day, false to sum per month
+     * @param groupBy whether to sum separately per budget or per category
+     * @return one total per period and group that has any expenses
+     */
+    List<PeriodTotal> sumByPeriod(Long userId, LocalDate from, LocalDate to, boolean daily, Series.GroupBy groupBy);
+}
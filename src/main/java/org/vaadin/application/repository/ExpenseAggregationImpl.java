@@ -0,0 +1,34 @@
+package org.vaadin.application.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.time.LocalDate;
+import java.util.List;
+import org.vaadin.application.model.PeriodTotal;
+import org.vaadin.application.model.Series;
+
+/**
+ * JPQL implementation of {@link ExpenseAggregation}.
+ */
+class ExpenseAggregationImpl implements ExpenseAggregation {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<PeriodTotal> sumByPeriod(Long userId, LocalDate from, LocalDate to, boolean daily,
+            Series.GroupBy groupBy) {
+        String groupPath;
+        switch (groupBy) {
+            case BUDGET:
+                groupPath = "budget";
+                break;
+            case CATEGORY:
+                groupPath = "category";
+                break;
+            default:
+                groupPath = null;
+        }
+        return PeriodAggregates.sumByPeriod(entityManager, "Expense", groupPath, userId, from, to, daily);
+    }
+}
@@ -0,0 +1,23 @@
+package org.vaadin.application.repository;
+
+import java.util.List;
+import org.vaadin.application.model.Expense;
+
+/**
+ * Repository fragment for inserting many {@link Expense} entities with JDBC
+ * batching.
+ */
+public interface ExpenseBatchInsert {
+
+    /**
+     * Inserts all expenses with a single JDBC batch. Must be called within a
+     * transaction.
+     *
+     * @param expenses the expenses to insert; their user, and optional budget and
+     *                 category, only need an ID,
+     *                 and their change sequence and update time must be
+     *                 assigned
+     * @return the generated IDs, in the same order as the expenses
+     */
+    List<Long> insertAll(List<Expense> expenses);
+}
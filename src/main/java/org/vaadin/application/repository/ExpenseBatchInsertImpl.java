@@ -0,0 +1,32 @@
+package org.vaadin.application.repository;
+
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.vaadin.application.model.Expense;
+
+/**
+ * JDBC implementation of {@link ExpenseBatchInsert}.
+ */
+class ExpenseBatchInsertImpl implements ExpenseBatchInsert {
+
+    private static final String INSERT_SQL = "INSERT INTO expense (description, amount, date, category_id, user_id, budget_id, "
+            + "change_sequence, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<Long> insertAll(List<Expense> expenses) {
+        return JdbcBatchInserts.insert(jdbcTemplate, INSERT_SQL, expenses, (statement, expense) -> {
+            statement.setString(1, expense.getDescription());
+            statement.setBigDecimal(2, expense.getAmount());
+            JdbcBatchInserts.setDate(statement, 3, expense.getDate());
+            JdbcBatchInserts.setId(statement, 4, expense.getCategory() == null ? null : expense.getCategory().getId());
+            JdbcBatchInserts.setId(statement, 5, expense.getUser().getId());
+            JdbcBatchInserts.setId(statement, 6, expense.getBudget() == null ? null : expense.getBudget().getId());
+            JdbcBatchInserts.setId(statement, 7, expense.getChangeSequence());
+            JdbcBatchInserts.setInstant(statement, 8, expense.getUpdatedAt());
+        });
+    }
+}
@@ -1,9 +1,13 @@
 package org.vaadin.application.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.vaadin.application.model.ExpenseCategory;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository interface for managing {@link ExpenseCategory} entities.
@@ -19,4 +23,23 @@ public interface ExpenseCategoryRepository extends JpaRepository<ExpenseCategory
      * @return a list of expense categories associated with the specified user ID
      */
     List<ExpenseCategory> findByUserId(Long userId);
+
+    /**
+     * Finds the ID of the user who owns the expense category with the given ID.
+     *
+     * @param id the ID of the expense category
+     * @return the owning user's ID, or empty if the expense category does not exist
+     */
+    @Query("SELECT c.user.id FROM ExpenseCategory c WHERE c.id = :id")
+    Optional<Long> findUserIdById(@Param("id") Long id);
+
+    /**
+     * Finds which of the given expense category IDs belong to a user.
+     *
+     * @param userId the ID of the user
+     * @param ids    the expense category IDs to look up
+     * @return the IDs of the expense categories owned by the user
+     */
+    @Query("SELECT c.id FROM ExpenseCategory c WHERE c.user.id = :userId AND c.id IN :ids")
+    List<Long> findIdsByUserIdAndIdIn(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
 }
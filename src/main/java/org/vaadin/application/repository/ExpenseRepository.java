@@ -1,6 +1,10 @@
 package org.vaadin.application.repository;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.vaadin.application.model.Expense;
@@ -8,13 +12,15 @@ import org.vaadin.application.model.Expense;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository interface for managing {@link Expense} entities.
  * This interface extends {@link JpaRepository}, providing CRUD operations and
- * custom queries.
+ * custom queries, and {@link ExpenseBatchInsert} for bulk inserts.
  */
-public interface ExpenseRepository extends JpaRepository<Expense, Long> {
+public interface ExpenseRepository
+        extends JpaRepository<Expense, Long>, ExpenseBatchInsert, ExpenseAggregation, ExpenseSearch {
 
     /**
      * Finds a list of expenses associated with a specific user ID.
@@ -24,6 +30,16 @@ public interface ExpenseRepository extends JpaRepository<Expense, Long> {
      */
     List<Expense> findByUserId(Long userId);
 
+    /**
+     * Finds one page of a user's expenses, most recent first. A {@link Slice} is
+     * returned so that no count query is issued.
+     *
+     * @param userId   the ID of the user whose expenses are to be retrieved
+     * @param pageable the page to retrieve
+     * @return a slice of the user's expenses ordered by date, newest first
+     */
+    Slice<Expense> findByUserIdOrderByDateDescIdDesc(Long userId, Pageable pageable);
+
     /**
      * Calculates the total expenses for a user within a specific period.
      *
@@ -62,4 +78,93 @@ public interface ExpenseRepository extends JpaRepository<Expense, Long> {
      */
     @Query("SELECT DISTINCT e.budget.name FROM Expense e WHERE e.user.id = :userId")
     List<String> getDistinctBudgets(@Param("userId") Long userId);
+
+    /**
+     * Calculates the total of all expenses of a user.
+     *
+     * @param userId the ID of the user whose expenses are to be summed
+     * @return the total amount, zero if the user has no expenses
+     */
+    @Query("SELECT COALESCE(SUM(e.amount), 0) FROM Expense e WHERE e.user.id = :userId")
+    BigDecimal findTotalExpenses(@Param("userId") Long userId);
+
+    /**
+     * Finds the ID of the user who owns the expense with the given ID.
+     *
+     * @param id the ID of the expense
+     * @return the owning user's ID, or empty if the expense does not exist
+     */
+    @Query("SELECT e.user.id FROM Expense e WHERE e.id = :id")
+    Optional<Long> findUserIdById(@Param("id") Long id);
+
+    /**
+     * Finds the owner, date, amount, budget and category of an expense and
+     * locks its row until the transaction ends, so that the values replaced by
+     * an update or delete are the ones reported to the {@code RangeSumIndex}
+     * and {@code LedgerCache}.
+     *
+     * @param id the ID of the expense
+     * @return one row of user ID, date, amount, budget ID and category ID, or
+     *         no row if the expense does not exist
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e.user.id, e.date, e.amount, e.budget.id, e.category.id FROM Expense e WHERE e.id = :id")
+    List<Object[]> findOwnerAndValuesById(@Param("id") Long id);
+
+    /**
+     * Finds the ID, date and amount of the expenses in an expense category and
+     * locks their rows until the transaction ends.
+     *
+     * @param categoryId the ID of the expense category
+     * @return rows of expense ID, date and amount
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e.id, e.date, e.amount FROM Expense e WHERE e.category.id = :categoryId")
+    List<Object[]> findIdDateAndAmountByCategoryId(@Param("categoryId") Long categoryId);
+
+    /**
+     * Finds the expenses of a user written after a given change sequence, in
+     * sequence order.
+     *
+     * @param userId   the ID of the user whose expenses are to be retrieved
+     * @param since    the change sequence after which to look
+     * @param pageable the maximum number of expenses to return
+     * @return the changed expenses, ordered by change sequence
+     */
+    List<Expense> findByUserIdAndChangeSequenceGreaterThanOrderByChangeSequence(Long userId, Long since,
+            Pageable pageable);
+
+    /**
+     * Finds the ID, owner and description of the expenses with an ID greater
+     * than a given one, in ID order, for building the full-text index.
+     *
+     * @param afterId  the ID after which to start, 0 for the first page
+     * @param pageable the number of rows to return
+     * @return rows of expense ID, user ID and description
+     */
+    @Query("SELECT e.id, e.user.id, e.description FROM Expense e WHERE e.id > :afterId ORDER BY e.id")
+    List<Object[]> findSearchDocuments(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Finds the date, amount, budget and category of all expenses of a user,
+     * oldest first, for building the user's in-memory ledger.
+     *
+     * @param userId the ID of the user whose expenses are to be retrieved
+     * @return rows of date, amount, budget ID, budget name and category ID; the
+     *         budget and category columns are null for expenses without them
+     */
+    @Query("SELECT e.date, e.amount, b.id, b.name, c.id FROM Expense e LEFT JOIN e.budget b LEFT JOIN e.category c "
+            + "WHERE e.user.id = :userId ORDER BY e.date")
+    List<Object[]> findLedgerRows(@Param("userId") Long userId);
+
+    /**
+     * Sums the expenses of a user per day, for building the user's
+     * {@code RangeSumIndex} trees.
+     *
+     * @param userId the ID of the user whose expenses are to be summed
+     * @return rows of date and total amount, one per day with expenses
+     */
+    @Query("SELECT e.date, SUM(e.amount) FROM Expense e WHERE e.user.id = :userId AND e.date IS NOT NULL "
+            + "GROUP BY e.date")
+    List<Object[]> sumByDay(@Param("userId") Long userId);
 }
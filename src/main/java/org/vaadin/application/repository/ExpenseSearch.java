@@ -0,0 +1,25 @@
+package org.vaadin.application.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.vaadin.application.model.Expense;
+
+/**
+ * Repository fragment for paging through {@link Expense} search results
+ * without counting them.
+ */
+public interface ExpenseSearch {
+
+    /**
+     * Finds one page of the expenses matching a specification. Unlike
+     * {@code findAll(Specification, Pageable)} no count query is run; one extra
+     * row is fetched to tell whether another page follows. Budgets and
+     * categories are fetched in the same query.
+     *
+     * @param specification the criteria the expenses must match
+     * @param pageable      the page and sort order to return
+     * @return the matching expenses of the page
+     */
+    Slice<Expense> findSlice(Specification<Expense> specification, Pageable pageable);
+}
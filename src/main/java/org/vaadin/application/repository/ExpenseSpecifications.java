@@ -0,0 +1,120 @@
+package org.vaadin.application.repository;
+
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.vaadin.application.model.Expense;
+import org.vaadin.application.model.ExpenseCursor;
+import org.vaadin.application.model.ExpenseFilter;
+
+/**
+ * Factory of JPA {@link Specification}s for searching {@link Expense}
+ * entities.
+ *
+ * <p>
+ * Every predicate is a plain comparison on a column of the expense table, so it
+ * can be answered from the indexes on (user, date), (user, amount),
+ * (user, budget, date), (user, category, date) and (user, description). The
+ * description text is matched as a prefix for the same reason; a leading
+ * wildcard would force a scan of all the user's expenses.
+ * </p>
+ */
+public final class ExpenseSpecifications {
+
+    private ExpenseSpecifications() {
+    }
+
+    /**
+     * Matches the expenses of a user that satisfy every criterion of a filter.
+     *
+     * @param userId the ID of the user whose expenses are to be matched
+     * @param filter the criteria, or null to match all of the user's expenses
+     * @return the specification
+     */
+    public static Specification<Expense> matching(Long userId, ExpenseFilter filter) {
+        return (root, query, builder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(builder.equal(root.get("user").get("id"), userId));
+            if (filter != null) {
+                Path<LocalDate> date = root.get("date");
+                Path<BigDecimal> amount = root.get("amount");
+                if (filter.getFrom() != null) {
+                    predicates.add(builder.greaterThanOrEqualTo(date, filter.getFrom()));
+                }
+                if (filter.getTo() != null) {
+                    predicates.add(builder.lessThanOrEqualTo(date, filter.getTo()));
+                }
+                if (filter.getMinAmount() != null) {
+                    predicates.add(builder.greaterThanOrEqualTo(amount, filter.getMinAmount()));
+                }
+                if (filter.getMaxAmount() != null) {
+                    predicates.add(builder.lessThanOrEqualTo(amount, filter.getMaxAmount()));
+                }
+                if (filter.getBudgetId() != null) {
+                    predicates.add(builder.equal(root.get("budget").get("id"), filter.getBudgetId()));
+                }
+                if (filter.getCategoryId() != null) {
+                    predicates.add(builder.equal(root.get("category").get("id"), filter.getCategoryId()));
+                }
+                if (filter.getText() != null && !filter.getText().isBlank()) {
+                    // The column's case-insensitive collation makes this a case-insensitive prefix match
+                    predicates.add(builder.like(root.<String>get("description"),
+                            escapeLike(filter.getText().trim()) + "%", '\\'));
+                }
+            }
+            return builder.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Matches the expenses that follow a cursor in a sort order, for keyset
+     * paging. The order must end with a unique property such as the ID, and
+     * the cursor must have a value for every property of the order.
+     *
+     * <p>
+     * For an order on {@code (p1, p2, id)} the predicate is
+     * {@code p1 > v1 OR (p1 = v1 AND (p2 > v2 OR (p2 = v2 AND id > v3)))},
+     * with {@code <} for descending properties, and a redundant
+     * {@code p1 >= v1} that lets the database start a range scan of the index
+     * on the user and {@code p1} at the cursor.
+     * </p>
+     *
+     * @param sort   the sort order of the search
+     * @param cursor the position after which the next page starts
+     * @return the specification
+     */
+    public static Specification<Expense> after(Sort sort, ExpenseCursor cursor) {
+        return (root, query, builder) -> {
+            List<Sort.Order> orders = sort.toList();
+            Predicate following = null;
+            for (int i = orders.size() - 1; i >= 0; i--) {
+                Sort.Order order = orders.get(i);
+                Path<Comparable<Object>> path = root.get(order.getProperty());
+                Comparable<Object> value = value(cursor, order.getProperty());
+                Predicate beyond = order.isAscending() ? builder.greaterThan(path, value)
+                        : builder.lessThan(path, value);
+                following = following == null ? beyond
+                        : builder.or(beyond, builder.and(builder.equal(path, value), following));
+            }
+            Sort.Order first = orders.get(0);
+            Path<Comparable<Object>> firstPath = root.get(first.getProperty());
+            Comparable<Object> firstValue = value(cursor, first.getProperty());
+            return builder.and(first.isAscending() ? builder.greaterThanOrEqualTo(firstPath, firstValue)
+                    : builder.lessThanOrEqualTo(firstPath, firstValue), following);
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Comparable<Object> value(ExpenseCursor cursor, String property) {
+        return (Comparable<Object>) cursor.getValue(property);
+    }
+
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -1,9 +1,12 @@
 package org.vaadin.application.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.vaadin.application.model.FinancialGoal;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository interface for managing {@link FinancialGoal} entities.
@@ -19,4 +22,13 @@ public interface FinancialGoalRepository extends JpaRepository<FinancialGoal, Lo
      * @return a list of financial goals associated with the specified user ID
      */
     List<FinancialGoal> findByUserId(Long userId);
+
+    /**
+     * Finds the ID of the user who owns the financial goal with the given ID.
+     *
+     * @param id the ID of the financial goal
+     * @return the owning user's ID, or empty if the financial goal does not exist
+     */
+    @Query("SELECT g.user.id FROM FinancialGoal g WHERE g.id = :id")
+    Optional<Long> findUserIdById(@Param("id") Long id);
 }
@@ -0,0 +1,25 @@
+package org.vaadin.application.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import org.vaadin.application.model.Income;
+import org.vaadin.application.model.PeriodTotal;
+
+/**
+ * Repository fragment for summing {@link Income} amounts per period in the
+ * database.
+ */
+public interface IncomeAggregation {
+
+    /**
+     * Sums the incomes of a user per day or per month between two dates.
+     * Recurring incomes are counted once, on their date.
+     *
+     * @param userId the ID of the user
+     * @param from   the first day to include
+     * @param to     the last day to include
+     * @param daily  true to sum per day, false to sum per month
+     * @return one total per period that has any incomes
+     */
+    List<PeriodTotal> sumByPeriod(Long userId, LocalDate from, LocalDate to, boolean daily);
+}
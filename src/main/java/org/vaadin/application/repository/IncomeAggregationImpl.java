@@ -0,0 +1,21 @@
+package org.vaadin.application.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.time.LocalDate;
+import java.util.List;
+import org.vaadin.application.model.PeriodTotal;
+
+/**
+ * JPQL implementation of {@link IncomeAggregation}.
+ */
+class IncomeAggregationImpl implements IncomeAggregation {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<PeriodTotal> sumByPeriod(Long userId, LocalDate from, LocalDate to, boolean daily) {
+        return PeriodAggregates.sumByPeriod(entityManager, "Income", null, userId, from, to, daily);
+    }
+}
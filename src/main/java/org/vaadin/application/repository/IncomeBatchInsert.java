@@ -0,0 +1,21 @@
+package org.vaadin.application.repository;
+
+import java.util.List;
+import org.vaadin.application.model.Income;
+
+/**
+ * Repository fragment for inserting many {@link Income} entities with JDBC
+ * batching.
+ */
+public interface IncomeBatchInsert {
+
+    /**
+     * Inserts all incomes with a single JDBC batch. Must be called within a
+     * transaction.
+     *
+     * @param incomes the incomes to insert; their user only needs an ID, and
+     *                their change sequence and update time must be assigned
+     * @return the generated IDs, in the same order as the incomes
+     */
+    List<Long> insertAll(List<Income> incomes);
+}
@@ -0,0 +1,31 @@
+package org.vaadin.application.repository;
+
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.vaadin.application.model.Income;
+
+/**
+ * JDBC implementation of {@link IncomeBatchInsert}.
+ */
+class IncomeBatchInsertImpl implements IncomeBatchInsert {
+
+    private static final String INSERT_SQL = "INSERT INTO income (source, amount, date, user_id, payment_frequency, "
+            + "change_sequence, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<Long> insertAll(List<Income> incomes) {
+        return JdbcBatchInserts.insert(jdbcTemplate, INSERT_SQL, incomes, (statement, income) -> {
+            statement.setString(1, income.getSource());
+            statement.setBigDecimal(2, income.getAmount());
+            JdbcBatchInserts.setDate(statement, 3, income.getDate());
+            JdbcBatchInserts.setId(statement, 4, income.getUser().getId());
+            statement.setString(5, income.getPaymentFrequency());
+            JdbcBatchInserts.setId(statement, 6, income.getChangeSequence());
+            JdbcBatchInserts.setInstant(statement, 7, income.getUpdatedAt());
+        });
+    }
+}
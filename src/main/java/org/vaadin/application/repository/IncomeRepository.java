@@ -1,6 +1,10 @@
 package org.vaadin.application.repository;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.vaadin.application.model.Income;
@@ -8,13 +12,14 @@ import org.vaadin.application.model.Income;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository interface for managing {@link Income} entities.
  * This interface extends {@link JpaRepository}, providing CRUD operations and
- * custom queries.
+ * custom queries, and {@link IncomeBatchInsert} for bulk inserts.
  */
-public interface IncomeRepository extends JpaRepository<Income, Long> {
+public interface IncomeRepository extends JpaRepository<Income, Long>, IncomeBatchInsert, IncomeAggregation {
 
     /**
      * Finds a list of incomes associated with a specific user ID.
@@ -24,6 +29,16 @@ public interface IncomeRepository extends JpaRepository<Income, Long> {
      */
     List<Income> findByUserId(Long userId);
 
+    /**
+     * Finds one page of a user's incomes, most recent first. A {@link Slice} is
+     * returned so that no count query is issued.
+     *
+     * @param userId   the ID of the user whose incomes are to be retrieved
+     * @param pageable the page to retrieve
+     * @return a slice of the user's incomes ordered by date, newest first
+     */
+    Slice<Income> findByUserIdOrderByDateDescIdDesc(Long userId, Pageable pageable);
+
     /**
      * Calculates the total income for a user within a specific period.
      *
@@ -35,4 +50,71 @@ public interface IncomeRepository extends JpaRepository<Income, Long> {
     @Query("SELECT SUM(i.amount) FROM Income i WHERE i.user.id = :userId AND i.date BETWEEN :startDate AND :endDate")
     BigDecimal findTotalIncomeForPeriod(@Param("userId") Long userId, @Param("startDate") LocalDate startDate,
             @Param("endDate") LocalDate endDate);
+
+    /**
+     * Finds the ID of the user who owns the income with the given ID.
+     *
+     * @param id the ID of the income
+     * @return the owning user's ID, or empty if the income does not exist
+     */
+    @Query("SELECT i.user.id FROM Income i WHERE i.id = :id")
+    Optional<Long> findUserIdById(@Param("id") Long id);
+
+    /**
+     * Finds the owner, date, amount and payment frequency of an income and
+     * locks its row until the transaction ends, so that the values replaced by
+     * an update or delete are the ones reported to the {@code RangeSumIndex}
+     * and {@code LedgerCache}.
+     *
+     * @param id the ID of the income
+     * @return one row of user ID, date, amount and payment frequency, or no
+     *         row if the income does not exist
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i.user.id, i.date, i.amount, i.paymentFrequency FROM Income i WHERE i.id = :id")
+    List<Object[]> findOwnerAndValuesById(@Param("id") Long id);
+
+    /**
+     * Finds the incomes of a user written after a given change sequence, in
+     * sequence order.
+     *
+     * @param userId   the ID of the user whose incomes are to be retrieved
+     * @param since    the change sequence after which to look
+     * @param pageable the maximum number of incomes to return
+     * @return the changed incomes, ordered by change sequence
+     */
+    List<Income> findByUserIdAndChangeSequenceGreaterThanOrderByChangeSequence(Long userId, Long since,
+            Pageable pageable);
+
+    /**
+     * Finds the ID, owner and source of the incomes with an ID greater than a
+     * given one, in ID order, for building the full-text index.
+     *
+     * @param afterId  the ID after which to start, 0 for the first page
+     * @param pageable the number of rows to return
+     * @return rows of income ID, user ID and source
+     */
+    @Query("SELECT i.id, i.user.id, i.source FROM Income i WHERE i.id > :afterId ORDER BY i.id")
+    List<Object[]> findSearchDocuments(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Finds the date, amount and payment frequency of all incomes of a user,
+     * oldest first, for building the user's in-memory ledger.
+     *
+     * @param userId the ID of the user whose incomes are to be retrieved
+     * @return rows of date, amount and payment frequency
+     */
+    @Query("SELECT i.date, i.amount, i.paymentFrequency FROM Income i WHERE i.user.id = :userId ORDER BY i.date")
+    List<Object[]> findLedgerRows(@Param("userId") Long userId);
+
+    /**
+     * Sums the incomes of a user per day, for building the user's
+     * {@code RangeSumIndex} trees.
+     *
+     * @param userId the ID of the user whose incomes are to be summed
+     * @return rows of date and total amount, one per day with incomes
+     */
+    @Query("SELECT i.date, SUM(i.amount) FROM Income i WHERE i.user.id = :userId AND i.date IS NOT NULL "
+            + "GROUP BY i.date")
+    List<Object[]> sumByDay(@Param("userId") Long userId);
 }
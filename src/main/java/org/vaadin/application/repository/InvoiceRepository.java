@@ -1,9 +1,13 @@
 package org.vaadin.application.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.vaadin.application.model.Invoice;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -19,4 +23,46 @@ public interface InvoiceRepository extends JpaRepository<Invoice, UUID> {
      * @return a list of Assets associated with the specified user ID
      */
     List<Invoice> findByUserId(Long userId);
+
+    /**
+     * Finds the invoices of a user written after a given change sequence, in
+     * sequence order.
+     *
+     * @param userId   the ID of the user whose invoices are to be retrieved
+     * @param since    the change sequence after which to look
+     * @param pageable the maximum number of invoices to return
+     * @return the changed invoices, ordered by change sequence
+     */
+    List<Invoice> findByUserIdAndChangeSequenceGreaterThanOrderByChangeSequence(Long userId, Long since,
+            Pageable pageable);
+
+    /**
+     * Finds the ID of the user who owns the invoice with the given ID.
+     *
+     * @param id the ID of the invoice
+     * @return the owning user's ID, or empty if the invoice does not exist
+     */
+    @Query("SELECT i.user.id FROM Invoice i WHERE i.id = :id")
+    Optional<Long> findUserIdById(@Param("id") UUID id);
+
+    /**
+     * Finds the ID, owner and description of the first invoices in ID order, for
+     * building the full-text index.
+     *
+     * @param pageable the number of rows to return
+     * @return rows of invoice ID, user ID and description
+     */
+    @Query("SELECT i.id, i.user.id, i.description FROM Invoice i ORDER BY i.id")
+    List<Object[]> findSearchDocuments(Pageable pageable);
+
+    /**
+     * Finds the ID, owner and description of the invoices with an ID greater
+     * than a given one, in ID order, for building the full-text index.
+     *
+     * @param afterId  the ID after which to start
+     * @param pageable the number of rows to return
+     * @return rows of invoice ID, user ID and description
+     */
+    @Query("SELECT i.id, i.user.id, i.description FROM Invoice i WHERE i.id > :afterId ORDER BY i.id")
+    List<Object[]> findSearchDocumentsAfter(@Param("afterId") UUID afterId, Pageable pageable);
 }
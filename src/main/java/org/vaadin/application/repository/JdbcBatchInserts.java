@@ -0,0 +1,114 @@
+package org.vaadin.application.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.TimeZone;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Helper for inserting rows with a single JDBC batch and reading back their
+ * generated keys.
+ *
+ * <p>
+ * Entities with {@code IDENTITY} IDs cannot be batched by Hibernate, so bulk
+ * inserts of those entities go through plain JDBC instead. The statement runs
+ * on the connection of the surrounding transaction.
+ * </p>
+ */
+final class JdbcBatchInserts {
+
+    /**
+     * Binds the parameters of one row to the insert statement.
+     *
+     * @param <T> the type of item inserted
+     */
+    @FunctionalInterface
+    interface ParameterBinder<T> {
+        void bind(PreparedStatement statement, T item) throws SQLException;
+    }
+
+    private JdbcBatchInserts() {
+    }
+
+    /**
+     * Inserts all items with one batched statement.
+     *
+     * @param <T>          the type of item inserted
+     * @param jdbcTemplate the template providing the transaction's connection
+     * @param sql          the insert statement
+     * @param items        the items to insert
+     * @param binder       binds the parameters of each item
+     * @return the generated IDs, in the same order as the items
+     */
+    static <T> List<Long> insert(JdbcTemplate jdbcTemplate, String sql, List<T> items, ParameterBinder<T> binder) {
+        return jdbcTemplate.execute((ConnectionCallback<List<Long>>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                for (T item : items) {
+                    binder.bind(statement, item);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+
+                List<Long> ids = new ArrayList<>(items.size());
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    while (keys.next()) {
+                        ids.add(keys.getLong(1));
+                    }
+                }
+                return ids;
+            }
+        });
+    }
+
+    /**
+     * Binds a nullable ID parameter.
+     *
+     * @param statement the statement to bind to
+     * @param index     the parameter index
+     * @param id        the ID, or null
+     * @throws SQLException if the parameter cannot be bound
+     */
+    static void setId(PreparedStatement statement, int index, Long id) throws SQLException {
+        if (id == null) {
+            statement.setNull(index, Types.BIGINT);
+        } else {
+            statement.setLong(index, id);
+        }
+    }
+
+    /**
+     * Binds a date parameter, which may be null, without converting it
+     * through {@link java.util.Date}.
+     *
+     * @param statement the statement to bind to
+     * @param index     the parameter index
+     * @param date      the date, or null
+     * @throws SQLException if the parameter cannot be bound
+     */
+    static void setDate(PreparedStatement statement, int index, LocalDate date) throws SQLException {
+        statement.setObject(index, date, Types.DATE);
+    }
+
+    /**
+     * Binds an instant parameter in UTC, the way Hibernate stores
+     * {@link Instant} attributes.
+     *
+     * @param statement the statement to bind to
+     * @param index     the parameter index
+     * @param instant   the instant
+     * @throws SQLException if the parameter cannot be bound
+     */
+    static void setInstant(PreparedStatement statement, int index, Instant instant) throws SQLException {
+        statement.setTimestamp(index, Timestamp.from(instant), Calendar.getInstance(TimeZone.getTimeZone("UTC")));
+    }
+}
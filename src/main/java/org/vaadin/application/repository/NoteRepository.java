@@ -1,6 +1,9 @@
 package org.vaadin.application.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.vaadin.application.model.Note;
 
 import java.util.List;
@@ -19,4 +22,15 @@ public interface NoteRepository extends JpaRepository<Note, Long> {
      * @return a list of notes associated with the specified user ID
      */
     List<Note> findByUserId(Long userId);
+
+    /**
+     * Finds the ID, owner and content of the notes with an ID greater than a
+     * given one, in ID order, for building the full-text index.
+     *
+     * @param afterId  the ID after which to start, 0 for the first page
+     * @param pageable the number of rows to return
+     * @return rows of note ID, user ID and content
+     */
+    @Query("SELECT n.id, n.userId, n.content FROM Note n WHERE n.id > :afterId ORDER BY n.id")
+    List<Object[]> findSearchDocuments(@Param("afterId") Long afterId, Pageable pageable);
 }
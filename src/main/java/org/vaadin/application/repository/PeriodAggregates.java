@@ -0,0 +1,62 @@
+package org.vaadin.application.repository;
+
+import jakarta.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.vaadin.application.model.PeriodTotal;
+
+/**
+ * Helper for summing the amounts of a user's entities per day or per month
+ * with a single {@code GROUP BY} query.
+ */
+final class PeriodAggregates {
+
+    private PeriodAggregates() {
+    }
+
+    /**
+     * Sums the amounts of a user's entities per period between two dates.
+     *
+     * @param entityManager the entity manager to query with
+     * @param entity        the name of an entity with {@code user}, {@code date}
+     *                      and {@code amount} attributes
+     * @param groupPath     the association to group by, such as {@code budget},
+     *                      or null for no grouping
+     * @param userId        the ID of the user
+     * @param from          the first day to include
+     * @param to            the last day to include
+     * @param daily         true to sum per day, false to sum per month
+     * @return one total per period and group that has any amounts
+     */
+    static List<PeriodTotal> sumByPeriod(EntityManager entityManager, String entity, String groupPath,
+            Long userId, LocalDate from, LocalDate to, boolean daily) {
+        String period = "extract(year from x.date), extract(month from x.date)"
+                + (daily ? ", extract(day from x.date)" : "");
+        String group = groupPath == null ? "" : ", g.id, g.name";
+        String jpql = "SELECT " + period + group + ", SUM(x.amount) FROM " + entity + " x"
+                + (groupPath == null ? "" : " LEFT JOIN x." + groupPath + " g")
+                + " WHERE x.user.id = :userId AND x.date BETWEEN :from AND :to"
+                + " GROUP BY " + period + group;
+
+        List<Object[]> rows = entityManager.createQuery(jpql, Object[].class)
+                .setParameter("userId", userId)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .getResultList();
+
+        List<PeriodTotal> totals = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            int column = 0;
+            int year = ((Number) row[column++]).intValue();
+            int month = ((Number) row[column++]).intValue();
+            int day = daily ? ((Number) row[column++]).intValue() : 1;
+            Long groupKey = groupPath == null ? null : (Long) row[column++];
+            String groupLabel = groupPath == null ? null : (String) row[column++];
+            totals.add(new PeriodTotal(LocalDate.of(year, month, day), groupKey, groupLabel,
+                    (BigDecimal) row[column]));
+        }
+        return totals;
+    }
+}
@@ -0,0 +1,27 @@
+package org.vaadin.application.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.vaadin.application.model.SyncTombstone;
+
+import java.util.List;
+
+/**
+ * Repository interface for managing {@link SyncTombstone} entities.
+ * This interface extends {@link JpaRepository}, providing CRUD operations and
+ * custom queries.
+ */
+public interface SyncTombstoneRepository extends JpaRepository<SyncTombstone, Long> {
+
+    /**
+     * Finds the deletions of a user's entities after a given change sequence,
+     * in sequence order.
+     *
+     * @param userId   the ID of the user whose deletions are to be retrieved
+     * @param since    the change sequence after which to look
+     * @param pageable the maximum number of tombstones to return
+     * @return the tombstones, ordered by change sequence
+     */
+    List<SyncTombstone> findByUserIdAndChangeSequenceGreaterThanOrderByChangeSequence(Long userId, Long since,
+            Pageable pageable);
+}
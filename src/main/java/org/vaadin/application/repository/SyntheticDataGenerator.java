@@ -0,0 +1,604 @@
+package org.vaadin.application.repository;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.mindrot.jbcrypt.BCrypt;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.vaadin.application.model.SyntheticDataSpec;
+
+/**
+ * Generates users with realistic financial data and bulk-loads them into a
+ * database with plain JDBC batches.
+ *
+ * <p>
+ * Each user's rows come from a random stream seeded by the run's seed and the
+ * user's number, so a load is reproducible regardless of the number of
+ * threads. Expenses follow a yearly season peaking in December and are sized
+ * by their budget; incomes recur weekly, fortnightly or monthly; invoices past
+ * their due date are mostly paid. Rows get change sequences and the owner's
+ * sequence is set to the last of them, as if they had been written through the
+ * services.
+ * </p>
+ *
+ * <p>
+ * IDs are assigned by the generator, continuing from the highest ID of each
+ * table, so rows can reference each other without reading generated keys and
+ * several connections can load users in parallel. Each connection commits
+ * every {@link SyntheticDataSpec#getBatchSize()} rows, flushing its batches in
+ * foreign key order. A failed load leaves the users already committed in
+ * place. Supports MySQL, where {@code rewriteBatchedStatements} turns each
+ * batch into multi-row inserts, and H2 in MySQL mode, whose identity columns
+ * are moved past the loaded IDs afterwards.
+ * </p>
+ */
+public class SyntheticDataGenerator {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+
+    /**
+     * Tables written, in foreign key order.
+     */
+    enum Table {
+        USER("user", "id, name, password, change_sequence"),
+        BUDGET("budget", "id, name, amount, user_id, change_sequence, updated_at, icon, current_amount"),
+        EXPENSE_CATEGORY("expense_category", "id, name, user_id"),
+        EXPENSE("expense",
+                "id, description, amount, date, category_id, user_id, budget_id, change_sequence, updated_at"),
+        INCOME("income", "id, source, amount, date, user_id, change_sequence, updated_at, payment_frequency"),
+        INVOICE("invoice", "id, invoice_number, recipient_name, amount, issue_date, due_date, description, status, "
+                + "user_id, change_sequence, updated_at"),
+        ASSET("asset", "id, name, value, category, interest_rate, user_id, change_sequence, updated_at"),
+        FINANCIAL_GOAL("financial_goal", "id, description, target_amount, user_id, amount_saved"),
+        EMPLOYEE("employee", "id, salary, employee_name, employee_role, user_id");
+
+        private final String tableName;
+        private final String columns;
+
+        Table(String tableName, String columns) {
+            this.tableName = tableName;
+            this.columns = columns;
+        }
+
+        String getTableName() {
+            return tableName;
+        }
+
+        /** Whether the table's ID is a number assigned from a sequence of the table. */
+        boolean hasNumericId() {
+            return this != INVOICE;
+        }
+
+        String insertSql() {
+            int count = columns.split(",").length;
+            return "INSERT INTO " + tableName + " (" + columns + ") VALUES (" + "?, ".repeat(count - 1) + "?)";
+        }
+    }
+
+    private static final Table[] TABLES = Table.values();
+
+    private static final String[] BUDGET_NAMES = { "Groceries", "Rent", "Transport", "Utilities", "Dining",
+            "Entertainment", "Health", "Travel" };
+    private static final String[] BUDGET_ICONS = { "💼", "🍽️", "🏠", "🚗" };
+    private static final String[] CATEGORY_NAMES = { "Food", "Housing", "Fuel", "Bills", "Leisure", "Medical",
+            "Clothing", "Education", "Gifts", "Subscriptions" };
+    private static final String[] MERCHANTS = { "Supermarket", "Coffee shop", "Petrol station", "Landlord",
+            "Electricity", "Internet", "Restaurant", "Pharmacy", "Taxi", "Cinema", "Bookshop", "Bakery" };
+    private static final String[] INCOME_SOURCES = { "Salary", "Freelance", "Rental income", "Dividends" };
+    private static final String[] PAYMENT_FREQUENCIES = { "Weekly", "Biweekly", "Monthly" };
+    private static final String[] RECIPIENTS = { "Acme Ltd", "Globex", "Initech", "Umbrella Corp", "Stark Industries",
+            "Wayne Enterprises" };
+    private static final String[] ASSET_CATEGORIES = { "Vehicles", "Property", "Stocks", "Savings", "Equipment",
+            "Jewellery", "Artworks" };
+    private static final String[] GOALS = { "Emergency fund", "House deposit", "New car", "Holiday", "Retirement" };
+    private static final String[] ROLES = { "Accountant", "Developer", "Designer", "Sales", "Support" };
+
+    /**
+     * Outcome of a load.
+     */
+    public static final class Result {
+        private final int users;
+        private final long rows;
+        private final long millis;
+
+        private Result(int users, long rows, long millis) {
+            this.users = users;
+            this.rows = rows;
+            this.millis = millis;
+        }
+
+        /**
+         * Gets the number of users created.
+         *
+         * @return the number of users
+         */
+        public int getUsers() {
+            return users;
+        }
+
+        /**
+         * Gets the number of rows inserted over all tables.
+         *
+         * @return the number of rows
+         */
+        public long getRows() {
+            return rows;
+        }
+
+        /**
+         * Gets the duration of the load, including generation.
+         *
+         * @return the duration in milliseconds
+         */
+        public long getMillis() {
+            return millis;
+        }
+
+        /**
+         * Gets the load throughput.
+         *
+         * @return the rows inserted per second
+         */
+        public long getRowsPerSecond() {
+            return millis == 0 ? rows * 1000 : rows * 1000 / millis;
+        }
+    }
+
+    /**
+     * Values shared by all users of one load.
+     */
+    private static final class Run {
+        private final LocalDate endDate;
+        private final YearMonth firstMonth;
+        private final double[] monthWeights;
+        private final Instant updatedAt;
+        private final String passwordHash;
+        private final boolean uuidAsBinary;
+        private final long[][] firstIds;
+
+        private Run(LocalDate endDate, YearMonth firstMonth, double[] monthWeights, String passwordHash,
+                boolean uuidAsBinary, long[][] firstIds) {
+            this.endDate = endDate;
+            this.firstMonth = firstMonth;
+            this.monthWeights = monthWeights;
+            this.updatedAt = Instant.now();
+            this.passwordHash = passwordHash;
+            this.uuidAsBinary = uuidAsBinary;
+            this.firstIds = firstIds;
+        }
+    }
+
+    /**
+     * The insert statements of one connection and their pending rows.
+     */
+    private static final class Batches implements AutoCloseable {
+        private final Connection connection;
+        private final PreparedStatement[] statements = new PreparedStatement[TABLES.length];
+        private final int[] pending = new int[TABLES.length];
+        private int pendingRows;
+        private long rows;
+
+        private Batches(Connection connection) throws SQLException {
+            this.connection = connection;
+            for (Table table : TABLES) {
+                statements[table.ordinal()] = connection.prepareStatement(table.insertSql());
+            }
+        }
+
+        private PreparedStatement get(Table table) {
+            return statements[table.ordinal()];
+        }
+
+        private void add(Table table) throws SQLException {
+            statements[table.ordinal()].addBatch();
+            pending[table.ordinal()]++;
+            pendingRows++;
+        }
+
+        private void commit() throws SQLException {
+            for (Table table : TABLES) {
+                if (pending[table.ordinal()] > 0) {
+                    statements[table.ordinal()].executeBatch();
+                    rows += pending[table.ordinal()];
+                    pending[table.ordinal()] = 0;
+                }
+            }
+            pendingRows = 0;
+            connection.commit();
+        }
+
+        @Override
+        public void close() throws SQLException {
+            for (PreparedStatement statement : statements) {
+                if (statement != null) {
+                    statement.close();
+                }
+            }
+        }
+    }
+
+    private final DataSource dataSource;
+
+    private final SyntheticDataSpec spec;
+
+    /**
+     * Creates a generator.
+     *
+     * @param dataSource the database to load into
+     * @param spec       what to generate
+     */
+    public SyntheticDataGenerator(DataSource dataSource, SyntheticDataSpec spec) {
+        this.dataSource = dataSource;
+        this.spec = spec;
+    }
+
+    /**
+     * Generates and loads all users.
+     *
+     * @return the number of users and rows loaded and the time taken
+     * @throws SQLException if a statement fails
+     */
+    public Result generate() throws SQLException {
+        long start = System.nanoTime();
+        LocalDate endDate = spec.getEndDate() != null ? spec.getEndDate() : LocalDate.now();
+        YearMonth firstMonth = YearMonth.from(endDate).minusMonths(Math.max(1, spec.getHistoryMonths()) - 1L);
+
+        boolean h2;
+        boolean uuidAsBinary;
+        long[] nextIds = new long[TABLES.length];
+        try (Connection connection = dataSource.getConnection()) {
+            String product = connection.getMetaData().getDatabaseProductName();
+            h2 = "H2".equals(product);
+            uuidAsBinary = product.contains("MySQL") || product.contains("MariaDB");
+            for (Table table : TABLES) {
+                if (table.hasNumericId()) {
+                    nextIds[table.ordinal()] = maxId(connection, table) + 1;
+                }
+            }
+        }
+
+        // The row counts are the first values of each user's random stream, so the
+        // IDs of every user are known before any of them is generated
+        long[][] firstIds = new long[spec.getUsers()][];
+        for (int user = 0; user < spec.getUsers(); user++) {
+            firstIds[user] = nextIds.clone();
+            int[] counts = counts(random(user));
+            for (Table table : TABLES) {
+                nextIds[table.ordinal()] += counts[table.ordinal()];
+            }
+        }
+
+        Run run = new Run(endDate, firstMonth, monthWeights(firstMonth, endDate),
+                BCrypt.hashpw(spec.getPassword(), BCrypt.gensalt()), uuidAsBinary, firstIds);
+        long rows = loadInParallel(run);
+
+        if (h2) {
+            restartIdentities(nextIds);
+        }
+
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        Result result = new Result(spec.getUsers(), rows, millis);
+        LOGGER.info("Loaded {} rows for {} synthetic users in {} ms ({} rows/s)", result.getRows(),
+                result.getUsers(), result.getMillis(), result.getRowsPerSecond());
+        return result;
+    }
+
+    private long loadInParallel(Run run) throws SQLException {
+        int threads = Math.max(1, Math.min(spec.getThreads(), spec.getUsers()));
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Long>> loads = new ArrayList<>(threads);
+            for (int worker = 0; worker < threads; worker++) {
+                int first = worker;
+                loads.add(executor.submit(() -> load(run, first, threads)));
+            }
+            long rows = 0;
+            for (Future<Long> load : loads) {
+                rows += load.get();
+            }
+            return rows;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while loading synthetic data", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            throw new IllegalStateException("Synthetic data load failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Loads every {@code step}-th user starting from {@code first} on one
+     * connection.
+     */
+    private long load(Run run, int first, int step) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (Batches batches = new Batches(connection)) {
+                for (int user = first; user < spec.getUsers(); user += step) {
+                    writeUser(run, user, batches);
+                    if (batches.pendingRows >= spec.getBatchSize()) {
+                        batches.commit();
+                    }
+                }
+                batches.commit();
+                return batches.rows;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private void writeUser(Run run, int user, Batches batches) throws SQLException {
+        SplittableRandom random = random(user);
+        int[] counts = counts(random);
+        long[] ids = run.firstIds[user];
+        long userId = ids[Table.USER.ordinal()];
+        long firstBudgetId = ids[Table.BUDGET.ordinal()];
+        long firstCategoryId = ids[Table.EXPENSE_CATEGORY.ordinal()];
+        int budgets = counts[Table.BUDGET.ordinal()];
+        int categories = counts[Table.EXPENSE_CATEGORY.ordinal()];
+        long sequence = 0;
+
+        // Budgets get their sequences first but are written after their expenses,
+        // whose sum becomes the budget's current amount
+        long[] budgetMeanCents = new long[budgets];
+        long[] budgetSpentCents = new long[budgets];
+        for (int i = 0; i < budgets; i++) {
+            budgetMeanCents[i] = 500 + random.nextInt(15_000);
+        }
+        long firstBudgetSequence = sequence + 1;
+        sequence += budgets;
+
+        PreparedStatement expense = batches.get(Table.EXPENSE);
+        long expenseId = ids[Table.EXPENSE.ordinal()];
+        for (int i = 0; i < counts[Table.EXPENSE.ordinal()]; i++) {
+            int budget = budgets == 0 || random.nextDouble() < spec.getUnbudgetedShare() ? -1 : random.nextInt(budgets);
+            long meanCents = budget < 0 ? 4000 : budgetMeanCents[budget];
+            long cents = Math.max(1, Math.round(meanCents * Math.exp(0.5 * random.nextGaussian())));
+            if (budget >= 0) {
+                budgetSpentCents[budget] += cents;
+            }
+            expense.setLong(1, expenseId++);
+            expense.setString(2, MERCHANTS[random.nextInt(MERCHANTS.length)]);
+            expense.setBigDecimal(3, BigDecimal.valueOf(cents, 2));
+            JdbcBatchInserts.setDate(expense, 4, seasonalDate(run, random));
+            JdbcBatchInserts.setId(expense, 5,
+                    categories == 0 || random.nextInt(10) == 0 ? null : firstCategoryId + random.nextInt(categories));
+            expense.setLong(6, userId);
+            JdbcBatchInserts.setId(expense, 7, budget < 0 ? null : firstBudgetId + budget);
+            expense.setLong(8, ++sequence);
+            JdbcBatchInserts.setInstant(expense, 9, run.updatedAt);
+            batches.add(Table.EXPENSE);
+        }
+
+        PreparedStatement budget = batches.get(Table.BUDGET);
+        for (int i = 0; i < budgets; i++) {
+            String name = BUDGET_NAMES[i % BUDGET_NAMES.length];
+            budget.setLong(1, firstBudgetId + i);
+            budget.setString(2, i < BUDGET_NAMES.length ? name : name + " " + (i / BUDGET_NAMES.length + 1));
+            budget.setBigDecimal(3, BigDecimal.valueOf(budgetMeanCents[i] * 20, 2));
+            budget.setLong(4, userId);
+            budget.setLong(5, firstBudgetSequence + i);
+            JdbcBatchInserts.setInstant(budget, 6, run.updatedAt);
+            budget.setString(7, BUDGET_ICONS[i % BUDGET_ICONS.length]);
+            budget.setBigDecimal(8, BigDecimal.valueOf(budgetSpentCents[i], 2));
+            batches.add(Table.BUDGET);
+        }
+
+        PreparedStatement category = batches.get(Table.EXPENSE_CATEGORY);
+        for (int i = 0; i < categories; i++) {
+            String name = CATEGORY_NAMES[i % CATEGORY_NAMES.length];
+            category.setLong(1, firstCategoryId + i);
+            category.setString(2, i < CATEGORY_NAMES.length ? name : name + " " + (i / CATEGORY_NAMES.length + 1));
+            category.setLong(3, userId);
+            batches.add(Table.EXPENSE_CATEGORY);
+        }
+
+        PreparedStatement income = batches.get(Table.INCOME);
+        long incomeId = ids[Table.INCOME.ordinal()];
+        for (int i = 0; i < counts[Table.INCOME.ordinal()]; i++) {
+            int frequency = random.nextInt(PAYMENT_FREQUENCIES.length);
+            long monthlyCents = 50_000 + random.nextInt(750_000);
+            long cents = frequency == 0 ? monthlyCents / 4 : frequency == 1 ? monthlyCents / 2 : monthlyCents;
+            income.setLong(1, incomeId++);
+            income.setString(2, INCOME_SOURCES[random.nextInt(INCOME_SOURCES.length)]);
+            income.setBigDecimal(3, BigDecimal.valueOf(cents, 2));
+            JdbcBatchInserts.setDate(income, 4, uniformDate(run, random));
+            income.setLong(5, userId);
+            income.setLong(6, ++sequence);
+            JdbcBatchInserts.setInstant(income, 7, run.updatedAt);
+            income.setString(8, PAYMENT_FREQUENCIES[frequency]);
+            batches.add(Table.INCOME);
+        }
+
+        PreparedStatement invoice = batches.get(Table.INVOICE);
+        for (int i = 0; i < counts[Table.INVOICE.ordinal()]; i++) {
+            LocalDate issueDate = uniformDate(run, random);
+            LocalDate dueDate = issueDate.plusDays(30);
+            String status = !dueDate.isBefore(run.endDate) ? "Pending" : random.nextInt(5) == 0 ? "Overdue" : "Paid";
+            setUuid(invoice, 1, randomUuid(random), run.uuidAsBinary);
+            invoice.setString(2, "INV-" + user + "-" + (i + 1));
+            invoice.setString(3, RECIPIENTS[random.nextInt(RECIPIENTS.length)]);
+            invoice.setDouble(4, (10_000 + random.nextInt(990_000)) / 100.0);
+            JdbcBatchInserts.setDate(invoice, 5, issueDate);
+            JdbcBatchInserts.setDate(invoice, 6, dueDate);
+            invoice.setString(7, "Services " + issueDate.getMonth().toString().toLowerCase());
+            invoice.setString(8, status);
+            invoice.setLong(9, userId);
+            invoice.setLong(10, ++sequence);
+            JdbcBatchInserts.setInstant(invoice, 11, run.updatedAt);
+            batches.add(Table.INVOICE);
+        }
+
+        PreparedStatement asset = batches.get(Table.ASSET);
+        long assetId = ids[Table.ASSET.ordinal()];
+        for (int i = 0; i < counts[Table.ASSET.ordinal()]; i++) {
+            String assetCategory = ASSET_CATEGORIES[random.nextInt(ASSET_CATEGORIES.length)];
+            asset.setLong(1, assetId++);
+            asset.setString(2, assetCategory + " " + (i + 1));
+            asset.setBigDecimal(3, BigDecimal.valueOf(100_000 + random.nextInt(50_000_000), 2));
+            asset.setString(4, assetCategory);
+            asset.setBigDecimal(5, BigDecimal.valueOf(random.nextInt(1_000), 2));
+            asset.setLong(6, userId);
+            asset.setLong(7, ++sequence);
+            JdbcBatchInserts.setInstant(asset, 8, run.updatedAt);
+            batches.add(Table.ASSET);
+        }
+
+        PreparedStatement goal = batches.get(Table.FINANCIAL_GOAL);
+        long goalId = ids[Table.FINANCIAL_GOAL.ordinal()];
+        for (int i = 0; i < counts[Table.FINANCIAL_GOAL.ordinal()]; i++) {
+            long targetCents = 100_000 + random.nextInt(4_900_000);
+            goal.setLong(1, goalId++);
+            goal.setString(2, GOALS[random.nextInt(GOALS.length)]);
+            goal.setBigDecimal(3, BigDecimal.valueOf(targetCents, 2));
+            goal.setLong(4, userId);
+            goal.setBigDecimal(5, BigDecimal.valueOf(Math.round(targetCents * random.nextDouble()), 2));
+            batches.add(Table.FINANCIAL_GOAL);
+        }
+
+        PreparedStatement employee = batches.get(Table.EMPLOYEE);
+        long employeeId = ids[Table.EMPLOYEE.ordinal()];
+        for (int i = 0; i < counts[Table.EMPLOYEE.ordinal()]; i++) {
+            employee.setLong(1, employeeId++);
+            employee.setBigDecimal(2, BigDecimal.valueOf(3_000_000 + random.nextInt(12_000_000), 2));
+            employee.setString(3, "Employee " + user + "-" + (i + 1));
+            employee.setString(4, ROLES[random.nextInt(ROLES.length)]);
+            employee.setLong(5, userId);
+            batches.add(Table.EMPLOYEE);
+        }
+
+        PreparedStatement userRow = batches.get(Table.USER);
+        userRow.setLong(1, userId);
+        userRow.setString(2, spec.getUserNamePrefix() + "-" + spec.getSeed() + "-" + user);
+        userRow.setString(3, run.passwordHash);
+        userRow.setLong(4, sequence);
+        batches.add(Table.USER);
+    }
+
+    /**
+     * Creates the random stream of one user.
+     */
+    private SplittableRandom random(int user) {
+        return new SplittableRandom(spec.getSeed() * 0x9E3779B97F4A7C15L + user);
+    }
+
+    /**
+     * Draws the number of rows of each table for one user; these must be the
+     * first values drawn from the user's stream.
+     */
+    private int[] counts(SplittableRandom random) {
+        int[] counts = new int[TABLES.length];
+        counts[Table.USER.ordinal()] = 1;
+        counts[Table.BUDGET.ordinal()] = vary(random, spec.getBudgetsPerUser());
+        counts[Table.EXPENSE_CATEGORY.ordinal()] = vary(random, spec.getCategoriesPerUser());
+        counts[Table.EXPENSE.ordinal()] = vary(random, spec.getExpensesPerUser());
+        counts[Table.INCOME.ordinal()] = vary(random, spec.getIncomesPerUser());
+        counts[Table.INVOICE.ordinal()] = vary(random, spec.getInvoicesPerUser());
+        counts[Table.ASSET.ordinal()] = vary(random, spec.getAssetsPerUser());
+        counts[Table.FINANCIAL_GOAL.ordinal()] = vary(random, spec.getGoalsPerUser());
+        counts[Table.EMPLOYEE.ordinal()] = vary(random, spec.getEmployeesPerUser());
+        return counts;
+    }
+
+    private static int vary(SplittableRandom random, int average) {
+        return average <= 0 ? 0 : average / 2 + random.nextInt(average + 1);
+    }
+
+    /**
+     * Returns the cumulative weight of each month of the history, peaking in
+     * December.
+     */
+    private double[] monthWeights(YearMonth firstMonth, LocalDate endDate) {
+        int months = (int) firstMonth.until(YearMonth.from(endDate), ChronoUnit.MONTHS) + 1;
+        double[] cumulative = new double[months];
+        double total = 0;
+        for (int i = 0; i < months; i++) {
+            int monthOfYear = firstMonth.plusMonths(i).getMonthValue();
+            total += 1 + spec.getSeasonality() * Math.cos(2 * Math.PI * (monthOfYear - 12) / 12.0);
+            cumulative[i] = total;
+        }
+        return cumulative;
+    }
+
+    private static LocalDate seasonalDate(Run run, SplittableRandom random) {
+        double[] weights = run.monthWeights;
+        int index = Arrays.binarySearch(weights, random.nextDouble() * weights[weights.length - 1]);
+        YearMonth month = run.firstMonth.plusMonths(index < 0 ? -index - 1 : index);
+        int lastDay = month.equals(YearMonth.from(run.endDate)) ? run.endDate.getDayOfMonth() : month.lengthOfMonth();
+        return month.atDay(1 + random.nextInt(lastDay));
+    }
+
+    private static LocalDate uniformDate(Run run, SplittableRandom random) {
+        LocalDate first = run.firstMonth.atDay(1);
+        return first.plusDays(random.nextLong(first.until(run.endDate, ChronoUnit.DAYS) + 1));
+    }
+
+    private static UUID randomUuid(SplittableRandom random) {
+        long mostSignificant = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long leastSignificant = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSignificant, leastSignificant);
+    }
+
+    /**
+     * Binds a UUID the way Hibernate stores it: 16 bytes on MySQL, the native
+     * type elsewhere.
+     */
+    private static void setUuid(PreparedStatement statement, int index, UUID uuid, boolean asBinary)
+            throws SQLException {
+        if (asBinary) {
+            statement.setBytes(index, ByteBuffer.allocate(16).putLong(uuid.getMostSignificantBits())
+                    .putLong(uuid.getLeastSignificantBits()).array());
+        } else {
+            statement.setObject(index, uuid);
+        }
+    }
+
+    private static long maxId(Connection connection, Table table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+                ResultSet result = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table.getTableName())) {
+            result.next();
+            return result.getLong(1);
+        }
+    }
+
+    /**
+     * Moves H2 identity columns past the loaded IDs; MySQL advances
+     * {@code AUTO_INCREMENT} by itself.
+     */
+    private void restartIdentities(long[] nextIds) throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            for (Table table : TABLES) {
+                if (table.hasNumericId()) {
+                    statement.execute("ALTER TABLE " + table.getTableName() + " ALTER COLUMN id RESTART WITH "
+                            + nextIds[table.ordinal()]);
+                }
+            }
+        }
+    }
+}
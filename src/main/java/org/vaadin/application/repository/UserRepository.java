@@ -1,6 +1,14 @@
 package org.vaadin.application.repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 import org.vaadin.application.model.User;
 
 /**
@@ -17,4 +25,36 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @return the user with the specified name, or null if no user is found
      */
     User findByName(String name);
+
+    /**
+     * Finds which of the given user IDs exist.
+     *
+     * @param ids the user IDs to look up
+     * @return the IDs that belong to existing users
+     */
+    @Query("SELECT u.id FROM User u WHERE u.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Advances the change sequence of a user. The update locks the user's row
+     * until the surrounding transaction ends, which serializes the writers of
+     * one user so that their change sequences commit in increasing order.
+     *
+     * @param id    the ID of the user
+     * @param count the number of sequence values to allocate
+     * @return the number of users updated
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Modifying
+    @Query("UPDATE User u SET u.changeSequence = COALESCE(u.changeSequence, 0) + :count WHERE u.id = :id")
+    int advanceChangeSequence(@Param("id") Long id, @Param("count") long count);
+
+    /**
+     * Finds the last change sequence allocated for a user.
+     *
+     * @param id the ID of the user
+     * @return the last change sequence, or empty if none was allocated yet
+     */
+    @Query("SELECT u.changeSequence FROM User u WHERE u.id = :id")
+    Optional<Long> findChangeSequence(@Param("id") Long id);
 }
@@ -4,7 +4,9 @@ import java.math.BigDecimal;
 import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.vaadin.application.model.Asset;
+import org.vaadin.application.model.SyncEntityType;
 import org.vaadin.application.repository.AssetRepository;
 
 /**
@@ -18,6 +20,12 @@ public class AssetService {
   @Autowired
   private AssetRepository assetRepository;
 
+  @Autowired
+  private ChangeTracker changeTracker;
+
+  @Autowired
+  private UserChangeBroadcaster changeBroadcaster;
+
   /**
    * Retrieves a list of assets associated with a specific user ID.
    *
@@ -34,8 +42,12 @@ public class AssetService {
    * @param asset the asset object to be added
    * @return the newly added asset object
    */
+  @Transactional
   public Asset addAsset(Asset asset) {
-    return assetRepository.save(asset);
+    changeTracker.markChanged(asset);
+    Asset savedAsset = assetRepository.save(asset);
+    publishChange(savedAsset);
+    return savedAsset;
   }
 
   /**
@@ -53,8 +65,12 @@ public class AssetService {
    *
    * @param id the ID of the asset to be deleted
    */
+  @Transactional
   public void deleteAsset(Long id) {
+    Long userId = assetRepository.findUserIdById(id).orElse(null);
     assetRepository.deleteById(id);
+    changeTracker.recordDeletion(userId, SyncEntityType.ASSET, id);
+    changeBroadcaster.publishAfterCommit(userId, UserChangeBroadcaster.ChangeType.ASSET);
   }
 
   /**
@@ -81,6 +97,7 @@ public class AssetService {
    *         if the asset does
    *         not exist
    */
+  @Transactional
   public Asset updateAsset(Asset updatedAsset) {
     // Find the existing asset by ID
     Asset existingAsset = findAssetById(updatedAsset.getId());
@@ -90,10 +107,24 @@ public class AssetService {
       existingAsset.setValue(updatedAsset.getValue());
       existingAsset.setCategory(updatedAsset.getCategory());
       existingAsset.setInterestRate(updatedAsset.getInterestRate());
+      changeTracker.markChanged(existingAsset);
 
       // Save the updated asset to the repository
-      return assetRepository.save(existingAsset);
+      Asset savedAsset = assetRepository.save(existingAsset);
+      publishChange(savedAsset);
+      return savedAsset;
     }
     return null; // Return null if the asset does not exist
   }
+
+  /**
+   * Notifies listeners of the asset owner that their assets changed.
+   *
+   * @param asset the asset that was written
+   */
+  private void publishChange(Asset asset) {
+    if (asset != null && asset.getUser() != null) {
+      changeBroadcaster.publishAfterCommit(asset.getUser().getId(), UserChangeBroadcaster.ChangeType.ASSET);
+    }
+  }
 }
@@ -0,0 +1,303 @@
+package org.vaadin.application.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.vaadin.application.config.FlightEvents;
+import org.vaadin.application.model.BatchResult;
+import org.vaadin.application.model.Budget;
+import org.vaadin.application.model.Expense;
+import org.vaadin.application.model.Income;
+import org.vaadin.application.model.Invoice;
+import org.vaadin.application.model.SearchHit;
+import org.vaadin.application.model.User;
+import org.vaadin.application.repository.BudgetRepository;
+import org.vaadin.application.repository.ExpenseCategoryRepository;
+import org.vaadin.application.repository.ExpenseRepository;
+import org.vaadin.application.repository.IncomeRepository;
+import org.vaadin.application.repository.InvoiceRepository;
+import org.vaadin.application.repository.UserRepository;
+
+/**
+ * Service class for importing many expenses, incomes or invoices in one
+ * request.
+ *
+ * <p>
+ * Items are written in chunked transactions by {@link BatchWriter}. Each chunk
+ * is checked with a handful of set-based queries: the users must exist, and any
+ * referenced budget or expense category must belong to the item's user.
+ * Expenses and incomes are inserted with a single JDBC batch per chunk, and
+ * invoices through Hibernate's insert batching. Budget current amounts are
+ * adjusted once per budget and chunk, and listeners and caches are updated
+ * after each chunk commits. Change sequences for delta synchronization are
+ * allocated once per user and chunk.
+ * </p>
+ */
+@Service
+public class BatchImportService {
+
+    private static final String UNKNOWN_USER = "user.id does not refer to an existing user";
+
+    @Autowired
+    private BatchWriter batchWriter;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private IncomeRepository incomeRepository;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BudgetRepository budgetRepository;
+
+    @Autowired
+    private ExpenseCategoryRepository expenseCategoryRepository;
+
+    @Autowired
+    private BudgetService budgetService;
+
+    @Autowired
+    private UserChangeBroadcaster changeBroadcaster;
+
+    @Autowired
+    private ChangeTracker changeTracker;
+
+    @Autowired
+    private FullTextSearchService fullTextSearchService;
+
+    @Autowired
+    private RangeSumIndex rangeSumIndex;
+
+    @Autowired
+    private LedgerCache ledgerCache;
+
+    /**
+     * Adds many expenses and increases the current amount of their budgets.
+     *
+     * @param expenses the expenses to add
+     * @return the result of every expense received
+     */
+    public BatchResult addExpenses(Iterator<Expense> expenses) {
+        return batchWriter.write(expenses, new BatchWriter.ChunkWriter<Expense>() {
+            @Override
+            public List<String> check(List<Expense> chunk) {
+                return checkExpenses(chunk);
+            }
+
+            @Override
+            public List<?> insert(List<Expense> items) {
+                FlightEvents.Write event = new FlightEvents.Write("expense", "batch");
+                event.begin();
+                try {
+                    changeTracker.markChanged(items);
+                    List<Long> ids = expenseRepository.insertAll(items);
+                    adjustBudgets(items);
+                    for (int i = 0; i < items.size(); i++) {
+                        Expense expense = items.get(i);
+                        fullTextSearchService.index(SearchHit.Type.EXPENSE, ids.get(i), expense.getUser().getId(),
+                                expense.getDescription());
+                        rangeSumIndex.addExpense(expense.getUser().getId(), expense.getChangeSequence(),
+                                expense.getDate(), expense.getAmount());
+                        Budget budget = expense.getBudget();
+                        ledgerCache.addExpense(expense.getUser().getId(), expense.getChangeSequence(),
+                                expense.getDate(), expense.getAmount(), budget == null ? null : budget.getId(),
+                                budget == null ? null : budget.getName(),
+                                expense.getCategory() == null ? null : expense.getCategory().getId());
+                    }
+                    Set<Long> userIds = publishChanges(items, Expense::getUser,
+                            UserChangeBroadcaster.ChangeType.EXPENSE);
+                    event.written(userIds.size() == 1 ? userIds.iterator().next() : null, ids.size());
+                    return ids;
+                } finally {
+                    event.finish();
+                }
+            }
+        });
+    }
+
+    /**
+     * Adds many incomes.
+     *
+     * @param incomes the incomes to add
+     * @return the result of every income received
+     */
+    public BatchResult addIncomes(Iterator<Income> incomes) {
+        return batchWriter.write(incomes, new BatchWriter.ChunkWriter<Income>() {
+            @Override
+            public List<String> check(List<Income> chunk) {
+                return checkUsers(chunk, Income::getUser);
+            }
+
+            @Override
+            public List<?> insert(List<Income> items) {
+                FlightEvents.Write event = new FlightEvents.Write("income", "batch");
+                event.begin();
+                try {
+                    changeTracker.markChanged(items);
+                    List<Long> ids = incomeRepository.insertAll(items);
+                    for (int i = 0; i < items.size(); i++) {
+                        Income income = items.get(i);
+                        fullTextSearchService.index(SearchHit.Type.INCOME, ids.get(i), income.getUser().getId(),
+                                income.getSource());
+                        rangeSumIndex.addIncome(income.getUser().getId(), income.getChangeSequence(),
+                                income.getDate(), income.getAmount());
+                        ledgerCache.addIncome(income.getUser().getId(), income.getChangeSequence(),
+                                income.getDate(), income.getAmount(), income.getPaymentFrequency());
+                    }
+                    Set<Long> userIds = publishChanges(items, Income::getUser,
+                            UserChangeBroadcaster.ChangeType.INCOME);
+                    event.written(userIds.size() == 1 ? userIds.iterator().next() : null, ids.size());
+                    return ids;
+                } finally {
+                    event.finish();
+                }
+            }
+        });
+    }
+
+    /**
+     * Adds many invoices.
+     *
+     * @param invoices the invoices to add
+     * @return the result of every invoice received
+     */
+    public BatchResult addInvoices(Iterator<Invoice> invoices) {
+        return batchWriter.write(invoices, new BatchWriter.ChunkWriter<Invoice>() {
+            @Override
+            public List<String> check(List<Invoice> chunk) {
+                return checkUsers(chunk, Invoice::getUser);
+            }
+
+            @Override
+            public List<?> insert(List<Invoice> items) {
+                // IDs are always generated, so every invoice is persisted rather than merged
+                items.forEach(invoice -> invoice.setId(null));
+                changeTracker.markChanged(items);
+                List<Invoice> savedInvoices = invoiceRepository.saveAll(items);
+                invoiceRepository.flush();
+                savedInvoices.forEach(fullTextSearchService::indexInvoice);
+                publishChanges(items, Invoice::getUser, UserChangeBroadcaster.ChangeType.INVOICE);
+                return savedInvoices.stream().map(Invoice::getId).toList();
+            }
+        });
+    }
+
+    private List<String> checkExpenses(List<Expense> chunk) {
+        List<String> errors = checkUsers(chunk, Expense::getUser);
+
+        Map<Long, Set<Long>> requestedBudgets = new HashMap<>();
+        Map<Long, Set<Long>> requestedCategories = new HashMap<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            Expense expense = chunk.get(i);
+            if (errors.get(i) != null) {
+                continue;
+            }
+            Long userId = expense.getUser().getId();
+            if (expense.getBudget() != null) {
+                if (expense.getBudget().getId() == null) {
+                    errors.set(i, "budget.id is required when a budget is given");
+                    continue;
+                }
+                requestedBudgets.computeIfAbsent(userId, key -> new HashSet<>()).add(expense.getBudget().getId());
+            }
+            if (expense.getCategory() != null) {
+                if (expense.getCategory().getId() == null) {
+                    errors.set(i, "category.id is required when a category is given");
+                    continue;
+                }
+                requestedCategories.computeIfAbsent(userId, key -> new HashSet<>()).add(expense.getCategory().getId());
+            }
+        }
+
+        Map<Long, Set<Long>> ownedBudgets = new HashMap<>();
+        requestedBudgets.forEach((userId, ids) ->
+                ownedBudgets.put(userId, new HashSet<>(budgetRepository.findIdsByUserIdAndIdIn(userId, ids))));
+        Map<Long, Set<Long>> ownedCategories = new HashMap<>();
+        requestedCategories.forEach((userId, ids) ->
+                ownedCategories.put(userId, new HashSet<>(expenseCategoryRepository.findIdsByUserIdAndIdIn(userId, ids))));
+
+        for (int i = 0; i < chunk.size(); i++) {
+            Expense expense = chunk.get(i);
+            if (errors.get(i) != null) {
+                continue;
+            }
+            Long userId = expense.getUser().getId();
+            if (expense.getBudget() != null
+                    && !ownedBudgets.get(userId).contains(expense.getBudget().getId())) {
+                errors.set(i, "budget.id does not refer to a budget of this user");
+            } else if (expense.getCategory() != null
+                    && !ownedCategories.get(userId).contains(expense.getCategory().getId())) {
+                errors.set(i, "category.id does not refer to an expense category of this user");
+            }
+        }
+        return errors;
+    }
+
+    private <T> List<String> checkUsers(List<T> chunk, Function<T, User> userOf) {
+        Set<Long> userIds = new LinkedHashSet<>();
+        for (T item : chunk) {
+            Long userId = userIdOf(userOf.apply(item));
+            if (userId != null) {
+                userIds.add(userId);
+            }
+        }
+        Collection<Long> existingUserIds = userIds.isEmpty() ? Set.of()
+                : new HashSet<>(userRepository.findExistingIds(userIds));
+
+        List<String> errors = new ArrayList<>(chunk.size());
+        for (T item : chunk) {
+            Long userId = userIdOf(userOf.apply(item));
+            if (userId == null) {
+                errors.add("user.id is required");
+            } else if (!existingUserIds.contains(userId)) {
+                errors.add(UNKNOWN_USER);
+            } else {
+                errors.add(null);
+            }
+        }
+        return errors;
+    }
+
+    private void adjustBudgets(List<Expense> expenses) {
+        Map<Long, Map<Long, BigDecimal>> deltasByUser = new HashMap<>();
+        for (Expense expense : expenses) {
+            if (expense.getBudget() != null) {
+                deltasByUser.computeIfAbsent(expense.getUser().getId(), key -> new HashMap<>())
+                        .merge(expense.getBudget().getId(), expense.getAmount(), BigDecimal::add);
+            }
+        }
+        deltasByUser.forEach(budgetService::addToCurrentAmounts);
+    }
+
+    private <T> Set<Long> publishChanges(List<T> items, Function<T, User> userOf,
+            UserChangeBroadcaster.ChangeType type) {
+        Set<Long> userIds = new HashSet<>();
+        for (T item : items) {
+            userIds.add(userOf.apply(item).getId());
+        }
+        for (Long userId : userIds) {
+            changeBroadcaster.publishAfterCommit(userId, type);
+        }
+        return userIds;
+    }
+
+    private static Long userIdOf(User user) {
+        return user == null ? null : user.getId();
+    }
+}
@@ -0,0 +1,197 @@
+package org.vaadin.application.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.vaadin.application.model.BatchResult;
+
+/**
+ * Writes large batches of entities in chunks, each in its own transaction.
+ *
+ * <p>
+ * Items are read one at a time from an iterator, so a streamed request body
+ * is never fully held in memory. Each item is validated against its bean
+ * constraints, then collected into chunks of
+ * {@code fintrack.batch.chunk-size} items. Every chunk is checked against
+ * existing data and inserted by a {@link ChunkWriter} inside a single
+ * transaction. A chunk that fails is rolled back and its items are reported as
+ * {@link BatchResult.Status#FAILED}, while earlier and later chunks are
+ * unaffected. At most {@code fintrack.batch.max-items} items are accepted per
+ * batch.
+ * </p>
+ */
+@Component
+public class BatchWriter {
+
+    /**
+     * Checks and stores one chunk of items inside the chunk transaction.
+     *
+     * @param <T> the type of item written
+     */
+    public interface ChunkWriter<T> {
+
+        /**
+         * Checks a chunk against existing data, for example that referenced
+         * entities exist and belong to the item's user.
+         *
+         * @param chunk the items of the chunk
+         * @return one entry per item: an error message, or null if the item may
+         *         be written
+         */
+        List<String> check(List<T> chunk);
+
+        /**
+         * Inserts the items and applies any dependent updates.
+         *
+         * @param items the items that passed {@link #check(List)}
+         * @return the generated IDs, in the same order as the items
+         */
+        List<?> insert(List<T> items);
+    }
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchWriter.class);
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${fintrack.batch.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${fintrack.batch.max-items:50000}")
+    private int maxItems;
+
+    /**
+     * Returns an iterator over the items of a request body. The body may be a
+     * JSON array or newline-delimited JSON; items are parsed lazily as the
+     * iterator advances.
+     *
+     * @param <T>  the type of item
+     * @param body the request body
+     * @param type the class of item
+     * @return an iterator over the parsed items
+     * @throws IOException if the body cannot be read
+     */
+    public <T> Iterator<T> readItems(InputStream body, Class<T> type) throws IOException {
+        return objectMapper.readerFor(type).readValues(body);
+    }
+
+    /**
+     * Validates and writes all items of a batch.
+     *
+     * @param <T>    the type of item
+     * @param items  the items to write
+     * @param writer the writer that checks and stores each chunk
+     * @return the result of every item received
+     */
+    public <T> BatchResult write(Iterator<T> items, ChunkWriter<T> writer) {
+        BatchResult result = new BatchResult();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        List<T> chunk = new ArrayList<>(chunkSize);
+        List<Integer> chunkIndexes = new ArrayList<>(chunkSize);
+
+        for (int index = 0;; index++) {
+            T item;
+            try {
+                if (!items.hasNext()) {
+                    break;
+                }
+                item = items.next();
+            } catch (RuntimeException e) {
+                // The position in the stream is unknown after a parse error, so reading stops here
+                result.add(BatchResult.Item.invalid(index, "Malformed item: " + e.getMessage()));
+                break;
+            }
+            if (index >= maxItems) {
+                result.add(BatchResult.Item.invalid(index, "Batch limit of " + maxItems + " items exceeded"));
+                break;
+            }
+
+            String error = validate(item);
+            if (error != null) {
+                result.add(BatchResult.Item.invalid(index, error));
+                continue;
+            }
+            chunk.add(item);
+            chunkIndexes.add(index);
+            if (chunk.size() == chunkSize) {
+                writeChunk(transactionTemplate, chunk, chunkIndexes, writer, result);
+                chunk.clear();
+                chunkIndexes.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            writeChunk(transactionTemplate, chunk, chunkIndexes, writer, result);
+        }
+        return result;
+    }
+
+    private <T> String validate(T item) {
+        if (item == null) {
+            return "Item is null";
+        }
+        Set<ConstraintViolation<T>> violations = validator.validate(item);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private <T> void writeChunk(TransactionTemplate transactionTemplate, List<T> chunk, List<Integer> indexes,
+            ChunkWriter<T> writer, BatchResult result) {
+        List<BatchResult.Item> chunkResults = new ArrayList<>(chunk.size());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<String> errors = writer.check(chunk);
+                List<T> valid = new ArrayList<>(chunk.size());
+                List<Integer> validIndexes = new ArrayList<>(chunk.size());
+                for (int i = 0; i < chunk.size(); i++) {
+                    String error = errors.get(i);
+                    if (error == null) {
+                        valid.add(chunk.get(i));
+                        validIndexes.add(indexes.get(i));
+                    } else {
+                        chunkResults.add(BatchResult.Item.invalid(indexes.get(i), error));
+                    }
+                }
+                if (valid.isEmpty()) {
+                    return;
+                }
+                List<?> ids = writer.insert(valid);
+                for (int i = 0; i < valid.size(); i++) {
+                    chunkResults.add(BatchResult.Item.created(validIndexes.get(i), i < ids.size() ? ids.get(i) : null));
+                }
+            });
+        } catch (RuntimeException e) {
+            LOGGER.warn("Batch chunk of {} items starting at index {} was rolled back: {}", chunk.size(),
+                    indexes.get(0), e.toString());
+            chunkResults.clear();
+            for (Integer index : indexes) {
+                chunkResults.add(BatchResult.Item.failed(index, "Chunk rolled back: " + e.getMessage()));
+            }
+        }
+        chunkResults.forEach(result::add);
+    }
+}
@@ -1,12 +1,20 @@
 package org.vaadin.application.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.vaadin.application.config.CacheConfig;
 import org.vaadin.application.model.Budget;
+import org.vaadin.application.model.SyncEntityType;
 import org.vaadin.application.repository.BudgetRepository;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Service class for managing budget-related operations.
@@ -19,24 +27,58 @@ public class BudgetService {
     @Autowired
     private BudgetRepository budgetRepository;
 
+    @Autowired
+    private UserChangeBroadcaster changeBroadcaster;
+
+    @Autowired
+    private ChangeTracker changeTracker;
+
+    @Autowired
+    private LedgerCache ledgerCache;
+
     /**
      * Retrieves a list of budgets associated with a specific user ID.
      *
      * @param userId the ID of the user whose budgets are to be retrieved
      * @return a list of budgets associated with the specified user ID
      */
+    @Cacheable(CacheConfig.BUDGETS_BY_USER)
     public List<Budget> getBudgetsByUserId(Long userId) {
         return budgetRepository.findByUserId(userId);
     }
 
+    /**
+     * Reads the budgets of a user from the database, bypassing the shared cache,
+     * and replaces the cached list with them. Used when the caller knows that a
+     * write has committed whose eviction of the shared cache may still be
+     * pending.
+     *
+     * @param userId the ID of the user whose budgets are to be retrieved
+     * @return a list of budgets associated with the specified user ID
+     */
+    @CachePut(cacheNames = CacheConfig.BUDGETS_BY_USER, key = "#userId")
+    public List<Budget> reloadBudgetsByUserId(Long userId) {
+        return budgetRepository.findByUserId(userId);
+    }
+
     /**
      * Adds a new budget to the repository.
      *
      * @param budget the budget object to be added
      * @return the newly added budget object
      */
+    @CacheEvict(cacheNames = CacheConfig.BUDGETS_BY_USER, key = "#budget.user.id", condition = "#budget.user != null")
+    @Transactional
     public Budget addBudget(Budget budget) {
-        return budgetRepository.save(budget);
+        boolean existing = budget.getId() != null;
+        changeTracker.markChanged(budget);
+        Budget savedBudget = budgetRepository.save(budget);
+        if (existing && savedBudget != null && savedBudget.getUser() != null) {
+            // The ledger holds budget names, which may have changed
+            ledgerCache.invalidate(savedBudget.getUser().getId());
+        }
+        publishChange(savedBudget);
+        return savedBudget;
     }
 
     /**
@@ -53,9 +95,17 @@ public class BudgetService {
      * Deletes a budget by its ID.
      *
      * @param id the ID of the budget to be deleted
+     * @return the ID of the user who owned the budget, or null if it did not exist
      */
-    public void deleteBudget(Long id) {
+    @CacheEvict(cacheNames = CacheConfig.BUDGETS_BY_USER, key = "#result", condition = "#result != null")
+    @Transactional
+    public Long deleteBudget(Long id) {
+        Long userId = budgetRepository.findUserIdById(id).orElse(null);
         budgetRepository.deleteById(id);
+        changeTracker.recordDeletion(userId, SyncEntityType.BUDGET, id);
+        ledgerCache.invalidate(userId);
+        changeBroadcaster.publishAfterCommit(userId, UserChangeBroadcaster.ChangeType.BUDGET);
+        return userId;
     }
 
     /**
@@ -63,13 +113,21 @@ public class BudgetService {
      *
      * @param budgetId the ID of the budget to update
      * @param amount   the amount to add to the current amount
+     * @return the updated budget, or null if no budget has the given ID
      */
-    public void increaseCurrentAmount(Long budgetId, BigDecimal amount) {
+    @CacheEvict(cacheNames = CacheConfig.BUDGETS_BY_USER, key = "#result.user.id",
+            condition = "#result != null && #result.user != null")
+    @Transactional
+    public Budget increaseCurrentAmount(Long budgetId, BigDecimal amount) {
         Budget budget = findBudgetById(budgetId);
-        if (budget != null) {
-            budget.setCurrentAmount(budget.getCurrentAmount().add(amount));
-            budgetRepository.save(budget);
+        if (budget == null) {
+            return null;
         }
+        budget.setCurrentAmount(budget.getCurrentAmount().add(amount));
+        changeTracker.markChanged(budget);
+        Budget savedBudget = budgetRepository.save(budget);
+        publishChange(savedBudget);
+        return savedBudget;
     }
 
     /**
@@ -77,12 +135,52 @@ public class BudgetService {
      *
      * @param budgetId the ID of the budget to update
      * @param amount   the amount to subtract from the current amount
+     * @return the updated budget, or null if no budget has the given ID
      */
-    public void decreaseCurrentAmount(Long budgetId, BigDecimal amount) {
+    @CacheEvict(cacheNames = CacheConfig.BUDGETS_BY_USER, key = "#result.user.id",
+            condition = "#result != null && #result.user != null")
+    @Transactional
+    public Budget decreaseCurrentAmount(Long budgetId, BigDecimal amount) {
         Budget budget = findBudgetById(budgetId);
-        if (budget != null) {
-            budget.setCurrentAmount(budget.getCurrentAmount().subtract(amount));
-            budgetRepository.save(budget);
+        if (budget == null) {
+            return null;
+        }
+        budget.setCurrentAmount(budget.getCurrentAmount().subtract(amount));
+        changeTracker.markChanged(budget);
+        Budget savedBudget = budgetRepository.save(budget);
+        publishChange(savedBudget);
+        return savedBudget;
+    }
+
+    /**
+     * Adds amounts to the current amounts of several budgets of one user, with a
+     * single update per budget and without loading them. Must be called within a
+     * transaction; the cache entry and listeners are updated after it commits.
+     *
+     * @param userId the ID of the user who owns the budgets
+     * @param deltas the amount to add to each budget, by budget ID
+     */
+    @CacheEvict(cacheNames = CacheConfig.BUDGETS_BY_USER, key = "#userId")
+    public void addToCurrentAmounts(Long userId, Map<Long, BigDecimal> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        long changeSequence = changeTracker.allocate(userId, deltas.size());
+        Instant updatedAt = Instant.now();
+        for (Map.Entry<Long, BigDecimal> delta : deltas.entrySet()) {
+            budgetRepository.addToCurrentAmount(delta.getKey(), delta.getValue(), changeSequence++, updatedAt);
+        }
+        changeBroadcaster.publishAfterCommit(userId, UserChangeBroadcaster.ChangeType.BUDGET);
+    }
+
+    /**
+     * Notifies listeners of the budget owner that their budgets changed.
+     *
+     * @param budget the budget that was written
+     */
+    private void publishChange(Budget budget) {
+        if (budget != null && budget.getUser() != null) {
+            changeBroadcaster.publishAfterCommit(budget.getUser().getId(), UserChangeBroadcaster.ChangeType.BUDGET);
         }
     }
 }
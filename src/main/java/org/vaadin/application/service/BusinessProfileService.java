@@ -1,7 +1,12 @@
 package org.vaadin.application.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.vaadin.application.config.CacheConfig;
 import org.vaadin.application.model.BusinessProfile;
 import org.vaadin.application.repository.BusinessProfileRepository;
 
@@ -17,6 +22,12 @@ public class BusinessProfileService {
     @Autowired
     private BusinessProfileRepository businessProfileRepository;
 
+    @Autowired
+    private UserChangeBroadcaster changeBroadcaster;
+
+    @Autowired
+    private ChangeTracker changeTracker;
+
     /**
      * Retrieves a list of business profiles associated with a specific user ID.
      *
@@ -33,8 +44,17 @@ public class BusinessProfileService {
      * @param businessProfile the business profile object to be added
      * @return the newly added business profile object
      */
+    @CacheEvict(cacheNames = CacheConfig.BUSINESS_PROFILE_BY_USER, key = "#businessProfile.user.id",
+            condition = "#businessProfile.user != null")
+    @Transactional
     public BusinessProfile addBusinessProfile(BusinessProfile businessProfile) {
-        return businessProfileRepository.save(businessProfile);
+        BusinessProfile savedProfile = businessProfileRepository.save(businessProfile);
+        if (savedProfile != null && savedProfile.getUser() != null) {
+            changeTracker.markUserChanged(savedProfile.getUser().getId());
+            changeBroadcaster.publishAfterCommit(savedProfile.getUser().getId(),
+                    UserChangeBroadcaster.ChangeType.BUSINESS_PROFILE);
+        }
+        return savedProfile;
     }
 
     /**
@@ -55,11 +75,27 @@ public class BusinessProfileService {
      * @param updatedBusinessProfile the updated business profile object with new details
      * @return the updated business profile object, or throws an exception if not found
      */
+    @Cacheable(CacheConfig.BUSINESS_PROFILE_BY_USER)
     public BusinessProfile getLastBusinessProfileByUserId(Long userId) {
         List<BusinessProfile> businessProfiles = businessProfileRepository.findByUserId(userId);
         return businessProfiles.isEmpty() ? null : businessProfiles.get(businessProfiles.size() - 1);
     }
 
+    /**
+     * Reads the most recently saved business profile of a user from the
+     * database, bypassing the shared cache, and replaces the cached profile
+     * with it.
+     *
+     * @param userId the ID of the user
+     * @return the user's business profile, or null if none has been saved
+     * @see BudgetService#reloadBudgetsByUserId(Long)
+     */
+    @CachePut(cacheNames = CacheConfig.BUSINESS_PROFILE_BY_USER, key = "#userId")
+    public BusinessProfile reloadLastBusinessProfileByUserId(Long userId) {
+        List<BusinessProfile> businessProfiles = businessProfileRepository.findByUserId(userId);
+        return businessProfiles.isEmpty() ? null : businessProfiles.get(businessProfiles.size() - 1);
+    }
+
     /**
      * Updates an existing business profile.
      *
@@ -72,13 +108,18 @@ public class BusinessProfileService {
     }
 
     /**
-     * Updates an existing business profile.
+     * Deletes a business profile by its ID.
      *
-     * @param businessProfileId the ID of the business profile to update
-     * @param updatedBusinessProfile the updated business profile object with new details
-     * @return the updated business profile object, or throws an exception if not found
+     * @param id the ID of the business profile to be deleted
+     * @return the ID of the user who owned the business profile, or null if it did not exist
      */
-    public void deleteBusinessProfile(Long id) {
+    @CacheEvict(cacheNames = CacheConfig.BUSINESS_PROFILE_BY_USER, key = "#result", condition = "#result != null")
+    @Transactional
+    public Long deleteBusinessProfile(Long id) {
+        Long userId = businessProfileRepository.findUserIdById(id).orElse(null);
+        changeTracker.markUserChanged(userId);
         businessProfileRepository.deleteById(id);
+        changeBroadcaster.publishAfterCommit(userId, UserChangeBroadcaster.ChangeType.BUSINESS_PROFILE);
+        return userId;
     }
 }
\ No newline at end of file
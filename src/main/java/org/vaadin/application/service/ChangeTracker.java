@@ -0,0 +1,187 @@
+package org.vaadin.application.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.vaadin.application.model.ChangeTracked;
+import org.vaadin.application.model.SyncEntityType;
+import org.vaadin.application.model.SyncTombstone;
+import org.vaadin.application.repository.SyncTombstoneRepository;
+import org.vaadin.application.repository.UserRepository;
+
+/**
+ * Service class that assigns change sequences to writes of change-tracked
+ * entities and records tombstones for their deletions.
+ *
+ * <p>
+ * Every user has one change sequence shared by all tracked entity types. It is
+ * kept on the user's row and advanced inside the writing transaction, which
+ * locks that row until the transaction ends. Writers of the same user are
+ * therefore serialized, and a client that has seen sequence {@code n} cannot
+ * later miss a write with a lower sequence that was still uncommitted. All
+ * methods that write must be called within a transaction.
+ * </p>
+ *
+ * <p>
+ * Because the sequence lives in the database, it also changes for writes made
+ * by other instances or outside the services, which makes it the basis of the
+ * entity tags of the REST endpoints and of the per-session reference data
+ * cache. Writes of data that is not synchronized, such as expense categories
+ * and financial goals, advance it through {@link #markUserChanged(Long)}.
+ * </p>
+ */
+@Service
+public class ChangeTracker {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SyncTombstoneRepository tombstoneRepository;
+
+    /**
+     * Allocates consecutive change sequence values for a user.
+     *
+     * @param userId the ID of the user
+     * @param count  the number of values to allocate
+     * @return the first of the allocated values
+     * @throws IllegalArgumentException if the user does not exist
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long allocate(Long userId, int count) {
+        if (userRepository.advanceChangeSequence(userId, count) == 0) {
+            throw new IllegalArgumentException("User not found with ID: " + userId);
+        }
+        long last = userRepository.findChangeSequence(userId).orElseThrow();
+        return last - count + 1;
+    }
+
+    /**
+     * Advances the change sequence of a user after a write of data that is not
+     * itself change-tracked, so that entity tags and caches based on the
+     * sequence see the write. Nothing happens if the user is unknown.
+     *
+     * @param userId the ID of the user whose data changed, or null
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void markUserChanged(Long userId) {
+        if (userId != null) {
+            userRepository.advanceChangeSequence(userId, 1);
+        }
+    }
+
+    /**
+     * Returns the last change sequence allocated for a user.
+     *
+     * @param userId the ID of the user
+     * @return the last change sequence, or 0 if none was allocated yet
+     */
+    public long getChangeSequence(Long userId) {
+        return userRepository.findChangeSequence(userId).orElse(0L);
+    }
+
+    /**
+     * Returns a strong entity tag for a view of a user's data. The tag changes
+     * whenever any of the user's data changes, on any instance, so it can be
+     * compared with {@code If-None-Match} without reading or serializing the
+     * data.
+     *
+     * <p>
+     * Callers must compute the tag before loading the data, so that a tag is
+     * never newer than the data sent with it.
+     * </p>
+     *
+     * @param userId the ID of the user
+     * @return the quoted entity tag
+     */
+    public String getEntityTag(Long userId) {
+        return "\"" + userId + "-" + getChangeSequence(userId) + "\"";
+    }
+
+    /**
+     * Assigns the next change sequence of its owner to an entity about to be
+     * written. Entities without an owner are left unchanged.
+     *
+     * @param entity the entity to be written
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void markChanged(ChangeTracked entity) {
+        if (entity.getUser() == null || entity.getUser().getId() == null) {
+            return;
+        }
+        entity.setChangeSequence(allocate(entity.getUser().getId(), 1));
+        entity.setUpdatedAt(Instant.now());
+    }
+
+    /**
+     * Assigns change sequences to many entities about to be written, with one
+     * allocation per owner. Owners are locked in ascending ID order, so
+     * concurrent batches cannot deadlock on each other.
+     *
+     * @param entities the entities to be written
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void markChanged(List<? extends ChangeTracked> entities) {
+        Map<Long, List<ChangeTracked>> entitiesByUser = new TreeMap<>();
+        for (ChangeTracked entity : entities) {
+            if (entity.getUser() != null && entity.getUser().getId() != null) {
+                entitiesByUser.computeIfAbsent(entity.getUser().getId(), key -> new ArrayList<>()).add(entity);
+            }
+        }
+        Instant now = Instant.now();
+        entitiesByUser.forEach((userId, owned) -> {
+            long next = allocate(userId, owned.size());
+            for (ChangeTracked entity : owned) {
+                entity.setChangeSequence(next++);
+                entity.setUpdatedAt(now);
+            }
+        });
+    }
+
+    /**
+     * Records the deletion of an entity. Nothing is recorded if the owner is
+     * unknown, which happens when the entity did not exist.
+     *
+     * @param userId   the ID of the user who owned the entity, or null
+     * @param type     the kind of entity deleted
+     * @param entityId the ID of the deleted entity
+     * @return the change sequence of the deletion, or 0 if nothing was recorded
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long recordDeletion(Long userId, SyncEntityType type, Object entityId) {
+        return recordDeletions(userId, type, List.of(entityId));
+    }
+
+    /**
+     * Records the deletion of several entities of one user, such as those
+     * removed by a cascading delete.
+     *
+     * @param userId    the ID of the user who owned the entities, or null
+     * @param type      the kind of entity deleted
+     * @param entityIds the IDs of the deleted entities
+     * @return the change sequence of the first deletion, the others following
+     *         in iteration order, or 0 if nothing was recorded
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long recordDeletions(Long userId, SyncEntityType type, Collection<?> entityIds) {
+        if (userId == null || entityIds.isEmpty()) {
+            return 0;
+        }
+        long first = allocate(userId, entityIds.size());
+        long next = first;
+        Instant now = Instant.now();
+        List<SyncTombstone> tombstones = new ArrayList<>(entityIds.size());
+        for (Object entityId : entityIds) {
+            tombstones.add(new SyncTombstone(userId, type, String.valueOf(entityId), next++, now));
+        }
+        tombstoneRepository.saveAll(tombstones);
+        return first;
+    }
+}
@@ -0,0 +1,93 @@
+package org.vaadin.application.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Assigns change sequences to rows written before change tracking existed, so
+ * that a full synchronization from {@code since=0} returns them.
+ *
+ * <p>
+ * Runs once at startup and only touches rows whose change sequence is still
+ * null; when there are none it costs one query per table. Each user's rows are
+ * numbered in one transaction, holding the same lock as regular writes.
+ * </p>
+ */
+@Component
+public class ChangeTrackingBackfill implements ApplicationRunner {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChangeTrackingBackfill.class);
+
+    private static final List<String> TABLES = List.of("expense", "income", "budget", "invoice", "asset");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ChangeTracker changeTracker;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Map<Long, List<String>> tablesByUser = new TreeMap<>();
+        for (String table : TABLES) {
+            for (Long userId : jdbcTemplate.queryForList(
+                    "SELECT DISTINCT user_id FROM " + table + " WHERE change_sequence IS NULL", Long.class)) {
+                tablesByUser.computeIfAbsent(userId, key -> new ArrayList<>()).add(table);
+            }
+        }
+        if (tablesByUser.isEmpty()) {
+            return;
+        }
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        long rows = 0;
+        for (Map.Entry<Long, List<String>> entry : tablesByUser.entrySet()) {
+            rows += transactionTemplate.execute(status -> backfillUser(entry.getKey(), entry.getValue()));
+        }
+        LOGGER.info("Assigned change sequences to {} existing rows of {} users", rows, tablesByUser.size());
+    }
+
+    private long backfillUser(Long userId, List<String> tables) {
+        Map<String, List<Object>> idsByTable = new TreeMap<>();
+        int count = 0;
+        for (String table : tables) {
+            List<Object> ids = jdbcTemplate.queryForList(
+                    "SELECT id FROM " + table + " WHERE user_id = ? AND change_sequence IS NULL ORDER BY id",
+                    Object.class, userId);
+            idsByTable.put(table, ids);
+            count += ids.size();
+        }
+        if (count == 0) {
+            return 0;
+        }
+
+        long next = changeTracker.allocate(userId, count);
+        // Instants are stored in UTC, the same as Hibernate stores them
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        for (Map.Entry<String, List<Object>> entry : idsByTable.entrySet()) {
+            List<Object[]> updates = new ArrayList<>(entry.getValue().size());
+            for (Object id : entry.getValue()) {
+                updates.add(new Object[] { next++, now, id });
+            }
+            jdbcTemplate.batchUpdate(
+                    "UPDATE " + entry.getKey() + " SET change_sequence = ?, updated_at = ? WHERE id = ?", updates);
+        }
+        return count;
+    }
+}
@@ -1,7 +1,10 @@
 package org.vaadin.application.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.vaadin.application.config.CacheConfig;
 import org.vaadin.application.model.Employee;
 import org.vaadin.application.repository.EmployeeRopository;
 
@@ -23,6 +26,7 @@ public class EmployeeService {
      * @param userId the ID of the user whose employees are to be retrieved
      * @return a list of employees associated with the specified user ID
      */
+    @Cacheable(CacheConfig.EMPLOYEES_BY_USER)
     public List<Employee> getEmployeesByUserId(Long userId) {
         return employeeRopository.findByUserId(userId);
     }
@@ -33,6 +37,7 @@ public class EmployeeService {
      * @param employee the employee object to be added
      * @return the newly added employee object
      */
+    @CacheEvict(cacheNames = CacheConfig.EMPLOYEES_BY_USER, key = "#employee.user.id", condition = "#employee.user != null")
     public Employee addEmployee(Employee employee) {
         return employeeRopository.save(employee);
     }
@@ -49,13 +54,15 @@ public class EmployeeService {
     }
 
     /**
-     * Updates an existing employee.
+     * Deletes an employee by its ID.
      *
-     * @param employeeId the ID of the employee to update
-     * @param updatedEmployee the updated employee object with new details
-     * @return the updated employee object, or throws an exception if not found
+     * @param id the ID of the employee to be deleted
+     * @return the ID of the user who owned the employee, or null if it did not exist
      */
-    public void deleteEmployee(Long id) {
+    @CacheEvict(cacheNames = CacheConfig.EMPLOYEES_BY_USER, key = "#result", condition = "#result != null")
+    public Long deleteEmployee(Long id) {
+        Long userId = employeeRopository.findUserIdById(id).orElse(null);
         employeeRopository.deleteById(id);
+        return userId;
     }
 }
@@ -1,10 +1,21 @@
 package org.vaadin.application.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.vaadin.application.config.CacheConfig;
 import org.vaadin.application.model.ExpenseCategory;
+import org.vaadin.application.model.SearchHit;
+import org.vaadin.application.model.SyncEntityType;
 import org.vaadin.application.repository.ExpenseCategoryRepository;
+import org.vaadin.application.repository.ExpenseRepository;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -18,24 +29,65 @@ public class ExpenseCategoryService {
     @Autowired
     private ExpenseCategoryRepository expenseCategoryRepository;
 
+    @Autowired
+    private UserChangeBroadcaster changeBroadcaster;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private ChangeTracker changeTracker;
+
+    @Autowired
+    private FullTextSearchService fullTextSearchService;
+
+    @Autowired
+    private RangeSumIndex rangeSumIndex;
+
+    @Autowired
+    private LedgerCache ledgerCache;
+
     /**
      * Retrieves a list of expense categories associated with a specific user ID.
      *
      * @param userId the ID of the user whose expense categories are to be retrieved
      * @return a list of expense categories associated with the specified user ID
      */
+    @Cacheable(CacheConfig.EXPENSE_CATEGORIES_BY_USER)
     public List<ExpenseCategory> getExpenseCategoriesByUserId(Long userId) {
         return expenseCategoryRepository.findByUserId(userId);
     }
 
+    /**
+     * Reads the expense categories of a user from the database, bypassing the
+     * shared cache, and replaces the cached list with them.
+     *
+     * @param userId the ID of the user whose expense categories are to be retrieved
+     * @return a list of expense categories associated with the specified user ID
+     * @see BudgetService#reloadBudgetsByUserId(Long)
+     */
+    @CachePut(cacheNames = CacheConfig.EXPENSE_CATEGORIES_BY_USER, key = "#userId")
+    public List<ExpenseCategory> reloadExpenseCategoriesByUserId(Long userId) {
+        return expenseCategoryRepository.findByUserId(userId);
+    }
+
     /**
      * Adds a new expense category to the repository.
      *
      * @param expenseCategory the expense category object to be added
      * @return the newly added expense category object
      */
+    @CacheEvict(cacheNames = CacheConfig.EXPENSE_CATEGORIES_BY_USER, key = "#expenseCategory.user.id",
+            condition = "#expenseCategory.user != null")
+    @Transactional
     public ExpenseCategory addExpenseCategory(ExpenseCategory expenseCategory) {
-        return expenseCategoryRepository.save(expenseCategory);
+        ExpenseCategory savedCategory = expenseCategoryRepository.save(expenseCategory);
+        if (savedCategory != null && savedCategory.getUser() != null) {
+            changeTracker.markUserChanged(savedCategory.getUser().getId());
+            changeBroadcaster.publishAfterCommit(savedCategory.getUser().getId(),
+                    UserChangeBroadcaster.ChangeType.CATEGORY);
+        }
+        return savedCategory;
     }
 
     /**
@@ -49,12 +101,34 @@ public class ExpenseCategoryService {
     }
 
     /**
-     * Deletes an expense category by its ID.
+     * Deletes an expense category by its ID, together with its expenses.
      *
      * @param id the ID of the expense category to be deleted
+     * @return the ID of the user who owned the category, or null if it did not
+     *         exist
      */
-    public void deleteExpenseCategory(Long id) {
+    @CacheEvict(cacheNames = CacheConfig.EXPENSE_CATEGORIES_BY_USER, key = "#result", condition = "#result != null")
+    @Transactional
+    public Long deleteExpenseCategory(Long id) {
+        Long userId = expenseCategoryRepository.findUserIdById(id).orElse(null);
+        // The category's expenses are removed by cascade, so their tombstones are recorded here
+        List<Object[]> expenses = expenseRepository.findIdDateAndAmountByCategoryId(id);
+        List<Long> expenseIds = new ArrayList<>(expenses.size());
+        for (Object[] expense : expenses) {
+            expenseIds.add((Long) expense[0]);
+        }
+        long changeSequence = changeTracker.recordDeletions(userId, SyncEntityType.EXPENSE, expenseIds);
+        fullTextSearchService.remove(SearchHit.Type.EXPENSE, expenseIds);
+        for (Object[] expense : expenses) {
+            rangeSumIndex.removeExpense(userId, changeSequence++, (LocalDate) expense[1], (BigDecimal) expense[2]);
+        }
+        // The ledger encodes the category of every expense and is rebuilt rather than edited
+        ledgerCache.invalidate(userId);
+        changeTracker.markUserChanged(userId);
         expenseCategoryRepository.deleteById(id);
+        changeBroadcaster.publishAfterCommit(userId, UserChangeBroadcaster.ChangeType.CATEGORY);
+        changeBroadcaster.publishAfterCommit(userId, UserChangeBroadcaster.ChangeType.EXPENSE);
+        return userId;
     }
 
     /**
@@ -64,6 +138,7 @@ public class ExpenseCategoryService {
      * @param userId the ID of the user whose expense categories are to be retrieved
      * @return a list of expense categories associated with the specified user ID
      */
+    @Cacheable(CacheConfig.EXPENSE_CATEGORIES_BY_USER)
     public List<ExpenseCategory> getCategoriesByUserId(Long userId) {
         return expenseCategoryRepository.findByUserId(userId);
     }
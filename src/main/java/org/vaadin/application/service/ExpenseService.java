@@ -2,16 +2,28 @@ package org.vaadin.application.service;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.Month;
-import java.util.Calendar;
-import java.util.EnumMap;
-import java.util.HashMap;
+import java.time.YearMonth;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.vaadin.application.config.FlightEvents;
+import org.vaadin.application.model.Budget;
 import org.vaadin.application.model.Expense;
+import org.vaadin.application.model.ExpenseCursor;
+import org.vaadin.application.model.ExpenseFilter;
+import org.vaadin.application.model.MonthlySeries;
+import org.vaadin.application.model.SearchHit;
+import org.vaadin.application.model.SyncEntityType;
 import org.vaadin.application.repository.ExpenseRepository;
+import org.vaadin.application.repository.ExpenseSpecifications;
 
 /**
  * Service class for managing expense-related operations.
@@ -21,9 +33,33 @@ import org.vaadin.application.repository.ExpenseRepository;
 @Service
 public class ExpenseService {
 
+    /**
+     * Properties search results may be sorted by; each is covered by an index
+     * together with the user.
+     */
+    private static final Set<String> SORTABLE_PROPERTIES = Set.of("date", "amount", "description", "id");
+
     @Autowired
     private ExpenseRepository expenseRepository;
 
+    @Autowired
+    private UserChangeBroadcaster changeBroadcaster;
+
+    @Autowired
+    private ChangeTracker changeTracker;
+
+    @Autowired
+    private FullTextSearchService fullTextSearchService;
+
+    @Autowired
+    private LedgerCache ledgerCache;
+
+    @Autowired
+    private RangeSumIndex rangeSumIndex;
+
+    @Value("${fintrack.expenses.search.max-page-size:500}")
+    private int maxSearchPageSize;
+
     /**
      * Retrieves a list of expenses associated with a specific user ID.
      *
@@ -34,14 +70,114 @@ public class ExpenseService {
         return expenseRepository.findByUserId(userId);
     }
 
+    /**
+     * Retrieves one page of the most recent expenses for a specific user.
+     *
+     * @param userId   the ID of the user whose expenses are to be retrieved
+     * @param page     the zero-based page index
+     * @param pageSize the number of expenses per page
+     * @return a slice of expenses ordered by date, newest first
+     */
+    public Slice<Expense> getRecentExpensesByUserId(Long userId, int page, int pageSize) {
+        return expenseRepository.findByUserIdOrderByDateDescIdDesc(userId, PageRequest.of(page, pageSize));
+    }
+
+    /**
+     * Searches the expenses of a user. Only the requested page is loaded, with
+     * budgets and categories fetched in the same query, and no count query is
+     * run.
+     *
+     * @param userId   the ID of the user whose expenses are to be searched
+     * @param filter   the criteria the expenses must match
+     * @param pageable the page and sort order to return; unsorted requests are
+     *                 ordered by date, newest first, and the page size is capped
+     *                 at {@code fintrack.expenses.search.max-page-size}
+     * @return a slice of the matching expenses
+     * @throws IllegalArgumentException if the sort order uses an unsupported
+     *                                  property
+     */
+    @Transactional(readOnly = true)
+    public Slice<Expense> searchExpenses(Long userId, ExpenseFilter filter, Pageable pageable) {
+        return searchExpenses(userId, filter, pageable, null);
+    }
+
+    /**
+     * Searches the expenses of a user, continuing after a cursor. With a
+     * cursor the page starts right after the expense it was created from, and
+     * the page number of {@code pageable} is ignored; the database seeks to
+     * the cursor in the index of the sort order instead of skipping the rows
+     * of all previous pages.
+     *
+     * @param userId   the ID of the user whose expenses are to be searched
+     * @param filter   the criteria the expenses must match
+     * @param pageable the page and sort order to return, as for
+     *                 {@link #searchExpenses(Long, ExpenseFilter, Pageable)}
+     * @param after    the last expense of the previous page in the same sort
+     *                 order, or null or without an ID to start at the page
+     *                 of {@code pageable}
+     * @return a slice of the matching expenses
+     * @throws IllegalArgumentException if the sort order uses an unsupported
+     *                                  property, or the cursor has no value for
+     *                                  one of its properties
+     */
+    @Transactional(readOnly = true)
+    public Slice<Expense> searchExpenses(Long userId, ExpenseFilter filter, Pageable pageable, ExpenseCursor after) {
+        Sort sort = pageable.getSort().isSorted() ? pageable.getSort() : Sort.by(Sort.Direction.DESC, "date");
+        for (Sort.Order order : sort) {
+            if (!SORTABLE_PROPERTIES.contains(order.getProperty())) {
+                throw new IllegalArgumentException("Cannot sort expenses by " + order.getProperty());
+            }
+        }
+        if (sort.getOrderFor("id") == null) {
+            // A unique last key keeps the order stable between pages
+            sort = sort.and(Sort.by(sort.iterator().next().getDirection(), "id"));
+        }
+        int pageSize = Math.min(pageable.getPageSize(), maxSearchPageSize);
+        Specification<Expense> specification = ExpenseSpecifications.matching(userId, filter);
+        if (after == null || after.getAfterId() == null) {
+            return expenseRepository.findSlice(specification,
+                    PageRequest.of((int) (pageable.getOffset() / pageSize), pageSize, sort));
+        }
+        for (Sort.Order order : sort) {
+            if (after.getValue(order.getProperty()) == null) {
+                throw new IllegalArgumentException("The cursor has no value for " + order.getProperty());
+            }
+        }
+        return expenseRepository.findSlice(specification.and(ExpenseSpecifications.after(sort, after)),
+                PageRequest.of(0, pageSize, sort));
+    }
+
+    /**
+     * Calculates the total of all expenses of a user.
+     *
+     * @param userId the ID of the user whose total expenses are to be calculated
+     * @return the total amount of the user's expenses
+     */
+    public BigDecimal getTotalExpenses(Long userId) {
+        return expenseRepository.findTotalExpenses(userId);
+    }
+
     /**
      * Adds a new expense to the repository.
      *
      * @param expense the expense object to be added
      * @return the newly added expense object
      */
+    @Transactional
     public Expense addExpense(Expense expense) {
-        return expenseRepository.save(expense);
+        FlightEvents.Write event = new FlightEvents.Write("expense", "add");
+        event.begin();
+        try {
+            changeTracker.markChanged(expense);
+            Expense savedExpense = expenseRepository.save(expense);
+            fullTextSearchService.indexExpense(savedExpense);
+            addToAggregates(savedExpense);
+            publishChange(savedExpense);
+            event.written(ownerId(savedExpense), 1);
+            return savedExpense;
+        } finally {
+            event.finish();
+        }
     }
 
     /**
@@ -59,8 +195,24 @@ public class ExpenseService {
      *
      * @param id the ID of the expense to be deleted
      */
+    @Transactional
     public void deleteExpense(Long id) {
-        expenseRepository.deleteById(id);
+        FlightEvents.Write event = new FlightEvents.Write("expense", "delete");
+        event.begin();
+        try {
+            List<Object[]> previous = expenseRepository.findOwnerAndValuesById(id);
+            Long userId = previous.isEmpty() ? null : (Long) previous.get(0)[0];
+            expenseRepository.deleteById(id);
+            long changeSequence = changeTracker.recordDeletion(userId, SyncEntityType.EXPENSE, id);
+            fullTextSearchService.remove(SearchHit.Type.EXPENSE, List.of(id));
+            if (!previous.isEmpty()) {
+                removeFromAggregates(previous.get(0), changeSequence);
+            }
+            changeBroadcaster.publishAfterCommit(userId, UserChangeBroadcaster.ChangeType.EXPENSE);
+            event.written(userId, previous.size());
+        } finally {
+            event.finish();
+        }
     }
 
     /**
@@ -72,7 +224,7 @@ public class ExpenseService {
     public BigDecimal getTotalExpensesForCurrentMonth(Long userId) {
         LocalDate startOfMonth = LocalDate.now().withDayOfMonth(1);
         LocalDate endOfMonth = LocalDate.now().withDayOfMonth(LocalDate.now().lengthOfMonth());
-        return expenseRepository.findTotalExpensesForPeriod(userId, startOfMonth, endOfMonth);
+        return getTotalExpensesBetween(userId, startOfMonth, endOfMonth);
     }
 
     /**
@@ -86,7 +238,26 @@ public class ExpenseService {
         LocalDate startOfMonth = LocalDate.now().withDayOfMonth(1).minusMonths(previousMonths);
         LocalDate endOfMonth = LocalDate.now().withDayOfMonth(LocalDate.now().lengthOfMonth());
 
-        return expenseRepository.findTotalExpensesForPeriod(userId, startOfMonth, endOfMonth);
+        return getTotalExpensesBetween(userId, startOfMonth, endOfMonth);
+    }
+
+    /**
+     * Calculates the total expenses of a user between two days, such as a
+     * budget period or a custom date filter. The total is read from the
+     * user's {@link RangeSumIndex} trees in O(log n) when they are available.
+     *
+     * @param userId the ID of the user whose total expenses are to be calculated
+     * @param from   the first day to include
+     * @param to     the last day to include
+     * @return the total amount of the expenses, or null if the index is
+     *         disabled and the user has no expenses in the period
+     */
+    public BigDecimal getTotalExpensesBetween(Long userId, LocalDate from, LocalDate to) {
+        BigDecimal total = rangeSumIndex.sumExpenses(userId, from, to);
+        if (total != null) {
+            return total;
+        }
+        return expenseRepository.findTotalExpensesForPeriod(userId, from, to);
     }
 
     /**
@@ -105,84 +276,115 @@ public class ExpenseService {
      * @param expense the expense object with updated information
      * @return the updated expense object
      */
+    @Transactional
     public Expense updateExpense(Expense expense) {
-        if (expenseRepository.existsById(expense.getId())) {
-            return expenseRepository.save(expense);
-        } else {
-            throw new IllegalArgumentException("Expense not found with ID: " + expense.getId());
+        FlightEvents.Write event = new FlightEvents.Write("expense", "update");
+        event.begin();
+        try {
+            List<Object[]> previous = expenseRepository.findOwnerAndValuesById(expense.getId());
+            if (!previous.isEmpty()) {
+                changeTracker.markChanged(expense);
+                Expense savedExpense = expenseRepository.save(expense);
+                fullTextSearchService.indexExpense(savedExpense);
+                Long previousUserId = (Long) previous.get(0)[0];
+                if (savedExpense.getUser() != null && previousUserId.equals(savedExpense.getUser().getId())) {
+                    removeFromAggregates(previous.get(0), savedExpense.getChangeSequence());
+                } else {
+                    rangeSumIndex.invalidate(previousUserId);
+                    ledgerCache.invalidate(previousUserId);
+                }
+                addToAggregates(savedExpense);
+                publishChange(savedExpense);
+                event.written(ownerId(savedExpense), 1);
+                return savedExpense;
+            } else {
+                throw new IllegalArgumentException("Expense not found with ID: " + expense.getId());
+            }
+        } finally {
+            event.finish();
         }
     }
 
     /**
-     * Retrieves a map of expenses in the previous x months for a particular user.
+     * Retrieves the monthly expenses of one budget over the previous months
+     * and the current month for a particular user.
      *
-     * @param userId the ID of the user whose total expenses are to be calculated
-     * @param previousMonths the number of previous months that expenses should be retrieved for          
-     * @return
+     * @param userId the ID of the user whose expenses are to be retrieved
+     * @param previousMonths the number of months before the current month to include
+     * @param budgetName the name of the budget, matched ignoring case; {@code "no-budget"} selects the
+     *                   expenses without a budget
+     * @return the expenses of each month, from {@code previousMonths} months ago to the current month
      */
-    public Map<Month, BigDecimal> getExpensesForPreviousMonths(Long userId, int previousMonths, String budgetName) {
-
-        Map<Month, BigDecimal> monthlyExpenses = new EnumMap<>(Month.class);
-        List<Expense> expenses = getExpensesByUserId(userId);
+    public MonthlySeries getExpensesForPreviousMonths(Long userId, int previousMonths, String budgetName) {
+        YearMonth currentMonth = YearMonth.now();
+        YearMonth firstMonth = currentMonth.minusMonths(previousMonths);
 
-        LocalDate dateOfCurrentMonth = LocalDate.now();
-        LocalDate dateOfFirstMonth = dateOfCurrentMonth.minusMonths(previousMonths);
-
-       configureExpensesMap(monthlyExpenses, dateOfCurrentMonth, dateOfFirstMonth, previousMonths);
+        UserLedger ledger = ledgerCache.get(userId);
+        if (ledger != null) {
+            return new MonthlySeries(firstMonth,
+                    ledger.sumExpensesByMonth(firstMonth.atDay(1), currentMonth.atEndOfMonth(), budgetName));
+        }
 
-        if (!expenses.isEmpty() || expenses != null) {
-            for (Expense expense : expenses) {
-                if (expense.getBudget() != null && expense.getBudget().getName().equalsIgnoreCase(budgetName)
-                        || expense.getBudget() == null && budgetName.equals("no-budget")) {
-                    
-                    LocalDate expenseDate= getLocalDateFromExpense(expense);
-                    if (!expenseDate.isBefore(dateOfFirstMonth.minusMonths(1)) && !expenseDate.isAfter(dateOfCurrentMonth)) {
-                        Month expenseMonth = Month.of(expenseDate.getMonthValue());
-                        monthlyExpenses.put(expenseMonth,
-                                monthlyExpenses.getOrDefault(expenseMonth, BigDecimal.ZERO).add(expense.getAmount()));
-                    }
-                }
+        MonthlySeries monthlyExpenses = new MonthlySeries(firstMonth, previousMonths + 1);
+        for (Expense expense : getExpensesByUserId(userId)) {
+            if (expense.getBudget() != null && expense.getBudget().getName().equalsIgnoreCase(budgetName)
+                    || expense.getBudget() == null && budgetName.equals("no-budget")) {
+                monthlyExpenses.add(expense.getDate(), expense.getAmount());
             }
-            return monthlyExpenses;
         }
         return monthlyExpenses;
     }
 
     /**
-     * Configures a map to hold monthly expenses with the appropriate Month keys, 
-     * starting from the specified number of previous months up to the current month.
-     * 
-     * @param monthlyExpenses the map to be configured, where each key is a Month
-     * @param dateOfCurrentMonth the date of the current month
-     * @param dateOfFirstMonth the date representing the first month in the series of previous months
-     * @param previousMonths the number of past months to include in the map
-     */
-    private void configureExpensesMap(Map<Month, BigDecimal> monthlyExpenses, LocalDate dateOfCurrentMonth, LocalDate dateOfFirstMonth, int previousMonths) {
-        monthlyExpenses.put(Month.of(dateOfCurrentMonth.getMonthValue()), BigDecimal.ZERO);
-
-        for (int i = 0; i < previousMonths; i++) {
-            LocalDate monthDate = dateOfFirstMonth.plusMonths(i);
-            Month month = Month.of(monthDate.getMonthValue());
-            monthlyExpenses.put(month, BigDecimal.ZERO);
+     * Adds a written expense to the range sums and ledger of its owner.
+     *
+     * @param expense the expense that was written
+     */
+    private void addToAggregates(Expense expense) {
+        if (expense != null && expense.getUser() != null) {
+            Long userId = expense.getUser().getId();
+            rangeSumIndex.addExpense(userId, expense.getChangeSequence(), expense.getDate(), expense.getAmount());
+            Budget budget = expense.getBudget();
+            ledgerCache.addExpense(userId, expense.getChangeSequence(), expense.getDate(), expense.getAmount(),
+                    budget == null ? null : budget.getId(), budget == null ? null : budget.getName(),
+                    expense.getCategory() == null ? null : expense.getCategory().getId());
         }
+    }
 
+    /**
+     * Removes the replaced values of an expense from the range sums and ledger
+     * of its owner.
+     *
+     * @param previous       the row of {@link ExpenseRepository#findOwnerAndValuesById}
+     * @param changeSequence the change sequence of the write that replaced or
+     *                       deleted the expense
+     */
+    private void removeFromAggregates(Object[] previous, Long changeSequence) {
+        Long userId = (Long) previous[0];
+        rangeSumIndex.removeExpense(userId, changeSequence, (LocalDate) previous[1], (BigDecimal) previous[2]);
+        ledgerCache.removeExpense(userId, changeSequence, (LocalDate) previous[1], (BigDecimal) previous[2],
+                (Long) previous[3], (Long) previous[4]);
     }
 
     /**
-     *  Converts the date of an {@link Expense}, which is in {@link java.util.Date} format, to a {@link LocalDate}.
-     * 
-     * @param expense the expense object containing the date to be converted
-     * @return a LocalDate representing the same date as the Date in the expense
-     */
-    private LocalDate getLocalDateFromExpense(Expense expense) {
-        Calendar calendar = Calendar.getInstance();
-        calendar.setTime(expense.getDate());
-        return 
-        LocalDate.of(
-            calendar.get(Calendar.YEAR),
-            calendar.get(Calendar.MONTH) + 1,
-            calendar.get(Calendar.DAY_OF_MONTH));
-   
+     * Notifies listeners of the expense owner that their expenses changed.
+     *
+     * @param expense the expense that was written
+     */
+    private void publishChange(Expense expense) {
+        if (expense != null && expense.getUser() != null) {
+            changeBroadcaster.publishAfterCommit(expense.getUser().getId(), UserChangeBroadcaster.ChangeType.EXPENSE);
+        }
+    }
+
+    /**
+     * Gets the ID of the owner of a written expense.
+     *
+     * @param expense the expense that was written
+     * @return the ID of its user, or null if it has none
+     */
+    private static Long ownerId(Expense expense) {
+        return expense != null && expense.getUser() != null ? expense.getUser().getId() : null;
     }
 
     /**
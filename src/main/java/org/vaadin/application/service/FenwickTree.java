@@ -0,0 +1,89 @@
+package org.vaadin.application.service;
+
+/**
+ * Fenwick (binary indexed) tree of {@code long} values, supporting point
+ * updates and range sums in O(log n).
+ *
+ * <p>
+ * Positions are zero-based. The tree is not thread-safe.
+ * </p>
+ */
+public final class FenwickTree {
+
+    /** One-based partial sums; element {@code i} covers the {@code i & -i} positions ending at {@code i}. */
+    private final long[] tree;
+
+    /**
+     * Creates a tree of zeros.
+     *
+     * @param size the number of positions
+     */
+    public FenwickTree(int size) {
+        this.tree = new long[size + 1];
+    }
+
+    /**
+     * Creates a tree holding the given values, in O(n).
+     *
+     * @param values the value of each position
+     * @return the tree
+     */
+    public static FenwickTree of(long[] values) {
+        FenwickTree fenwickTree = new FenwickTree(values.length);
+        long[] tree = fenwickTree.tree;
+        System.arraycopy(values, 0, tree, 1, values.length);
+        for (int i = 1; i < tree.length; i++) {
+            int parent = i + (i & -i);
+            if (parent < tree.length) {
+                tree[parent] += tree[i];
+            }
+        }
+        return fenwickTree;
+    }
+
+    /**
+     * Returns the number of positions.
+     *
+     * @return the size of the tree
+     */
+    public int size() {
+        return tree.length - 1;
+    }
+
+    /**
+     * Adds a value to one position.
+     *
+     * @param position the zero-based position
+     * @param delta    the value to add, negative to subtract
+     */
+    public void add(int position, long delta) {
+        for (int i = position + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    /**
+     * Sums the positions from 0 up to and including a position.
+     *
+     * @param position the last position to include, or -1 for an empty sum
+     * @return the sum
+     */
+    public long prefixSum(int position) {
+        long sum = 0;
+        for (int i = position + 1; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Sums the positions between two positions, both included.
+     *
+     * @param from the first position to include
+     * @param to   the last position to include
+     * @return the sum, 0 if {@code to} is before {@code from}
+     */
+    public long rangeSum(int from, int to) {
+        return to < from ? 0 : prefixSum(to) - prefixSum(from - 1);
+    }
+}
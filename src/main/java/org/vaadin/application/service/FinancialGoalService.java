@@ -2,6 +2,7 @@ package org.vaadin.application.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.vaadin.application.model.FinancialGoal;
 import org.vaadin.application.repository.FinancialGoalRepository;
 
@@ -18,6 +19,12 @@ public class FinancialGoalService {
     @Autowired
     private FinancialGoalRepository financialGoalRepository;
 
+    @Autowired
+    private UserChangeBroadcaster changeBroadcaster;
+
+    @Autowired
+    private ChangeTracker changeTracker;
+
     /**
      * Retrieves a list of financial goals associated with a specific user ID.
      *
@@ -34,8 +41,11 @@ public class FinancialGoalService {
      * @param financialGoal the financial goal object to be added
      * @return the newly added financial goal object
      */
+    @Transactional
     public FinancialGoal addFinancialGoal(FinancialGoal financialGoal) {
-        return financialGoalRepository.save(financialGoal);
+        FinancialGoal savedGoal = financialGoalRepository.save(financialGoal);
+        publishChange(savedGoal);
+        return savedGoal;
     }
 
     /**
@@ -54,13 +64,16 @@ public class FinancialGoalService {
      * @param financialGoal the financial goal object with updated data
      * @return the updated financial goal object
      */
+    @Transactional
     public FinancialGoal updateFinancialGoal(FinancialGoal financialGoal) {
         FinancialGoal existingGoal = findFinancialGoalById(financialGoal.getId());
         if (existingGoal != null) {
             existingGoal.setSavedAmount(financialGoal.getSavedAmount());
             existingGoal.setTargetAmount(financialGoal.getTargetAmount());
             existingGoal.setDescription(financialGoal.getDescription());
-            return financialGoalRepository.save(existingGoal);
+            FinancialGoal savedGoal = financialGoalRepository.save(existingGoal);
+            publishChange(savedGoal);
+            return savedGoal;
         }
         return null;
     }
@@ -70,7 +83,25 @@ public class FinancialGoalService {
      *
      * @param id the ID of the financial goal to be deleted
      */
+    @Transactional
     public void deleteFinancialGoal(Long id) {
+        Long userId = financialGoalRepository.findUserIdById(id).orElse(null);
+        changeTracker.markUserChanged(userId);
         financialGoalRepository.deleteById(id);
+        changeBroadcaster.publishAfterCommit(userId, UserChangeBroadcaster.ChangeType.FINANCIAL_GOAL);
+    }
+
+    /**
+     * Advances the change sequence of the goal owner and notifies their
+     * listeners that their financial goals changed.
+     *
+     * @param financialGoal the financial goal that was written
+     */
+    private void publishChange(FinancialGoal financialGoal) {
+        if (financialGoal != null && financialGoal.getUser() != null) {
+            changeTracker.markUserChanged(financialGoal.getUser().getId());
+            changeBroadcaster.publishAfterCommit(financialGoal.getUser().getId(),
+                    UserChangeBroadcaster.ChangeType.FINANCIAL_GOAL);
+        }
     }
 }
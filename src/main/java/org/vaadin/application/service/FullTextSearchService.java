@@ -0,0 +1,610 @@
+package org.vaadin.application.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.SegmentInfos;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.vaadin.application.config.ExecutorConfig;
+import org.vaadin.application.model.Expense;
+import org.vaadin.application.model.Income;
+import org.vaadin.application.model.Invoice;
+import org.vaadin.application.model.Note;
+import org.vaadin.application.model.SearchHit;
+import org.vaadin.application.repository.ExpenseRepository;
+import org.vaadin.application.repository.IncomeRepository;
+import org.vaadin.application.repository.InvoiceRepository;
+import org.vaadin.application.repository.NoteRepository;
+
+/**
+ * Service class for full-text search over expense descriptions, income
+ * sources, invoice descriptions and note contents.
+ *
+ * <p>
+ * The text is kept in an embedded Lucene index on local disk, one document per
+ * entity, so a search looks up the query's terms instead of scanning every
+ * row with {@code LIKE '%...%'}. Each word of a query must match a word of the
+ * text exactly, as a prefix, or within one or two edits; exact matches rank
+ * above prefix matches, which rank above fuzzy ones. Results carry only entity
+ * IDs, so callers load just the page they display.
+ * </p>
+ *
+ * <p>
+ * Services report writes and deletions, which are applied after their
+ * transaction commits, so rolled-back writes never reach the index. Searches
+ * see them immediately. The index is committed to disk every
+ * {@code fintrack.search.commit-interval-seconds} and on shutdown; one that is
+ * missing or was not closed cleanly is rebuilt from the database at startup in
+ * the background. A rebuild can also be requested at any time, and searches
+ * keep using the previous contents until it completes. A rebuild that fails is
+ * rolled back to those contents, plus the writes made meanwhile, and retried
+ * after {@code fintrack.search.rebuild-retry-seconds}; until one succeeds, the
+ * index is not marked as closed cleanly, so the next start rebuilds it.
+ * </p>
+ */
+@Service
+public class FullTextSearchService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FullTextSearchService.class);
+
+    private static final String KEY_FIELD = "key";
+    private static final String TYPE_FIELD = "type";
+    private static final String ID_FIELD = "id";
+    private static final String USER_FIELD = "user";
+    private static final String TEXT_FIELD = "text";
+    private static final Set<String> HIT_FIELDS = Set.of(TYPE_FIELD, ID_FIELD);
+
+    private static final String CLEAN_SHUTDOWN = "cleanShutdown";
+    private static final int REBUILD_PAGE_SIZE = 1000;
+
+    /**
+     * Query words shorter than this are not matched fuzzily, as one edit would
+     * already match too many unrelated words.
+     */
+    private static final int MIN_FUZZY_LENGTH = 4;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private IncomeRepository incomeRepository;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    @Qualifier(ExecutorConfig.BACKGROUND_EXECUTOR)
+    private Executor backgroundExecutor;
+
+    @Value("${fintrack.search.index-dir:search-index}")
+    private String indexDir;
+
+    @Value("${fintrack.search.commit-interval-seconds:30}")
+    private long commitIntervalSeconds;
+
+    @Value("${fintrack.search.max-results:1000}")
+    private int maxResults;
+
+    @Value("${fintrack.search.rebuild-retry-seconds:60}")
+    private long rebuildRetrySeconds;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    /**
+     * Set while the index may lack rows of the database: from an unclean start
+     * or a failed rebuild until a rebuild succeeds.
+     */
+    private volatile boolean dirty;
+
+    /**
+     * Writes made while a rebuild runs, replayed once it has loaded the database
+     * so that rows it read before they changed do not stay stale.
+     */
+    private final Queue<IndexOperation> rebuildReplay = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Held shared by writes and searches, and exclusively while the replay is
+     * applied or the writer is reopened after a failed rebuild.
+     */
+    private final ReadWriteLock replayLock = new ReentrantReadWriteLock();
+
+    private Directory directory;
+    private volatile IndexWriter writer;
+    private volatile SearcherManager searcherManager;
+    private ScheduledExecutorService committer;
+
+    /**
+     * Opens the index, and starts rebuilding it if it is missing or was not
+     * closed cleanly.
+     *
+     * @throws IOException if the index directory cannot be opened
+     */
+    @PostConstruct
+    public void open() throws IOException {
+        directory = FSDirectory.open(Path.of(indexDir));
+        boolean clean = DirectoryReader.indexExists(directory)
+                && "true".equals(SegmentInfos.readLatestCommit(directory).getUserData().get(CLEAN_SHUTDOWN));
+        dirty = !clean;
+        openWriter();
+
+        committer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "full-text-index-commit");
+            thread.setDaemon(true);
+            return thread;
+        });
+        committer.scheduleWithFixedDelay(this::commit, commitIntervalSeconds, commitIntervalSeconds,
+                TimeUnit.SECONDS);
+
+        if (!clean) {
+            LOGGER.info("Search index in {} is missing or was not closed cleanly, rebuilding it", indexDir);
+            startRebuild();
+        }
+    }
+
+    /**
+     * Commits and closes the index when the application shuts down.
+     *
+     * @throws IOException if the index cannot be written
+     */
+    @PreDestroy
+    public void close() throws IOException {
+        committer.shutdownNow();
+        searcherManager.close();
+        if (!rebuilding.get() && !dirty) {
+            writer.setLiveCommitData(Map.of(CLEAN_SHUTDOWN, "true").entrySet());
+        }
+        writer.close();
+        directory.close();
+    }
+
+    private void openWriter() throws IOException {
+        writer = new IndexWriter(directory, new IndexWriterConfig(analyzer));
+        // Cleared until close, so a crash in between is detected at the next start
+        writer.setLiveCommitData(Map.of(CLEAN_SHUTDOWN, "false").entrySet());
+        writer.commit();
+        searcherManager = new SearcherManager(writer, null);
+    }
+
+    /**
+     * Indexes the description of an expense once the current transaction
+     * commits.
+     *
+     * @param expense the expense that was written
+     */
+    public void indexExpense(Expense expense) {
+        if (expense != null && expense.getUser() != null) {
+            index(SearchHit.Type.EXPENSE, expense.getId(), expense.getUser().getId(), expense.getDescription());
+        }
+    }
+
+    /**
+     * Indexes the source of an income once the current transaction commits.
+     *
+     * @param income the income that was written
+     */
+    public void indexIncome(Income income) {
+        if (income != null && income.getUser() != null) {
+            index(SearchHit.Type.INCOME, income.getId(), income.getUser().getId(), income.getSource());
+        }
+    }
+
+    /**
+     * Indexes the description of an invoice once the current transaction commits.
+     *
+     * @param invoice the invoice that was written
+     */
+    public void indexInvoice(Invoice invoice) {
+        if (invoice != null && invoice.getUser() != null) {
+            index(SearchHit.Type.INVOICE, invoice.getId(), invoice.getUser().getId(), invoice.getDescription());
+        }
+    }
+
+    /**
+     * Indexes the content of a note once the current transaction commits.
+     *
+     * @param note the note that was written
+     */
+    public void indexNote(Note note) {
+        if (note != null) {
+            index(SearchHit.Type.NOTE, note.getId(), note.getUserId(), note.getContent());
+        }
+    }
+
+    /**
+     * Indexes the text of an entity once the current transaction commits. An
+     * entity without text is removed from the index.
+     *
+     * @param type   the kind of entity
+     * @param id     the ID of the entity
+     * @param userId the ID of the user who owns the entity
+     * @param text   the text to index
+     */
+    public void index(SearchHit.Type type, Object id, Long userId, String text) {
+        if (id == null || userId == null) {
+            return;
+        }
+        applyAfterCommit(List.of(new IndexOperation(type, String.valueOf(id), userId, text)));
+    }
+
+    /**
+     * Removes entities from the index once the current transaction commits.
+     *
+     * @param type the kind of the deleted entities
+     * @param ids  the IDs of the deleted entities
+     */
+    public void remove(SearchHit.Type type, Collection<?> ids) {
+        List<IndexOperation> operations = new ArrayList<>(ids.size());
+        for (Object id : ids) {
+            operations.add(new IndexOperation(type, String.valueOf(id), null, null));
+        }
+        if (!operations.isEmpty()) {
+            applyAfterCommit(operations);
+        }
+    }
+
+    /**
+     * Searches the text of a user's entities.
+     *
+     * @param userId the ID of the user whose entities are to be searched
+     * @param text   the words to search for
+     * @param types  the kinds of entities to search, or null or empty for all
+     * @param offset the number of best hits to skip
+     * @param limit  the maximum number of hits to return
+     * @return the matching entities, best match first; empty if the text has no
+     *         words
+     * @throws IllegalArgumentException if the offset or limit is negative, or
+     *                                  the hits requested go beyond
+     *                                  {@code fintrack.search.max-results}
+     */
+    public List<SearchHit> search(Long userId, String text, Set<SearchHit.Type> types, int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("offset and limit must not be negative");
+        }
+        if (offset + limit > maxResults) {
+            throw new IllegalArgumentException("Only the first " + maxResults + " hits can be retrieved");
+        }
+        List<String> words = analyze(text);
+        if (words.isEmpty() || limit == 0) {
+            return List.of();
+        }
+
+        BooleanQuery.Builder query = new BooleanQuery.Builder()
+                .add(new TermQuery(new Term(USER_FIELD, String.valueOf(userId))), BooleanClause.Occur.FILTER);
+        if (types != null && !types.isEmpty() && !types.containsAll(EnumSet.allOf(SearchHit.Type.class))) {
+            BooleanQuery.Builder typeQuery = new BooleanQuery.Builder();
+            for (SearchHit.Type type : types) {
+                typeQuery.add(new TermQuery(new Term(TYPE_FIELD, type.name())), BooleanClause.Occur.SHOULD);
+            }
+            query.add(typeQuery.build(), BooleanClause.Occur.FILTER);
+        }
+        for (String word : words) {
+            query.add(wordQuery(word), BooleanClause.Occur.MUST);
+        }
+
+        replayLock.readLock().lock();
+        try {
+            if (!rebuilding.get()) {
+                searcherManager.maybeRefresh();
+            }
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TopDocs topDocs = searcher.search(query.build(), offset + limit);
+                StoredFields storedFields = searcher.storedFields();
+                List<SearchHit> hits = new ArrayList<>(limit);
+                for (int i = offset; i < topDocs.scoreDocs.length; i++) {
+                    ScoreDoc scoreDoc = topDocs.scoreDocs[i];
+                    Document document = storedFields.document(scoreDoc.doc, HIT_FIELDS);
+                    hits.add(new SearchHit(SearchHit.Type.valueOf(document.get(TYPE_FIELD)), document.get(ID_FIELD),
+                            scoreDoc.score));
+                }
+                return hits;
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            replayLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Starts rebuilding the index from the database on the background executor.
+     *
+     * @return false if a rebuild is already running
+     */
+    public boolean startRebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return false;
+        }
+        backgroundExecutor.execute(this::runRebuild);
+        return true;
+    }
+
+    /**
+     * Rebuilds the index from the database on the calling thread.
+     *
+     * @return false if a rebuild is already running or this one failed
+     */
+    public boolean rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return false;
+        }
+        return runRebuild();
+    }
+
+    /**
+     * Returns whether a rebuild is running.
+     *
+     * @return true while the index is being rebuilt
+     */
+    public boolean isRebuilding() {
+        return rebuilding.get();
+    }
+
+    private boolean runRebuild() {
+        long start = System.nanoTime();
+        long documents = 0;
+        try {
+            // The rollback of a failed rebuild returns to this commit
+            writer.commit();
+            writer.deleteAll();
+            documents += addAll(SearchHit.Type.EXPENSE, 0L,
+                    after -> expenseRepository.findSearchDocuments((Long) after, firstRows()));
+            documents += addAll(SearchHit.Type.INCOME, 0L,
+                    after -> incomeRepository.findSearchDocuments((Long) after, firstRows()));
+            documents += addAll(SearchHit.Type.INVOICE, null,
+                    after -> after == null ? invoiceRepository.findSearchDocuments(firstRows())
+                            : invoiceRepository.findSearchDocumentsAfter((UUID) after, firstRows()));
+            documents += addAll(SearchHit.Type.NOTE, 0L,
+                    after -> noteRepository.findSearchDocuments((Long) after, firstRows()));
+
+            replayLock.writeLock().lock();
+            try {
+                IndexOperation operation;
+                while ((operation = rebuildReplay.poll()) != null) {
+                    apply(operation);
+                }
+                rebuilding.set(false);
+            } finally {
+                replayLock.writeLock().unlock();
+            }
+            writer.commit();
+            dirty = false;
+            searcherManager.maybeRefresh();
+            LOGGER.info("Rebuilt search index with {} documents in {} ms", documents,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return true;
+        } catch (IOException | RuntimeException e) {
+            LOGGER.error("Rebuilding the search index failed after {} documents", documents, e);
+            rollBackRebuild();
+            return false;
+        } finally {
+            rebuildReplay.clear();
+            rebuilding.set(false);
+        }
+    }
+
+    /**
+     * Discards a partial rebuild: returns the index to its commit from before
+     * the rebuild, applies the writes made since, and schedules a retry.
+     */
+    private void rollBackRebuild() {
+        dirty = true;
+        replayLock.writeLock().lock();
+        try {
+            SearcherManager previous = searcherManager;
+            writer.rollback();
+            openWriter();
+            previous.close();
+            IndexOperation operation;
+            while ((operation = rebuildReplay.poll()) != null) {
+                apply(operation);
+            }
+            rebuilding.set(false);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.error("Reopening the search index after a failed rebuild failed", e);
+        } finally {
+            replayLock.writeLock().unlock();
+        }
+        if (rebuildRetrySeconds > 0 && !committer.isShutdown()) {
+            LOGGER.info("Retrying the search index rebuild in {} s", rebuildRetrySeconds);
+            committer.schedule(this::startRebuild, rebuildRetrySeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    private long addAll(SearchHit.Type type, Object firstAfter, Function<Object, List<Object[]>> nextRows)
+            throws IOException {
+        long count = 0;
+        Object after = firstAfter;
+        List<Object[]> rows;
+        do {
+            rows = nextRows.apply(after);
+            for (Object[] row : rows) {
+                Document document = toDocument(type, String.valueOf(row[0]), (Long) row[1], (String) row[2]);
+                if (document != null) {
+                    writer.addDocument(document);
+                    count++;
+                }
+            }
+            if (!rows.isEmpty()) {
+                after = rows.get(rows.size() - 1)[0];
+            }
+        } while (rows.size() == REBUILD_PAGE_SIZE);
+        return count;
+    }
+
+    private static Pageable firstRows() {
+        return PageRequest.of(0, REBUILD_PAGE_SIZE);
+    }
+
+    private void applyAfterCommit(List<IndexOperation> operations) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    applyAll(operations);
+                }
+            });
+        } else {
+            applyAll(operations);
+        }
+    }
+
+    private void applyAll(List<IndexOperation> operations) {
+        replayLock.readLock().lock();
+        try {
+            for (IndexOperation operation : operations) {
+                apply(operation);
+                if (rebuilding.get()) {
+                    rebuildReplay.add(operation);
+                }
+            }
+        } catch (IOException e) {
+            // The database write has committed; the index catches up at the next rebuild
+            LOGGER.warn("Updating the search index failed", e);
+        } finally {
+            replayLock.readLock().unlock();
+        }
+    }
+
+    private void apply(IndexOperation operation) throws IOException {
+        Term key = new Term(KEY_FIELD, operation.type.name() + ":" + operation.id);
+        Document document = operation.userId == null ? null
+                : toDocument(operation.type, operation.id, operation.userId, operation.text);
+        if (document == null) {
+            writer.deleteDocuments(key);
+        } else {
+            writer.updateDocument(key, document);
+        }
+    }
+
+    private void commit() {
+        try {
+            if (writer.hasUncommittedChanges() && !rebuilding.get()) {
+                writer.commit();
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Committing the search index failed", e);
+        }
+    }
+
+    private static Document toDocument(SearchHit.Type type, String id, Long userId, String text) {
+        if (userId == null || text == null || text.isBlank()) {
+            return null;
+        }
+        Document document = new Document();
+        document.add(new StringField(KEY_FIELD, type.name() + ":" + id, Field.Store.NO));
+        document.add(new StringField(TYPE_FIELD, type.name(), Field.Store.YES));
+        document.add(new StringField(ID_FIELD, id, Field.Store.YES));
+        document.add(new StringField(USER_FIELD, String.valueOf(userId), Field.Store.NO));
+        document.add(new TextField(TEXT_FIELD, text, Field.Store.NO));
+        return document;
+    }
+
+    private static Query wordQuery(String word) {
+        Term term = new Term(TEXT_FIELD, word);
+        BooleanQuery.Builder query = new BooleanQuery.Builder()
+                .add(new BoostQuery(new TermQuery(term), 4f), BooleanClause.Occur.SHOULD)
+                .add(new BoostQuery(new PrefixQuery(term), 2f), BooleanClause.Occur.SHOULD);
+        if (word.length() >= MIN_FUZZY_LENGTH) {
+            // The first letter must match, which keeps the number of candidate terms small
+            query.add(new FuzzyQuery(term, word.length() >= 8 ? 2 : 1, 1), BooleanClause.Occur.SHOULD);
+        }
+        return query.build();
+    }
+
+    private List<String> analyze(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null) {
+            return words;
+        }
+        try (TokenStream tokens = analyzer.tokenStream(TEXT_FIELD, text)) {
+            CharTermAttribute term = tokens.addAttribute(CharTermAttribute.class);
+            tokens.reset();
+            while (tokens.incrementToken()) {
+                words.add(term.toString());
+            }
+            tokens.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return words;
+    }
+
+    /**
+     * A pending change to the index; a null user removes the entity.
+     */
+    private static final class IndexOperation {
+
+        private final SearchHit.Type type;
+        private final String id;
+        private final Long userId;
+        private final String text;
+
+        IndexOperation(SearchHit.Type type, String id, Long userId, String text) {
+            this.type = type;
+            this.id = id;
+            this.userId = userId;
+            this.text = text;
+        }
+    }
+}
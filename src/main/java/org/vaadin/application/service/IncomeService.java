@@ -1,8 +1,14 @@
 package org.vaadin.application.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.vaadin.application.config.FlightEvents;
 import org.vaadin.application.model.Income;
+import org.vaadin.application.model.SearchHit;
+import org.vaadin.application.model.SyncEntityType;
 import org.vaadin.application.repository.IncomeRepository;
 
 import java.math.BigDecimal;
@@ -20,6 +26,21 @@ public class IncomeService {
     @Autowired
     private IncomeRepository incomeRepository;
 
+    @Autowired
+    private UserChangeBroadcaster changeBroadcaster;
+
+    @Autowired
+    private ChangeTracker changeTracker;
+
+    @Autowired
+    private FullTextSearchService fullTextSearchService;
+
+    @Autowired
+    private LedgerCache ledgerCache;
+
+    @Autowired
+    private RangeSumIndex rangeSumIndex;
+
     /**
      * Retrieves a list of incomes associated with a specific user ID.
      *
@@ -30,14 +51,39 @@ public class IncomeService {
         return incomeRepository.findByUserId(userId);
     }
 
+    /**
+     * Retrieves one page of the most recent incomes for a specific user.
+     *
+     * @param userId   the ID of the user whose incomes are to be retrieved
+     * @param page     the zero-based page index
+     * @param pageSize the number of incomes per page
+     * @return a slice of incomes ordered by date, newest first
+     */
+    public Slice<Income> getRecentIncomesByUserId(Long userId, int page, int pageSize) {
+        return incomeRepository.findByUserIdOrderByDateDescIdDesc(userId, PageRequest.of(page, pageSize));
+    }
+
     /**
      * Adds a new income to the repository.
      *
      * @param income the income object to be added
      * @return the newly added income object
      */
+    @Transactional
     public Income addIncome(Income income) {
-        return incomeRepository.save(income);
+        FlightEvents.Write event = new FlightEvents.Write("income", "add");
+        event.begin();
+        try {
+            changeTracker.markChanged(income);
+            Income savedIncome = incomeRepository.save(income);
+            fullTextSearchService.indexIncome(savedIncome);
+            addToAggregates(savedIncome);
+            publishChange(savedIncome);
+            event.written(ownerId(savedIncome), 1);
+            return savedIncome;
+        } finally {
+            event.finish();
+        }
     }
 
     /**
@@ -55,8 +101,24 @@ public class IncomeService {
      *
      * @param id the ID of the income to be deleted
      */
+    @Transactional
     public void deleteIncome(Long id) {
-        incomeRepository.deleteById(id);
+        FlightEvents.Write event = new FlightEvents.Write("income", "delete");
+        event.begin();
+        try {
+            List<Object[]> previous = incomeRepository.findOwnerAndValuesById(id);
+            Long userId = previous.isEmpty() ? null : (Long) previous.get(0)[0];
+            incomeRepository.deleteById(id);
+            long changeSequence = changeTracker.recordDeletion(userId, SyncEntityType.INCOME, id);
+            fullTextSearchService.remove(SearchHit.Type.INCOME, List.of(id));
+            if (!previous.isEmpty()) {
+                removeFromAggregates(previous.get(0), changeSequence);
+            }
+            changeBroadcaster.publishAfterCommit(userId, UserChangeBroadcaster.ChangeType.INCOME);
+            event.written(userId, previous.size());
+        } finally {
+            event.finish();
+        }
     }
 
     /**
@@ -68,7 +130,7 @@ public class IncomeService {
     public BigDecimal getTotalIncomeForCurrentMonth(Long userId) {
         LocalDate startOfMonth = LocalDate.now().withDayOfMonth(1);
         LocalDate endOfMonth = LocalDate.now().withDayOfMonth(LocalDate.now().lengthOfMonth());
-        return incomeRepository.findTotalIncomeForPeriod(userId, startOfMonth, endOfMonth);
+        return getTotalIncomeBetween(userId, startOfMonth, endOfMonth);
     }
 
     /**
@@ -81,7 +143,46 @@ public class IncomeService {
     public BigDecimal getTotalIncomeForPreviousMonths(Long userId, int previousMonths){
         LocalDate startOfMonth = LocalDate.now().withDayOfMonth(1).minusMonths(previousMonths);
         LocalDate endOfMonth = LocalDate.now().withDayOfMonth(LocalDate.now().lengthOfMonth());
-        return incomeRepository.findTotalIncomeForPeriod(userId, startOfMonth, endOfMonth);
+        return getTotalIncomeBetween(userId, startOfMonth, endOfMonth);
+    }
+
+    /**
+     * Calculates the total income of a user between two days. Recurring
+     * incomes are counted once, on their date. The total is read from the
+     * user's {@link RangeSumIndex} trees in O(log n) when they are available.
+     *
+     * @param userId the ID of the user whose total income is to be calculated
+     * @param from   the first day to include
+     * @param to     the last day to include
+     * @return the total amount of the incomes, or null if the index is
+     *         disabled and the user has no incomes in the period
+     */
+    public BigDecimal getTotalIncomeBetween(Long userId, LocalDate from, LocalDate to) {
+        BigDecimal total = rangeSumIndex.sumIncomes(userId, from, to);
+        if (total != null) {
+            return total;
+        }
+        return incomeRepository.findTotalIncomeForPeriod(userId, from, to);
+    }
+
+    /**
+     * Calculates the income a user is paid between two days, with every
+     * payment of a recurring income counted. The payments are summed from the
+     * user's {@link UserLedger}, or from a ledger of the incomes alone when
+     * ledgers are disabled.
+     *
+     * @param userId the ID of the user whose income is to be calculated
+     * @param from   the first day to include
+     * @param to     the last day to include
+     * @return the total amount of the payments
+     * @see UserLedger#sumRecurringIncomes(LocalDate, LocalDate)
+     */
+    public BigDecimal getRecurringIncomeBetween(Long userId, LocalDate from, LocalDate to) {
+        UserLedger ledger = ledgerCache.get(userId);
+        if (ledger == null) {
+            ledger = UserLedger.build(List.of(), incomeRepository.findLedgerRows(userId));
+        }
+        return ledger.sumRecurringIncomes(from, to);
     }
 
     /**
@@ -90,18 +191,84 @@ public class IncomeService {
      * @param updatedIncome the income object with updated details
      * @return the updated income object
      */
+    @Transactional
     public Income updateIncome(Income updatedIncome) {
-        Income existingIncome = incomeRepository.findById(updatedIncome.getId()).orElse(null);
-        if (existingIncome != null) {
-            existingIncome.setSource(updatedIncome.getSource());
-            existingIncome.setAmount(updatedIncome.getAmount());
-            existingIncome.setDate(updatedIncome.getDate());
-            existingIncome.setPaymentFrequency(updatedIncome.getPaymentFrequency());
-            return incomeRepository.save(existingIncome);
+        FlightEvents.Write event = new FlightEvents.Write("income", "update");
+        event.begin();
+        try {
+            List<Object[]> previous = incomeRepository.findOwnerAndValuesById(updatedIncome.getId());
+            Income existingIncome = previous.isEmpty() ? null
+                    : incomeRepository.findById(updatedIncome.getId()).orElse(null);
+            if (existingIncome != null) {
+                existingIncome.setSource(updatedIncome.getSource());
+                existingIncome.setAmount(updatedIncome.getAmount());
+                existingIncome.setDate(updatedIncome.getDate());
+                existingIncome.setPaymentFrequency(updatedIncome.getPaymentFrequency());
+                changeTracker.markChanged(existingIncome);
+                Income savedIncome = incomeRepository.save(existingIncome);
+                fullTextSearchService.indexIncome(savedIncome);
+                removeFromAggregates(previous.get(0), savedIncome.getChangeSequence());
+                addToAggregates(savedIncome);
+                publishChange(savedIncome);
+                event.written(ownerId(savedIncome), 1);
+                return savedIncome;
+            }
+            event.written(null, 0);
+            return null;
+        } finally {
+            event.finish();
         }
-        return null;
     }
 
+    /**
+     * Adds a written income to the range sums and ledger of its owner.
+     *
+     * @param income the income that was written
+     */
+    private void addToAggregates(Income income) {
+        if (income != null && income.getUser() != null) {
+            Long userId = income.getUser().getId();
+            rangeSumIndex.addIncome(userId, income.getChangeSequence(), income.getDate(), income.getAmount());
+            ledgerCache.addIncome(userId, income.getChangeSequence(), income.getDate(), income.getAmount(),
+                    income.getPaymentFrequency());
+        }
+    }
+
+    /**
+     * Removes the replaced values of an income from the range sums and ledger
+     * of its owner.
+     *
+     * @param previous       the row of {@link IncomeRepository#findOwnerAndValuesById}
+     * @param changeSequence the change sequence of the write that replaced or
+     *                       deleted the income
+     */
+    private void removeFromAggregates(Object[] previous, Long changeSequence) {
+        Long userId = (Long) previous[0];
+        rangeSumIndex.removeIncome(userId, changeSequence, (LocalDate) previous[1], (BigDecimal) previous[2]);
+        ledgerCache.removeIncome(userId, changeSequence, (LocalDate) previous[1], (BigDecimal) previous[2],
+                (String) previous[3]);
+    }
+
+    /**
+     * Notifies listeners of the income owner that their incomes changed.
+     *
+     * @param income the income that was written
+     */
+    private void publishChange(Income income) {
+        if (income != null && income.getUser() != null) {
+            changeBroadcaster.publishAfterCommit(income.getUser().getId(), UserChangeBroadcaster.ChangeType.INCOME);
+        }
+    }
+
+    /**
+     * Gets the ID of the owner of a written income.
+     *
+     * @param income the income that was written
+     * @return the ID of its user, or null if it has none
+     */
+    private static Long ownerId(Income income) {
+        return income != null && income.getUser() != null ? income.getUser().getId() : null;
+    }
 
     /**
      * Calculates the total income for all months for a specific user.
@@ -110,6 +277,10 @@ public class IncomeService {
      * @return the total amount of income for the user in all months
      */
     public BigDecimal getTotalIncomeAllMonths(Long userId) {
+        UserLedger ledger = ledgerCache.get(userId);
+        if (ledger != null) {
+            return ledger.getMonthlyIncome();
+        }
         List<Income> incomes = getIncomesByUserId(userId);
         BigDecimal totalIncome = new BigDecimal(0);
         for (Income income : incomes) {
@@ -6,7 +6,10 @@ import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.vaadin.application.model.Invoice;
+import org.vaadin.application.model.SearchHit;
+import org.vaadin.application.model.SyncEntityType;
 import org.vaadin.application.repository.InvoiceRepository;
 
 /**
@@ -19,6 +22,15 @@ public class InvoiceService {
     @Autowired
     private InvoiceRepository invoiceRepository;
 
+    @Autowired
+    private ChangeTracker changeTracker;
+
+    @Autowired
+    private UserChangeBroadcaster changeBroadcaster;
+
+    @Autowired
+    private FullTextSearchService fullTextSearchService;
+
     /**
      * Retrieves a list of invoices associated with a specific user ID.
      *
@@ -35,8 +47,13 @@ public class InvoiceService {
      * @param invoice the invoice object to be added
      * @return the newly added invoice object
      */
+    @Transactional
     public Invoice addInvoice(Invoice invoice) {
-        return invoiceRepository.save(invoice);
+        changeTracker.markChanged(invoice);
+        Invoice savedInvoice = invoiceRepository.save(invoice);
+        fullTextSearchService.indexInvoice(savedInvoice);
+        publishChange(savedInvoice);
+        return savedInvoice;
     }
 
     /**
@@ -46,6 +63,7 @@ public class InvoiceService {
      * @param updatedInvoice the updated invoice object with new details
      * @return the updated invoice object, or throws an exception if not found
      */
+    @Transactional
     public Invoice updateInvoice(UUID invoiceId, Invoice updatedInvoice) {
 
         Optional<Invoice> existingInvoiceOpt = invoiceRepository.findById(invoiceId);
@@ -60,9 +78,13 @@ public class InvoiceService {
             existingInvoice.setDueDate(updatedInvoice.getDueDate());
             existingInvoice.setDescription(updatedInvoice.getDescription());
             existingInvoice.setStatus(updatedInvoice.getStatus());
+            changeTracker.markChanged(existingInvoice);
 
             // Save the updated invoice
-            return invoiceRepository.save(existingInvoice);
+            Invoice savedInvoice = invoiceRepository.save(existingInvoice);
+            fullTextSearchService.indexInvoice(savedInvoice);
+            publishChange(savedInvoice);
+            return savedInvoice;
         } else {
             throw new RuntimeException("Invoice not found with ID: " + invoiceId);
         }
@@ -73,11 +95,27 @@ public class InvoiceService {
      *
      * @param id the ID of the invoice to be deleted
      */
+    @Transactional
     public void deleteInvoice(UUID id) {
-        if (invoiceRepository.existsById(id)) {
+        Optional<Long> userId = invoiceRepository.findUserIdById(id);
+        if (userId.isPresent()) {
             invoiceRepository.deleteById(id);
+            changeTracker.recordDeletion(userId.get(), SyncEntityType.INVOICE, id);
+            fullTextSearchService.remove(SearchHit.Type.INVOICE, List.of(id));
+            changeBroadcaster.publishAfterCommit(userId.get(), UserChangeBroadcaster.ChangeType.INVOICE);
         } else {
             throw new RuntimeException("Invoice not found with ID: " + id);
         }
     }
+
+    /**
+     * Notifies listeners of the invoice owner that their invoices changed.
+     *
+     * @param invoice the invoice that was written
+     */
+    private void publishChange(Invoice invoice) {
+        if (invoice != null && invoice.getUser() != null) {
+            changeBroadcaster.publishAfterCommit(invoice.getUser().getId(), UserChangeBroadcaster.ChangeType.INVOICE);
+        }
+    }
 }
@@ -0,0 +1,520 @@
+package org.vaadin.application.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Predicate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.vaadin.application.repository.ExpenseRepository;
+import org.vaadin.application.repository.IncomeRepository;
+import org.vaadin.application.repository.UserRepository;
+
+/**
+ * Cache of the {@link UserLedger} of active users.
+ *
+ * <p>
+ * A ledger is built on first access from two projection queries, and from
+ * then on kept current by the services, which report every written expense
+ * and income once their transaction has committed. Committed writes are
+ * buffered next to the ledger and folded into it together, as one copy of the
+ * ledger with their rows added and removed, on the next read or once more than
+ * {@code fintrack.ledger.max-pending-writes} are buffered. A burst of writes
+ * without reads therefore costs one pass over the user's rows in memory
+ * instead of one per write, and none reads the user's whole history again.
+ * Writes that cannot be expressed as rows, such as a renamed budget or a
+ * deleted category, drop the user's ledger so that it is rebuilt on the next
+ * access.
+ * </p>
+ *
+ * <p>
+ * Ledgers are built from a consistent snapshot that also reads the user's
+ * change sequence. Only one build runs per user: other readers of the same
+ * user wait for it, and writes reported while it runs are replayed onto the
+ * new ledger unless their change sequence shows they were already part of the
+ * snapshot. All ledgers together are kept within
+ * {@code fintrack.ledger.max-bytes} by Caffeine's size-based eviction, which
+ * drops the ledgers of users who have not been seen recently first. With
+ * {@code fintrack.ledger.enabled=false} no ledgers are built and services read
+ * from the database instead.
+ * </p>
+ */
+@Service
+public class LedgerCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LedgerCache.class);
+
+    /** The estimated size of a buffered write and its row, for the memory budget. */
+    private static final int PENDING_UPDATE_BYTES = 120;
+
+    /**
+     * A ledger together with the change sequence of the snapshot it was built
+     * from and the committed writes not folded into it yet.
+     */
+    private static final class Entry {
+        private final long sequence;
+        private final UserLedger ledger;
+        private final List<Update> pending;
+
+        private Entry(long sequence, UserLedger ledger, List<Update> pending) {
+            this.sequence = sequence;
+            this.ledger = ledger;
+            this.pending = pending;
+        }
+
+        /**
+         * Buffers written rows, except those the snapshot already contained,
+         * and folds the buffer into the ledger once it holds more than a
+         * limit.
+         *
+         * @return the updated entry, or null if the rows do not match the
+         *         ledger and it must be rebuilt
+         */
+        private Entry append(List<Update> updates, int maxPending) {
+            List<Update> buffered = new ArrayList<>(pending.size() + updates.size());
+            buffered.addAll(pending);
+            for (Update update : updates) {
+                if (update.sequence > sequence) {
+                    buffered.add(update);
+                }
+            }
+            if (buffered.size() == pending.size()) {
+                return this;
+            }
+            Entry appended = new Entry(sequence, ledger, Collections.unmodifiableList(buffered));
+            return buffered.size() > maxPending ? appended.fold() : appended;
+        }
+
+        /**
+         * Applies the buffered rows to the ledger in one copy.
+         *
+         * @return the entry without buffered rows, or null if the rows do not
+         *         match the ledger and it must be rebuilt
+         */
+        private Entry fold() {
+            if (pending.isEmpty()) {
+                return this;
+            }
+            List<Object[]> addedExpenses = new ArrayList<>();
+            List<Object[]> removedExpenses = new ArrayList<>();
+            List<Object[]> addedIncomes = new ArrayList<>();
+            List<Object[]> removedIncomes = new ArrayList<>();
+            for (Update update : pending) {
+                List<Object[]> added = update.income ? addedIncomes : addedExpenses;
+                if (!update.remove) {
+                    added.add(update.row);
+                } else if (!added.removeIf(new SameRow(update))) {
+                    (update.income ? removedIncomes : removedExpenses).add(update.row);
+                }
+            }
+            UserLedger updated = ledger;
+            if (!addedExpenses.isEmpty() || !removedExpenses.isEmpty()) {
+                updated = updated.withExpenses(addedExpenses, removedExpenses);
+            }
+            if (updated != null && (!addedIncomes.isEmpty() || !removedIncomes.isEmpty())) {
+                updated = updated.withIncomes(addedIncomes, removedIncomes);
+            }
+            return updated == null ? null : new Entry(sequence, updated, List.of());
+        }
+
+        private long getEstimatedBytes() {
+            return ledger.getEstimatedBytes() + (long) pending.size() * PENDING_UPDATE_BYTES;
+        }
+    }
+
+    /**
+     * A written row to be added to or removed from a user's ledger, in the
+     * format of {@link UserLedger#build}.
+     */
+    private static final class Update {
+        private final boolean income;
+        private final boolean remove;
+        private final long sequence;
+        private final Object[] row;
+
+        private Update(boolean income, boolean remove, long sequence, Object[] row) {
+            this.income = income;
+            this.remove = remove;
+            this.sequence = sequence;
+            this.row = row;
+        }
+    }
+
+    /**
+     * Matches the first added row that a removed row cancels out, because a
+     * write replaced or deleted a row that was added in the same batch.
+     */
+    private static final class SameRow implements Predicate<Object[]> {
+        private final Update removed;
+        private boolean matched;
+
+        private SameRow(Update removed) {
+            this.removed = removed;
+        }
+
+        @Override
+        public boolean test(Object[] row) {
+            if (matched || !Objects.equals(row[0], removed.row[0])
+                    || UserLedger.toCents((BigDecimal) row[1]) != UserLedger.toCents((BigDecimal) removed.row[1])) {
+                return false;
+            }
+            matched = removed.income ? Objects.equals(row[2], removed.row[2])
+                    : Objects.equals(row[2], removed.row[2]) && Objects.equals(row[4], removed.row[4]);
+            return matched;
+        }
+    }
+
+    /**
+     * A running build of a user's ledger, with the writes reported while it
+     * runs. Access to the writes is synchronized on the instance.
+     */
+    private static final class Loading {
+        private final CompletableFuture<UserLedger> ledger = new CompletableFuture<>();
+        private final List<Update> updates = new ArrayList<>();
+        private boolean invalidated;
+    }
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private IncomeRepository incomeRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${fintrack.ledger.enabled:true}")
+    private boolean enabled;
+
+    @Value("${fintrack.ledger.max-bytes:67108864}")
+    private long maxBytes;
+
+    @Value("${fintrack.ledger.max-pending-writes:64}")
+    private int maxPendingWrites;
+
+    private Cache<Long, Entry> ledgers;
+
+    private final ConcurrentMap<Long, Loading> loads = new ConcurrentHashMap<>();
+
+    /** The key of the writes of the current transaction among the transaction's resources. */
+    private final Object pendingKey = new Object();
+
+    private TransactionTemplate snapshotTemplate;
+
+    /**
+     * Creates the cache with the configured memory budget.
+     */
+    @PostConstruct
+    public void init() {
+        ledgers = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Long userId, Entry entry) -> (int) Math.min(Integer.MAX_VALUE,
+                        entry.getEstimatedBytes()))
+                .recordStats()
+                .build();
+        snapshotTemplate = new TransactionTemplate(transactionManager);
+        snapshotTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        snapshotTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        snapshotTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Returns the current ledger of a user, building it if it is missing. If
+     * another thread is already building it, waits for that build.
+     *
+     * @param userId the ID of the user
+     * @return the user's ledger, or null if ledgers are disabled or the user's
+     *         data cannot be encoded in one
+     */
+    public UserLedger get(Long userId) {
+        if (!enabled || userId == null) {
+            return null;
+        }
+        Entry entry = ledgers.getIfPresent(userId);
+        if (entry != null) {
+            UserLedger ledger = fold(userId, entry);
+            if (ledger != null) {
+                return ledger;
+            }
+        }
+        Loading loading = new Loading();
+        Loading running = loads.putIfAbsent(userId, loading);
+        if (running != null) {
+            return running.ledger.join();
+        }
+        UserLedger ledger = null;
+        try {
+            // Another build may have finished since the first look
+            entry = ledgers.getIfPresent(userId);
+            if (entry == null) {
+                entry = snapshotTemplate.execute(status -> build(userId));
+            }
+            ledger = install(userId, entry, loading);
+        } catch (RuntimeException e) {
+            LOGGER.warn("Cannot build the ledger of user {}: {}", userId, e.getMessage());
+        } finally {
+            loads.remove(userId, loading);
+            loading.ledger.complete(ledger);
+        }
+        return ledger;
+    }
+
+    /**
+     * Adds a written expense to the owner's ledger once the current
+     * transaction commits. Writes without an owner or change sequence are
+     * ignored.
+     *
+     * @param userId         the ID of the user who owns the expense
+     * @param changeSequence the change sequence of the write
+     * @param date           the date of the expense
+     * @param amount         the amount of the expense
+     * @param budgetId       the ID of the expense's budget, or null
+     * @param budgetName     the name of the expense's budget, or null
+     * @param categoryId     the ID of the expense's category, or null
+     */
+    public void addExpense(Long userId, Long changeSequence, LocalDate date, BigDecimal amount, Long budgetId,
+            String budgetName, Long categoryId) {
+        if (budgetId != null && budgetName == null) {
+            // The budget was given by reference only, so its name must be read from the database
+            invalidate(userId);
+            return;
+        }
+        record(userId, changeSequence, false, false, date,
+                new Object[] { date, amount, budgetId, budgetName, categoryId });
+    }
+
+    /**
+     * Removes an overwritten or deleted expense from the owner's ledger once
+     * the current transaction commits.
+     *
+     * @param userId         the ID of the user who owned the expense
+     * @param changeSequence the change sequence of the write that replaced or
+     *                       deleted the expense
+     * @param date           the previous date of the expense
+     * @param amount         the previous amount of the expense
+     * @param budgetId       the ID of the expense's previous budget, or null
+     * @param categoryId     the ID of the expense's previous category, or null
+     */
+    public void removeExpense(Long userId, Long changeSequence, LocalDate date, BigDecimal amount, Long budgetId,
+            Long categoryId) {
+        record(userId, changeSequence, false, true, date, new Object[] { date, amount, budgetId, null, categoryId });
+    }
+
+    /**
+     * Adds a written income to the owner's ledger once the current
+     * transaction commits. Writes without an owner or change sequence are
+     * ignored.
+     *
+     * @param userId           the ID of the user who owns the income
+     * @param changeSequence   the change sequence of the write
+     * @param date             the date of the income
+     * @param amount           the amount of the income
+     * @param paymentFrequency the payment frequency of the income
+     */
+    public void addIncome(Long userId, Long changeSequence, LocalDate date, BigDecimal amount,
+            String paymentFrequency) {
+        record(userId, changeSequence, true, false, date, new Object[] { date, amount, paymentFrequency });
+    }
+
+    /**
+     * Removes an overwritten or deleted income from the owner's ledger once
+     * the current transaction commits.
+     *
+     * @param userId           the ID of the user who owned the income
+     * @param changeSequence   the change sequence of the write that replaced
+     *                         or deleted the income
+     * @param date             the previous date of the income
+     * @param amount           the previous amount of the income
+     * @param paymentFrequency the previous payment frequency of the income
+     */
+    public void removeIncome(Long userId, Long changeSequence, LocalDate date, BigDecimal amount,
+            String paymentFrequency) {
+        record(userId, changeSequence, true, true, date, new Object[] { date, amount, paymentFrequency });
+    }
+
+    /**
+     * Drops the ledger of a user once the current transaction commits, for
+     * writes that cannot be expressed as rows, such as a renamed budget or an
+     * entry moving to another user.
+     *
+     * @param userId the ID of the user
+     */
+    public void invalidate(Long userId) {
+        if (!enabled || userId == null) {
+            return;
+        }
+        afterCommit(() -> {
+            Loading loading = loads.get(userId);
+            if (loading != null) {
+                synchronized (loading) {
+                    loading.invalidated = true;
+                }
+            }
+            ledgers.invalidate(userId);
+        });
+    }
+
+    /**
+     * Returns the estimated size of all cached ledgers.
+     *
+     * @return the total size in bytes
+     */
+    public long getCachedBytes() {
+        return ledgers.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L);
+    }
+
+    /**
+     * Replays the writes reported during a build onto the built entry and
+     * caches the result, unless the user's ledger was invalidated meanwhile.
+     */
+    private UserLedger install(Long userId, Entry entry, Loading loading) {
+        synchronized (loading) {
+            Entry current = null;
+            try {
+                current = loading.invalidated ? null : entry.append(loading.updates, maxPendingWrites);
+                current = current == null ? null : current.fold();
+            } catch (IllegalArgumentException e) {
+                LOGGER.warn("Cannot update the ledger of user {}: {}", userId, e.getMessage());
+            }
+            if (current != null) {
+                // Installed before the loading marker is removed, so no reported write can miss both
+                ledgers.put(userId, current);
+            } else {
+                ledgers.invalidate(userId);
+            }
+            loads.remove(userId, loading);
+            return current == null ? null : current.ledger;
+        }
+    }
+
+    private Entry build(Long userId) {
+        // The sequence is read first, so it belongs to the same snapshot as the rows
+        long sequence = userRepository.findChangeSequence(userId).orElse(0L);
+        return new Entry(sequence, UserLedger.build(expenseRepository.findLedgerRows(userId),
+                incomeRepository.findLedgerRows(userId)), List.of());
+    }
+
+    /**
+     * Folds the buffered writes of a cached entry into its ledger and caches
+     * the result, unless a write replaced the entry meanwhile, in which case
+     * the newer entry is folded.
+     *
+     * @return the current ledger, or null if it was dropped and must be
+     *         rebuilt
+     */
+    private UserLedger fold(Long userId, Entry entry) {
+        while (entry != null && !entry.pending.isEmpty()) {
+            Entry folded = null;
+            try {
+                folded = entry.fold();
+            } catch (IllegalArgumentException e) {
+                LOGGER.warn("Cannot update the ledger of user {}: {}", userId, e.getMessage());
+            }
+            if (folded == null) {
+                ledgers.asMap().remove(userId, entry);
+                return null;
+            }
+            if (ledgers.asMap().replace(userId, entry, folded)) {
+                return folded.ledger;
+            }
+            entry = ledgers.getIfPresent(userId);
+        }
+        return entry == null ? null : entry.ledger;
+    }
+
+    /**
+     * Collects a written row until the current transaction commits, so that
+     * all rows of a transaction are buffered together.
+     */
+    private void record(Long userId, Long changeSequence, boolean income, boolean remove, LocalDate date,
+            Object[] row) {
+        if (!enabled || userId == null || changeSequence == null) {
+            return;
+        }
+        if (date == null) {
+            // A ledger orders rows by date and cannot hold one without
+            invalidate(userId);
+            return;
+        }
+        Update update = new Update(income, remove, changeSequence, row);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(userId, List.of(update));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Map<Long, List<Update>> pending = (Map<Long, List<Update>>) TransactionSynchronizationManager
+                .getResource(pendingKey);
+        if (pending == null) {
+            Map<Long, List<Update>> writes = new LinkedHashMap<>();
+            TransactionSynchronizationManager.bindResource(pendingKey, writes);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    writes.forEach(LedgerCache.this::apply);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(pendingKey);
+                }
+            });
+            pending = writes;
+        }
+        pending.computeIfAbsent(userId, key -> new ArrayList<>()).add(update);
+    }
+
+    private void apply(Long userId, List<Update> updates) {
+        Loading loading = loads.get(userId);
+        if (loading != null) {
+            synchronized (loading) {
+                if (loads.get(userId) == loading) {
+                    loading.updates.addAll(updates);
+                    return;
+                }
+            }
+        }
+        ledgers.asMap().computeIfPresent(userId, (key, entry) -> {
+            try {
+                return entry.append(updates, maxPendingWrites);
+            } catch (IllegalArgumentException e) {
+                LOGGER.warn("Cannot update the ledger of user {}: {}", userId, e.getMessage());
+                return null;
+            }
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
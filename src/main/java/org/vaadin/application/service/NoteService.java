@@ -3,6 +3,7 @@ package org.vaadin.application.service;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.vaadin.application.model.Note;
+import org.vaadin.application.model.SearchHit;
 import org.vaadin.application.repository.NoteRepository;
 
 import java.util.List;
@@ -18,6 +19,9 @@ public class NoteService {
     @Autowired
     private NoteRepository noteRepository;
 
+    @Autowired
+    private FullTextSearchService fullTextSearchService;
+
     /**
      * Retrieves a list of notes associated with a specific user ID.
      *
@@ -34,7 +38,8 @@ public class NoteService {
      * @param note the note object to be added
      */
     public void addNote(Note note) {
-        noteRepository.save(note);
+        Note savedNote = noteRepository.save(note);
+        fullTextSearchService.indexNote(savedNote);
     }
 
     /**
@@ -44,5 +49,6 @@ public class NoteService {
      */
     public void deleteNoteById(Long id) {
         noteRepository.deleteById(id);
+        fullTextSearchService.remove(SearchHit.Type.NOTE, List.of(id));
     }
 }
@@ -0,0 +1,428 @@
+package org.vaadin.application.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.vaadin.application.repository.ExpenseRepository;
+import org.vaadin.application.repository.IncomeRepository;
+import org.vaadin.application.repository.UserRepository;
+
+/**
+ * Per-user index of expense and income totals by day, answering the sum
+ * between any two dates in O(log n).
+ *
+ * <p>
+ * Each user's expenses and incomes are held as cents per day in two
+ * {@link FenwickTree}s covering the days from a year before the user's first
+ * entry to a year after the last one (or today, whichever is further out). A
+ * tree is built on first access from one {@code SUM ... GROUP BY date} query
+ * per table, and from then on kept current by the services, which report every
+ * written amount once their transaction has committed. A write is a point
+ * update of one day in O(log n); a write dated outside the covered days drops
+ * the user's trees so that they are rebuilt over a wider range. At most
+ * {@code fintrack.range-sums.max-days} days are covered; for a user whose data
+ * spans more, only the most recent days are indexed and sums starting earlier
+ * fall back to the database.
+ * </p>
+ *
+ * <p>
+ * Trees are built from a consistent snapshot that also reads the user's change
+ * sequence. Writes reported while a build is running are replayed onto the new
+ * trees unless their change sequence shows they were already part of the
+ * snapshot. All trees together are kept within
+ * {@code fintrack.range-sums.max-bytes} by Caffeine's size-based eviction. With
+ * {@code fintrack.range-sums.enabled=false} nothing is indexed and every sum is
+ * read from the database.
+ * </p>
+ */
+@Service
+public class RangeSumIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RangeSumIndex.class);
+
+    /** The number of days covered before the first and after the last entry of a user. */
+    static final int MARGIN_DAYS = 366;
+
+    /** The fixed part of an entry's weight: object headers and fields. */
+    private static final int BASE_BYTES = 96;
+
+    /**
+     * The expense and income trees of one user, with the change sequence of
+     * the snapshot they were built from. Access is synchronized on the entry.
+     */
+    private static final class Entry {
+        private final long sequence;
+        private final long firstDay;
+        private final boolean truncated;
+        private final FenwickTree expenses;
+        private final FenwickTree incomes;
+
+        private Entry(long sequence, long firstDay, boolean truncated, FenwickTree expenses, FenwickTree incomes) {
+            this.sequence = sequence;
+            this.firstDay = firstDay;
+            this.truncated = truncated;
+            this.expenses = expenses;
+            this.incomes = incomes;
+        }
+
+        private int weight() {
+            return (int) Math.min(Integer.MAX_VALUE, BASE_BYTES + 2L * Long.BYTES * (expenses.size() + 1));
+        }
+
+        /**
+         * Sums the cents between two epoch days, or returns null if the sum
+         * includes days that are not indexed.
+         */
+        private synchronized Long sum(boolean income, long fromDay, long toDay) {
+            if (truncated && fromDay < firstDay) {
+                return null;
+            }
+            FenwickTree tree = income ? incomes : expenses;
+            long from = Math.max(fromDay - firstDay, 0);
+            long to = Math.min(toDay - firstDay, tree.size() - 1L);
+            return from > to ? 0L : tree.rangeSum((int) from, (int) to);
+        }
+
+        /**
+         * Applies a written amount, unless the snapshot already contained it.
+         *
+         * @return false if the amount falls outside the indexed days and the
+         *         entry must be dropped
+         */
+        private synchronized boolean apply(Update update) {
+            if (update.sequence <= sequence) {
+                return true;
+            }
+            long position = update.day - firstDay;
+            if (position < 0 && truncated) {
+                // Sums over these days are read from the database anyway
+                return true;
+            }
+            if (position < 0 || position >= expenses.size()) {
+                return false;
+            }
+            (update.income ? incomes : expenses).add((int) position, update.cents);
+            return true;
+        }
+    }
+
+    /**
+     * A written amount to be added to a user's trees.
+     */
+    private static final class Update {
+        private final boolean income;
+        private final long sequence;
+        private final long day;
+        private final long cents;
+
+        private Update(boolean income, long sequence, long day, long cents) {
+            this.income = income;
+            this.sequence = sequence;
+            this.day = day;
+            this.cents = cents;
+        }
+    }
+
+    /**
+     * The writes reported for a user while the user's trees are being built.
+     * Access is synchronized on the instance.
+     */
+    private static final class Loading {
+        private final List<Update> updates = new ArrayList<>();
+        private boolean invalidated;
+    }
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private IncomeRepository incomeRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${fintrack.range-sums.enabled:true}")
+    private boolean enabled;
+
+    @Value("${fintrack.range-sums.max-bytes:67108864}")
+    private long maxBytes;
+
+    @Value("${fintrack.range-sums.max-days:7320}")
+    private int maxDays;
+
+    private Cache<Long, Entry> entries;
+
+    private final ConcurrentMap<Long, Loading> loads = new ConcurrentHashMap<>();
+
+    private TransactionTemplate snapshotTemplate;
+
+    /**
+     * Creates the cache with the configured memory budget.
+     */
+    @PostConstruct
+    public void init() {
+        entries = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Long userId, Entry entry) -> entry.weight())
+                .recordStats()
+                .build();
+        snapshotTemplate = new TransactionTemplate(transactionManager);
+        snapshotTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        snapshotTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        snapshotTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Sums the expenses of a user dated between two days.
+     *
+     * @param userId the ID of the user
+     * @param from   the first day to include
+     * @param to     the last day to include
+     * @return the total with two decimal places, or null if the index is
+     *         disabled or cannot answer and the database must be queried
+     */
+    public BigDecimal sumExpenses(Long userId, LocalDate from, LocalDate to) {
+        return sum(userId, false, from, to);
+    }
+
+    /**
+     * Sums the incomes of a user dated between two days. Recurring incomes are
+     * counted once, on their date.
+     *
+     * @param userId the ID of the user
+     * @param from   the first day to include
+     * @param to     the last day to include
+     * @return the total with two decimal places, or null if the index is
+     *         disabled or cannot answer and the database must be queried
+     */
+    public BigDecimal sumIncomes(Long userId, LocalDate from, LocalDate to) {
+        return sum(userId, true, from, to);
+    }
+
+    /**
+     * Adds a written expense amount to the index once the current transaction
+     * commits. Writes without an owner, change sequence or date are ignored.
+     *
+     * @param userId         the ID of the user who owns the expense
+     * @param changeSequence the change sequence of the write
+     * @param date           the date of the expense
+     * @param amount         the amount of the expense
+     */
+    public void addExpense(Long userId, Long changeSequence, LocalDate date, BigDecimal amount) {
+        record(userId, changeSequence, false, date, amount, false);
+    }
+
+    /**
+     * Removes an overwritten or deleted expense amount from the index once the
+     * current transaction commits.
+     *
+     * @param userId         the ID of the user who owned the expense
+     * @param changeSequence the change sequence of the write that replaced or
+     *                       deleted the expense
+     * @param date           the previous date of the expense
+     * @param amount         the previous amount of the expense
+     */
+    public void removeExpense(Long userId, Long changeSequence, LocalDate date, BigDecimal amount) {
+        record(userId, changeSequence, false, date, amount, true);
+    }
+
+    /**
+     * Adds a written income amount to the index once the current transaction
+     * commits. Writes without an owner, change sequence or date are ignored.
+     *
+     * @param userId         the ID of the user who owns the income
+     * @param changeSequence the change sequence of the write
+     * @param date           the date of the income
+     * @param amount         the amount of the income
+     */
+    public void addIncome(Long userId, Long changeSequence, LocalDate date, BigDecimal amount) {
+        record(userId, changeSequence, true, date, amount, false);
+    }
+
+    /**
+     * Removes an overwritten or deleted income amount from the index once the
+     * current transaction commits.
+     *
+     * @param userId         the ID of the user who owned the income
+     * @param changeSequence the change sequence of the write that replaced or
+     *                       deleted the income
+     * @param date           the previous date of the income
+     * @param amount         the previous amount of the income
+     */
+    public void removeIncome(Long userId, Long changeSequence, LocalDate date, BigDecimal amount) {
+        record(userId, changeSequence, true, date, amount, true);
+    }
+
+    /**
+     * Drops the trees of a user once the current transaction commits, for
+     * writes that cannot be expressed as amounts on days, such as an entry
+     * moving to another user.
+     *
+     * @param userId the ID of the user
+     */
+    public void invalidate(Long userId) {
+        if (!enabled || userId == null) {
+            return;
+        }
+        afterCommit(() -> {
+            Loading loading = loads.get(userId);
+            if (loading != null) {
+                synchronized (loading) {
+                    loading.invalidated = true;
+                }
+            }
+            entries.invalidate(userId);
+        });
+    }
+
+    /**
+     * Returns the estimated size of all cached trees.
+     *
+     * @return the total size in bytes
+     */
+    public long getCachedBytes() {
+        return entries.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L);
+    }
+
+    private BigDecimal sum(Long userId, boolean income, LocalDate from, LocalDate to) {
+        Entry entry = getEntry(userId);
+        if (entry == null) {
+            return null;
+        }
+        Long cents = entry.sum(income, from.toEpochDay(), to.toEpochDay());
+        return cents == null ? null : BigDecimal.valueOf(cents, 2);
+    }
+
+    /**
+     * Returns the trees of a user, building them if they are missing. While
+     * one thread builds them, other readers of the same user are answered by
+     * the database.
+     */
+    private Entry getEntry(Long userId) {
+        if (!enabled || userId == null) {
+            return null;
+        }
+        Entry entry = entries.getIfPresent(userId);
+        if (entry != null) {
+            return entry;
+        }
+        Loading loading = new Loading();
+        if (loads.putIfAbsent(userId, loading) != null) {
+            return null;
+        }
+        try {
+            entry = snapshotTemplate.execute(status -> build(userId));
+        } catch (RuntimeException e) {
+            LOGGER.warn("Cannot build the range sums of user {}: {}", userId, e.getMessage());
+            loads.remove(userId, loading);
+            return null;
+        }
+        synchronized (loading) {
+            if (entry != null && !loading.invalidated && loading.updates.stream().allMatch(entry::apply)) {
+                // Installed before the loading marker is removed, so no reported write can miss both
+                entries.put(userId, entry);
+            } else {
+                entry = null;
+            }
+            loads.remove(userId, loading);
+        }
+        return entry;
+    }
+
+    private Entry build(Long userId) {
+        // The sequence is read first, so it belongs to the same snapshot as the sums
+        long sequence = userRepository.findChangeSequence(userId).orElse(0L);
+        List<Object[]> expenseDays = expenseRepository.sumByDay(userId);
+        List<Object[]> incomeDays = incomeRepository.sumByDay(userId);
+
+        long today = LocalDate.now().toEpochDay();
+        long first = today;
+        long last = today;
+        for (List<Object[]> rows : List.of(expenseDays, incomeDays)) {
+            for (Object[] row : rows) {
+                long day = UserLedger.toEpochDay(row[0]);
+                first = Math.min(first, day);
+                last = Math.max(last, day);
+            }
+        }
+        last += MARGIN_DAYS;
+        first -= MARGIN_DAYS;
+        boolean truncated = last - first + 1 > maxDays;
+        if (truncated) {
+            first = last - maxDays + 1;
+        }
+
+        long[] expenses = new long[(int) (last - first + 1)];
+        long[] incomes = new long[expenses.length];
+        addDays(expenses, expenseDays, first);
+        addDays(incomes, incomeDays, first);
+        return new Entry(sequence, first, truncated, FenwickTree.of(expenses), FenwickTree.of(incomes));
+    }
+
+    private static void addDays(long[] days, List<Object[]> rows, long firstDay) {
+        for (Object[] row : rows) {
+            long position = UserLedger.toEpochDay(row[0]) - firstDay;
+            if (position >= 0) {
+                days[(int) position] += UserLedger.toCents((BigDecimal) row[1]);
+            }
+        }
+    }
+
+    private void record(Long userId, Long changeSequence, boolean income, LocalDate date, BigDecimal amount,
+            boolean remove) {
+        if (!enabled || userId == null || changeSequence == null || date == null || amount == null) {
+            return;
+        }
+        long cents = UserLedger.toCents(amount);
+        Update update = new Update(income, changeSequence, date.toEpochDay(), remove ? -cents : cents);
+        afterCommit(() -> apply(userId, update));
+    }
+
+    private void apply(Long userId, Update update) {
+        Loading loading = loads.get(userId);
+        if (loading != null) {
+            synchronized (loading) {
+                if (loads.get(userId) == loading) {
+                    loading.updates.add(update);
+                    return;
+                }
+            }
+        }
+        Entry entry = entries.getIfPresent(userId);
+        if (entry != null && !entry.apply(update)) {
+            entries.asMap().remove(userId, entry);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package org.vaadin.application.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.vaadin.application.model.PeriodTotal;
+import org.vaadin.application.model.Series;
+import org.vaadin.application.repository.ExpenseRepository;
+import org.vaadin.application.repository.IncomeRepository;
+
+/**
+ * Service class for aggregated reports over a user's expenses and incomes.
+ *
+ * <p>
+ * Amounts are summed in the database with one {@code GROUP BY} query per
+ * metric, per day for day and week buckets and per month otherwise. Only the
+ * rolled-up totals are returned, so the cost of a report does not depend on how
+ * many rows clients would otherwise have to fetch. Weeks, quarters and years
+ * are then formed from those totals.
+ * </p>
+ */
+@Service
+public class ReportService {
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private IncomeRepository incomeRepository;
+
+    @Value("${fintrack.reports.max-buckets:5000}")
+    private int maxBuckets;
+
+    /**
+     * Computes a series of totals for a user.
+     *
+     * @param userId  the ID of the user
+     * @param metric  the amount to aggregate
+     * @param bucket  the length of each bucket
+     * @param groupBy how to split expenses into columns; only supported for
+     *                expenses
+     * @param from    the first day to include
+     * @param to      the last day to include
+     * @return the bucket start dates and one column of totals per group
+     * @throws IllegalArgumentException if the range is empty or has too many
+     *                                  buckets, or the grouping is not supported
+     *                                  for the metric
+     */
+    public Series getSeries(Long userId, Series.Metric metric, Series.Bucket bucket, Series.GroupBy groupBy,
+            LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        if (groupBy != Series.GroupBy.NONE && metric != Series.Metric.EXPENSE) {
+            throw new IllegalArgumentException("groupBy is only supported for the expense metric");
+        }
+
+        List<LocalDate> buckets = new ArrayList<>();
+        Map<LocalDate, Integer> bucketIndexes = new HashMap<>();
+        for (LocalDate start = bucket.start(from); !start.isAfter(to); start = bucket.next(start)) {
+            if (buckets.size() == maxBuckets) {
+                throw new IllegalArgumentException("The range has more than " + maxBuckets + " buckets");
+            }
+            bucketIndexes.put(start, buckets.size());
+            buckets.add(start);
+        }
+
+        List<Series.Column> columns;
+        switch (metric) {
+            case EXPENSE:
+                columns = toColumns(expenseRepository.sumByPeriod(userId, from, to, bucket.isDaily(), groupBy),
+                        bucket, bucketIndexes, buckets.size());
+                break;
+            case INCOME:
+                columns = toColumns(incomeRepository.sumByPeriod(userId, from, to, bucket.isDaily()),
+                        bucket, bucketIndexes, buckets.size());
+                break;
+            default:
+                Series.Column net = new Series.Column(null, null, buckets.size());
+                for (PeriodTotal total : incomeRepository.sumByPeriod(userId, from, to, bucket.isDaily())) {
+                    net.add(bucketIndexes.get(bucket.start(total.getPeriod())), total.getTotal());
+                }
+                for (PeriodTotal total : expenseRepository.sumByPeriod(userId, from, to, bucket.isDaily(),
+                        Series.GroupBy.NONE)) {
+                    net.add(bucketIndexes.get(bucket.start(total.getPeriod())), total.getTotal().negate());
+                }
+                columns = List.of(net);
+        }
+        return new Series(metric, bucket, groupBy, buckets, columns);
+    }
+
+    private static List<Series.Column> toColumns(List<PeriodTotal> totals, Series.Bucket bucket,
+            Map<LocalDate, Integer> bucketIndexes, int bucketCount) {
+        Map<Long, Series.Column> columnsByKey = new LinkedHashMap<>();
+        for (PeriodTotal total : totals) {
+            Series.Column column = columnsByKey.computeIfAbsent(total.getGroupKey(),
+                    key -> new Series.Column(key, total.getGroupLabel(), bucketCount));
+            column.add(bucketIndexes.get(bucket.start(total.getPeriod())), total.getTotal());
+        }
+        if (columnsByKey.isEmpty()) {
+            return List.of(new Series.Column(null, null, bucketCount));
+        }
+        List<Series.Column> columns = new ArrayList<>(columnsByKey.values());
+        // Ungrouped amounts (no budget or category) come last, named groups by name
+        columns.sort(Comparator.comparing((Series.Column column) -> column.getKey() == null)
+                .thenComparing(Series.Column::getLabel, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER))
+                .thenComparing(Series.Column::getKey, Comparator.nullsLast(Comparator.<Long>naturalOrder())));
+        return columns;
+    }
+}
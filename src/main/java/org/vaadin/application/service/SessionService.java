@@ -1,32 +1,55 @@
 package org.vaadin.application.service;
 
+import jakarta.servlet.http.HttpSession;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 import com.vaadin.flow.server.VaadinSession;
 
 /**
  * Service class for managing user sessions.
  * This class provides methods to set and retrieve the logged-in user's ID,
  * and to handle user logout by invalidating the session.
+ *
+ * <p>
+ * Views keep the user in the Vaadin session. REST requests, which are not
+ * handled by Vaadin and have no Vaadin session, keep it in the HTTP session of
+ * the request instead.
+ * </p>
  */
 @Service
 public class SessionService {
 
+    private static final String USER_ID = "userId";
+
     /**
-     * Sets the logged-in user's ID in the current Vaadin session.
+     * Sets the logged-in user's ID in the current Vaadin session, or in the HTTP
+     * session of the current REST request.
      *
      * @param userId the ID of the user to set in the session
      */
     public void setLoggedInUserId(Long userId) {
-        VaadinSession.getCurrent().setAttribute("userId", userId);
+        VaadinSession vaadinSession = VaadinSession.getCurrent();
+        if (vaadinSession != null) {
+            vaadinSession.setAttribute(USER_ID, userId);
+        } else {
+            currentHttpSession(true).setAttribute(USER_ID, userId);
+        }
     }
 
     /**
-     * Retrieves the logged-in user's ID from the current Vaadin session.
+     * Retrieves the logged-in user's ID from the current Vaadin session, or from
+     * the HTTP session of the current REST request.
      *
      * @return the ID of the logged-in user, or null if no user is logged in
      */
     public Long getLoggedInUserId() {
-        return (Long) VaadinSession.getCurrent().getAttribute("userId");
+        VaadinSession vaadinSession = VaadinSession.getCurrent();
+        if (vaadinSession != null) {
+            return (Long) vaadinSession.getAttribute(USER_ID);
+        }
+        HttpSession httpSession = currentHttpSession(false);
+        return httpSession == null ? null : (Long) httpSession.getAttribute(USER_ID);
     }
 
     /**
@@ -34,7 +57,20 @@ public class SessionService {
      * session.
      */
     public void logout() {
-        VaadinSession.getCurrent().getSession().invalidate();
-        VaadinSession.getCurrent().close();
+        VaadinSession vaadinSession = VaadinSession.getCurrent();
+        if (vaadinSession != null) {
+            vaadinSession.getSession().invalidate();
+            vaadinSession.close();
+            return;
+        }
+        HttpSession httpSession = currentHttpSession(false);
+        if (httpSession != null) {
+            httpSession.invalidate();
+        }
+    }
+
+    private static HttpSession currentHttpSession(boolean create) {
+        return ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest()
+                .getSession(create);
     }
 }
@@ -0,0 +1,114 @@
+package org.vaadin.application.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.vaadin.application.model.Asset;
+import org.vaadin.application.model.Budget;
+import org.vaadin.application.model.Expense;
+import org.vaadin.application.model.Income;
+import org.vaadin.application.model.Invoice;
+import org.vaadin.application.model.SyncChange;
+import org.vaadin.application.model.SyncEntityType;
+import org.vaadin.application.model.SyncPage;
+import org.vaadin.application.model.SyncTombstone;
+import org.vaadin.application.repository.AssetRepository;
+import org.vaadin.application.repository.BudgetRepository;
+import org.vaadin.application.repository.ExpenseRepository;
+import org.vaadin.application.repository.IncomeRepository;
+import org.vaadin.application.repository.InvoiceRepository;
+import org.vaadin.application.repository.SyncTombstoneRepository;
+
+/**
+ * Service class for delta synchronization of a user's expenses, incomes,
+ * budgets, invoices and assets.
+ *
+ * <p>
+ * Every write of these entities is assigned the next value of the user's change
+ * sequence by {@link ChangeTracker}, and every deletion leaves a
+ * {@link SyncTombstone}. A page of changes is read with keyset pagination: each
+ * table and the tombstones are queried for at most one page of rows after
+ * {@code since} through their (user, change sequence) index, and the results
+ * are merged by sequence. The cost of a request therefore depends on the page
+ * size, not on the size of the user's history.
+ * </p>
+ */
+@Service
+public class SyncService {
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private IncomeRepository incomeRepository;
+
+    @Autowired
+    private BudgetRepository budgetRepository;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private AssetRepository assetRepository;
+
+    @Autowired
+    private SyncTombstoneRepository tombstoneRepository;
+
+    @Value("${fintrack.sync.max-page-size:1000}")
+    private int maxPageSize;
+
+    /**
+     * Retrieves the changes of a user after a given change sequence.
+     *
+     * @param userId the ID of the user whose changes are to be retrieved
+     * @param since  the highest change sequence the client has already seen, 0
+     *               for a full synchronization
+     * @param limit  the maximum number of changes to return, capped at
+     *               {@code fintrack.sync.max-page-size}
+     * @return the changes in sequence order, with the sequence to continue from
+     */
+    @Transactional(readOnly = true)
+    public SyncPage getChanges(Long userId, long since, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, maxPageSize));
+        // One extra row per source tells whether another page follows
+        Pageable firstRows = PageRequest.of(0, pageSize + 1);
+
+        List<SyncChange> changes = new ArrayList<>();
+        for (Expense expense : expenseRepository
+                .findByUserIdAndChangeSequenceGreaterThanOrderByChangeSequence(userId, since, firstRows)) {
+            changes.add(SyncChange.written(SyncEntityType.EXPENSE, expense.getId(), expense));
+        }
+        for (Income income : incomeRepository
+                .findByUserIdAndChangeSequenceGreaterThanOrderByChangeSequence(userId, since, firstRows)) {
+            changes.add(SyncChange.written(SyncEntityType.INCOME, income.getId(), income));
+        }
+        for (Budget budget : budgetRepository
+                .findByUserIdAndChangeSequenceGreaterThanOrderByChangeSequence(userId, since, firstRows)) {
+            changes.add(SyncChange.written(SyncEntityType.BUDGET, budget.getId(), budget));
+        }
+        for (Invoice invoice : invoiceRepository
+                .findByUserIdAndChangeSequenceGreaterThanOrderByChangeSequence(userId, since, firstRows)) {
+            changes.add(SyncChange.written(SyncEntityType.INVOICE, invoice.getId(), invoice));
+        }
+        for (Asset asset : assetRepository
+                .findByUserIdAndChangeSequenceGreaterThanOrderByChangeSequence(userId, since, firstRows)) {
+            changes.add(SyncChange.written(SyncEntityType.ASSET, asset.getId(), asset));
+        }
+        for (SyncTombstone tombstone : tombstoneRepository
+                .findByUserIdAndChangeSequenceGreaterThanOrderByChangeSequence(userId, since, firstRows)) {
+            changes.add(SyncChange.deleted(tombstone));
+        }
+
+        changes.sort(Comparator.comparingLong(SyncChange::getSequence));
+        boolean hasMore = changes.size() > pageSize;
+        List<SyncChange> page = hasMore ? new ArrayList<>(changes.subList(0, pageSize)) : changes;
+        long nextSince = page.isEmpty() ? since : page.get(page.size() - 1).getSequence();
+        return new SyncPage(page, nextSince, hasMore);
+    }
+}
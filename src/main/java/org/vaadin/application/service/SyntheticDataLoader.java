@@ -0,0 +1,64 @@
+package org.vaadin.application.service;
+
+import java.sql.SQLException;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.vaadin.application.model.SyntheticDataSpec;
+import org.vaadin.application.repository.SyntheticDataGenerator;
+
+/**
+ * Loads synthetic users into the configured database when the application is
+ * started with the {@code datagen} profile, then exits.
+ *
+ * <p>
+ * The load is described by the {@code fintrack.datagen.*} properties, which
+ * map onto {@link SyntheticDataSpec}. The search index is rebuilt afterwards
+ * so the new rows can be found as soon as the application is started normally.
+ * </p>
+ */
+@Component
+@Profile("datagen")
+public class SyntheticDataLoader implements ApplicationRunner {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    @Autowired
+    private FullTextSearchService fullTextSearchService;
+
+    @Value("${fintrack.datagen.rebuild-search:true}")
+    private boolean rebuildSearch;
+
+    @Value("${fintrack.datagen.exit:true}")
+    private boolean exit;
+
+    @Override
+    public void run(ApplicationArguments args) throws SQLException {
+        SyntheticDataSpec spec = Binder.get(environment)
+                .bind("fintrack.datagen", SyntheticDataSpec.class)
+                .orElseGet(SyntheticDataSpec::new);
+        new SyntheticDataGenerator(dataSource, spec).generate();
+
+        if (rebuildSearch) {
+            fullTextSearchService.rebuild();
+        }
+        if (exit) {
+            System.exit(SpringApplication.exit(context));
+        }
+    }
+}
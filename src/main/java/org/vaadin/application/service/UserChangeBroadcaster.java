@@ -0,0 +1,239 @@
+package org.vaadin.application.service;
+
+import com.vaadin.flow.shared.Registration;
+import jakarta.annotation.PreDestroy;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.vaadin.application.config.ExecutorConfig;
+
+/**
+ * In-process broadcaster that notifies open views when a user's data changes.
+ *
+ * <p>
+ * Services publish a {@link ChangeType} for a user ID after each write. Views
+ * register a listener for the logged-in user when they are attached and remove
+ * it when they are detached. Changes are coalesced per listener over a short
+ * debounce window, so a burst of writes results in a single callback carrying
+ * the set of affected data types.
+ * </p>
+ *
+ * <p>
+ * The broadcaster keeps no state for users without listeners. Caches and
+ * entity tags that must detect every write, including those of other instances,
+ * use the user's change sequence kept by {@link ChangeTracker} instead.
+ * </p>
+ *
+ * <p>
+ * The debounce timer runs on a single scheduler thread, but listeners are
+ * invoked on the background executor. A listener typically locks its
+ * {@code VaadinSession} and reloads data, so running it on the timer thread
+ * would serialize every user's refresh behind one thread.
+ * </p>
+ *
+ * <p>
+ * A listener that throws (for example because its UI has already been
+ * detached) is removed, so stale UIs are never retained by the broadcaster.
+ * </p>
+ */
+@Service
+public class UserChangeBroadcaster {
+
+    /**
+     * The kind of data that changed for a user.
+     */
+    public enum ChangeType {
+        EXPENSE,
+        INCOME,
+        BUDGET,
+        CATEGORY,
+        BUSINESS_PROFILE,
+        ASSET,
+        INVOICE,
+        FINANCIAL_GOAL
+    }
+
+    /** Default time to wait for further changes before notifying a listener. */
+    static final long DEFAULT_DEBOUNCE_MILLIS = 250;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UserChangeBroadcaster.class);
+
+    private final Map<Long, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+    private final Executor deliveryExecutor;
+    private final long debounceMillis;
+
+    /**
+     * Creates a broadcaster using the default debounce window.
+     *
+     * @param deliveryExecutor the executor on which listeners are invoked
+     */
+    @Autowired
+    public UserChangeBroadcaster(@Qualifier(ExecutorConfig.BACKGROUND_EXECUTOR) Executor deliveryExecutor) {
+        this(DEFAULT_DEBOUNCE_MILLIS, deliveryExecutor);
+    }
+
+    /**
+     * Creates a broadcaster with a custom debounce window that invokes listeners
+     * directly on the scheduler thread.
+     *
+     * @param debounceMillis how long changes are collected before a listener is
+     *                       notified
+     */
+    UserChangeBroadcaster(long debounceMillis) {
+        this(debounceMillis, Runnable::run);
+    }
+
+    /**
+     * Creates a broadcaster with a custom debounce window and delivery executor.
+     *
+     * @param debounceMillis   how long changes are collected before a listener
+     *                         is notified
+     * @param deliveryExecutor the executor on which listeners are invoked
+     */
+    UserChangeBroadcaster(long debounceMillis, Executor deliveryExecutor) {
+        this.debounceMillis = debounceMillis;
+        this.deliveryExecutor = deliveryExecutor;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-change-broadcaster");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Registers a listener for changes to the given user's data.
+     *
+     * @param userId   the ID of the user whose changes should be delivered
+     * @param listener callback receiving the set of data types that changed
+     * @return a registration that removes the listener when invoked
+     */
+    public Registration register(Long userId, Consumer<Set<ChangeType>> listener) {
+        Subscription subscription = new Subscription(userId, listener);
+        subscriptions.computeIfAbsent(userId, key -> ConcurrentHashMap.newKeySet()).add(subscription);
+        return () -> unregister(subscription);
+    }
+
+    /**
+     * Publishes a change once the current transaction commits, or immediately
+     * if no transaction is active.
+     *
+     * @param userId the ID of the user whose data changed; ignored if null
+     * @param type   the kind of data that changed
+     */
+    public void publishAfterCommit(Long userId, ChangeType type) {
+        if (userId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(userId, type);
+                }
+            });
+        } else {
+            publish(userId, type);
+        }
+    }
+
+    /**
+     * Returns the number of listeners currently registered for a user.
+     *
+     * @param userId the ID of the user
+     * @return the number of registered listeners
+     */
+    public int getListenerCount(Long userId) {
+        Set<Subscription> userSubscriptions = subscriptions.get(userId);
+        return userSubscriptions == null ? 0 : userSubscriptions.size();
+    }
+
+    /**
+     * Stops the debounce scheduler when the application shuts down.
+     */
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private void publish(Long userId, ChangeType type) {
+        Set<Subscription> userSubscriptions = subscriptions.get(userId);
+        if (userSubscriptions != null) {
+            for (Subscription subscription : userSubscriptions) {
+                subscription.offer(type);
+            }
+        }
+    }
+
+    private void unregister(Subscription subscription) {
+        subscriptions.computeIfPresent(subscription.userId, (key, userSubscriptions) -> {
+            userSubscriptions.remove(subscription);
+            return userSubscriptions.isEmpty() ? null : userSubscriptions;
+        });
+    }
+
+    /**
+     * A single registered listener together with the changes waiting to be
+     * delivered to it.
+     */
+    private final class Subscription {
+        private final Long userId;
+        private final Consumer<Set<ChangeType>> listener;
+        private final EnumSet<ChangeType> pending = EnumSet.noneOf(ChangeType.class);
+        private boolean scheduled;
+
+        private Subscription(Long userId, Consumer<Set<ChangeType>> listener) {
+            this.userId = userId;
+            this.listener = listener;
+        }
+
+        private void offer(ChangeType type) {
+            synchronized (pending) {
+                pending.add(type);
+                if (scheduled) {
+                    return;
+                }
+                scheduled = true;
+            }
+            scheduler.schedule(this::deliver, debounceMillis, TimeUnit.MILLISECONDS);
+        }
+
+        private void deliver() {
+            try {
+                deliveryExecutor.execute(this::flush);
+            } catch (RejectedExecutionException e) {
+                // The executor is saturated or shutting down; deliver on the timer thread instead
+                flush();
+            }
+        }
+
+        private void flush() {
+            Set<ChangeType> changes;
+            synchronized (pending) {
+                changes = EnumSet.copyOf(pending);
+                pending.clear();
+                scheduled = false;
+            }
+            try {
+                listener.accept(changes);
+            } catch (RuntimeException e) {
+                LOGGER.debug("Removing change listener for user {}: {}", userId, e.toString());
+                unregister(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,559 @@
+package org.vaadin.application.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntPredicate;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Immutable, column-oriented copy of a user's expenses and incomes for
+ * analytics.
+ *
+ * <p>
+ * Each attribute is held in its own primitive array, sorted by date: the day as
+ * an epoch day, the amount in cents, and for expenses the budget and category as
+ * {@code short} codes into small dictionaries. A range total is a binary search
+ * followed by a loop over a contiguous slice of one {@code long[]}, with no
+ * entities, boxing or {@link BigDecimal} arithmetic per row. Amounts are
+ * converted back to {@link BigDecimal} with two decimal places only for the
+ * final result.
+ * </p>
+ *
+ * <p>
+ * A ledger is never modified. Writes are applied with
+ * {@link #withExpenses(List, List)} and {@link #withIncomes(List, List)}, which
+ * return a copy with rows added and removed. Ledgers are built, kept current
+ * and cached by {@link LedgerCache}.
+ * </p>
+ */
+public final class UserLedger {
+
+    /** The budget or category code of an expense without one. */
+    static final short NONE = -1;
+
+    /** The code looked up for a budget or category that is not in the ledger. */
+    private static final short UNKNOWN = -2;
+
+    /** The fixed part of {@link #getEstimatedBytes()}: object headers and array references. */
+    private static final int BASE_BYTES = 160;
+
+    private final int[] expenseDays;
+    private final long[] expenseCents;
+    private final short[] expenseBudgets;
+    private final short[] expenseCategories;
+    private final String[] budgetNames;
+    private final long[] budgetIds;
+    private final long[] categoryIds;
+
+    private final int[] incomeDays;
+    private final long[] incomeCents;
+    private final byte[] incomeMonthlyFactors;
+
+    private UserLedger(int[] expenseDays, long[] expenseCents, short[] expenseBudgets, short[] expenseCategories,
+            String[] budgetNames, long[] budgetIds, long[] categoryIds, int[] incomeDays, long[] incomeCents,
+            byte[] incomeMonthlyFactors) {
+        this.expenseDays = expenseDays;
+        this.expenseCents = expenseCents;
+        this.expenseBudgets = expenseBudgets;
+        this.expenseCategories = expenseCategories;
+        this.budgetNames = budgetNames;
+        this.budgetIds = budgetIds;
+        this.categoryIds = categoryIds;
+        this.incomeDays = incomeDays;
+        this.incomeCents = incomeCents;
+        this.incomeMonthlyFactors = incomeMonthlyFactors;
+    }
+
+    /**
+     * Builds a ledger from the rows of
+     * {@code ExpenseRepository.findLedgerRows} and
+     * {@code IncomeRepository.findLedgerRows}.
+     *
+     * @param expenseRows rows of date, amount, budget ID, budget name and
+     *                    category ID, in date order
+     * @param incomeRows  rows of date, amount and payment frequency, in date
+     *                    order
+     * @return the ledger
+     * @throws IllegalArgumentException if the user has more budgets or
+     *                                  categories than a {@code short} code can
+     *                                  hold
+     */
+    public static UserLedger build(List<Object[]> expenseRows, List<Object[]> incomeRows) {
+        int expenseCount = expenseRows.size();
+        int[] expenseDays = new int[expenseCount];
+        long[] expenseCents = new long[expenseCount];
+        short[] expenseBudgets = new short[expenseCount];
+        short[] expenseCategories = new short[expenseCount];
+        Map<Object, Short> budgetCodes = new HashMap<>();
+        List<String> budgetNames = new ArrayList<>();
+        List<Long> budgetIds = new ArrayList<>();
+        Map<Object, Short> categoryCodes = new HashMap<>();
+        List<Long> categoryIds = new ArrayList<>();
+        for (int i = 0; i < expenseCount; i++) {
+            Object[] row = expenseRows.get(i);
+            expenseDays[i] = toEpochDay(row[0]);
+            expenseCents[i] = toCents((BigDecimal) row[1]);
+            expenseBudgets[i] = encodeBudget(budgetCodes, budgetIds, budgetNames, row);
+            expenseCategories[i] = encodeCategory(categoryCodes, categoryIds, row);
+        }
+
+        int incomeCount = incomeRows.size();
+        int[] incomeDays = new int[incomeCount];
+        long[] incomeCents = new long[incomeCount];
+        byte[] incomeMonthlyFactors = new byte[incomeCount];
+        for (int i = 0; i < incomeCount; i++) {
+            Object[] row = incomeRows.get(i);
+            incomeDays[i] = toEpochDay(row[0]);
+            incomeCents[i] = toCents((BigDecimal) row[1]);
+            incomeMonthlyFactors[i] = monthlyFactor((String) row[2]);
+        }
+
+        return new UserLedger(expenseDays, expenseCents, expenseBudgets, expenseCategories,
+                budgetNames.toArray(new String[0]), toArray(budgetIds), toArray(categoryIds), incomeDays,
+                incomeCents, incomeMonthlyFactors);
+    }
+
+    /**
+     * Returns a copy of the ledger with expenses added and removed. The copy
+     * takes one pass over the user's expenses, without reading them from the
+     * database again.
+     *
+     * @param added   rows of added expenses, in the format of
+     *                {@link #build(List, List)} but in any order
+     * @param removed rows of removed expenses in the same format; the budget
+     *                name is not used
+     * @return the new ledger, or null if a removed expense is not in this
+     *         ledger and the ledger must be rebuilt
+     * @throws IllegalArgumentException if the user has more budgets or
+     *                                  categories than a {@code short} code can
+     *                                  hold
+     */
+    public UserLedger withExpenses(List<Object[]> added, List<Object[]> removed) {
+        boolean[] dropped = new boolean[expenseDays.length];
+        for (Object[] row : removed) {
+            int day = toEpochDay(row[0]);
+            long cents = toCents((BigDecimal) row[1]);
+            short budget = lookup(budgetIds, row[2]);
+            short category = lookup(categoryIds, row[4]);
+            int index = find(expenseDays, dropped, day, i -> expenseCents[i] == cents
+                    && expenseBudgets[i] == budget && expenseCategories[i] == category);
+            if (index < 0) {
+                return null;
+            }
+            dropped[index] = true;
+        }
+
+        List<Object[]> addedRows = sortedByDay(added);
+        int[] order = merge(expenseDays, dropped, removed.size(), addedRows);
+        Map<Object, Short> budgetCodes = codes(budgetIds);
+        List<Long> newBudgetIds = LongStream.of(budgetIds).boxed().collect(Collectors.toList());
+        List<String> newBudgetNames = new ArrayList<>(Arrays.asList(budgetNames));
+        Map<Object, Short> categoryCodes = codes(categoryIds);
+        List<Long> newCategoryIds = LongStream.of(categoryIds).boxed().collect(Collectors.toList());
+        int[] days = new int[order.length];
+        long[] cents = new long[order.length];
+        short[] budgets = new short[order.length];
+        short[] categories = new short[order.length];
+        for (int i = 0; i < order.length; i++) {
+            int source = order[i];
+            if (source >= 0) {
+                days[i] = expenseDays[source];
+                cents[i] = expenseCents[source];
+                budgets[i] = expenseBudgets[source];
+                categories[i] = expenseCategories[source];
+            } else {
+                Object[] row = addedRows.get(~source);
+                days[i] = toEpochDay(row[0]);
+                cents[i] = toCents((BigDecimal) row[1]);
+                budgets[i] = encodeBudget(budgetCodes, newBudgetIds, newBudgetNames, row);
+                categories[i] = encodeCategory(categoryCodes, newCategoryIds, row);
+            }
+        }
+        return new UserLedger(days, cents, budgets, categories, newBudgetNames.toArray(new String[0]),
+                toArray(newBudgetIds), toArray(newCategoryIds), incomeDays, incomeCents, incomeMonthlyFactors);
+    }
+
+    /**
+     * Returns a copy of the ledger with incomes added and removed. The copy
+     * takes one pass over the user's incomes, without reading them from the
+     * database again.
+     *
+     * @param added   rows of added incomes, in the format of
+     *                {@link #build(List, List)} but in any order
+     * @param removed rows of removed incomes in the same format
+     * @return the new ledger, or null if a removed income is not in this
+     *         ledger and the ledger must be rebuilt
+     */
+    public UserLedger withIncomes(List<Object[]> added, List<Object[]> removed) {
+        boolean[] dropped = new boolean[incomeDays.length];
+        for (Object[] row : removed) {
+            int day = toEpochDay(row[0]);
+            long cents = toCents((BigDecimal) row[1]);
+            byte factor = monthlyFactor((String) row[2]);
+            int index = find(incomeDays, dropped, day,
+                    i -> incomeCents[i] == cents && incomeMonthlyFactors[i] == factor);
+            if (index < 0) {
+                return null;
+            }
+            dropped[index] = true;
+        }
+
+        List<Object[]> addedRows = sortedByDay(added);
+        int[] order = merge(incomeDays, dropped, removed.size(), addedRows);
+        int[] days = new int[order.length];
+        long[] cents = new long[order.length];
+        byte[] factors = new byte[order.length];
+        for (int i = 0; i < order.length; i++) {
+            int source = order[i];
+            if (source >= 0) {
+                days[i] = incomeDays[source];
+                cents[i] = incomeCents[source];
+                factors[i] = incomeMonthlyFactors[source];
+            } else {
+                Object[] row = addedRows.get(~source);
+                days[i] = toEpochDay(row[0]);
+                cents[i] = toCents((BigDecimal) row[1]);
+                factors[i] = monthlyFactor((String) row[2]);
+            }
+        }
+        return new UserLedger(expenseDays, expenseCents, expenseBudgets, expenseCategories, budgetNames, budgetIds,
+                categoryIds, days, cents, factors);
+    }
+
+    /**
+     * Returns the number of expenses in the ledger.
+     *
+     * @return the number of expenses
+     */
+    public int getExpenseCount() {
+        return expenseDays.length;
+    }
+
+    /**
+     * Returns the number of incomes in the ledger.
+     *
+     * @return the number of incomes
+     */
+    public int getIncomeCount() {
+        return incomeDays.length;
+    }
+
+    /**
+     * Returns the approximate heap size of the ledger, used to keep all cached
+     * ledgers within a memory budget.
+     *
+     * @return the estimated size in bytes
+     */
+    public long getEstimatedBytes() {
+        long bytes = BASE_BYTES;
+        bytes += (long) expenseDays.length * (Integer.BYTES + Long.BYTES + 2 * Short.BYTES);
+        bytes += (long) incomeDays.length * (Integer.BYTES + Long.BYTES + Byte.BYTES);
+        bytes += (long) (budgetIds.length + categoryIds.length) * Long.BYTES;
+        for (String name : budgetNames) {
+            bytes += 48 + (name == null ? 0 : name.length());
+        }
+        return bytes;
+    }
+
+    /**
+     * Sums the expenses dated between two days.
+     *
+     * @param from the first day to include
+     * @param to   the last day to include
+     * @return the total, with two decimal places
+     */
+    public BigDecimal sumExpenses(LocalDate from, LocalDate to) {
+        return BigDecimal.valueOf(sum(expenseDays, expenseCents, from, to), 2);
+    }
+
+    /**
+     * Sums the incomes dated between two days. Recurring incomes are counted
+     * once, on their date.
+     *
+     * @param from the first day to include
+     * @param to   the last day to include
+     * @return the total, with two decimal places
+     */
+    public BigDecimal sumIncomes(LocalDate from, LocalDate to) {
+        return BigDecimal.valueOf(sum(incomeDays, incomeCents, from, to), 2);
+    }
+
+    /**
+     * Sums the payments of recurring incomes between two days. Each income
+     * is paid on its date and then again every week, every two weeks or every
+     * month according to its payment frequency; incomes of any other
+     * frequency recur monthly, as in the financial summary.
+     *
+     * @param from the first day to include
+     * @param to   the last day to include
+     * @return the total, with two decimal places
+     */
+    public BigDecimal sumRecurringIncomes(LocalDate from, LocalDate to) {
+        int end = upperBound(incomeDays, day(to));
+        long cents = 0;
+        for (int i = 0; i < end; i++) {
+            cents += incomeCents[i] * payments(incomeDays[i], incomeMonthlyFactors[i], from, to);
+        }
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    /**
+     * Sums the incomes as a monthly amount: weekly incomes count four times,
+     * biweekly incomes twice, monthly incomes once and others not at all.
+     *
+     * @return the monthly income, with two decimal places
+     */
+    public BigDecimal getMonthlyIncome() {
+        long cents = 0;
+        for (int i = 0; i < incomeCents.length; i++) {
+            cents += incomeCents[i] * incomeMonthlyFactors[i];
+        }
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    /**
+     * Sums the expenses of one budget per calendar month.
+     *
+     * @param from       the first day to include
+     * @param to         the last day to include
+     * @param budgetName the name of the budget, matched ignoring case;
+     *                   {@code "no-budget"} also matches expenses without a
+     *                   budget
+     * @return the total in cents of each month from the month of {@code from}
+     *         to the month of {@code to}
+     */
+    public long[] sumExpensesByMonth(LocalDate from, LocalDate to, String budgetName) {
+        boolean[] matchingBudgets = new boolean[budgetNames.length];
+        for (int code = 0; code < budgetNames.length; code++) {
+            matchingBudgets[code] = budgetNames[code] != null && budgetNames[code].equalsIgnoreCase(budgetName);
+        }
+        boolean matchNone = "no-budget".equals(budgetName);
+
+        YearMonth firstMonth = YearMonth.from(from);
+        long[] months = new long[(int) firstMonth.until(YearMonth.from(to), ChronoUnit.MONTHS) + 1];
+        int end = upperBound(expenseDays, day(to));
+        int monthIndex = 0;
+        int nextMonthDay = (int) firstMonth.plusMonths(1).atDay(1).toEpochDay();
+        for (int i = lowerBound(expenseDays, day(from)); i < end; i++) {
+            while (expenseDays[i] >= nextMonthDay) {
+                monthIndex++;
+                nextMonthDay = (int) firstMonth.plusMonths(monthIndex + 1L).atDay(1).toEpochDay();
+            }
+            short budget = expenseBudgets[i];
+            if (budget == NONE ? matchNone : matchingBudgets[budget]) {
+                months[monthIndex] += expenseCents[i];
+            }
+        }
+        return months;
+    }
+
+    /**
+     * Sums the expenses of one category dated between two days.
+     *
+     * @param categoryId the ID of the expense category
+     * @param from       the first day to include
+     * @param to         the last day to include
+     * @return the total, with two decimal places
+     */
+    public BigDecimal sumExpensesInCategory(Long categoryId, LocalDate from, LocalDate to) {
+        int code = -1;
+        for (int i = 0; categoryId != null && i < categoryIds.length; i++) {
+            if (categoryIds[i] == categoryId) {
+                code = i;
+                break;
+            }
+        }
+        long cents = 0;
+        if (code >= 0) {
+            int end = upperBound(expenseDays, day(to));
+            for (int i = lowerBound(expenseDays, day(from)); i < end; i++) {
+                if (expenseCategories[i] == code) {
+                    cents += expenseCents[i];
+                }
+            }
+        }
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    private static long sum(int[] days, long[] cents, LocalDate from, LocalDate to) {
+        int end = upperBound(days, day(to));
+        long total = 0;
+        for (int i = lowerBound(days, day(from)); i < end; i++) {
+            total += cents[i];
+        }
+        return total;
+    }
+
+    /**
+     * Counts the payments of a recurring income between two days, with the
+     * interval given by its monthly factor.
+     */
+    private static long payments(int day, byte monthlyFactor, LocalDate from, LocalDate to) {
+        if (monthlyFactor == 4 || monthlyFactor == 2) {
+            long interval = monthlyFactor == 4 ? 7 : 14;
+            long first = Math.max(day, from.toEpochDay());
+            first += Math.floorMod(day - first, interval);
+            return first > to.toEpochDay() ? 0 : (to.toEpochDay() - first) / interval + 1;
+        }
+        LocalDate date = LocalDate.ofEpochDay(day);
+        long first = Math.max(0, ChronoUnit.MONTHS.between(YearMonth.from(date), YearMonth.from(from)));
+        if (date.plusMonths(first).isBefore(from)) {
+            first++;
+        }
+        long last = ChronoUnit.MONTHS.between(YearMonth.from(date), YearMonth.from(to));
+        if (date.plusMonths(last).isAfter(to)) {
+            last--;
+        }
+        return Math.max(0, last - first + 1);
+    }
+
+    /** Converts a date to an epoch day, clamped to the range of {@code int}. */
+    private static int day(LocalDate date) {
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, date.toEpochDay()));
+    }
+
+    /** Returns the index of the first day not before {@code day}. */
+    private static int lowerBound(int[] days, int day) {
+        int low = 0;
+        int high = days.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (days[middle] < day) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /** Returns the index of the first day after {@code day}. */
+    private static int upperBound(int[] days, int day) {
+        return day == Integer.MAX_VALUE ? days.length : lowerBound(days, day + 1);
+    }
+
+    /**
+     * Returns the first row on a day that is not dropped yet and matches a
+     * condition, or -1 if there is none.
+     */
+    private static int find(int[] days, boolean[] dropped, int day, IntPredicate matches) {
+        int end = upperBound(days, day);
+        for (int i = lowerBound(days, day); i < end; i++) {
+            if (!dropped[i] && matches.test(i)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the order of the rows after a merge: the index of each kept
+     * row, or the complement {@code ~j} of the index of each added row.
+     * Added rows go after the kept rows of the same day.
+     */
+    private static int[] merge(int[] days, boolean[] dropped, int droppedCount, List<Object[]> addedRows) {
+        int[] order = new int[days.length - droppedCount + addedRows.size()];
+        int kept = 0;
+        int added = 0;
+        for (int i = 0; i < order.length; i++) {
+            while (kept < days.length && dropped[kept]) {
+                kept++;
+            }
+            if (added < addedRows.size()
+                    && (kept == days.length || toEpochDay(addedRows.get(added)[0]) < days[kept])) {
+                order[i] = ~added++;
+            } else {
+                order[i] = kept++;
+            }
+        }
+        return order;
+    }
+
+    private static List<Object[]> sortedByDay(List<Object[]> rows) {
+        List<Object[]> sorted = new ArrayList<>(rows);
+        sorted.sort(Comparator.comparingInt(row -> toEpochDay(row[0])));
+        return sorted;
+    }
+
+    private static short encodeBudget(Map<Object, Short> codes, List<Long> ids, List<String> names, Object[] row) {
+        if (row[2] == null) {
+            return NONE;
+        }
+        return encode(codes, row[2], () -> {
+            ids.add((Long) row[2]);
+            names.add((String) row[3]);
+        });
+    }
+
+    private static short encodeCategory(Map<Object, Short> codes, List<Long> ids, Object[] row) {
+        return row[4] == null ? NONE : encode(codes, row[4], () -> ids.add((Long) row[4]));
+    }
+
+    /** Returns the codes of the IDs in a dictionary, keyed like the codes of {@link #build(List, List)}. */
+    private static Map<Object, Short> codes(long[] ids) {
+        Map<Object, Short> codes = new HashMap<>();
+        for (int code = 0; code < ids.length; code++) {
+            codes.put(ids[code], (short) code);
+        }
+        return codes;
+    }
+
+    /** Returns the code of an ID in a dictionary, {@link #NONE} for null or {@link #UNKNOWN} if it is missing. */
+    private static short lookup(long[] ids, Object id) {
+        if (id == null) {
+            return NONE;
+        }
+        for (int code = 0; code < ids.length; code++) {
+            if (ids[code] == (Long) id) {
+                return (short) code;
+            }
+        }
+        return UNKNOWN;
+    }
+
+    private static long[] toArray(List<Long> values) {
+        return values.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static short encode(Map<Object, Short> codes, Object key, Runnable onNewKey) {
+        Short code = codes.get(key);
+        if (code == null) {
+            if (codes.size() > Short.MAX_VALUE) {
+                throw new IllegalArgumentException("Too many distinct values to encode: " + codes.size());
+            }
+            code = (short) codes.size();
+            codes.put(key, code);
+            onNewKey.run();
+        }
+        return code;
+    }
+
+    private static byte monthlyFactor(String paymentFrequency) {
+        if ("Weekly".equals(paymentFrequency)) {
+            return 4;
+        } else if ("Biweekly".equals(paymentFrequency)) {
+            return 2;
+        } else if ("Monthly".equals(paymentFrequency)) {
+            return 1;
+        }
+        return 0;
+    }
+
+    static long toCents(BigDecimal amount) {
+        return amount == null ? 0 : amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    static int toEpochDay(Object date) {
+        return (int) ((LocalDate) date).toEpochDay();
+    }
+}
@@ -0,0 +1,194 @@
+package org.vaadin.application.service;
+
+import com.vaadin.flow.spring.annotation.VaadinSessionScope;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.vaadin.application.model.Budget;
+import org.vaadin.application.model.BusinessProfile;
+import org.vaadin.application.model.ExpenseCategory;
+import org.vaadin.application.model.User;
+
+/**
+ * Read-through cache of the logged-in user's reference data, scoped to the
+ * Vaadin session.
+ *
+ * <p>
+ * Views are recreated on every navigation and used to reload the same user,
+ * budgets, expense categories and business profile each time. This cache keeps
+ * those values for the lifetime of the session. Each entry remembers the
+ * user's change sequence (see {@link ChangeTracker}) it was loaded at, so a
+ * write of any of the user's data, in this or any other session or instance,
+ * invalidates the entry on the next read.
+ * </p>
+ *
+ * <p>
+ * Budgets, expense categories and the business profile are loaded from the
+ * database rather than from the application caches of
+ * {@link org.vaadin.application.config.CacheConfig}, which are refreshed with
+ * the result. Those caches are only evicted after a write commits, so right
+ * after the change sequence has advanced they may still hold the data from
+ * before the write, which would then be kept under the new sequence.
+ * </p>
+ *
+ * <p>
+ * The total number of cached entities is capped by
+ * {@code fintrack.reference-cache.max-entities}. Values that would exceed the cap
+ * are returned without being cached. Access happens while the session lock is
+ * held, so the cache needs no further synchronization.
+ * </p>
+ */
+@Component
+@VaadinSessionScope
+public class UserReferenceDataCache {
+
+    /**
+     * The kinds of reference data held by the cache, together with whether
+     * writes to the user's data invalidate them.
+     */
+    private enum Key {
+        USER(false),
+        BUDGETS(true),
+        CATEGORIES(true),
+        BUSINESS_PROFILE(true);
+
+        private final boolean tracked;
+
+        Key(boolean tracked) {
+            this.tracked = tracked;
+        }
+    }
+
+    /**
+     * A cached value together with the change sequence it was loaded at and
+     * the number of entities it holds.
+     */
+    private static final class Entry {
+        private final long sequence;
+        private final Object value;
+        private final int size;
+
+        private Entry(long sequence, Object value, int size) {
+            this.sequence = sequence;
+            this.value = value;
+            this.size = size;
+        }
+    }
+
+    @Autowired
+    private SessionService sessionService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private BudgetService budgetService;
+
+    @Autowired
+    private ExpenseCategoryService expenseCategoryService;
+
+    @Autowired
+    private BusinessProfileService businessProfileService;
+
+    @Autowired
+    private ChangeTracker changeTracker;
+
+    @Value("${fintrack.reference-cache.max-entities:500}")
+    private int maxEntities;
+
+    private final Map<Key, Entry> entries = new EnumMap<>(Key.class);
+    private Long cachedUserId;
+    private int cachedEntities;
+
+    /**
+     * Returns the logged-in user.
+     *
+     * @return the logged-in user, or null if not found
+     */
+    public User getUser() {
+        return read(Key.USER, userService::findUserById, user -> 1);
+    }
+
+    /**
+     * Returns the budgets of the logged-in user.
+     *
+     * @return an unmodifiable list of the user's budgets
+     */
+    public List<Budget> getBudgets() {
+        return read(Key.BUDGETS,
+                userId -> Collections.unmodifiableList(budgetService.reloadBudgetsByUserId(userId)),
+                List::size);
+    }
+
+    /**
+     * Returns the expense categories of the logged-in user.
+     *
+     * @return an unmodifiable list of the user's expense categories
+     */
+    public List<ExpenseCategory> getExpenseCategories() {
+        return read(Key.CATEGORIES, userId -> Collections.unmodifiableList(
+                expenseCategoryService.reloadExpenseCategoriesByUserId(userId)), List::size);
+    }
+
+    /**
+     * Returns the most recently saved business profile of the logged-in user.
+     *
+     * @return the user's business profile, or null if none has been saved
+     */
+    public BusinessProfile getBusinessProfile() {
+        return read(Key.BUSINESS_PROFILE, businessProfileService::reloadLastBusinessProfileByUserId, profile -> 1);
+    }
+
+    /**
+     * Drops every cached value.
+     */
+    public void clear() {
+        entries.clear();
+        cachedEntities = 0;
+    }
+
+    /**
+     * Returns the number of entities currently held by the cache.
+     *
+     * @return the number of cached entities
+     */
+    public int getCachedEntityCount() {
+        return cachedEntities;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T read(Key key, Function<Long, T> loader, Function<T, Integer> sizer) {
+        Long userId = sessionService.getLoggedInUserId();
+        if (userId == null) {
+            return null;
+        }
+        if (!userId.equals(cachedUserId)) {
+            clear();
+            cachedUserId = userId;
+        }
+
+        long sequence = key.tracked ? changeTracker.getChangeSequence(userId) : 0;
+        Entry entry = entries.get(key);
+        if (entry != null && entry.sequence == sequence) {
+            return (T) entry.value;
+        }
+        if (entry != null) {
+            entries.remove(key);
+            cachedEntities -= entry.size;
+        }
+
+        // The sequence is read before loading, so a concurrent write is detected on the next read
+        T value = loader.apply(userId);
+        int size = value == null ? 0 : sizer.apply(value);
+        if (cachedEntities + size <= maxEntities) {
+            entries.put(key, new Entry(sequence, value, size));
+            cachedEntities += size;
+        }
+        return value;
+    }
+}
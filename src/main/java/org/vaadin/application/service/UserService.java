@@ -2,7 +2,11 @@ package org.vaadin.application.service;
 
 import org.mindrot.jbcrypt.BCrypt;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.vaadin.application.config.CacheConfig;
+import org.vaadin.application.config.FlightEvents;
 import org.vaadin.application.model.User;
 import org.vaadin.application.repository.UserRepository;
 
@@ -25,6 +29,7 @@ public class UserService {
      *                      stored
      * @return the newly registered user object
      */
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#result.id", condition = "#result != null")
     public User registerUser(String name, String plainPassword) {
         String hashedPassword = BCrypt.hashpw(plainPassword, BCrypt.gensalt());
         User user = new User();
@@ -43,11 +48,23 @@ public class UserService {
      *         if invalid
      */
     public User loginUser(String name, String plainPassword) {
-        User user = userRepository.findByName(name);
-        if (user != null && BCrypt.checkpw(plainPassword, user.getPassword())) {
-            return user;
+        FlightEvents.Login event = new FlightEvents.Login();
+        event.begin();
+        User user = null;
+        boolean succeeded = false;
+        try {
+            user = userRepository.findByName(name);
+            succeeded = user != null && BCrypt.checkpw(plainPassword, user.getPassword());
+            return succeeded ? user : null;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.userId = user == null || user.getId() == null ? 0 : user.getId();
+                event.rows = user == null ? 0 : 1;
+                event.succeeded = succeeded;
+                event.commit();
+            }
         }
-        return null;
     }
 
     /**
@@ -56,6 +73,7 @@ public class UserService {
      * @param id the ID of the user to find
      * @return the user object if found, or null if not found
      */
+    @Cacheable(CacheConfig.USERS)
     public User findUserById(Long id) {
         return userRepository.findById(id).orElse(null);
     }
@@ -26,7 +26,7 @@ import org.vaadin.application.MainLayout;
 import org.vaadin.application.model.Asset;
 import org.vaadin.application.service.AssetService;
 import org.vaadin.application.service.SessionService;
-import org.vaadin.application.service.UserService;
+import org.vaadin.application.service.UserReferenceDataCache;
 
 @Route(value = "asset", layout = MainLayout.class)
 public class AssetView extends VerticalLayout {
@@ -39,7 +39,7 @@ public class AssetView extends VerticalLayout {
 
     private final transient AssetService assetService;
     private final transient SessionService sessionService;
-    private final transient UserService userService;
+    private final transient UserReferenceDataCache referenceDataCache;
 
     private H2 totalAssetsValue;
     private H2 totalChangeValue;
@@ -49,12 +49,12 @@ public class AssetView extends VerticalLayout {
      * 
      * @param assetService   the service for managing assets
      * @param sessionService the service for managing user sessions
-     * @param userService    the service for managing user information
+     * @param referenceDataCache the cache of the logged-in user's reference data
      */
-    public AssetView(AssetService assetService, SessionService sessionService, UserService userService) {
+    public AssetView(AssetService assetService, SessionService sessionService, UserReferenceDataCache referenceDataCache) {
         this.assetService = assetService;
         this.sessionService = sessionService;
-        this.userService = userService;
+        this.referenceDataCache = referenceDataCache;
 
         configureLayout();
         listAssets();
@@ -329,7 +329,7 @@ public class AssetView extends VerticalLayout {
             asset.setValue(value);
             asset.setCategory(category);
             asset.setInterestRate(interestRate);
-            asset.setUser(userService.findUserById(sessionService.getLoggedInUserId()));
+            asset.setUser(referenceDataCache.getUser());
 
             assetService.addAsset(asset);
             Notification.show("Asset added successfully", 3000, Notification.Position.TOP_CENTER);
@@ -1,5 +1,8 @@
 package org.vaadin.application.views;
 
+import com.vaadin.flow.component.AttachEvent;
+import com.vaadin.flow.component.DetachEvent;
+import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.combobox.ComboBox;
 import com.vaadin.flow.component.html.Div;
@@ -11,12 +14,15 @@ import com.vaadin.flow.component.progressbar.ProgressBar;
 import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.router.Route;
 import com.vaadin.flow.component.notification.Notification;
+import com.vaadin.flow.shared.Registration;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.vaadin.application.MainLayout;
 import org.vaadin.application.model.Budget;
@@ -24,7 +30,8 @@ import org.vaadin.application.model.Expense;
 import org.vaadin.application.service.BudgetService;
 import org.vaadin.application.service.ExpenseService;
 import org.vaadin.application.service.SessionService;
-import org.vaadin.application.service.UserService;
+import org.vaadin.application.service.UserChangeBroadcaster;
+import org.vaadin.application.service.UserReferenceDataCache;
 
 /**
  * The BudgetView class represents the user interface for managing budgets
@@ -58,14 +65,14 @@ import org.vaadin.application.service.UserService;
  * retrieving expenses related to a budget,
  * {@link org.vaadin.application.service.SessionService} for getting the
  * logged-in user ID, and
- * {@link org.vaadin.application.service.UserService} for retrieving user
- * information.
+ * {@link org.vaadin.application.service.UserReferenceDataCache} for cached
+ * user reference data.
  * </p>
  * 
  * @see org.vaadin.application.service.BudgetService
  * @see org.vaadin.application.service.ExpenseService
  * @see org.vaadin.application.service.SessionService
- * @see org.vaadin.application.service.UserService
+ * @see org.vaadin.application.service.UserReferenceDataCache
  */
 @Route(value = "budget", layout = MainLayout.class)
 public class BudgetView extends VerticalLayout {
@@ -73,15 +80,19 @@ public class BudgetView extends VerticalLayout {
     private final transient BudgetService budgetService;
     private final transient ExpenseService expenseService;
     private final transient SessionService sessionService;
-    private final transient UserService userService;
+    private final transient UserReferenceDataCache referenceDataCache;
+    private final transient UserChangeBroadcaster changeBroadcaster;
 
     final TextField nameField = new TextField("Budget Name");
     final TextField amountField = new TextField("Target Amount ($)");
     private final ComboBox<String> iconComboBox = new ComboBox<>("Choose an Icon");
 
     private final Map<Budget, Div> budgetCards = new HashMap<>();
+    private final Map<Long, Runnable> budgetProgressUpdaters = new HashMap<>();
     private final Div budgetContainer = new Div();
 
+    private Registration changeRegistration;
+
     /**
      * Constructs a new BudgetView and initializes the components and layout.
      * 
@@ -89,14 +100,17 @@ public class BudgetView extends VerticalLayout {
      * @param expenseService the service used to retrieve expenses data
      * @param sessionService the service used to manage session-related data,
      *                       particularly the logged-in user
-     * @param userService    the service used to manage user data
+     * @param referenceDataCache the cache of the logged-in user's reference data
+     * @param changeBroadcaster the broadcaster notifying the view of data
+     *                       changes made elsewhere
      */
     public BudgetView(BudgetService budgetService, ExpenseService expenseService, SessionService sessionService,
-            UserService userService) {
+            UserReferenceDataCache referenceDataCache, UserChangeBroadcaster changeBroadcaster) {
         this.budgetService = budgetService;
         this.expenseService = expenseService;
         this.sessionService = sessionService;
-        this.userService = userService;
+        this.referenceDataCache = referenceDataCache;
+        this.changeBroadcaster = changeBroadcaster;
 
         setAlignItems(Alignment.CENTER);
 
@@ -120,6 +134,74 @@ public class BudgetView extends VerticalLayout {
         listBudgets();
     }
 
+    /**
+     * Starts listening for changes to the user's data once the view is attached.
+     *
+     * @param attachEvent the attach event
+     */
+    @Override
+    protected void onAttach(AttachEvent attachEvent) {
+        super.onAttach(attachEvent);
+        UI ui = attachEvent.getUI();
+        changeRegistration = changeBroadcaster.register(sessionService.getLoggedInUserId(),
+                changes -> ui.access(() -> applyChanges(changes)));
+    }
+
+    /**
+     * Stops listening for data changes so that detached views are not retained.
+     *
+     * @param detachEvent the detach event
+     */
+    @Override
+    protected void onDetach(DetachEvent detachEvent) {
+        if (changeRegistration != null) {
+            changeRegistration.remove();
+            changeRegistration = null;
+        }
+        super.onDetach(detachEvent);
+    }
+
+    /**
+     * Applies data changes to the existing budget cards. Budgets that were added
+     * or removed elsewhere get their card added or removed; expense changes only
+     * refresh the spent amount and progress bar of each card.
+     *
+     * @param changes the kinds of data that changed
+     */
+    private void applyChanges(Set<UserChangeBroadcaster.ChangeType> changes) {
+        if (changes.contains(UserChangeBroadcaster.ChangeType.BUDGET)) {
+            syncBudgetCards();
+        }
+        if (changes.contains(UserChangeBroadcaster.ChangeType.EXPENSE)) {
+            budgetProgressUpdaters.values().forEach(Runnable::run);
+        }
+    }
+
+    /**
+     * Adds cards for budgets that are not shown yet and removes cards for budgets
+     * that no longer exist.
+     */
+    private void syncBudgetCards() {
+        List<Budget> budgets = referenceDataCache.getBudgets();
+        Set<Long> currentIds = new HashSet<>();
+        for (Budget budget : budgets) {
+            currentIds.add(budget.getId());
+            if (!budgetProgressUpdaters.containsKey(budget.getId())) {
+                showBudgetCard(budget);
+            }
+        }
+
+        budgetCards.entrySet().removeIf(entry -> {
+            Long budgetId = entry.getKey().getId();
+            if (currentIds.contains(budgetId)) {
+                return false;
+            }
+            budgetContainer.remove(entry.getValue());
+            budgetProgressUpdaters.remove(budgetId);
+            return true;
+        });
+    }
+
     /**
      * Configures the input fields for budget name and target amount.
      */
@@ -140,15 +222,23 @@ public class BudgetView extends VerticalLayout {
      * Retrieves and lists all budgets for the currently logged-in user.
      */
     void listBudgets() {
-        Long userId = sessionService.getLoggedInUserId();
-        List<Budget> budgets = budgetService.getBudgetsByUserId(userId);
+        List<Budget> budgets = referenceDataCache.getBudgets();
         for (Budget budget : budgets) {
-            Div budgetCard = createBudgetCard(budget);
-            budgetCards.put(budget, budgetCard);
-            budgetContainer.add(budgetCard);
+            showBudgetCard(budget);
         }
     }
 
+    /**
+     * Creates a card for the given budget and adds it to the budget container.
+     *
+     * @param budget the budget to show
+     */
+    private void showBudgetCard(Budget budget) {
+        Div budgetCard = createBudgetCard(budget);
+        budgetCards.put(budget, budgetCard);
+        budgetContainer.add(budgetCard);
+    }
+
     /**
      * Creates a visual card for the specified budget, showing its icon, name,
      * target amount,
@@ -176,26 +266,17 @@ public class BudgetView extends VerticalLayout {
         targetDiv.setText("Target: $" + budget.getAmount());
         targetDiv.addClassName("budget-target");
 
-        BigDecimal totalExpenses = getTotalExpensesForBudget(budget);
-
         Div currentAmountDiv = new Div();
-        currentAmountDiv.setText("Spent so far: $" + totalExpenses.toString());
         currentAmountDiv.addClassName("current-amount");
 
         ProgressBar progressBar = new ProgressBar();
         progressBar.setWidth("100%");
 
-        if (totalExpenses.compareTo(budget.getAmount()) > 0) {
-            // Expenses exceed the budget
-            progressBar.setValue(1.0); // Set to 100%
-            progressBar.getElement().setAttribute("theme", "error");
+        if (updateBudgetProgress(budget, currentAmountDiv, progressBar)) {
             Notification.show("Warning: Budget exceeded!", 3000, Notification.Position.TOP_CENTER);
-        } else if (budget.getAmount().compareTo(BigDecimal.ZERO) > 0) {
-            BigDecimal progressValue = totalExpenses.divide(budget.getAmount(), 2, RoundingMode.HALF_UP);
-            progressBar.setValue(progressValue.doubleValue());
-        } else {
-            progressBar.setValue(0.0);
         }
+        budgetProgressUpdaters.put(budget.getId(),
+                () -> updateBudgetProgress(budget, currentAmountDiv, progressBar));
 
         Button deleteButton = new Button("Delete", event -> deleteBudget(budget));
         deleteButton.getStyle().set("background-color", "red");
@@ -206,6 +287,36 @@ public class BudgetView extends VerticalLayout {
         return card;
     }
 
+    /**
+     * Updates the spent amount and progress bar of a budget card from the current
+     * expenses associated with the budget.
+     *
+     * @param budget           the budget shown by the card
+     * @param currentAmountDiv the component showing the amount spent so far
+     * @param progressBar      the progress bar showing how much has been spent
+     * @return true if the expenses exceed the budget
+     */
+    private boolean updateBudgetProgress(Budget budget, Div currentAmountDiv, ProgressBar progressBar) {
+        BigDecimal totalExpenses = getTotalExpensesForBudget(budget);
+        currentAmountDiv.setText("Spent so far: $" + totalExpenses.toString());
+
+        if (totalExpenses.compareTo(budget.getAmount()) > 0) {
+            // Expenses exceed the budget
+            progressBar.setValue(1.0); // Set to 100%
+            progressBar.getElement().setAttribute("theme", "error");
+            return true;
+        }
+
+        progressBar.getElement().removeAttribute("theme");
+        if (budget.getAmount().compareTo(BigDecimal.ZERO) > 0) {
+            BigDecimal progressValue = totalExpenses.divide(budget.getAmount(), 2, RoundingMode.HALF_UP);
+            progressBar.setValue(progressValue.doubleValue());
+        } else {
+            progressBar.setValue(0.0);
+        }
+        return false;
+    }
+
     /**
      * Calculates the total expenses associated with the given budget.
      * 
@@ -240,15 +351,13 @@ public class BudgetView extends VerticalLayout {
             budget.setName(name);
             budget.setAmount(amount);
             budget.setIcon(selectedIcon);
-            budget.setUser(userService.findUserById(sessionService.getLoggedInUserId()));
+            budget.setUser(referenceDataCache.getUser());
 
             Budget savedBudget = budgetService.addBudget(budget);
             Notification.show("Budget added successfully", 3000, Notification.Position.TOP_CENTER);
 
             clearForm();
-            Div budgetCard = createBudgetCard(savedBudget);
-            budgetCards.put(savedBudget, budgetCard);
-            budgetContainer.add(budgetCard);
+            showBudgetCard(savedBudget);
         } catch (NumberFormatException e) {
             Notification.show("Please enter valid amounts", 3000, Notification.Position.TOP_CENTER);
         }
@@ -268,6 +377,7 @@ public class BudgetView extends VerticalLayout {
             Notification.show("Budget deleted successfully", 3000, Notification.Position.TOP_CENTER);
             budgetContainer.remove(budgetCard);
             budgetCards.remove(budget);
+            budgetProgressUpdaters.remove(budget.getId());
         }
     }
 
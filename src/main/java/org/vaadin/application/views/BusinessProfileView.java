@@ -20,7 +20,7 @@ import org.vaadin.application.model.Employee;
 import org.vaadin.application.service.BusinessProfileService;
 import org.vaadin.application.service.EmployeeService;
 import org.vaadin.application.service.SessionService;
-import org.vaadin.application.service.UserService;
+import org.vaadin.application.service.UserReferenceDataCache;
 
 /**
  * The BusinessProfileView class provides the user interface for managing business profiles within the application.
@@ -36,12 +36,12 @@ import org.vaadin.application.service.UserService;
  * </p>
  *
  * <p>
- * This class interacts with the following services: {@link org.vaadin.application.service.BusinessProfileService} for managing business profile data, {@link org.vaadin.application.service.SessionService} for managing session-related data, and {@link org.vaadin.application.service.UserService} for retrieving user information.
+ * This class interacts with the following services: {@link org.vaadin.application.service.BusinessProfileService} for managing business profile data, {@link org.vaadin.application.service.SessionService} for managing session-related data, and {@link org.vaadin.application.service.UserReferenceDataCache} for cached user reference data.
  * </p>
  * 
  * @see org.vaadin.application.service.BusinessProfileService
  * @see org.vaadin.application.service.SessionService
- * @see org.vaadin.application.service.UserService
+ * @see org.vaadin.application.service.UserReferenceDataCache
  */
 @Route(value = "business", layout = MainLayout.class)
 public class BusinessProfileView extends VerticalLayout {
@@ -59,7 +59,7 @@ public class BusinessProfileView extends VerticalLayout {
     private final TextField employeeRoleField = new TextField("Employee Role");
 
     private final transient BusinessProfileService businessProfileService;
-    private final transient UserService userService;
+    private final transient UserReferenceDataCache referenceDataCache;
     private final transient SessionService sessionService;  
     private final transient EmployeeService employeeService;
     
@@ -67,18 +67,18 @@ public class BusinessProfileView extends VerticalLayout {
 
     /**
      * Constructs a new BusinessProfileView and initializes the components for managing business profiles and employees.
-     * This constructor injects the {@link org.vaadin.application.service.BusinessProfileService}, {@link org.vaadin.application.service.SessionService}, {@link org.vaadin.application.service.UserService}, and {@link org.vaadin.application.service.EmployeeService} services.
+     * This constructor injects the {@link org.vaadin.application.service.BusinessProfileService}, {@link org.vaadin.application.service.SessionService}, {@link org.vaadin.application.service.UserReferenceDataCache}, and {@link org.vaadin.application.service.EmployeeService} services.
      * The view includes a grid for displaying employees, text fields for entering business profile and employee details, and buttons for adding, updating, and deleting business profiles and employees.
      *
      * @param businessProfileService the service for managing business profile data
      * @param sessionService the service for managing session-related data
-     * @param userService the service for retrieving user information
+     * @param referenceDataCache the cache of the logged-in user's reference data
      * @param employeeService the service for managing employee data
      */
     @Autowired
-    public BusinessProfileView(BusinessProfileService businessProfileService, SessionService sessionService, UserService userService, EmployeeService employeeService) {
+    public BusinessProfileView(BusinessProfileService businessProfileService, SessionService sessionService, UserReferenceDataCache referenceDataCache, EmployeeService employeeService) {
         this.businessProfileService = businessProfileService;
-        this.userService = userService;
+        this.referenceDataCache = referenceDataCache;
         this.sessionService = sessionService;
         this.employeeService = employeeService;
 
@@ -118,7 +118,7 @@ public class BusinessProfileView extends VerticalLayout {
         add(mainLayout);
 
         listEmployees();
-        if (businessProfileService.getBusinessProfilesByUserId(sessionService.getLoggedInUserId()).isEmpty()) {
+        if (referenceDataCache.getBusinessProfile() == null) {
             Notification.show("Please fill in your business profile");
         } else {
             listBusinessProfiles();
@@ -209,7 +209,7 @@ public class BusinessProfileView extends VerticalLayout {
         employee.setEmployeeName(name);
         employee.setEmployeeRole(role);
         employee.setSalary(salary);
-        employee.setUser(userService.findUserById(sessionService.getLoggedInUserId()));
+        employee.setUser(referenceDataCache.getUser());
         employeeService.addEmployee(employee);
         Notification.show("Employee added successfully");
         listEmployees();
@@ -228,8 +228,7 @@ public class BusinessProfileView extends VerticalLayout {
      * Lists the business profile associated with the currently logged-in user.
      */
     private void listBusinessProfiles() {
-        Long userId = sessionService.getLoggedInUserId();
-        BusinessProfile businessProfile = businessProfileService.getLastBusinessProfileByUserId(userId);
+        BusinessProfile businessProfile = referenceDataCache.getBusinessProfile();
         nameField.setValue(businessProfile.getBusinessName());
         descriptionField.setValue(businessProfile.getBusinessDescription());
         businessType.setValue(businessProfile.getBusinessType());
@@ -265,7 +264,7 @@ public class BusinessProfileView extends VerticalLayout {
         businessProfile.setBusinessCity(city);
         businessProfile.setPhoneNumber(phone);
         businessProfile.setPersonInCharge(person);
-        businessProfile.setUser(userService.findUserById(sessionService.getLoggedInUserId()));
+        businessProfile.setUser(referenceDataCache.getUser());
         businessProfileService.addBusinessProfile(businessProfile);
         Notification.show("Business profile saved successfully");
         System.out.println("success");
@@ -1,28 +1,50 @@
 package org.vaadin.application.views;
 
 import com.helger.commons.annotation.OverrideOnDemand;
+import com.vaadin.flow.component.AttachEvent;
+import com.vaadin.flow.component.DetachEvent;
 import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.html.Div;
 import com.vaadin.flow.component.html.H2;
+import com.vaadin.flow.component.notification.Notification;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.virtuallist.VirtualList;
+import com.vaadin.flow.component.virtuallist.VirtualListListDataView;
+import com.vaadin.flow.data.renderer.LitRenderer;
 import com.vaadin.flow.router.Route;
+import com.vaadin.flow.server.Command;
+import com.vaadin.flow.server.StreamRegistration;
+import com.vaadin.flow.server.StreamResource;
 import com.vaadin.flow.server.VaadinSession;
+import com.vaadin.flow.shared.Registration;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import java.awt.Color;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.math.BigDecimal;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.font.PDType1Font;
 import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.Slice;
 import org.vaadin.application.MainLayout;
+import org.vaadin.application.config.ExecutorConfig;
+import org.vaadin.application.config.FlightEvents;
 import org.vaadin.application.model.Expense;
 import org.vaadin.application.model.ExpenseCategory;
 import org.vaadin.application.model.Income;
@@ -31,7 +53,8 @@ import org.vaadin.application.model.TransactionRecord;
 import org.vaadin.application.service.ExpenseCategoryService;
 import org.vaadin.application.service.ExpenseService;
 import org.vaadin.application.service.IncomeService;
-import org.vaadin.application.service.UserService;
+import org.vaadin.application.service.UserChangeBroadcaster;
+import org.vaadin.application.service.UserReferenceDataCache;
 
 /**
  * The DashboardView class represents the dashboard page of the application,
@@ -74,10 +97,42 @@ import org.vaadin.application.service.UserService;
 @Route(value = "dashboard", layout = MainLayout.class)
 public class DashboardView extends VerticalLayout {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(DashboardView.class);
+
+    /** Number of transactions fetched per page in the recent expense/income lists. */
+    static final int RECENT_PAGE_SIZE = 50;
+
+    private static final String RECENT_LIST_HEIGHT = "300px";
+
+    private static final String SUMMARY_FAILED = "The summary could not be generated, please try again.";
+
     private final transient ExpenseService expenseService;
     private final transient IncomeService incomeService;
     private final transient ExpenseCategoryService expenseCategoryService;
-    private final transient UserService userService;
+    private final transient UserReferenceDataCache referenceDataCache;
+    private final transient UserChangeBroadcaster changeBroadcaster;
+    private final transient Executor backgroundExecutor;
+    private final transient ObservationRegistry observationRegistry;
+
+    private final Long currentUserId;
+
+    private final H2 totalExpensesValue = new H2();
+    private final H2 totalIncomeValue = new H2();
+
+    private final VirtualList<Expense> expenseList = new VirtualList<>();
+    private final Button expenseLoadMoreButton = new Button("Load more");
+    private VirtualListListDataView<Expense> expenseDataView;
+    private int nextExpensePage;
+
+    private final VirtualList<Income> incomeList = new VirtualList<>();
+    private final Button incomeLoadMoreButton = new Button("Load more");
+    private VirtualListListDataView<Income> incomeDataView;
+    private int nextIncomePage;
+
+    private Registration changeRegistration;
+
+    /** The last summary generated in this view, served until it is replaced or the view is detached. */
+    private StreamRegistration summaryRegistration;
 
     /**
      * Constructs a new DashboardView and initializes the components and layout.
@@ -86,32 +141,32 @@ public class DashboardView extends VerticalLayout {
      * @param incomeService          the service used to manage income data
      * @param expenseCategoryService the service used to manage expense category
      *                               data
+     * @param referenceDataCache     the cache of the logged-in user's reference data
+     * @param changeBroadcaster      the broadcaster notifying the view of data
+     *                               changes made elsewhere
+     * @param backgroundExecutor     the executor on which summary reports are
+     *                               generated
+     * @param observationRegistry    the registry in which summary reports are
+     *                               observed, which traces and times them
      */
     public DashboardView(
             ExpenseService expenseService,
             IncomeService incomeService,
             ExpenseCategoryService expenseCategoryService,
-            UserService userService) {
+            UserReferenceDataCache referenceDataCache,
+            UserChangeBroadcaster changeBroadcaster,
+            @Qualifier(ExecutorConfig.BACKGROUND_EXECUTOR) Executor backgroundExecutor,
+            ObservationRegistry observationRegistry) {
         this.expenseService = expenseService;
         this.incomeService = incomeService;
         this.expenseCategoryService = expenseCategoryService;
-        this.userService = userService;
+        this.referenceDataCache = referenceDataCache;
+        this.changeBroadcaster = changeBroadcaster;
+        this.backgroundExecutor = backgroundExecutor;
+        this.observationRegistry = observationRegistry;
 
         addClassName("dashboard-view");
-        Long currentUserId = (Long) VaadinSession.getCurrent().getAttribute("userId");
-
-        // Fetch the total expenses and income for the current month
-        BigDecimal totalExpenses = expenseService.getTotalExpensesForCurrentMonth(currentUserId);
-        BigDecimal totalIncome = incomeService.getTotalIncomeForCurrentMonth(currentUserId);
-
-        // Handle null values by assigning a default value of BigDecimal.ZERO
-        if (totalExpenses == null) {
-            totalExpenses = BigDecimal.ZERO;
-        }
-
-        if (totalIncome == null) {
-            totalIncome = BigDecimal.ZERO;
-        }
+        currentUserId = (Long) VaadinSession.getCurrent().getAttribute("userId");
 
         // Dashboard title
         H2 dashboardTitle = new H2("Welcome to the Dashboard!");
@@ -125,8 +180,10 @@ public class DashboardView extends VerticalLayout {
         headerLayout.addClassName("dashboard-header");
 
         // Cards for Total Expenses and Total Income
-        Div totalExpensesCard = createDashboardCard("Total Expenses for this Month", totalExpenses.toString());
-        Div totalIncomeCard = createDashboardCard("Total Income for this Month", totalIncome.toString());
+        Div totalExpensesCard = createDashboardCard("Total Expenses for this Month", totalExpensesValue);
+        Div totalIncomeCard = createDashboardCard("Total Income for this Month", totalIncomeValue);
+        updateTotalExpenses();
+        updateTotalIncome();
 
         // Layout for cards
         HorizontalLayout statsLayout = new HorizontalLayout(totalExpensesCard, totalIncomeCard);
@@ -134,14 +191,14 @@ public class DashboardView extends VerticalLayout {
 
         // Create the category and expense lists
         VerticalLayout categoryLayout = createExpenseCategoryList(currentUserId);
-        VerticalLayout expenseLayout = createExpenseList(currentUserId);
+        VerticalLayout expenseLayout = createExpenseList();
 
         // In your DashboardView or another relevant view
         HorizontalLayout categoryAndExpenseLayout = new HorizontalLayout(categoryLayout, expenseLayout);
         categoryAndExpenseLayout.addClassName("category-expense-layout");
 
         // Create the income list
-        VerticalLayout incomeLayout = createIncomeList(currentUserId);
+        VerticalLayout incomeLayout = createIncomeList();
         incomeLayout.addClassName("income-full-row");
 
         // Add all components to the main layout
@@ -150,23 +207,82 @@ public class DashboardView extends VerticalLayout {
         // Additional dashboard components and features can be added here
     }
 
+    /**
+     * Starts listening for changes to the user's data once the view is attached.
+     *
+     * @param attachEvent the attach event
+     */
+    @Override
+    protected void onAttach(AttachEvent attachEvent) {
+        super.onAttach(attachEvent);
+        UI ui = attachEvent.getUI();
+        changeRegistration = changeBroadcaster.register(currentUserId,
+                changes -> ui.access(() -> applyChanges(changes)));
+    }
+
+    /**
+     * Stops listening for data changes so that detached views are not retained.
+     *
+     * @param detachEvent the detach event
+     */
+    @Override
+    protected void onDetach(DetachEvent detachEvent) {
+        releaseSummary();
+        if (changeRegistration != null) {
+            changeRegistration.remove();
+            changeRegistration = null;
+        }
+        super.onDetach(detachEvent);
+    }
+
+    /**
+     * Refreshes only the cards and lists affected by the given changes.
+     *
+     * @param changes the kinds of data that changed
+     */
+    private void applyChanges(Set<UserChangeBroadcaster.ChangeType> changes) {
+        if (changes.contains(UserChangeBroadcaster.ChangeType.EXPENSE)) {
+            updateTotalExpenses();
+            reloadExpenseList();
+        }
+        if (changes.contains(UserChangeBroadcaster.ChangeType.INCOME)) {
+            updateTotalIncome();
+            reloadIncomeList();
+        }
+    }
+
+    /**
+     * Updates the total expenses card with the total for the current month.
+     */
+    private void updateTotalExpenses() {
+        BigDecimal totalExpenses = expenseService.getTotalExpensesForCurrentMonth(currentUserId);
+        totalExpensesValue.setText("$" + (totalExpenses == null ? BigDecimal.ZERO : totalExpenses));
+    }
+
+    /**
+     * Updates the total income card with the total for the current month.
+     */
+    private void updateTotalIncome() {
+        BigDecimal totalIncome = incomeService.getTotalIncomeForCurrentMonth(currentUserId);
+        totalIncomeValue.setText("$" + (totalIncome == null ? BigDecimal.ZERO : totalIncome));
+    }
+
     /**
      * Creates a card displaying a title and a value. The card is used for
      * displaying total expenses
      * and total income in the dashboard.
      *
-     * @param title the title of the card
-     * @param value the value to be displayed in the card
+     * @param title     the title of the card
+     * @param cardValue the component holding the value displayed in the card
      * @return a Div containing the visual representation of the card
      */
-    Div createDashboardCard(String title, String value) {
+    Div createDashboardCard(String title, H2 cardValue) {
         Div card = new Div();
         card.addClassName("dashboard-card");
 
         H2 cardTitle = new H2(title);
         cardTitle.addClassName("card-title");
 
-        H2 cardValue = new H2("$" + value);
         cardValue.addClassName("card-value");
 
         card.add(cardTitle, cardValue);
@@ -185,7 +301,7 @@ public class DashboardView extends VerticalLayout {
      * @return a VerticalLayout containing the expense categories
      */
     VerticalLayout createExpenseCategoryList(Long userId) {
-        List<ExpenseCategory> categories = expenseCategoryService.getExpenseCategoriesByUserId(userId);
+        List<ExpenseCategory> categories = referenceDataCache.getExpenseCategories();
 
         // Title for the categories section
         H2 categoryTitle = new H2("Expense Categories");
@@ -217,160 +333,232 @@ public class DashboardView extends VerticalLayout {
     }
 
     /**
-     * Creates a layout that displays the users's expense in a list
+     * Creates a layout that displays the user's most recent expenses in a
+     * virtualized list.
      *
      * <p>
-     * the expense are retrvied based on the user ID, each expense is displayed with
-     * a border line
-     * and padding.
+     * Only the newest {@link #RECENT_PAGE_SIZE} expenses are fetched up front; a
+     * "Load more" button appends the next page. Rows are rendered client-side by a
+     * {@link LitRenderer}, so the number of server-side components does not grow
+     * with the number of expenses.
      *
-     * @param userId the ID of the user for whom the expenses are fetched
      * @return a VerticalLayout containing the expenses
      */
-    private VerticalLayout createExpenseList(Long userId) {
-        List<Expense> expenses = expenseService.getExpensesByUserId(userId);
-
+    private VerticalLayout createExpenseList() {
         // Title for the expenses section
         H2 expenseTitle = new H2("Expenses");
         expenseTitle.addClassName("expense-title");
 
-        VerticalLayout expenseLayout = new VerticalLayout();
-        expenseLayout.addClassName("expense-layout");
-
-        // Create a custom Div for each expense
-        for (Expense expense : expenses) {
-            Div expenseItem = new Div();
-            expenseItem.addClassName("expense-item");
-
-            // Create a span for the description
-            Div description = new Div();
-            description.setText(expense.getDescription());
-            description.addClassName("expense-description");
-
-            // Create a span for the amount
-            Div amount = new Div();
-            amount.setText("$" + expense.getAmount().toString());
-            amount.addClassName("expense-amount");
-
-            // Add the description and amount to the expense item
-            expenseItem.add(description, amount);
-
-            // Add the expense item to the layout
-            expenseLayout.add(expenseItem);
-        }
-
-        VerticalLayout mainLayout = new VerticalLayout(expenseTitle, expenseLayout);
+        expenseList.addClassName("expense-layout");
+        expenseList.setHeight(RECENT_LIST_HEIGHT);
+        expenseList.setRenderer(LitRenderer.<Expense>of(
+                "<div class=\"expense-item\">"
+                        + "<div class=\"expense-description\">${item.description}</div>"
+                        + "<div class=\"expense-amount\">$${item.amount}</div>"
+                        + "</div>")
+                .withProperty("description", Expense::getDescription)
+                .withProperty("amount", expense -> expense.getAmount().toString()));
+
+        expenseLoadMoreButton.addClickListener(event -> {
+            Slice<Expense> page = expenseService.getRecentExpensesByUserId(currentUserId, nextExpensePage++,
+                    RECENT_PAGE_SIZE);
+            expenseDataView.addItems(page.getContent());
+            expenseLoadMoreButton.setVisible(page.hasNext());
+        });
+        reloadExpenseList();
+
+        VerticalLayout mainLayout = new VerticalLayout(expenseTitle, expenseList, expenseLoadMoreButton);
         mainLayout.addClassName("expense-list-box");
         return mainLayout;
     }
 
     /**
-     * Creates a layout that displays the users's income in a list
-     *
-     * @param userId
-     * @return
+     * Resets the expense list to the first page of the most recent expenses.
      */
-    private VerticalLayout createIncomeList(Long userId) {
-        List<Income> incomes = incomeService.getIncomesByUserId(userId);
+    private void reloadExpenseList() {
+        Slice<Expense> firstPage = expenseService.getRecentExpensesByUserId(currentUserId, 0, RECENT_PAGE_SIZE);
+        expenseDataView = expenseList.setItems(new ArrayList<>(firstPage.getContent()));
+        expenseLoadMoreButton.setVisible(firstPage.hasNext());
+        nextExpensePage = 1;
+    }
 
+    /**
+     * Creates a layout that displays the user's most recent incomes in a
+     * virtualized list, paged in the same way as {@link #createExpenseList()}.
+     *
+     * @return a VerticalLayout containing the incomes
+     */
+    private VerticalLayout createIncomeList() {
         // Title for the incomes section
         H2 incomeTitle = new H2("Incomes");
         incomeTitle.addClassName("income-title");
 
-        VerticalLayout incomeLayout = new VerticalLayout();
-        incomeLayout.addClassName("income-layout");
+        incomeList.addClassName("income-layout");
+        incomeList.setHeight(RECENT_LIST_HEIGHT);
+        incomeList.setRenderer(LitRenderer.<Income>of(
+                "<div class=\"income-item\">"
+                        + "<div class=\"income-description\">${item.source}</div>"
+                        + "<div class=\"income-amount\">$${item.amount}</div>"
+                        + "</div>")
+                .withProperty("source", Income::getSource)
+                .withProperty("amount", income -> income.getAmount().toString()));
+
+        incomeLoadMoreButton.addClickListener(event -> {
+            Slice<Income> page = incomeService.getRecentIncomesByUserId(currentUserId, nextIncomePage++,
+                    RECENT_PAGE_SIZE);
+            incomeDataView.addItems(page.getContent());
+            incomeLoadMoreButton.setVisible(page.hasNext());
+        });
+        reloadIncomeList();
+
+        VerticalLayout mainLayout = new VerticalLayout(incomeTitle, incomeList, incomeLoadMoreButton);
+        mainLayout.addClassName("income-list-box");
+        return mainLayout;
+    }
 
-        // Create a custom Div for each income
-        for (Income income : incomes) {
-            Div incomeItem = new Div();
-            incomeItem.addClassName("income-item");
+    /**
+     * Resets the income list to the first page of the most recent incomes.
+     */
+    private void reloadIncomeList() {
+        Slice<Income> firstPage = incomeService.getRecentIncomesByUserId(currentUserId, 0, RECENT_PAGE_SIZE);
+        incomeDataView = incomeList.setItems(new ArrayList<>(firstPage.getContent()));
+        incomeLoadMoreButton.setVisible(firstPage.hasNext());
+        nextIncomePage = 1;
+    }
 
-            // Use the "source" field as the description
-            Div description = new Div();
-            description.setText(income.getSource());
-            description.addClassName("income-description");
+    /**
+     * Generates a PDF financial summary for the specified user on the background
+     * executor, so the session lock is not held while the data is loaded and the
+     * file is written, then opens it from the UI that requested it. The work is
+     * observed as {@code fintrack.pdf.render}, within the trace of the click. Any
+     * failure is logged and shown to the user.
+     *
+     * @param userId the ID of the user whose summary is generated
+     */
+    private void generateSummary(Long userId) {
+        String currentUserName = referenceDataCache.getUser().getName();
+        UI ui = UI.getCurrent();
+        try {
+            backgroundExecutor.execute(() -> {
+                byte[] pdf;
+                try {
+                    pdf = Observation.createNotStarted("fintrack.pdf.render", observationRegistry)
+                            .contextualName("pdf render")
+                            .highCardinalityKeyValue("fintrack.user.id", String.valueOf(userId))
+                            .observeChecked(() -> writeSummary(userId, currentUserName));
+                } catch (IOException | RuntimeException e) {
+                    LOGGER.error("Generating the summary of user {} failed", userId, e);
+                    accessIfAttached(ui, () -> Notification.show(SUMMARY_FAILED));
+                    return;
+                }
+                accessIfAttached(ui, () -> openSummary(ui, pdf));
+            });
+        } catch (RejectedExecutionException e) {
+            Notification.show("The summary could not be generated right now, please try again.");
+        }
+    }
 
-            // Create a span for the amount
-            Div amount = new Div();
-            amount.setText("$" + income.getAmount().toString());
-            amount.addClassName("income-amount");
+    /**
+     * Runs a command in a UI, unless the user has left it in the meantime.
+     *
+     * @param ui      the UI to update
+     * @param command the command to run while holding the session lock
+     */
+    private static void accessIfAttached(UI ui, Command command) {
+        try {
+            ui.access(command);
+        } catch (UIDetachedException e) {
+            LOGGER.debug("The UI was closed before the summary was ready", e);
+        }
+    }
 
-            // Add the description and amount to the income item
-            incomeItem.add(description, amount);
+    /**
+     * Serves a generated summary from the session of the given UI and opens it
+     * in a new tab. The previous summary of this view is released, so at most
+     * one is held per view.
+     *
+     * @param ui  the UI that requested the summary
+     * @param pdf the summary
+     */
+    private void openSummary(UI ui, byte[] pdf) {
+        releaseSummary();
+        String fileName = "summary-" + LocalDate.now() + ".pdf";
+        StreamResource resource = new StreamResource(fileName, () -> new ByteArrayInputStream(pdf));
+        resource.setContentType("application/pdf");
+        summaryRegistration = ui.getSession().getResourceRegistry().registerResource(resource);
+        ui.getPage().open(summaryRegistration.getResourceUri().toString(), "_blank");
+    }
 
-            // Add the income item to the layout
-            incomeLayout.add(incomeItem);
+    private void releaseSummary() {
+        if (summaryRegistration != null) {
+            summaryRegistration.unregister();
+            summaryRegistration = null;
         }
-
-        VerticalLayout mainLayout = new VerticalLayout(incomeTitle, incomeLayout);
-        mainLayout.addClassName("income-list-box");
-        return mainLayout;
     }
 
     /**
-     * Generates a PDF financial summary for the specified user
+     * Builds the PDF financial summary. Runs without holding the session lock.
      *
-     * @param userId
+     * @param userId          the ID of the user whose summary is generated
+     * @param currentUserName the name shown in the report header
+     * @return the PDF document
+     * @throws IOException if the document cannot be written
      */
-    private void generateSummary(Long userId) {
-        String currentUserName = userService.findUserById(userId).getName();
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd-MM-yyyy");
-
-        BigDecimal currentMonthTotalIncome = BigDecimal.ZERO;
-        BigDecimal pastSixMonthsTotalIncome = BigDecimal.ZERO;
-        BigDecimal pastTwelveMonthsTotalIncome = BigDecimal.ZERO;
-
-        BigDecimal currentMonthTotalExpense = expenseService.getTotalExpensesForCurrentMonth(userId);
-        BigDecimal pastSixMonthsTotalExpense = expenseService.getTotalExpensesForPreviousMonths(userId, 5);
-        BigDecimal pastTwelveMonthsTotalExpense = expenseService.getTotalExpensesForPreviousMonths(userId, 11);
-
-        List<Income> incomes = incomeService.getIncomesByUserId(userId);
-        List<Expense> expenses = expenseService.getExpensesByUserId(userId);
-
-        // Sorts transactions by dates to determine table row order
-        PriorityQueue<TransactionRecord> recordsQueue = new PriorityQueue<>(
-                (r1, r2) -> r2.getTransactionDate().compareTo(r1.getTransactionDate()));
-
-        for (Income income : incomes) {
-            java.sql.Date utilDate = (java.sql.Date) income.getDate();
-            LocalDate date = utilDate.toLocalDate();
-            while (date.isBefore(LocalDate.now().withDayOfMonth(1).plusMonths(1))) {
-                recordsQueue.add(
-                        new TransactionRecord(date, income.getAmount(), income.getSource(), "Income"));
-
-                if (date.isAfter(LocalDate.now().withDayOfMonth(1))) {
-                    pastTwelveMonthsTotalIncome = pastTwelveMonthsTotalIncome.add(income.getAmount());
-                    pastSixMonthsTotalIncome = pastSixMonthsTotalIncome.add(income.getAmount());
-                    currentMonthTotalIncome = currentMonthTotalIncome.add(income.getAmount());
-                } else if (date.isAfter(LocalDate.now().withDayOfMonth(1).minusMonths(5))) {
-                    pastSixMonthsTotalIncome = pastSixMonthsTotalIncome.add(income.getAmount());
-                    pastTwelveMonthsTotalIncome = pastTwelveMonthsTotalIncome.add(income.getAmount());
-                } else {
-                    pastTwelveMonthsTotalIncome = pastTwelveMonthsTotalIncome.add(income.getAmount());
-                }
-
-                // Calculates reoccuring incomes, database only stores one instance with the
-                // payment frequency.
-                if (income.getPaymentFrequency().equals("Weekly")) {
-                    date = date.plusWeeks(1);
-                } else if (income.getPaymentFrequency().equals("Biweekly")) {
-                    date = date.plusWeeks(2);
-                } else {
-                    date = date.plusMonths(1);
+    private byte[] writeSummary(Long userId, String currentUserName) throws IOException {
+        FlightEvents.PdfReport event = new FlightEvents.PdfReport();
+        event.begin();
+        int records = 0;
+        long bytes = 0;
+        boolean failed = true;
+        try {
+            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+
+            LocalDate startOfMonth = LocalDate.now().withDayOfMonth(1);
+            LocalDate endOfMonth = LocalDate.now().withDayOfMonth(LocalDate.now().lengthOfMonth());
+            BigDecimal currentMonthTotalIncome = incomeService.getRecurringIncomeBetween(userId, startOfMonth,
+                    endOfMonth);
+            BigDecimal pastSixMonthsTotalIncome = incomeService.getRecurringIncomeBetween(userId,
+                    startOfMonth.minusMonths(5), endOfMonth);
+            BigDecimal pastTwelveMonthsTotalIncome = incomeService.getRecurringIncomeBetween(userId,
+                    startOfMonth.minusMonths(11), endOfMonth);
+
+            BigDecimal currentMonthTotalExpense = expenseService.getTotalExpensesForCurrentMonth(userId);
+            BigDecimal pastSixMonthsTotalExpense = expenseService.getTotalExpensesForPreviousMonths(userId, 5);
+            BigDecimal pastTwelveMonthsTotalExpense = expenseService.getTotalExpensesForPreviousMonths(userId, 11);
+
+            List<Income> incomes = incomeService.getIncomesByUserId(userId);
+            List<Expense> expenses = expenseService.getExpensesByUserId(userId);
+
+            // Sorts transactions by dates to determine table row order
+            PriorityQueue<TransactionRecord> recordsQueue = new PriorityQueue<>(TransactionRecord.LATEST_FIRST);
+
+            for (Income income : incomes) {
+                LocalDate date = income.getDate();
+                for (int payment = 1; date.isBefore(startOfMonth.plusMonths(1)); payment++) {
+                    recordsQueue.add(
+                            new TransactionRecord(date, income.getAmount(), income.getSource(), "Income"));
+
+                    // Calculates reoccuring incomes, database only stores one instance with the
+                    // payment frequency. Monthly payments keep the day of the first one, as in
+                    // the income totals.
+                    if (income.getPaymentFrequency().equals("Weekly")) {
+                        date = income.getDate().plusWeeks(payment);
+                    } else if (income.getPaymentFrequency().equals("Biweekly")) {
+                        date = income.getDate().plusWeeks(2L * payment);
+                    } else {
+                        date = income.getDate().plusMonths(payment);
+                    }
                 }
             }
-        }
 
-        for (Expense expense : expenses) {
-            java.sql.Date utilDate = (java.sql.Date) expense.getDate();
-            LocalDate date = utilDate.toLocalDate();
-            if (date.isBefore(LocalDate.now().withDayOfMonth(1).plusMonths(1))) {
-                recordsQueue.add(
-                    new TransactionRecord(date, expense.getAmount(), expense.getDescription(), "Expense"));
+            for (Expense expense : expenses) {
+                LocalDate date = expense.getDate();
+                if (date.isBefore(LocalDate.now().withDayOfMonth(1).plusMonths(1))) {
+                    recordsQueue.add(
+                        new TransactionRecord(date, expense.getAmount(), expense.getDescription(), "Expense"));
+                }
             }
-        }
 
-        try {
             SummaryFile summaryFile = new SummaryFile();
 
             // Initializes Header Texts into string array as summaryfile.addLinesofText()
@@ -456,31 +644,27 @@ public class DashboardView extends VerticalLayout {
                     84f,
                     Color.BLACK);
 
+            records = recordsQueue.size();
             summaryFile.addRecords(recordsQueue);
 
             ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
             summaryFile.closeStream();
-            PDDocument finalFile = summaryFile.getDocument();
-            finalFile.save(outputStream);
-            finalFile.close();
-
-            Path path = Path.of("src/main/resources/static/summary.pdf");
-            Files.write(path, outputStream.toByteArray());
-            outputStream.close();
-            System.out.println("PDF generated: " + path.toAbsolutePath());
-
-            //Delay loading pdf file to account for file system delay. (Time taken for file to appear in folder).
-            getUI().ifPresent(ui -> ui.access(() -> {
-                ui.setPollInterval(1000);
-                ui.addPollListener(e -> 
-                    ui.access(() -> {
-                        ui.getPage().open("/summary.pdf", "_blank");
-                        ui.setPollInterval(-1);
-                    })
-                );
-            }));
-        } catch (IOException e) {
-            System.out.println(SummaryFile.PDF_FAIL_STRING + e.getMessage());
+            try (PDDocument finalFile = summaryFile.getDocument()) {
+                finalFile.save(outputStream);
+            }
+            bytes = outputStream.size();
+            failed = false;
+            LOGGER.debug("Generated the summary of user {}, {} bytes", userId, outputStream.size());
+            return outputStream.toByteArray();
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.userId = userId == null ? 0 : userId;
+                event.rows = records;
+                event.bytes = bytes;
+                event.failed = failed;
+                event.commit();
+            }
         }
     }
 }
@@ -14,7 +14,7 @@ import org.vaadin.application.MainLayout;
 import org.vaadin.application.model.ExpenseCategory;
 import org.vaadin.application.service.ExpenseCategoryService;
 import org.vaadin.application.service.SessionService;
-import org.vaadin.application.service.UserService;
+import org.vaadin.application.service.UserReferenceDataCache;
 
 /**
  * The ExpenseCategoryView class provides the user interface for managing
@@ -44,13 +44,13 @@ import org.vaadin.application.service.UserService;
  * for managing expense category data,
  * {@link org.vaadin.application.service.SessionService} for managing
  * session-related data,
- * and {@link org.vaadin.application.service.UserService} for retrieving user
- * information.
+ * and {@link org.vaadin.application.service.UserReferenceDataCache} for cached
+ * user reference data.
  * </p>
  * 
  * @see org.vaadin.application.service.ExpenseCategoryService
  * @see org.vaadin.application.service.SessionService
- * @see org.vaadin.application.service.UserService
+ * @see org.vaadin.application.service.UserReferenceDataCache
  */
 @Route(value = "category", layout = MainLayout.class)
 public class ExpenseCategoryView extends VerticalLayout {
@@ -60,7 +60,7 @@ public class ExpenseCategoryView extends VerticalLayout {
 
     private final transient ExpenseCategoryService expenseCategoryService;
     private final transient SessionService sessionService;
-    private final transient UserService userService;
+    private final transient UserReferenceDataCache referenceDataCache;
 
     /**
      * Constructs a new ExpenseCategoryView and initializes the components and
@@ -70,13 +70,13 @@ public class ExpenseCategoryView extends VerticalLayout {
      *                               data
      * @param sessionService         the service used to manage session-related
      *                               data, particularly the logged-in user
-     * @param userService            the service used to manage user data
+     * @param referenceDataCache     the cache of the logged-in user's reference data
      */
     public ExpenseCategoryView(ExpenseCategoryService expenseCategoryService, SessionService sessionService,
-            UserService userService) {
+            UserReferenceDataCache referenceDataCache) {
         this.expenseCategoryService = expenseCategoryService;
         this.sessionService = sessionService;
-        this.userService = userService;
+        this.referenceDataCache = referenceDataCache;
 
         configureGrid();
 
@@ -103,8 +103,7 @@ public class ExpenseCategoryView extends VerticalLayout {
      * Fetches and lists the expense categories for the currently logged-in user.
      */
     private void listCategories() {
-        Long userId = sessionService.getLoggedInUserId();
-        List<ExpenseCategory> categories = expenseCategoryService.getExpenseCategoriesByUserId(userId);
+        List<ExpenseCategory> categories = referenceDataCache.getExpenseCategories();
         grid.setItems(categories);
     }
 
@@ -127,7 +126,7 @@ public class ExpenseCategoryView extends VerticalLayout {
 
         ExpenseCategory category = new ExpenseCategory();
         category.setName(name);
-        category.setUser(userService.findUserById(sessionService.getLoggedInUserId()));
+        category.setUser(referenceDataCache.getUser());
 
         expenseCategoryService.addExpenseCategory(category);
         Notification.show("Category added successfully", 3000, Notification.Position.TOP_CENTER);
@@ -11,20 +11,28 @@ import com.vaadin.flow.component.notification.Notification;
 import com.vaadin.flow.component.orderedlayout.FlexComponent;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.textfield.BigDecimalField;
 import com.vaadin.flow.component.textfield.TextField;
+import com.vaadin.flow.data.value.ValueChangeMode;
 import com.vaadin.flow.router.Route;
+import com.vaadin.flow.spring.data.VaadinSpringDataHelpers;
 import java.math.BigDecimal;
-import java.sql.Date;
 import java.time.LocalDate;
 import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 
 import org.vaadin.application.MainLayout;
 import org.vaadin.application.model.Budget;
 import org.vaadin.application.model.Expense;
+import org.vaadin.application.model.ExpenseCategory;
+import org.vaadin.application.model.ExpenseCursor;
+import org.vaadin.application.model.ExpenseFilter;
 import org.vaadin.application.service.BudgetService;
 import org.vaadin.application.service.ExpenseService;
 import org.vaadin.application.service.SessionService;
-import org.vaadin.application.service.UserService;
+import org.vaadin.application.service.UserReferenceDataCache;
 
 import com.vaadin.flow.component.combobox.ComboBox;
 
@@ -37,6 +45,11 @@ import com.vaadin.flow.component.combobox.ComboBox;
  * budgets.
  * 
  * <p>
+ * The grid loads expenses lazily, one page at a time, from a database search
+ * narrowed by the filter bar above it.
+ * </p>
+ * 
+ * <p>
  * This class extends
  * {@link com.vaadin.flow.component.orderedlayout.VerticalLayout} to organize
  * the components vertically on the page. It includes a
@@ -62,14 +75,14 @@ import com.vaadin.flow.component.combobox.ComboBox;
  * data,
  * {@link org.vaadin.application.service.SessionService} for managing
  * session-related data, and
- * {@link org.vaadin.application.service.UserService} for retrieving user
- * information.
+ * {@link org.vaadin.application.service.UserReferenceDataCache} for cached
+ * user reference data.
  * </p>
  * 
  * @see org.vaadin.application.service.ExpenseService
  * @see org.vaadin.application.service.BudgetService
  * @see org.vaadin.application.service.SessionService
- * @see org.vaadin.application.service.UserService
+ * @see org.vaadin.application.service.UserReferenceDataCache
  */
 @Route(value = "expense", layout = MainLayout.class)
 public class ExpenseView extends VerticalLayout {
@@ -80,9 +93,23 @@ public class ExpenseView extends VerticalLayout {
     private final DatePicker datePicker = new DatePicker("Date");
     private final ComboBox<Budget> budgetComboBox = new ComboBox<>("Select Budget");
 
+    private final DatePicker fromFilter = new DatePicker("From");
+    private final DatePicker toFilter = new DatePicker("To");
+    private final BigDecimalField minAmountFilter = new BigDecimalField("Min Amount");
+    private final BigDecimalField maxAmountFilter = new BigDecimalField("Max Amount");
+    private final ComboBox<Budget> budgetFilter = new ComboBox<>("Budget");
+    private final ComboBox<ExpenseCategory> categoryFilter = new ComboBox<>("Category");
+    private final TextField textFilter = new TextField("Description starts with");
+    private final ExpenseFilter filter = new ExpenseFilter();
+
+    /** The last expense fetched into the grid, the offset of the row after it and the grid's sort order then. */
+    private ExpenseCursor cursor;
+    private int cursorOffset = -1;
+    private Sort cursorSort;
+
     private final transient ExpenseService expenseService;
     private final transient SessionService sessionService;
-    private final transient UserService userService;
+    private final transient UserReferenceDataCache referenceDataCache;
     private final transient BudgetService budgetService;
 
     private H2 totalExpensesValue;
@@ -95,18 +122,19 @@ public class ExpenseView extends VerticalLayout {
      * @param expenseService the service used to manage expense data
      * @param sessionService the service used to manage session-related data,
      *                       particularly the logged-in user
-     * @param userService    the service used to manage user data
+     * @param referenceDataCache the cache of the logged-in user's reference data
      * @param budgetService  the service used to manage budget data
      */
-    public ExpenseView(ExpenseService expenseService, SessionService sessionService, UserService userService,
+    public ExpenseView(ExpenseService expenseService, SessionService sessionService, UserReferenceDataCache referenceDataCache,
             BudgetService budgetService) {
         this.expenseService = expenseService;
         this.sessionService = sessionService;
-        this.userService = userService;
+        this.referenceDataCache = referenceDataCache;
         this.budgetService = budgetService;
 
         configureGrid();
         configureForm();
+        HorizontalLayout filterLayout = configureFilter();
 
         Button addButton = new Button("Add/Update Expense", event -> addOrUpdateExpense());
         Button deleteButton = new Button("Delete Expense", event -> deleteExpense());
@@ -122,7 +150,7 @@ public class ExpenseView extends VerticalLayout {
         H1 logo = new H1("Expenses");
 
         VerticalLayout mainLayout = new VerticalLayout();
-        mainLayout.add(logo, totalExpensesCard, formLayout, grid);
+        mainLayout.add(logo, totalExpensesCard, formLayout, filterLayout, grid);
         mainLayout.setSpacing(false);
 
         add(mainLayout);
@@ -165,25 +193,102 @@ public class ExpenseView extends VerticalLayout {
         datePicker.setPlaceholder("Select a date");
     }
 
+    /**
+     * Configures the filter bar that narrows the expenses shown in the grid. Every
+     * change reloads the grid from the first page; the description filter waits
+     * until the user pauses typing.
+     *
+     * @return the layout holding the filter fields
+     */
+    private HorizontalLayout configureFilter() {
+        fromFilter.addValueChangeListener(event -> {
+            filter.setFrom(event.getValue());
+            refreshExpenses();
+        });
+        toFilter.addValueChangeListener(event -> {
+            filter.setTo(event.getValue());
+            refreshExpenses();
+        });
+        minAmountFilter.addValueChangeListener(event -> {
+            filter.setMinAmount(event.getValue());
+            refreshExpenses();
+        });
+        maxAmountFilter.addValueChangeListener(event -> {
+            filter.setMaxAmount(event.getValue());
+            refreshExpenses();
+        });
+
+        budgetFilter.setItems(referenceDataCache.getBudgets());
+        budgetFilter.setItemLabelGenerator(Budget::getName);
+        budgetFilter.setClearButtonVisible(true);
+        budgetFilter.addValueChangeListener(event -> {
+            filter.setBudgetId(event.getValue() != null ? event.getValue().getId() : null);
+            refreshExpenses();
+        });
+
+        categoryFilter.setItems(referenceDataCache.getExpenseCategories());
+        categoryFilter.setItemLabelGenerator(ExpenseCategory::getName);
+        categoryFilter.setClearButtonVisible(true);
+        categoryFilter.addValueChangeListener(event -> {
+            filter.setCategoryId(event.getValue() != null ? event.getValue().getId() : null);
+            refreshExpenses();
+        });
+
+        textFilter.setValueChangeMode(ValueChangeMode.LAZY);
+        textFilter.setClearButtonVisible(true);
+        textFilter.addValueChangeListener(event -> {
+            filter.setText(event.getValue());
+            refreshExpenses();
+        });
+
+        HorizontalLayout filterLayout = new HorizontalLayout(fromFilter, toFilter, minAmountFilter, maxAmountFilter,
+                budgetFilter, categoryFilter, textFilter);
+        filterLayout.setWidthFull();
+        filterLayout.setDefaultVerticalComponentAlignment(FlexComponent.Alignment.END);
+        return filterLayout;
+    }
+
     /**
      * Fetches and lists the budgets available to the logged-in user in the
      * ComboBox.
      */
     private void listBudgets() {
-        Long userId = sessionService.getLoggedInUserId();
-        List<Budget> budgets = budgetService.getBudgetsByUserId(userId);
+        List<Budget> budgets = referenceDataCache.getBudgets();
         budgetComboBox.setItems(budgets);
         budgetComboBox.setItemLabelGenerator(Budget::getName);
     }
 
     /**
-     * Fetches and lists the expenses for the currently logged-in user in the grid.
+     * Lists the expenses of the currently logged-in user that match the filter in
+     * the grid. Pages are fetched from the database as the user scrolls; a page
+     * that follows the previously fetched one continues from its last expense,
+     * so scrolling deep into the list does not make the database skip all the
+     * rows before it.
      */
-
     private void listExpenses() {
         Long userId = sessionService.getLoggedInUserId();
-        List<Expense> expenses = expenseService.getExpensesByUserId(userId);
-        grid.setItems(expenses);
+        cursorOffset = -1;
+        grid.setItems(query -> {
+            Pageable pageable = VaadinSpringDataHelpers.toSpringPageRequest(query);
+            ExpenseCursor after = query.getOffset() > 0 && query.getOffset() == cursorOffset
+                    && pageable.getSort().equals(cursorSort) ? cursor : null;
+            Slice<Expense> page = expenseService.searchExpenses(userId, filter, pageable, after);
+            if (page.hasContent()) {
+                cursorOffset = query.getOffset() + page.getNumberOfElements();
+                cursorSort = pageable.getSort();
+                cursor = ExpenseCursor.after(page.getContent().get(page.getNumberOfElements() - 1));
+            }
+            return page.stream();
+        });
+    }
+
+    /**
+     * Reloads the grid after the filter changed. The cursor of the last
+     * fetched page belongs to the previous filter and is dropped.
+     */
+    private void refreshExpenses() {
+        cursorOffset = -1;
+        grid.getDataProvider().refreshAll();
     }
 
     /**
@@ -228,8 +333,8 @@ public class ExpenseView extends VerticalLayout {
         Expense expense = new Expense();
         expense.setDescription(description);
         expense.setAmount(amount);
-        expense.setDate(date != null ? java.sql.Date.valueOf(date) : null);
-        expense.setUser(userService.findUserById(sessionService.getLoggedInUserId()));
+        expense.setDate(date);
+        expense.setUser(referenceDataCache.getUser());
         expense.setBudget(selectedBudget);
 
         expenseService.addExpense(expense);
@@ -260,7 +365,7 @@ public class ExpenseView extends VerticalLayout {
             Budget selectedBudget) {
         expense.setDescription(description);
         expense.setAmount(amount);
-        expense.setDate(date != null ? java.sql.Date.valueOf(date) : null);
+        expense.setDate(date);
         expense.setBudget(selectedBudget);
 
         expenseService.updateExpense(expense);
@@ -287,7 +392,7 @@ public class ExpenseView extends VerticalLayout {
 
         descriptionField.setValue(expense.getDescription());
         amountField.setValue(expense.getAmount().toString());
-        datePicker.setValue(((Date) expense.getDate()).toLocalDate());
+        datePicker.setValue(expense.getDate());
         budgetComboBox.setValue(expense.getBudget());
     }
 
@@ -357,10 +462,7 @@ public class ExpenseView extends VerticalLayout {
      */
     private void updateTotalExpenses() {
         Long userId = sessionService.getLoggedInUserId();
-        List<Expense> expenses = expenseService.getExpensesByUserId(userId);
-        BigDecimal totalExpenses = expenses.stream()
-                .map(Expense::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal totalExpenses = expenseService.getTotalExpenses(userId);
 
         totalExpensesValue.setText("$ " + totalExpenses.toString());
     }
@@ -24,7 +24,7 @@ import org.vaadin.application.MainLayout;
 import org.vaadin.application.model.FinancialGoal;
 import org.vaadin.application.service.FinancialGoalService;
 import org.vaadin.application.service.SessionService;
-import org.vaadin.application.service.UserService;
+import org.vaadin.application.service.UserReferenceDataCache;
 
 /**
  * The FinancialGoalView class provides the user interface for managing
@@ -58,13 +58,13 @@ import org.vaadin.application.service.UserService;
  * for managing financial goal data,
  * {@link org.vaadin.application.service.SessionService} for managing
  * session-related data,
- * and {@link org.vaadin.application.service.UserService} for retrieving user
- * information.
+ * and {@link org.vaadin.application.service.UserReferenceDataCache} for cached
+ * user reference data.
  * </p>
  * 
  * @see org.vaadin.application.service.FinancialGoalService
  * @see org.vaadin.application.service.SessionService
- * @see org.vaadin.application.service.UserService
+ * @see org.vaadin.application.service.UserReferenceDataCache
  */
 
 @Route(value = "goal", layout = MainLayout.class)
@@ -77,7 +77,7 @@ public class FinancialGoalView extends VerticalLayout {
 
     private final transient FinancialGoalService financialGoalService;
     private final transient SessionService sessionService;
-    private final transient UserService userService;
+    private final transient UserReferenceDataCache referenceDataCache;
 
     /**
      * Constructs a new FinancialGoalView and initializes the components and layout.
@@ -85,13 +85,13 @@ public class FinancialGoalView extends VerticalLayout {
      * @param financialGoalService the service used to manage financial goal data
      * @param sessionService       the service used to manage session-related data,
      *                             particularly the logged-in user
-     * @param userService          the service used to manage user data
+     * @param referenceDataCache   the cache of the logged-in user's reference data
      */
     public FinancialGoalView(FinancialGoalService financialGoalService, SessionService sessionService,
-            UserService userService) {
+            UserReferenceDataCache referenceDataCache) {
         this.financialGoalService = financialGoalService;
         this.sessionService = sessionService;
-        this.userService = userService;
+        this.referenceDataCache = referenceDataCache;
 
         configureLayout();
         createLayout();
@@ -395,7 +395,7 @@ public class FinancialGoalView extends VerticalLayout {
         goal.setDescription(description);
         goal.setTargetAmount(targetAmount);
         goal.setSavedAmount(savedAmount);
-        goal.setUser(userService.findUserById(sessionService.getLoggedInUserId()));
+        goal.setUser(referenceDataCache.getUser());
 
         financialGoalService.addFinancialGoal(goal);
         Notification.show("Goal added successfully", 3000, Notification.Position.TOP_CENTER);
@@ -16,7 +16,6 @@ import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.router.Route;
 import java.math.BigDecimal;
-import java.sql.Date;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
@@ -28,7 +27,7 @@ import org.vaadin.application.model.Note;
 import org.vaadin.application.service.IncomeService;
 import org.vaadin.application.service.NoteService;
 import org.vaadin.application.service.SessionService;
-import org.vaadin.application.service.UserService;
+import org.vaadin.application.service.UserReferenceDataCache;
 
 /**
  * The IncomeView class provides the user interface for managing income entries
@@ -62,14 +61,14 @@ import org.vaadin.application.service.UserService;
  * for managing notes,
  * {@link org.vaadin.application.service.SessionService} for managing
  * session-related data, and
- * {@link org.vaadin.application.service.UserService} for retrieving user
- * information.
+ * {@link org.vaadin.application.service.UserReferenceDataCache} for cached
+ * user reference data.
  * </p>
  * 
  * @see org.vaadin.application.service.IncomeService
  * @see org.vaadin.application.service.NoteService
  * @see org.vaadin.application.service.SessionService
- * @see org.vaadin.application.service.UserService
+ * @see org.vaadin.application.service.UserReferenceDataCache
  */
 @Route(value = "income", layout = MainLayout.class)
 public class IncomeView extends VerticalLayout {
@@ -83,7 +82,7 @@ public class IncomeView extends VerticalLayout {
     private final transient IncomeService incomeService;
     private final transient NoteService noteService;
     private final transient SessionService sessionService;
-    private final transient UserService userService;
+    private final transient UserReferenceDataCache referenceDataCache;
 
     private H2 cardValue;
     private Div totalIncomeCard;
@@ -99,17 +98,17 @@ public class IncomeView extends VerticalLayout {
      * @param noteService    the service used to manage notes
      * @param sessionService the service used to manage session-related data,
      *                       particularly the logged-in user
-     * @param userService    the service used to manage user data
+     * @param referenceDataCache the cache of the logged-in user's reference data
      */
     public IncomeView(
             IncomeService incomeService,
             NoteService noteService,
             SessionService sessionService,
-            UserService userService) {
+            UserReferenceDataCache referenceDataCache) {
         this.incomeService = incomeService;
         this.noteService = noteService;
         this.sessionService = sessionService;
-        this.userService = userService;
+        this.referenceDataCache = referenceDataCache;
 
         configureGrid();
         configureForm();
@@ -265,9 +264,9 @@ public class IncomeView extends VerticalLayout {
         Income income = new Income();
         income.setSource(source);
         income.setAmount(amount);
-        income.setDate(java.sql.Date.valueOf(date)); // Convert LocalDate to java.sql.Date
+        income.setDate(date);
         income.setPaymentFrequency(paymentFrequency);
-        income.setUser(userService.findUserById(sessionService.getLoggedInUserId()));
+        income.setUser(referenceDataCache.getUser());
 
         incomeService.addIncome(income);
         Notification.show("Income added successfully");
@@ -291,7 +290,7 @@ public class IncomeView extends VerticalLayout {
         if (selectedIncome != null) {
             selectedIncome.setSource(source);
             selectedIncome.setAmount(amount);
-            selectedIncome.setDate(java.sql.Date.valueOf(date));
+            selectedIncome.setDate(date);
             selectedIncome.setPaymentFrequency(paymentFrequency);
 
             incomeService.updateIncome(selectedIncome);
@@ -313,7 +312,7 @@ public class IncomeView extends VerticalLayout {
 
         sourceField.setValue(income.getSource());
         amountField.setValue(income.getAmount().toString());
-        datePicker.setValue(((Date) income.getDate()).toLocalDate());
+        datePicker.setValue(income.getDate());
         frequencyField.setValue(income.getPaymentFrequency());
     }
 
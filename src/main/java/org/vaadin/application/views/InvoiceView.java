@@ -17,10 +17,9 @@ import org.vaadin.application.MainLayout;
 import org.vaadin.application.model.Invoice;
 import org.vaadin.application.service.InvoiceService;
 import org.vaadin.application.service.SessionService;
-import org.vaadin.application.service.UserService;
+import org.vaadin.application.service.UserReferenceDataCache;
 
 import java.time.LocalDate;
-import java.time.ZoneId;
 import java.util.List;
 import java.util.UUID;
 
@@ -51,21 +50,21 @@ import java.util.UUID;
  * for managing invoice data,
  * {@link org.vaadin.application.service.SessionService} for managing
  * session-related data, and
- * {@link org.vaadin.application.service.UserService} for retrieving user
- * information.
+ * {@link org.vaadin.application.service.UserReferenceDataCache} for cached
+ * user reference data.
  * </p>
  * 
  * @see org.vaadin.application.service.ExpenseService
  * @see org.vaadin.application.service.BudgetService
  * @see org.vaadin.application.service.SessionService
- * @see org.vaadin.application.service.UserService
+ * @see org.vaadin.application.service.UserReferenceDataCache
  */
 @Route(value = "invoice", layout = MainLayout.class)
 public class InvoiceView extends VerticalLayout {
 
     private InvoiceService invoiceService;
     private SessionService sessionService;
-    private UserService userService;
+    private UserReferenceDataCache referenceDataCache;
     private Grid<Invoice> invoiceGrid = new Grid<>(Invoice.class);
     private Invoice selectedInvoice = null; // To track the selected invoice
     private UUID selectedInvoiceId = null;
@@ -75,13 +74,13 @@ public class InvoiceView extends VerticalLayout {
      * 
      * @param invoiceService  Service to manage invoice data.
      * @param sessionService  Service to manage session and user information.
-     * @param userService     Service to manage user data.
+     * @param referenceDataCache the cache of the logged-in user's reference data
      */
     @Autowired
-    public InvoiceView(InvoiceService invoiceService, SessionService sessionService, UserService userService) {
+    public InvoiceView(InvoiceService invoiceService, SessionService sessionService, UserReferenceDataCache referenceDataCache) {
         this.invoiceService = invoiceService;
         this.sessionService = sessionService;
-        this.userService = userService;
+        this.referenceDataCache = referenceDataCache;
 
         H1 logo = new H1("Invoices");
 
@@ -118,11 +117,11 @@ public class InvoiceView extends VerticalLayout {
                 newInvoice.setInvoiceNumber("1");
                 newInvoice.setRecipientName(name);
                 newInvoice.setAmount(amount);
-                newInvoice.setIssueDate(java.sql.Date.valueOf(issue));
-                newInvoice.setDueDate(java.sql.Date.valueOf(due));
+                newInvoice.setIssueDate(issue);
+                newInvoice.setDueDate(due);
                 newInvoice.setDescription(desc);
                 newInvoice.setStatus(stat);
-                newInvoice.setUser(userService.findUserById(sessionService.getLoggedInUserId()));
+                newInvoice.setUser(referenceDataCache.getUser());
 
                 invoiceService.addInvoice(newInvoice);
                 Notification.show("Invoice saved for: " + name + ", Amount: " + amount);
@@ -130,8 +129,8 @@ public class InvoiceView extends VerticalLayout {
                 // Update existing invoice
                 selectedInvoice.setRecipientName(name);
                 selectedInvoice.setAmount(amount);
-                selectedInvoice.setIssueDate(java.sql.Date.valueOf(issue));
-                selectedInvoice.setDueDate(java.sql.Date.valueOf(due));
+                selectedInvoice.setIssueDate(issue);
+                selectedInvoice.setDueDate(due);
                 selectedInvoice.setDescription(desc);
                 selectedInvoice.setStatus(stat);
                 invoiceService.updateInvoice(selectedInvoiceId, selectedInvoice);
@@ -180,8 +179,8 @@ public class InvoiceView extends VerticalLayout {
             if (selectedInvoice != null) {
                 recipientName.setValue(selectedInvoice.getRecipientName());
                 amountPayable.setValue(selectedInvoice.getAmount());
-                issueDate.setValue(selectedInvoice.getIssueDate().toInstant().atZone(ZoneId.systemDefault()).toLocalDate());
-                dueDate.setValue(selectedInvoice.getDueDate().toInstant().atZone(ZoneId.systemDefault()).toLocalDate());
+                issueDate.setValue(selectedInvoice.getIssueDate());
+                dueDate.setValue(selectedInvoice.getDueDate());
                 description.setValue(selectedInvoice.getDescription());
                 status.setValue(selectedInvoice.getStatus());
                 this.selectedInvoiceId = selectedInvoice.getId();
@@ -1,16 +1,20 @@
 package org.vaadin.application.views;
 
+import com.vaadin.flow.component.AttachEvent;
+import com.vaadin.flow.component.DetachEvent;
+import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.combobox.ComboBox;
 import com.vaadin.flow.component.html.Div;
 import com.vaadin.flow.component.html.H1;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.router.Route;
+import com.vaadin.flow.shared.Registration;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.security.SecureRandom;
 import java.time.LocalDate;
 import java.time.Month;
+import java.time.YearMonth;
 import java.util.*;
 import org.vaadin.addons.chartjs.ChartJs;
 import org.vaadin.addons.chartjs.config.BarChartConfig;
@@ -23,21 +27,28 @@ import org.vaadin.addons.chartjs.options.scale.Axis;
 import org.vaadin.addons.chartjs.options.scale.CategoryScale;
 import org.vaadin.addons.chartjs.options.scale.LinearScale;
 import org.vaadin.application.MainLayout;
+import org.vaadin.application.config.FlightEvents;
+import org.vaadin.application.model.MonthlySeries;
 import org.vaadin.application.service.ExpenseService;
 import org.vaadin.application.service.IncomeService;
 import org.vaadin.application.service.SessionService;
+import org.vaadin.application.service.UserChangeBroadcaster;
 
 @Route(value = "netCashflowForecast", layout = MainLayout.class)
 public class NetCashflowForecastView extends VerticalLayout {
+    private static final int FORECAST_MONTHS = 12;
     private final transient  ExpenseService expenseService;
     private final transient  SessionService sessionService;
     private final transient  IncomeService incomeService;
+    private final transient  UserChangeBroadcaster changeBroadcaster;
+    private Registration changeRegistration;
     private ChartJs expenseChart;
     private BarChartConfig expenseConfig;
     private ChartJs cashflowChart;
     private LineChartConfig cashflowConfig;
     private int previousMonths = 3;
-    private Map<Month, BigDecimal> predictedCashflows;
+    private MonthlySeries predictedExpenses;
+    private MonthlySeries predictedCashflows;
     private String[] labels;
     private String rgbaFullOpcity;
     private String rgbaLowOpacity;
@@ -50,13 +61,17 @@ public class NetCashflowForecastView extends VerticalLayout {
    *     logged-in user
    * @param userService the service used to manage user data
    * @param incomeService the service used to manage income data
+   * @param changeBroadcaster the broadcaster notifying the view of data changes made elsewhere
    */
   public NetCashflowForecastView(
-      ExpenseService expenseService, SessionService sessionService, IncomeService incomeService) {
+      ExpenseService expenseService, SessionService sessionService, IncomeService incomeService,
+      UserChangeBroadcaster changeBroadcaster) {
         this.expenseService = expenseService;
         this.sessionService = sessionService;
         this.incomeService = incomeService;
-        this.predictedCashflows = new LinkedHashMap<>();
+        this.changeBroadcaster = changeBroadcaster;
+        this.predictedExpenses = new MonthlySeries(YearMonth.now().plusMonths(1), FORECAST_MONTHS);
+        this.predictedCashflows = new MonthlySeries(YearMonth.now().plusMonths(1), FORECAST_MONTHS);
 
         configureLabels();
         configureExpenseChart();
@@ -88,6 +103,48 @@ public class NetCashflowForecastView extends VerticalLayout {
         add(chartLayout);
     }
 
+  /**
+   * Starts listening for changes to the user's data once the view is attached.
+   *
+   * @param attachEvent the attach event
+   */
+  @Override
+  protected void onAttach(AttachEvent attachEvent) {
+    super.onAttach(attachEvent);
+    UI ui = attachEvent.getUI();
+    changeRegistration = changeBroadcaster.register(sessionService.getLoggedInUserId(),
+        changes -> ui.access(() -> applyChanges(changes)));
+  }
+
+  /**
+   * Stops listening for data changes so that detached views are not retained.
+   *
+   * @param detachEvent the detach event
+   */
+  @Override
+  protected void onDetach(DetachEvent detachEvent) {
+    if (changeRegistration != null) {
+      changeRegistration.remove();
+      changeRegistration = null;
+    }
+    super.onDetach(detachEvent);
+  }
+
+  /**
+   * Recomputes only the charts affected by the given changes. Expense changes
+   * affect both charts, income changes only the net cashflow chart.
+   *
+   * @param changes the kinds of data that changed
+   */
+  private void applyChanges(Set<UserChangeBroadcaster.ChangeType> changes) {
+    if (changes.contains(UserChangeBroadcaster.ChangeType.EXPENSE)) {
+      updateExpenseChart();
+      updateCashflowChart();
+    } else if (changes.contains(UserChangeBroadcaster.ChangeType.INCOME)) {
+      updateCashflowChart();
+    }
+  }
+
 
     /**
      * Creates a custom Div that holds chart objects
@@ -199,19 +256,18 @@ public class NetCashflowForecastView extends VerticalLayout {
     List<String> budgets = expenseService.getAllDistinctBudgets(userId);
     expenseConfig.data().labels(labels);
 
+    MonthlySeries totalPredictedExpenses = new MonthlySeries(YearMonth.now().plusMonths(1), FORECAST_MONTHS);
     for (int i = 0; i < budgets.size(); i++) {
-        Map<Month, BigDecimal> predictedBudgetExpenses = predictMonthlyExpensesBudget(previousMonths, budgets.get(i)); 
-        if (predictedBudgetExpenses != null && !predictedBudgetExpenses.isEmpty()) {
-          expenseConfig.data().addDataset(createBarDataset(predictedBudgetExpenses, budgets.get(i)));
-        }
+        MonthlySeries predictedBudgetExpenses = predictMonthlyExpensesBudget(previousMonths, budgets.get(i));
+        expenseConfig.data().addDataset(createBarDataset(predictedBudgetExpenses, budgets.get(i)));
+        totalPredictedExpenses.add(predictedBudgetExpenses);
     }
 
     // Expenses with no budgets
-    Map<Month, BigDecimal> predictedNoBudgetExpenses =
-        predictMonthlyExpensesBudget(previousMonths, "no-budget");
-    if (predictedNoBudgetExpenses != null && !predictedNoBudgetExpenses.isEmpty()) {
+    MonthlySeries predictedNoBudgetExpenses = predictMonthlyExpensesBudget(previousMonths, "no-budget");
     expenseConfig.data().addDataset(createBarDataset(predictedNoBudgetExpenses, "No Budget"));
-    }    
+    totalPredictedExpenses.add(predictedNoBudgetExpenses);
+    predictedExpenses = totalPredictedExpenses;
 
     expenseChart.update();
 
@@ -222,8 +278,7 @@ public class NetCashflowForecastView extends VerticalLayout {
 
     predictNetCashflow();
 
-    Double[] data =
-        predictedCashflows.values().stream().map(value -> value != null ? value.setScale(2, RoundingMode.HALF_UP).doubleValue() : 0.0).toArray(Double[]::new);
+    Double[] data = toChartData(predictedCashflows);
 
     cashflowConfig.data().labels(labels);
 
@@ -243,20 +298,27 @@ public class NetCashflowForecastView extends VerticalLayout {
 
   /**
    * Creates a Vaadin Addon Chartjs BarDataset 
-   * @param map holds data that will be added to the bar dataset
+   * @param series holds the monthly data that will be added to the bar dataset
    * @param label the label for the data
    * @return BarDataset
    */
-  private BarDataset createBarDataset(Map<Month, BigDecimal> map, String label) {
-    Double[] data =map.values().stream().map(value -> value != null ? value.setScale(2, RoundingMode.HALF_UP).doubleValue() : 0.0).toArray(Double[]::new);
-
+  private BarDataset createBarDataset(MonthlySeries series, String label) {
     return new BarDataset()
         .type()
         .label(label)
         .backgroundColor(generateRgbaColour())
         .borderColor("white")
         .borderWidth(2)
-        .data(data);
+        .data(toChartData(series));
+  }
+
+  /**
+   * Converts a monthly series to the values of a chart dataset
+   * @param series the monthly amounts
+   * @return the amount of each month
+   */
+  private Double[] toChartData(MonthlySeries series) {
+    return Arrays.stream(series.toDoubleArray()).boxed().toArray(Double[]::new);
   }
 
   /**
@@ -266,47 +328,19 @@ public class NetCashflowForecastView extends VerticalLayout {
   private void predictNetCashflow() {
     Long userId = sessionService.getLoggedInUserId();
     BigDecimal totalIncomePerMonth = incomeService.getTotalIncomeAllMonths(userId);
-    Map<Month, BigDecimal> predictedTotalExpenses = getTotalPredictedExpenses();
-    
-    if (totalIncomePerMonth.equals(BigDecimal.ZERO)) {
-        for (Map.Entry<Month, BigDecimal> entry : predictedTotalExpenses.entrySet()) {
-            predictedTotalExpenses.put(entry.getKey(), BigDecimal.ZERO);
-        }
-        predictedCashflows = predictedTotalExpenses;
-        return;
-    }
+    MonthlySeries cashflows = new MonthlySeries(predictedExpenses.getStart(), predictedExpenses.size());
 
-    for (Map.Entry<Month, BigDecimal> entry : predictedTotalExpenses.entrySet()) {
-        BigDecimal predictedNetCashflow = totalIncomePerMonth.subtract(entry.getValue());
-        predictedTotalExpenses.put(entry.getKey(), predictedNetCashflow);
+    if (totalIncomePerMonth.signum() != 0) {
+        cashflows.fill(MonthlySeries.toCents(totalIncomePerMonth)).subtract(predictedExpenses);
     }
 
-    predictedCashflows = predictedTotalExpenses;
-}
-
-/**
- * Calculates the total expenses per month (since they are seperated by budget type)
- * @return a map of months and their total expenses
- */
-private Map<Month, BigDecimal> getTotalPredictedExpenses() {
-    Map<Month, BigDecimal> totalPredictedExpense = new LinkedHashMap<>();
-    for (Dataset<?, ?> ds : expenseConfig.data().getDatasets()) {
-        if (ds instanceof BarDataset) {
-            BarDataset dataset = (BarDataset) ds;
-            for (int i = 0; i < 12; i++) {
-                Month futureMonth = LocalDate.now().plusMonths(i + (long) 1).getMonth();
-                List<Double> data = dataset.getData();
-                totalPredictedExpense.put(futureMonth, totalPredictedExpense.getOrDefault(futureMonth, BigDecimal.ZERO).add(BigDecimal.valueOf(data.get(i))));
-            }    
-        }
-    }
-    return totalPredictedExpense;
+    predictedCashflows = cashflows;
 }
 
   /** Configures an array of labels representing the next 12 months. */
   private void configureLabels() {
-    String[] labelsNew = new String[12];
-    for (int i = 1; i <= 12; i++) {
+    String[] labelsNew = new String[FORECAST_MONTHS];
+    for (int i = 1; i <= FORECAST_MONTHS; i++) {
       Month futureMonth = LocalDate.now().plusMonths(i).getMonth();
         labelsNew[i - 1] = futureMonth.toString();
     }
@@ -315,102 +349,80 @@ private Map<Month, BigDecimal> getTotalPredictedExpenses() {
 
   /**
    * Calculates and predicts the user's expenses for the next 12 months (assuming a linear trend)
-   * based on the expenses of the last `previousMonths`.
+   * based on the expenses of the last `previousMonths` and the current month.
    *
    * @param previousMonths the number of months that the predicted expenses should be based on
-   * @return
+   * @param budgetName the budget whose expenses are predicted, or "no-budget"
+   * @return the predicted expenses of each of the next 12 months
    */
-  private Map<Month, BigDecimal> predictMonthlyExpensesBudget(int previousMonths, String budgetName) {
-    Map<Month, BigDecimal> monthlyExpenses = new EnumMap<>(Month.class);
+  private MonthlySeries predictMonthlyExpensesBudget(int previousMonths, String budgetName) {
     Long userId = sessionService.getLoggedInUserId();
-
-    Map<Month, BigDecimal> monthlyPastExpensesBudget =
-        expenseService.getExpensesForPreviousMonths(userId, previousMonths, budgetName);
-
-
-    if (monthlyPastExpensesBudget != null && !monthlyPastExpensesBudget.isEmpty()) {
-      
-      // Convert the map entries to a list and sort by month
-      List<Map.Entry<Month, BigDecimal>> sortedEntries =
-          new ArrayList<>(monthlyPastExpensesBudget.entrySet());
-      sortedEntries.sort(Comparator.comparing(Map.Entry::getKey));
-
-      List<BigDecimal> expensesList = new ArrayList<>();
-      for (Map.Entry<Month, BigDecimal> entry : sortedEntries) {
-        expensesList.add(entry.getValue());
+    FlightEvents.Forecast event = new FlightEvents.Forecast();
+    event.begin();
+    MonthlySeries monthlyPastExpensesBudget = null;
+    MonthlySeries predicted = null;
+    try {
+      monthlyPastExpensesBudget =
+          expenseService.getExpensesForPreviousMonths(userId, previousMonths, budgetName);
+      predicted = forecast(monthlyPastExpensesBudget, FORECAST_MONTHS);
+      return predicted;
+    } finally {
+      event.end();
+      if (event.shouldCommit()) {
+        event.userId = userId == null ? 0 : userId;
+        event.budget = budgetName;
+        event.rows = monthlyPastExpensesBudget == null ? 0 : monthlyPastExpensesBudget.size();
+        event.months = predicted == null ? 0 : predicted.size();
+        event.failed = predicted == null;
+        event.commit();
       }
+    }
+  }
 
-      BigDecimal sum = expensesList.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
-      BigDecimal averageExpense = sum.divide(new BigDecimal(expensesList.size()),  RoundingMode.HALF_UP);
-
-      List<BigDecimal> changes = calculateChangesForConsecutiveMonths(expensesList);
-
-      BigDecimal totalChange = changes.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
-      BigDecimal averageChange = totalChange.divide(changes.isEmpty() ? BigDecimal.ONE : new BigDecimal(changes.size()) , RoundingMode.HALF_EVEN);
-     
-      for (int i = 1; i <= 12; i++) {
-        Month futureMonth = LocalDate.now().plusMonths(i).getMonth();
-        BigDecimal predictedMonthExpense = averageExpense.add((averageChange.multiply(new BigDecimal(i))));
-
-        monthlyExpenses.put(futureMonth, predictedMonthExpense.compareTo(BigDecimal.ZERO) < 0 ? BigDecimal.ZERO : predictedMonthExpense);
-      }
+  /**
+   * Extends past monthly expenses by a linear trend: the average month plus
+   * the average change between consecutive months, never below zero.
+   *
+   * @param pastExpenses the expenses of the past months in chronological order
+   * @param months the number of months to predict
+   * @return the predicted expenses of each month after the last past month
+   */
+  static MonthlySeries forecast(MonthlySeries pastExpenses, int months) {
+    long averageExpense = Math.round(pastExpenses.sum() / (double) pastExpenses.size());
+    long averageChange = calculateAverageChangeForConsecutiveMonths(pastExpenses);
 
-      return reorderMonths(monthlyExpenses);
+    MonthlySeries monthlyExpenses = new MonthlySeries(pastExpenses.getEnd().plusMonths(1), months);
+    for (int i = 0; i < months; i++) {
+      monthlyExpenses.setCents(i, averageExpense + averageChange * (i + 1));
     }
-
-    return monthlyExpenses; 
+    return monthlyExpenses.atLeast(0);
   }
 
 
   /**
-   * Calculates the change in expenses between months
+   * Calculates the average change in expenses between consecutive months,
+   * skipping pairs of months without any expenses
    *
-   * @param expensesList list of expenses ordered by month
-   * @return list of expense changes between months
+   * @param monthlyExpenses expenses in chronological order
+   * @return average expense change between months, in cents
    */
-    private List<BigDecimal> calculateChangesForConsecutiveMonths(List<BigDecimal> expensesList) {
-        List<BigDecimal> changes = new ArrayList<>();
+    private static long calculateAverageChangeForConsecutiveMonths(MonthlySeries monthlyExpenses) {
+        long totalChange = 0;
+        int changes = 0;
 
-        Month currentRealLifeMonth = LocalDate.now().getMonth();
+        for (int i = 1; i < monthlyExpenses.size(); i++) {
+            long monthExpense = monthlyExpenses.getCents(i);
+            long previousMonthExpense = monthlyExpenses.getCents(i - 1);
 
-        for (int i = 1; i < expensesList.size(); i++) {
-            BigDecimal monthExpense = expensesList.get(i);
-            BigDecimal previousMonthExpense = expensesList.get(i - 1);
-
-            // Map the previous month (i - 1) to the corresponding month
-            Month previousMonth = Month.of(i % 12 + 1);  
-
-            // Skip if both current and previous expenses are zero OR
-            // if the previous month corresponds to the real-life current month and we are calculating based off 12 months
-            if (previousMonthExpense.compareTo(BigDecimal.ZERO) == 0 && monthExpense.compareTo(BigDecimal.ZERO) == 0 ||
-            (previousMonth == currentRealLifeMonth && expensesList.size() == 12)) {
+            if (previousMonthExpense == 0 && monthExpense == 0) {
                 continue;
             }
 
-            changes.add(monthExpense.subtract(previousMonthExpense));
+            totalChange += monthExpense - previousMonthExpense;
+            changes++;
         }
-        
-        return changes;
-    }
 
-
-    /**
-     * Reorders the months in a map so that they start from the next month of the current date.
-     * @param predictedExpenses Map of months and the values associated with that month
-     * @return Reordered map
-     */
-    private Map<Month, BigDecimal> reorderMonths(Map<Month, BigDecimal> predictedExpenses) {
-        List<Month> monthsOrder = new ArrayList<>();
-        LocalDate startMonth = LocalDate.now().plusMonths(1);
-        for (int i = 0; i < 12; i++) {
-            monthsOrder.add(startMonth.plusMonths(i).getMonth());
-        }
-
-        Map<Month, BigDecimal> reorderedPredictedExpenses = new LinkedHashMap<>();
-        for (Month month : monthsOrder) {
-            reorderedPredictedExpenses.put(month, predictedExpenses.getOrDefault(month, BigDecimal.ZERO));
-        }
-        return reorderedPredictedExpenses;
+        return changes == 0 ? 0 : Math.round(totalChange / (double) changes);
     }
 
     /**
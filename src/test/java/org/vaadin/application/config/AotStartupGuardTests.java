@@ -0,0 +1,43 @@
+package org.vaadin.application.config;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+public class AotStartupGuardTests {
+
+    @Test
+    void testProdProfileIsAccepted() {
+        MockEnvironment environment = new MockEnvironment();
+        environment.setActiveProfiles("prod");
+        environment.setProperty(AotStartupGuard.VIRTUAL_THREADS_PROPERTY, "false");
+
+        assertDoesNotThrow(() -> AotStartupGuard.check(environment));
+    }
+
+    @Test
+    void testOtherProfilesAreRejected() {
+        MockEnvironment environment = new MockEnvironment();
+        environment.setActiveProfiles("prod", "jfr", "datagen");
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> AotStartupGuard.check(environment));
+
+        assertTrue(e.getMessage().contains("profile jfr, profile datagen"), e.getMessage());
+    }
+
+    @Test
+    void testBuildTimeSettingsAreRejected() {
+        MockEnvironment environment = new MockEnvironment();
+        environment.setActiveProfiles("prod");
+        environment.setProperty(AotStartupGuard.OTLP_ENDPOINT_PROPERTY, "http://localhost:4318/v1/traces");
+        environment.setProperty(AotStartupGuard.VIRTUAL_THREADS_PROPERTY, "true");
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> AotStartupGuard.check(environment));
+
+        assertTrue(e.getMessage().contains(AotStartupGuard.OTLP_ENDPOINT_PROPERTY), e.getMessage());
+        assertTrue(e.getMessage().contains(AotStartupGuard.VIRTUAL_THREADS_PROPERTY), e.getMessage());
+    }
+}
@@ -0,0 +1,62 @@
+package org.vaadin.application.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+public class FirstRequestTimerTests {
+
+    private SimpleMeterRegistry registry;
+
+    private FirstRequestTimer timer;
+
+    private long jvmStartMillis;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        jvmStartMillis = System.currentTimeMillis() - 5000;
+        timer = new FirstRequestTimer(registry, jvmStartMillis);
+    }
+
+    @Test
+    void testGaugeIsNaNUntilFirstRequest() {
+        assertTrue(Double.isNaN(registry.get(FirstRequestTimer.METRIC_NAME).timeGauge().value()));
+        assertEquals(-1, timer.getFirstRequestMillis());
+    }
+
+    @Test
+    void testOnlyFirstRequestIsRecorded() throws Exception {
+        AtomicInteger served = new AtomicInteger();
+
+        long before = System.currentTimeMillis();
+        timer.doFilter(new MockHttpServletRequest("GET", "/"), new MockHttpServletResponse(),
+                (request, response) -> served.incrementAndGet());
+        long first = timer.getFirstRequestMillis();
+        timer.doFilter(new MockHttpServletRequest("GET", "/login"), new MockHttpServletResponse(),
+                (request, response) -> served.incrementAndGet());
+
+        assertEquals(2, served.get());
+        assertTrue(first >= before - jvmStartMillis && first <= System.currentTimeMillis() - jvmStartMillis);
+        assertEquals(first, timer.getFirstRequestMillis());
+        assertEquals(first, registry.get(FirstRequestTimer.METRIC_NAME).timeGauge().value(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void testFailedFirstRequestIsRecorded() {
+        assertThrows(IllegalStateException.class, () -> timer.doFilter(new MockHttpServletRequest("GET", "/"),
+                new MockHttpServletResponse(), (request, response) -> {
+                    throw new IllegalStateException("boom");
+                }));
+
+        assertTrue(timer.getFirstRequestMillis() >= 5000);
+    }
+}
@@ -0,0 +1,143 @@
+package org.vaadin.application.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+public class FlightEventsTests {
+
+    /**
+     * A repository whose finder returns one row per character of the user ID.
+     */
+    interface NoteLikeRepository extends Repository<Object, Long> {
+        List<String> findByUserId(@Param("userId") Long userId);
+    }
+
+    private Recording recording;
+
+    @BeforeEach
+    void setUp() {
+        recording = new Recording();
+        recording.enable(FlightEvents.RepositoryQuery.class);
+        recording.enable(FlightEvents.Write.class);
+        recording.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        recording.close();
+    }
+
+    @Test
+    void testRepositoryCallsAreRecordedWithUserAndRows() throws IOException {
+        NoteLikeRepository target = userId -> List.of(String.valueOf(userId).split(""));
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(target);
+        proxyFactory.addInterface(NoteLikeRepository.class);
+        proxyFactory.addAspect(new RepositoryFlightEventsAspect());
+        NoteLikeRepository repository = proxyFactory.getProxy();
+
+        assertEquals(3, repository.findByUserId(123L).size());
+
+        List<RecordedEvent> events = events("fintrack.RepositoryQuery");
+        assertEquals(1, events.size());
+        RecordedEvent event = events.get(0);
+        assertEquals("NoteLikeRepository", event.getString("repository"));
+        assertEquals("findByUserId", event.getString("method"));
+        assertEquals(123L, event.getLong("userId"));
+        assertEquals(3, event.getInt("rows"));
+        assertFalse(event.getBoolean("failed"));
+    }
+
+    @Test
+    void testFailedRepositoryCallsAreRecorded() throws IOException {
+        NoteLikeRepository target = userId -> {
+            throw new IllegalStateException("Database unavailable");
+        };
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(target);
+        proxyFactory.addInterface(NoteLikeRepository.class);
+        proxyFactory.addAspect(new RepositoryFlightEventsAspect());
+        NoteLikeRepository repository = proxyFactory.getProxy();
+
+        assertThrows(IllegalStateException.class, () -> repository.findByUserId(7L));
+
+        List<RecordedEvent> events = events("fintrack.RepositoryQuery");
+        assertEquals(1, events.size());
+        assertTrue(events.get(0).getBoolean("failed"));
+        assertEquals(7L, events.get(0).getLong("userId"));
+    }
+
+    @Test
+    void testWritesAreRecordedWithUserAndRows() throws IOException {
+        FlightEvents.Write event = new FlightEvents.Write("expense", "batch");
+        event.begin();
+        event.written(5L, 500);
+        event.finish();
+
+        List<RecordedEvent> events = events("fintrack.Write");
+        assertEquals(1, events.size());
+        assertEquals("expense", events.get(0).getString("entity"));
+        assertEquals("batch", events.get(0).getString("operation"));
+        assertEquals(5L, events.get(0).getLong("userId"));
+        assertEquals(500, events.get(0).getInt("rows"));
+        assertFalse(events.get(0).getBoolean("failed"));
+    }
+
+    @Test
+    void testFailedWritesAreRecorded() throws IOException {
+        FlightEvents.Write event = new FlightEvents.Write("income", "add");
+        event.begin();
+        try {
+            throw new IllegalStateException("constraint violation");
+        } catch (IllegalStateException e) {
+            // the write threw before written() was reached
+        } finally {
+            event.finish();
+        }
+
+        List<RecordedEvent> events = events("fintrack.Write");
+        assertEquals(1, events.size());
+        assertTrue(events.get(0).getBoolean("failed"));
+        assertEquals(0, events.get(0).getInt("rows"));
+    }
+
+    @Test
+    void testRowsAreCountedFromResults() {
+        assertEquals(0, RepositoryFlightEventsAspect.rows(null));
+        assertEquals(2, RepositoryFlightEventsAspect.rows(List.of("a", "b")));
+        assertEquals(2, RepositoryFlightEventsAspect.rows(new SliceImpl<>(List.of("a", "b"))));
+        assertEquals(0, RepositoryFlightEventsAspect.rows(Optional.empty()));
+        assertEquals(1, RepositoryFlightEventsAspect.rows(Optional.of("a")));
+        assertEquals(3, RepositoryFlightEventsAspect.rows(new Object[3]));
+        assertEquals(1, RepositoryFlightEventsAspect.rows(42L));
+    }
+
+    private List<RecordedEvent> events(String name) throws IOException {
+        recording.stop();
+        Path file = Files.createTempFile("flight-events", ".jfr");
+        try {
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> event.getEventType().getName().equals(name))
+                    .toList();
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package org.vaadin.application.config;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.Resource;
+
+public class FlightRecordingTests {
+
+    @Test
+    void testDumpLeavesOutEnvironmentAndSystemProperties() throws Exception {
+        FlightRecording flightRecording = new FlightRecording(10 * 1024 * 1024, 5, 0);
+        Path file = Files.createTempFile("flight-recording-test", ".jfr");
+        try {
+            WebEndpointResponse<Resource> response = flightRecording.dump();
+            try (InputStream in = response.getBody().getInputStream()) {
+                Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            assertFalse(events.isEmpty());
+            assertTrue(events.stream().noneMatch(event -> FlightRecording.SECRET_EVENTS
+                    .contains(event.getEventType().getName())));
+        } finally {
+            flightRecording.shutdown();
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package org.vaadin.application.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.html.Span;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+public class NavigationMetricsTests {
+
+    private SimpleMeterRegistry registry;
+
+    private NavigationMetrics navigationMetrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        navigationMetrics = new NavigationMetrics(registry, 500);
+    }
+
+    @Test
+    void testFilterRecordsNavigationWithResponseSize() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/");
+        request.setQueryString("v-r=uidl&v-uiId=0");
+
+        navigationMetrics.doFilter(request, new MockHttpServletResponse(), (chainRequest, chainResponse) -> {
+            NavigationMetrics.Navigation navigation = new NavigationMetrics.Navigation(0, 0);
+            navigation.complete("ExpenseView", TimeUnit.MILLISECONDS.toNanos(20), 3, 42);
+            chainRequest.setAttribute(NavigationMetrics.REQUEST_ATTRIBUTE, navigation);
+            chainResponse.getOutputStream().write(new byte[1234]);
+        });
+
+        assertEquals(1, registry.get("vaadin.navigation.construction").tag("route", "ExpenseView").timer().count());
+        assertEquals(1234, registry.get("vaadin.navigation.response.size").summary().totalAmount());
+        assertEquals(42, registry.get("vaadin.navigation.components").summary().totalAmount());
+        assertNull(request.getAttribute(NavigationMetrics.REQUEST_ATTRIBUTE));
+    }
+
+    @Test
+    void testRequestsWithoutNavigationRecordNothing() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/");
+        request.setQueryString("v-r=uidl&v-uiId=0");
+
+        navigationMetrics.doFilter(request, new MockHttpServletResponse(),
+                (chainRequest, chainResponse) -> chainResponse.getOutputStream().write(1));
+
+        assertEquals(0, registry.getMeters().size());
+    }
+
+    @Test
+    void testCountComponents() {
+        Div root = new Div(new Span("a"), new Div(new Span("b"), new Span("c")));
+
+        assertEquals(5, NavigationMetrics.countComponents(root));
+    }
+}
@@ -0,0 +1,98 @@
+package org.vaadin.application.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class OtlpJsonFileSpanExporterTests {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @TempDir
+    Path directory;
+
+    private static void traceRequest(Tracer tracer) {
+        Span request = tracer.spanBuilder("vaadin uidl").startSpan();
+        try (Scope scope = request.makeCurrent()) {
+            Span query = tracer.spanBuilder("ExpenseRepository.findByUserId")
+                    .setAttribute("db.statements", 2L)
+                    .setAttribute("code.function", "findByUserId")
+                    .startSpan();
+            query.setStatus(StatusCode.ERROR, "timeout");
+            query.end();
+        } finally {
+            request.end();
+        }
+    }
+
+    @Test
+    void testSpansAreAppendedAsOtlpJsonLines() throws IOException {
+        Path file = directory.resolve("traces/spans.jsonl");
+        OtlpJsonFileSpanExporter exporter = new OtlpJsonFileSpanExporter(file.toString(), 1_000_000);
+        try (SdkTracerProvider provider = SdkTracerProvider.builder()
+                .addSpanProcessor(SimpleSpanProcessor.create(exporter))
+                .build()) {
+            traceRequest(provider.get("test"));
+        }
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(2, lines.size());
+        JsonNode query = MAPPER.readTree(lines.get(0)).at("/resourceSpans/0/scopeSpans/0/spans/0");
+        JsonNode request = MAPPER.readTree(lines.get(1)).at("/resourceSpans/0/scopeSpans/0/spans/0");
+        assertEquals("ExpenseRepository.findByUserId", query.path("name").asText());
+        assertEquals(request.path("spanId").asText(), query.path("parentSpanId").asText());
+        assertEquals(request.path("traceId").asText(), query.path("traceId").asText());
+        assertEquals(32, query.path("traceId").asText().length());
+        assertFalse(request.has("parentSpanId"));
+        assertEquals(1, query.path("kind").asInt());
+        assertEquals(2, query.path("status").path("code").asInt());
+        assertEquals("timeout", query.path("status").path("message").asText());
+        assertTrue(query.path("startTimeUnixNano").isTextual());
+        assertEquals("db.statements", query.path("attributes").path(0).path("key").asText());
+        assertEquals("2", query.path("attributes").path(0).path("value").path("intValue").asText());
+        assertEquals("test", MAPPER.readTree(lines.get(0)).at("/resourceSpans/0/scopeSpans/0/scope/name").asText());
+    }
+
+    @Test
+    void testFileIsRotatedAtMaxSize() throws IOException {
+        Path file = directory.resolve("spans.jsonl");
+        OtlpJsonFileSpanExporter exporter = new OtlpJsonFileSpanExporter(file.toString(), 4096);
+        try (SdkTracerProvider provider = SdkTracerProvider.builder()
+                .addSpanProcessor(SimpleSpanProcessor.create(exporter))
+                .build()) {
+            for (int i = 0; i < 10; i++) {
+                traceRequest(provider.get("test"));
+            }
+        }
+
+        assertTrue(Files.exists(directory.resolve("spans.jsonl.1")));
+        assertTrue(Files.size(file) <= 4096);
+    }
+
+    @Test
+    void testEmptyFileDisablesExporter() {
+        OtlpJsonFileSpanExporter exporter = new OtlpJsonFileSpanExporter("", 1024);
+        try (SdkTracerProvider provider = SdkTracerProvider.builder()
+                .addSpanProcessor(SimpleSpanProcessor.create(exporter))
+                .build()) {
+            traceRequest(provider.get("test"));
+        }
+
+        assertTrue(exporter.flush().isSuccess());
+    }
+}
@@ -0,0 +1,69 @@
+package org.vaadin.application.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+import com.vaadin.flow.server.VaadinSession;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.vaadin.application.service.SessionService;
+
+public class ServiceMetricsAspectTests {
+
+    private SimpleMeterRegistry registry;
+
+    private SessionService sessionService;
+
+    private MockedStatic<VaadinSession> vaadinSessionMockedStatic;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new SessionService());
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(new ServiceMetricsAspect(registry));
+        sessionService = proxyFactory.getProxy();
+        vaadinSessionMockedStatic = Mockito.mockStatic(VaadinSession.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        vaadinSessionMockedStatic.close();
+    }
+
+    @Test
+    void testCallsAreTimedByMethodAndOutcome() {
+        VaadinSession vaadinSession = Mockito.mock(VaadinSession.class);
+        when(vaadinSession.getAttribute("userId")).thenReturn(1L);
+        vaadinSessionMockedStatic.when(VaadinSession::getCurrent).thenReturn(vaadinSession);
+
+        assertEquals(1L, sessionService.getLoggedInUserId());
+        sessionService.getLoggedInUserId();
+
+        assertEquals(2, timer("getLoggedInUserId", "SUCCESS").count());
+        assertEquals(0, timer("getLoggedInUserId", "ERROR").count());
+    }
+
+    @Test
+    void testFailedCallsAreTimedAsErrors() {
+        vaadinSessionMockedStatic.when(VaadinSession::getCurrent).thenReturn(null);
+
+        assertThrows(NullPointerException.class, () -> sessionService.setLoggedInUserId(1L));
+
+        assertEquals(1, timer("setLoggedInUserId", "ERROR").count());
+        assertEquals(0, timer("setLoggedInUserId", "SUCCESS").count());
+    }
+
+    private Timer timer(String method, String outcome) {
+        return registry.get(ServiceMetricsAspect.METRIC_NAME)
+                .tags("class", "SessionService", "method", method, "outcome", outcome)
+                .timer();
+    }
+}
@@ -0,0 +1,277 @@
+package org.vaadin.application.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.combobox.ComboBox;
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.server.VaadinSession;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import org.apache.lucene.util.RamUsageEstimator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.vaadin.application.model.Budget;
+import org.vaadin.application.model.Expense;
+import org.vaadin.application.service.BudgetService;
+import org.vaadin.application.service.ExpenseService;
+import org.vaadin.application.service.SessionService;
+import org.vaadin.application.service.UserChangeBroadcaster;
+import org.vaadin.application.service.UserReferenceDataCache;
+import org.vaadin.application.views.BudgetView;
+import org.vaadin.application.views.ExpenseView;
+
+public class SessionFootprintTests {
+
+    private static final int SESSIONS = 1000;
+
+    private static final int BUDGETS_PER_SESSION = 8;
+
+    /** The rows the expense grid fetches at first, its default page size. */
+    private static final int GRID_PAGE_SIZE = 50;
+
+    /** The heap a session with an expense view and a budget view may take at most. */
+    private static final long SESSION_HEAP_CEILING_BYTES = 512 * 1024;
+
+    /** Heap allowed on top of the ceiling for allocations of other threads during the measurement. */
+    private static final long HEAP_TOLERANCE_BYTES = 16 * 1024 * 1024;
+
+    private static Budget budget(long id) {
+        Budget budget = new Budget();
+        budget.setId(id);
+        budget.setName("Budget " + id);
+        budget.setAmount(new BigDecimal("500.00"));
+        budget.setIcon("💼");
+        return budget;
+    }
+
+    private static List<Budget> budgets(int count) {
+        List<Budget> budgets = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            budgets.add(budget(i));
+        }
+        return budgets;
+    }
+
+    private static UI uiWith(Component... views) {
+        UI ui = new UI();
+        ui.add(views);
+        return ui;
+    }
+
+    /**
+     * Returns the used heap after collections have stopped freeing memory, or
+     * after a few attempts.
+     */
+    private static long usedHeapAfterGc() {
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 10; i++) {
+            System.gc();
+            long after = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+            if (after >= used) {
+                return used;
+            }
+            used = after;
+        }
+        return used;
+    }
+
+    @Test
+    void testItemsHeldByComponentsAreCharged() {
+        SessionFootprint footprint = new SessionFootprint(object -> false, 1_000_000);
+        ComboBox<Budget> small = new ComboBox<>();
+        small.setItems(budgets(10));
+        ComboBox<Budget> large = new ComboBox<>();
+        large.setItems(budgets(1010));
+
+        long smallBytes = footprint.measure(List.of(uiWith(small))).getBytes();
+        long largeBytes = footprint.measure(List.of(uiWith(large))).getBytes();
+
+        assertTrue(largeBytes - smallBytes >= 1000 * RamUsageEstimator.shallowSizeOf(budget(0)),
+                "Expected the items of the larger combo box to be charged: " + smallBytes + " vs " + largeBytes);
+    }
+
+    @Test
+    void testSharedObjectsAreNotCharged() {
+        List<Budget> sharedBudgets = budgets(1000);
+        Set<Object> shared = Collections.newSetFromMap(new IdentityHashMap<>());
+        shared.add(sharedBudgets);
+        Predicate<Object> isShared = shared::contains;
+        ComboBox<Budget> comboBox = new ComboBox<>();
+        comboBox.setItems(sharedBudgets);
+        UI ui = uiWith(comboBox);
+
+        long withShared = new SessionFootprint(isShared, 1_000_000).measure(List.of(ui)).getBytes();
+        long withoutShared = new SessionFootprint(object -> false, 1_000_000).measure(List.of(ui)).getBytes();
+
+        assertTrue(withoutShared - withShared >= 1000 * RamUsageEstimator.shallowSizeOf(budget(0)));
+    }
+
+    @Test
+    void testBytesAreChargedPerView() {
+        Div first = new Div(new Span("first"));
+        ComboBox<Budget> second = new ComboBox<>();
+        second.setItems(budgets(100));
+
+        SessionFootprint.Footprint result = new SessionFootprint(object -> false, 1_000_000)
+                .measure(List.of(uiWith(first, second)));
+
+        assertTrue(result.getBytesByPart().keySet().containsAll(List.of("ComboBox", "Div", SessionFootprint.UI_PART)));
+        assertTrue(result.getBytesByPart().get("ComboBox") > result.getBytesByPart().get("Div"));
+        assertFalse(result.isTruncated());
+    }
+
+    @Test
+    void testWalkStopsAtObjectLimit() {
+        ComboBox<Budget> comboBox = new ComboBox<>();
+        comboBox.setItems(budgets(1000));
+
+        SessionFootprint.Footprint result = new SessionFootprint(object -> false, 100)
+                .measure(List.of(uiWith(comboBox)));
+
+        assertTrue(result.isTruncated());
+    }
+
+    @Test
+    void testOverBudgetSessionIsRecorded() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        SessionMemoryMetrics metrics = new SessionMemoryMetrics(registry, new DefaultListableBeanFactory(), 0, 1024,
+                1_000_000);
+        ComboBox<Budget> comboBox = new ComboBox<>();
+        comboBox.setItems(budgets(100));
+
+        SessionFootprint.Footprint result = new SessionFootprint(object -> false, 1_000_000)
+                .measure(List.of(uiWith(comboBox)));
+
+        metrics.record(mock(VaadinSession.class), result);
+
+        assertEquals(1, registry.get(SessionMemoryMetrics.METRIC_NAME).summary().count());
+        assertTrue(registry.get(SessionMemoryMetrics.METRIC_NAME).summary().totalAmount() > 1024);
+        metrics.shutdown();
+    }
+
+    /**
+     * Opens 1,000 sessions, each with an expense view whose grid has fetched
+     * its first page and a budget view, keeps them all open and checks the
+     * heap they retain together. The heap is read after repeated collections,
+     * and a fixed tolerance absorbs what other threads of the JVM allocate
+     * meanwhile.
+     */
+    @Test
+    void testThousandLiveSessionsStayUnderHeapCeiling() {
+        AtomicLong fetchedRows = new AtomicLong();
+        Supplier<UI> sessionFactory = sessionFactory(fetchedRows);
+
+        // One session first, so that class-level caches are not counted
+        sessionFactory.get();
+        long heapBefore = usedHeapAfterGc();
+
+        List<UI> sessions = new ArrayList<>(SESSIONS);
+        for (int i = 0; i < SESSIONS; i++) {
+            sessions.add(sessionFactory.get());
+        }
+        long heapGrowth = usedHeapAfterGc() - heapBefore;
+        Reference.reachabilityFence(sessions);
+
+        assertTrue(fetchedRows.get() >= (SESSIONS + 1L) * GRID_PAGE_SIZE,
+                "Only " + fetchedRows.get() + " grid rows were fetched");
+        assertTrue(heapGrowth <= SESSIONS * SESSION_HEAP_CEILING_BYTES + HEAP_TOLERANCE_BYTES,
+                "Heap grew by " + heapGrowth / 1024 + " KB for " + SESSIONS + " sessions");
+    }
+
+    /**
+     * Fetches the first page of the expense grid as the browser does on
+     * attach, and writes the response, so that the grid holds the rows and
+     * the components rendered for them as in a live session.
+     */
+    private static void fetchGridPage(UI ui, ExpenseView view) {
+        Grid<?> grid = (Grid<?>) ReflectionTestUtils.getField(view, "grid");
+        grid.getDataCommunicator().setViewportRange(0, GRID_PAGE_SIZE);
+        UI.setCurrent(ui);
+        try {
+            ui.getInternals().getStateTree().runExecutionsBeforeClientResponse();
+            ui.getInternals().getStateTree().collectChanges(change -> {
+            });
+            ui.getInternals().dumpPendingJavaScriptInvocations();
+        } finally {
+            UI.setCurrent(null);
+        }
+    }
+
+    /**
+     * Returns a factory of sessions holding an expense view with a populated
+     * grid and a budget view, backed by stub services that count the grid rows
+     * they return.
+     */
+    private static Supplier<UI> sessionFactory(AtomicLong fetchedRows) {
+        ExpenseService expenseService = mock(ExpenseService.class, withSettings().stubOnly());
+        SessionService sessionService = mock(SessionService.class, withSettings().stubOnly());
+        UserReferenceDataCache referenceDataCache = mock(UserReferenceDataCache.class, withSettings().stubOnly());
+        BudgetService budgetService = mock(BudgetService.class, withSettings().stubOnly());
+        UserChangeBroadcaster changeBroadcaster = mock(UserChangeBroadcaster.class, withSettings().stubOnly());
+        when(sessionService.getLoggedInUserId()).thenReturn(1L);
+        when(expenseService.getTotalExpenses(1L)).thenReturn(new BigDecimal("1234.50"));
+        when(expenseService.getExpensesByBudget(anyLong())).thenAnswer(invocation -> {
+            Expense expense = new Expense();
+            expense.setAmount(new BigDecimal("42.00"));
+            return List.of(expense);
+        });
+        // Every grid page is a new list of entities, as from the database
+        when(expenseService.searchExpenses(anyLong(), any(), any())).thenAnswer(invocation -> {
+            Pageable pageable = invocation.getArgument(2);
+            List<Budget> budgets = budgets(BUDGETS_PER_SESSION);
+            List<Expense> expenses = new ArrayList<>(pageable.getPageSize());
+            for (int i = 0; i < pageable.getPageSize(); i++) {
+                expenses.add(expense(pageable.getOffset() + i, budgets.get(i % BUDGETS_PER_SESSION)));
+            }
+            fetchedRows.addAndGet(expenses.size());
+            return new SliceImpl<>(expenses, pageable, true);
+        });
+        // Every session loads its own copy of the budgets, as from the database
+        when(referenceDataCache.getBudgets()).thenAnswer(invocation -> budgets(BUDGETS_PER_SESSION));
+
+        return () -> {
+            ExpenseView expenseView = new ExpenseView(expenseService, sessionService, referenceDataCache,
+                    budgetService);
+            UI ui = uiWith(expenseView,
+                    new BudgetView(budgetService, expenseService, sessionService, referenceDataCache,
+                            changeBroadcaster));
+            fetchGridPage(ui, expenseView);
+            return ui;
+        };
+    }
+
+    private static Expense expense(long id, Budget budget) {
+        Expense expense = new Expense();
+        expense.setId(id);
+        expense.setDescription("Expense " + id);
+        expense.setAmount(new BigDecimal("42.00"));
+        expense.setDate(LocalDate.of(2024, 1, 1).plusDays(id % 365));
+        expense.setBudget(budget);
+        return expense;
+    }
+}
@@ -0,0 +1,126 @@
+package org.vaadin.application.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class SlowTraceLoggerTests {
+
+    /**
+     * Keeps every exported span.
+     */
+    private static final class CapturingExporter implements SpanExporter {
+        private final List<SpanData> spans = new ArrayList<>();
+
+        @Override
+        public CompletableResultCode export(Collection<SpanData> exported) {
+            spans.addAll(exported);
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode flush() {
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode shutdown() {
+            return CompletableResultCode.ofSuccess();
+        }
+    }
+
+    private CapturingExporter exporter;
+
+    private SdkTracerProvider provider;
+
+    private Tracer tracer;
+
+    @BeforeEach
+    void setUp() {
+        exporter = new CapturingExporter();
+        provider = SdkTracerProvider.builder().addSpanProcessor(SimpleSpanProcessor.create(exporter)).build();
+        tracer = provider.get("test");
+    }
+
+    @AfterEach
+    void tearDown() {
+        provider.close();
+    }
+
+    private Span start(String name, Span parent, long startMillis) {
+        return tracer.spanBuilder(name)
+                .setParent(parent == null ? Context.root() : Context.root().with(parent))
+                .setStartTimestamp(startMillis, TimeUnit.MILLISECONDS)
+                .startSpan();
+    }
+
+    /** Records a dashboard load: the request, a service call and the query it makes. */
+    private void traceDashboardLoad() {
+        Span request = start("vaadin init", null, 0);
+        Span service = start("ExpenseService.getTotalExpenses", request, 10);
+        Span query = start("ExpenseRepository.findTotalExpenses", service, 11);
+        query.setAttribute("db.statements", 1L);
+        query.end(1200, TimeUnit.MILLISECONDS);
+        service.end(1210, TimeUnit.MILLISECONDS);
+        Span other = start("IncomeService.getIncomesByUserId", request, 1215);
+        other.end(1300, TimeUnit.MILLISECONDS);
+        request.end(1500, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    void testTraceIsFormattedAsTreeInStartOrder() {
+        traceDashboardLoad();
+        SpanData root = exporter.spans.get(exporter.spans.size() - 1);
+
+        String tree = SlowTraceLogger.format(root, exporter.spans.subList(0, exporter.spans.size() - 1));
+
+        String[] lines = tree.split("\n");
+        assertEquals(5, lines.length);
+        assertEquals("  vaadin init +0.0 ms 1500.0 ms", lines[1]);
+        assertEquals("    ExpenseService.getTotalExpenses +10.0 ms 1200.0 ms", lines[2]);
+        assertEquals("      ExpenseRepository.findTotalExpenses +11.0 ms 1189.0 ms {db.statements=1}", lines[3]);
+        assertEquals("    IncomeService.getIncomesByUserId +1215.0 ms 85.0 ms", lines[4]);
+    }
+
+    @Test
+    void testSpansAreHeldUntilTheirRootFinishes() {
+        traceDashboardLoad();
+        SlowTraceLogger logger = new SlowTraceLogger(1000, 100);
+
+        logger.export(exporter.spans.subList(0, 3));
+        assertEquals(3, logger.getBufferedSpans());
+        logger.export(exporter.spans.subList(3, 4));
+        assertEquals(0, logger.getBufferedSpans());
+    }
+
+    @Test
+    void testOldestTracesAreDroppedBeyondTheLimit() {
+        for (int i = 0; i < 5; i++) {
+            traceDashboardLoad();
+        }
+        List<SpanData> children = exporter.spans.stream()
+                .filter(span -> span.getParentSpanContext().isValid())
+                .toList();
+        SlowTraceLogger logger = new SlowTraceLogger(1000, 7);
+
+        logger.export(children);
+
+        assertTrue(logger.getBufferedSpans() <= 7);
+        assertEquals(6, logger.getBufferedSpans());
+    }
+}
@@ -0,0 +1,52 @@
+package org.vaadin.application.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class SqlStatementCounterTests {
+
+    private final SqlStatementCounter counter = new SqlStatementCounter();
+
+    @AfterEach
+    void tearDown() {
+        RepeatedQueryDetector.end();
+    }
+
+    @Test
+    void testStatementsAreCountedByKind() {
+        long selects = SqlStatementCounter.current(SqlStatementCounter.Kind.SELECT);
+        long total = SqlStatementCounter.current();
+
+        counter.inspect("select e1_0.id from expense e1_0 where e1_0.user_id=?");
+        counter.inspect(" (select 1) union (select 2)");
+        counter.inspect("insert into expense (amount,date) values (?,?)");
+        counter.inspect("UPDATE budget SET current_amount=? WHERE id=?");
+
+        assertEquals(selects + 2, SqlStatementCounter.current(SqlStatementCounter.Kind.SELECT));
+        assertEquals(total + 4, SqlStatementCounter.current());
+        assertEquals(SqlStatementCounter.Kind.DELETE, SqlStatementCounter.Kind.of("delete from note where id=?"));
+        assertEquals(SqlStatementCounter.Kind.OTHER, SqlStatementCounter.Kind.of("call next value for seq"));
+    }
+
+    @Test
+    void testRepeatedQueryShapeIsReportedOnce() {
+        RepeatedQueryDetector.begin(2);
+
+        assertFalse(RepeatedQueryDetector.onStatement("select * from budget where user_id=?"));
+        assertFalse(RepeatedQueryDetector.onStatement("select *  from budget\n where user_id=?"));
+        assertTrue(RepeatedQueryDetector.onStatement("select * from budget where user_id=?"));
+        assertFalse(RepeatedQueryDetector.onStatement("select * from budget where user_id=?"));
+        assertFalse(RepeatedQueryDetector.onStatement("select * from note where user_id=?"));
+    }
+
+    @Test
+    void testParameterListsShareOneShape() {
+        assertEquals(RepeatedQueryDetector.shape("select * from expense where id in (?, ?, ?)"),
+                RepeatedQueryDetector.shape("select * from expense where id in (?)"));
+        assertFalse(RepeatedQueryDetector.onStatement("select 1"));
+    }
+}
@@ -0,0 +1,37 @@
+package org.vaadin.application.config;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.vaadin.application.repository.UserRepository;
+import org.vaadin.application.service.FullTextSearchService;
+import org.vaadin.application.service.ReportService;
+import org.vaadin.application.service.UserService;
+
+public class StartupConfigTests {
+
+    private final LazyInitializationExcludeFilter filter = StartupConfig.eagerBeans();
+
+    @Test
+    void testLoginAndInfrastructureBeansStayEager() {
+        assertTrue(isEager(HikariDataSource.class));
+        assertTrue(isEager(UserRepository.class));
+        assertTrue(isEager(UserService.class));
+        assertTrue(isEager(NavigationMetrics.class));
+        assertTrue(isEager(FirstRequestTimer.class));
+    }
+
+    @Test
+    void testOtherServicesAreLazy() {
+        assertFalse(isEager(FullTextSearchService.class));
+        assertFalse(isEager(ReportService.class));
+    }
+
+    private boolean isEager(Class<?> type) {
+        return filter.isExcluded("bean", new RootBeanDefinition(type), type);
+    }
+}
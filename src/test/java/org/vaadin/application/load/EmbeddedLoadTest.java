@@ -0,0 +1,281 @@
+package org.vaadin.application.load;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.vaadin.application.model.SyntheticDataSpec;
+import org.vaadin.application.repository.SyntheticDataGenerator;
+
+/**
+ * End-to-end load test of the whole application on an in-memory H2 database
+ * seeded with synthetic users.
+ *
+ * <p>
+ * REST clients repeat a visit of logging in, listing their expenses, adding an
+ * expense, loading a monthly net cashflow summary and deleting the expense
+ * again. Alongside them, headless Vaadin sessions log in through the login view
+ * and open the main views (see {@link HeadlessVaadinClient}). Every client is
+ * a different seeded user. Throughput, error rate and p50, p95 and p99 latency
+ * are reported per endpoint. The test is skipped unless
+ * {@code loadtest.embedded} is set:
+ * </p>
+ *
+ * <pre>
+ * mvn test -Dtest=EmbeddedLoadTest -Dloadtest.embedded=true -Dloadtest.restClients=100 -Dloadtest.vaadinSessions=50
+ * </pre>
+ *
+ * <p>
+ * Optional properties: {@code loadtest.users} (seeded users, default 200),
+ * {@code loadtest.expensesPerUser} (default 500),
+ * {@code loadtest.restClients} (default 50), {@code loadtest.vaadinSessions}
+ * (default 20), {@code loadtest.vaadinRoutes} (comma-separated),
+ * {@code loadtest.seconds} (default 60), {@code loadtest.warmupSeconds}
+ * (default 10) and {@code loadtest.maxErrorRate} (default 0.01). With
+ * {@code loadtest.recordTo=<file>} the REST requests are written to a
+ * {@link RequestLog}.
+ * </p>
+ *
+ * <p>
+ * {@code loadtest.replay=<file>} replays a recorded request log, or a Tomcat
+ * access log, instead, with the recorded pacing sped up by
+ * {@code loadtest.replaySpeed} (default 1) and at most
+ * {@code loadtest.restClients} requests in flight.
+ * </p>
+ */
+@EnabledIfSystemProperty(named = "loadtest.embedded", matches = "true")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:loadtest;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE;"
+                + "IGNORE_UNKNOWN_SETTINGS=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.hikari.maximum-pool-size=40",
+        "spring.sql.init.mode=never",
+        "spring.jpa.show-sql=false",
+        "vaadin.launch-browser=false",
+        "fintrack.search.index-dir=target/loadtest-search-index",
+        "fintrack.sql.repeated-query-threshold=0" })
+public class EmbeddedLoadTest {
+
+    private static final String USER_NAME_PREFIX = "loadtest";
+    private static final String PASSWORD = "password";
+    private static final int USERS = Integer.getInteger("loadtest.users", 200);
+    private static final int EXPENSES_PER_USER = Integer.getInteger("loadtest.expensesPerUser", 500);
+    private static final int REST_CLIENTS = Integer.getInteger("loadtest.restClients", 50);
+    private static final int VAADIN_SESSIONS = Integer.getInteger("loadtest.vaadinSessions", 20);
+    private static final List<String> VAADIN_ROUTES = Arrays.asList(System.getProperty("loadtest.vaadinRoutes",
+            "dashboard,expense,income,budget,invoice,netCashflowForecast").split(","));
+    private static final long DURATION_NANOS = TimeUnit.SECONDS.toNanos(Long.getLong("loadtest.seconds", 60));
+    private static final long WARM_UP_NANOS = TimeUnit.SECONDS.toNanos(Long.getLong("loadtest.warmupSeconds", 10));
+    private static final double MAX_ERROR_RATE = Double.parseDouble(System.getProperty("loadtest.maxErrorRate",
+            "0.01"));
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static List<Map<String, Object>> seededUsers;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String baseUrl;
+
+    @BeforeEach
+    void seed() throws SQLException {
+        baseUrl = "http://localhost:" + port;
+        if (seededUsers != null) {
+            return;
+        }
+        SyntheticDataSpec spec = new SyntheticDataSpec();
+        spec.setUserNamePrefix(USER_NAME_PREFIX);
+        spec.setPassword(PASSWORD);
+        spec.setUsers(USERS);
+        spec.setExpensesPerUser(EXPENSES_PER_USER);
+        new SyntheticDataGenerator(dataSource, spec).generate();
+        seededUsers = jdbcTemplate.queryForList("SELECT id, name FROM user WHERE name LIKE ? ORDER BY id",
+                USER_NAME_PREFIX + "-%");
+    }
+
+    @Test
+    void testMixedTrafficAgainstEmbeddedDatabase() throws Exception {
+        long measureFrom = System.nanoTime() + WARM_UP_NANOS;
+        LoadStats stats = new LoadStats(measureFrom, measureFrom + DURATION_NANOS);
+        String recordTo = System.getProperty("loadtest.recordTo");
+        ExecutorService executor = Executors.newFixedThreadPool(REST_CLIENTS + VAADIN_SESSIONS);
+        try (RequestLog log = recordTo == null ? null : new RequestLog(Path.of(recordTo))) {
+            long runStart = System.nanoTime();
+            List<Future<?>> clients = new ArrayList<>();
+            for (int i = 0; i < REST_CLIENTS; i++) {
+                Map<String, Object> user = seededUsers.get(i % seededUsers.size());
+                clients.add(executor.submit(() -> runRestClient(user, stats, log, runStart)));
+            }
+            for (int i = 0; i < VAADIN_SESSIONS; i++) {
+                Map<String, Object> user = seededUsers.get((REST_CLIENTS + i) % seededUsers.size());
+                clients.add(executor.submit(() -> runVaadinSession(user, stats)));
+            }
+            for (Future<?> client : clients) {
+                client.get(DURATION_NANOS + WARM_UP_NANOS + REQUEST_TIMEOUT.toNanos() * 10, TimeUnit.NANOSECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        System.out.printf("users=%d restClients=%d vaadinSessions=%d%n", seededUsers.size(), REST_CLIENTS,
+                VAADIN_SESSIONS);
+        stats.print(System.out, DURATION_NANOS / 1e9);
+        assertErrorRate(stats);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "loadtest.replay", matches = ".+")
+    void testReplayRequestLog() throws Exception {
+        List<RequestLog.Entry> entries = RequestLog.read(Path.of(System.getProperty("loadtest.replay")));
+        double speed = Double.parseDouble(System.getProperty("loadtest.replaySpeed", "1"));
+        HttpClient httpClient = HttpClient.newBuilder()
+                .cookieHandler(new CookieManager())
+                .connectTimeout(REQUEST_TIMEOUT)
+                .build();
+        LoadStats stats = new LoadStats(System.nanoTime(), Long.MAX_VALUE);
+        ExecutorService executor = Executors.newFixedThreadPool(REST_CLIENTS);
+        long runStart = System.nanoTime();
+        try {
+            List<Future<?>> requests = new ArrayList<>(entries.size());
+            for (RequestLog.Entry entry : entries) {
+                long due = runStart + (long) (TimeUnit.MILLISECONDS.toNanos(entry.getOffsetMillis()) / speed);
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                }
+                requests.add(executor.submit(() -> send(httpClient, entry.getMethod(), entry.getPath(),
+                        entry.getBody(), stats, null, runStart)));
+            }
+            for (Future<?> request : requests) {
+                request.get(REQUEST_TIMEOUT.toNanos() * 2, TimeUnit.NANOSECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        System.out.printf("replayed=%d speed=%.1f%n", entries.size(), speed);
+        stats.print(System.out, (System.nanoTime() - runStart) / 1e9);
+        assertErrorRate(stats);
+    }
+
+    private void assertErrorRate(LoadStats stats) {
+        long requests = stats.getRequests();
+        assertTrue(requests > 0, "No requests completed during the load test");
+        double errorRate = (double) stats.getErrors() / requests;
+        assertTrue(errorRate <= MAX_ERROR_RATE, String.format("Error rate %.2f%% exceeds %.2f%%", errorRate * 100,
+                MAX_ERROR_RATE * 100));
+    }
+
+    /**
+     * Repeats the REST visit of one user until the measurement window ends.
+     */
+    private Void runRestClient(Map<String, Object> user, LoadStats stats, RequestLog log, long runStart)
+            throws InterruptedException {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .cookieHandler(new CookieManager())
+                .connectTimeout(REQUEST_TIMEOUT)
+                .build();
+        Object userId = user.get("id");
+        LocalDate today = LocalDate.now();
+        while (!stats.isOver()) {
+            send(httpClient, "POST", "/user/login?name=" + user.get("name") + "&password=" + PASSWORD, null, stats,
+                    log, runStart);
+            send(httpClient, "GET", "/expense/user/" + userId, null, stats, log, runStart);
+            String expense = "{\"description\":\"Load test\",\"amount\":"
+                    + ThreadLocalRandom.current().nextInt(1, 200) + ".50,\"date\":\"" + today
+                    + "\",\"user\":{\"id\":" + userId + "}}";
+            String added = send(httpClient, "POST", "/expense/add", expense, stats, log, runStart);
+            send(httpClient, "GET", "/reports/series/user/" + userId + "?metric=net&bucket=month&from="
+                    + today.minusYears(1) + "&to=" + today, null, stats, log, runStart);
+            if (added != null) {
+                try {
+                    JsonNode id = MAPPER.readTree(added).path("id");
+                    if (id.isNumber()) {
+                        send(httpClient, "DELETE", "/expense/delete/" + id.asLong(), null, stats, log, runStart);
+                    }
+                } catch (IOException e) {
+                    stats.record(LoadStats.endpoint("DELETE", "/expense/delete/0"), System.nanoTime(), false);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Repeats the Vaadin visit of one user until the measurement window ends.
+     */
+    private Void runVaadinSession(Map<String, Object> user, LoadStats stats) throws InterruptedException {
+        HeadlessVaadinClient client = new HeadlessVaadinClient(baseUrl, stats);
+        while (!stats.isOver()) {
+            client.visit((String) user.get("name"), PASSWORD, VAADIN_ROUTES);
+        }
+        return null;
+    }
+
+    /**
+     * Sends one request and records it.
+     *
+     * @return the response body of a successful request, or null
+     */
+    private String send(HttpClient httpClient, String method, String path, String body, LoadStats stats,
+            RequestLog log, long runStart) throws InterruptedException {
+        long start = System.nanoTime();
+        if (log != null) {
+            log.append(TimeUnit.NANOSECONDS.toMillis(start - runStart), method, path, body);
+        }
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(REQUEST_TIMEOUT);
+        if (body != null) {
+            request.header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofString(body));
+        } else {
+            request.method(method, HttpRequest.BodyPublishers.noBody());
+        }
+        String responseBody = null;
+        try {
+            HttpResponse<String> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() < 400) {
+                responseBody = response.body();
+            }
+        } catch (IOException e) {
+            responseBody = null;
+        }
+        stats.record(LoadStats.endpoint(method, path), start, responseBody != null);
+        return responseBody;
+    }
+}
@@ -0,0 +1,317 @@
+package org.vaadin.application.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A Vaadin client without a browser, speaking the Flow client protocol over
+ * HTTP.
+ *
+ * <p>
+ * A visit logs in through the login view, by sending the values of the name
+ * and password fields and a click on the login button as a browser would, and
+ * then opens each route in a new UI of the same session, like a new browser
+ * tab, and closes it again. Every step is recorded as an endpoint of its own,
+ * for example {@code VAADIN login} and {@code VAADIN open dashboard}; the
+ * views are built on the server exactly as for a real browser, only nothing is
+ * rendered. The visit ends by logging out through the REST API, which
+ * invalidates the session.
+ * </p>
+ */
+final class HeadlessVaadinClient {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private static final String UIDL_PREFIX = "for(;;);";
+
+    /** The browser details a Flow client sends along with the first request of a UI. */
+    private static final String BROWSER_DETAILS = "&v-sw=1920&v-sh=1080&v-wn=loadtest&v-tzo=0&v-rtzo=0&v-dstd=0"
+            + "&v-dston=false&v-tzid=UTC&v-curdate=0&v-td=false&v-pr=1&v-wh=1000&v-ww=1800&v-bh=1000&v-bw=1800"
+            + "&v-np=Linux";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final String baseUrl;
+
+    private final LoadStats stats;
+
+    /**
+     * State of one open UI: the values the client has to echo in every
+     * message.
+     */
+    private static final class Ui {
+        private final int id;
+        private final String csrfToken;
+        private final JsonNode changes;
+        private int syncId;
+        private int clientId;
+
+        private Ui(int id, String csrfToken, JsonNode uidl) {
+            this.id = id;
+            this.csrfToken = csrfToken;
+            this.changes = uidl.path("changes");
+            this.syncId = uidl.path("syncId").asInt();
+        }
+    }
+
+    HeadlessVaadinClient(String baseUrl, LoadStats stats) {
+        this.baseUrl = baseUrl;
+        this.stats = stats;
+    }
+
+    /**
+     * Logs in with a fresh session and opens the given routes one after the
+     * other. Stops at the first failed step.
+     *
+     * @param userName the name to log in with
+     * @param password the password to log in with
+     * @param routes   the routes to open after logging in
+     * @return whether all steps succeeded
+     * @throws InterruptedException if interrupted while waiting for a response
+     */
+    boolean visit(String userName, String password, List<String> routes) throws InterruptedException {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .cookieHandler(new CookieManager())
+                .connectTimeout(REQUEST_TIMEOUT)
+                .build();
+
+        Ui loginUi = open(httpClient, "", "VAADIN open login");
+        if (loginUi == null || !login(httpClient, loginUi, userName, password)) {
+            return false;
+        }
+        close(httpClient, loginUi);
+
+        for (String route : routes) {
+            Ui ui = open(httpClient, route, "VAADIN open " + route);
+            if (ui == null) {
+                return false;
+            }
+            close(httpClient, ui);
+        }
+        return logout(httpClient);
+    }
+
+    /**
+     * Ends the session, so that it does not stay in memory until it times
+     * out.
+     */
+    private boolean logout(HttpClient httpClient) throws InterruptedException {
+        long start = System.nanoTime();
+        boolean succeeded;
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/user/logout"))
+                    .timeout(REQUEST_TIMEOUT)
+                    .GET()
+                    .build();
+            succeeded = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+        } catch (IOException e) {
+            succeeded = false;
+        }
+        stats.record("VAADIN logout", start, succeeded);
+        return succeeded;
+    }
+
+    /**
+     * Creates a UI showing a route, as the bootstrap script of a page does.
+     */
+    private Ui open(HttpClient httpClient, String route, String endpoint) throws InterruptedException {
+        long start = System.nanoTime();
+        Ui ui = null;
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/?v-r=init&location="
+                    + URLEncoder.encode(route, StandardCharsets.UTF_8) + BROWSER_DETAILS))
+                    .timeout(REQUEST_TIMEOUT)
+                    .GET()
+                    .build();
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() == 200) {
+                JsonNode appConfig = MAPPER.readTree(response.body()).path("appConfig");
+                JsonNode uidl = appConfig.path("uidl");
+                if (appConfig.has("v-uiId") && !hasError(uidl)) {
+                    ui = new Ui(appConfig.path("v-uiId").asInt(), uidl.path("Vaadin-Security-Key").asText(),
+                            uidl);
+                }
+            }
+        } catch (IOException e) {
+            ui = null;
+        }
+        stats.record(endpoint, start, ui != null);
+        return ui;
+    }
+
+    /**
+     * Fills in the login form and clicks the login button.
+     */
+    private boolean login(HttpClient httpClient, Ui ui, String userName, String password)
+            throws InterruptedException {
+        Map<Integer, ObjectNode> nodes = nodes(ui.changes);
+        ObjectNode nameField = find(nodes, "vaadin-text-field", "Username");
+        ObjectNode passwordField = find(nodes, "vaadin-password-field", "Password");
+        ObjectNode loginButton = find(nodes, "vaadin-button", "Login");
+        long start = System.nanoTime();
+        if (nameField == null || passwordField == null || loginButton == null) {
+            stats.record("VAADIN login", start, false);
+            return false;
+        }
+
+        ArrayNode rpc = MAPPER.createArrayNode();
+        rpc.add(propertySync(nameField, userName));
+        rpc.add(propertySync(passwordField, password));
+        ObjectNode click = rpc.addObject()
+                .put("type", "event")
+                .put("node", loginButton.path("node").asInt())
+                .put("event", "click");
+        click.putObject("data")
+                .put("event.detail", 1)
+                .put("event.button", 0)
+                .put("event.screenX", 0)
+                .put("event.screenY", 0)
+                .put("event.clientX", 0)
+                .put("event.clientY", 0)
+                .put("event.ctrlKey", false)
+                .put("event.shiftKey", false)
+                .put("event.altKey", false)
+                .put("event.metaKey", false);
+
+        String body = send(httpClient, ui, rpc, false);
+        boolean succeeded = body != null && body.contains("Login successful");
+        stats.record("VAADIN login", start, succeeded);
+        return succeeded;
+    }
+
+    /**
+     * Tells the server the UI has been closed, as a browser does when a tab is
+     * closed, so that it does not wait for missed heartbeats.
+     */
+    private void close(HttpClient httpClient, Ui ui) throws InterruptedException {
+        long start = System.nanoTime();
+        String body = send(httpClient, ui, MAPPER.createArrayNode(), true);
+        stats.record("VAADIN close", start, body != null);
+    }
+
+    /**
+     * Sends one message of RPC calls to a UI.
+     *
+     * @return the response, or null if the request failed
+     */
+    private String send(HttpClient httpClient, Ui ui, ArrayNode rpc, boolean unload) throws InterruptedException {
+        ObjectNode message = MAPPER.createObjectNode()
+                .put("csrfToken", ui.csrfToken)
+                .put("syncId", ui.syncId)
+                .put("clientId", ui.clientId);
+        message.set("rpc", rpc);
+        if (unload) {
+            message.put("UNLOAD", true);
+        }
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/?v-r=uidl&v-uiId=" + ui.id))
+                    .timeout(REQUEST_TIMEOUT)
+                    .header("Content-Type", "application/json; charset=UTF-8")
+                    .POST(HttpRequest.BodyPublishers.ofString(MAPPER.writeValueAsString(message)))
+                    .build();
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                return null;
+            }
+            String body = response.body();
+            ui.clientId++;
+            if (body.startsWith(UIDL_PREFIX)) {
+                JsonNode uidl = MAPPER.readTree(body.substring(UIDL_PREFIX.length())).path(0);
+                if (hasError(uidl)) {
+                    return null;
+                }
+                ui.syncId = uidl.path("syncId").asInt(ui.syncId);
+                ui.clientId = uidl.path("clientId").asInt(ui.clientId);
+            }
+            return body;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static boolean hasError(JsonNode uidl) {
+        JsonNode meta = uidl.path("meta");
+        return meta.has("appError") || meta.has("sessionExpired");
+    }
+
+    private static ObjectNode propertySync(ObjectNode node, String value) {
+        return MAPPER.createObjectNode()
+                .put("type", "mSync")
+                .put("node", node.path("node").asInt())
+                .put("feature", node.path("propertiesFeature").asInt())
+                .put("property", "value")
+                .put("value", value);
+    }
+
+    /**
+     * Collects the tag, properties and children of every node attached by a
+     * list of changes.
+     *
+     * @return for each node ID: {@code node}, {@code tag}, {@code label},
+     *         {@code text}, {@code propertiesFeature} and {@code children}
+     */
+    private static Map<Integer, ObjectNode> nodes(JsonNode changes) {
+        Map<Integer, ObjectNode> nodes = new HashMap<>();
+        for (JsonNode change : changes) {
+            int id = change.path("node").asInt();
+            ObjectNode node = nodes.computeIfAbsent(id, key -> MAPPER.createObjectNode().put("node", key));
+            String type = change.path("type").asText();
+            if ("put".equals(type)) {
+                String key = change.path("key").asText();
+                if ("tag".equals(key) || "text".equals(key)) {
+                    node.put(key, change.path("value").asText());
+                } else if ("label".equals(key)) {
+                    node.put("label", change.path("value").asText());
+                    node.put("propertiesFeature", change.path("feat").asInt());
+                }
+            } else if ("splice".equals(type) && change.has("addNodes")) {
+                if (!node.has("children")) {
+                    node.putArray("children");
+                }
+                change.path("addNodes").forEach(((ArrayNode) node.get("children"))::add);
+            }
+        }
+        return nodes;
+    }
+
+    /**
+     * Finds an element by its tag and its label or, for buttons, the text of
+     * its children.
+     */
+    private static ObjectNode find(Map<Integer, ObjectNode> nodes, String tag, String caption) {
+        for (ObjectNode node : nodes.values()) {
+            if (!tag.equals(node.path("tag").asText())) {
+                continue;
+            }
+            if (caption.equals(node.path("label").asText())) {
+                return node;
+            }
+            List<String> texts = new ArrayList<>();
+            node.path("children").forEach(child -> {
+                ObjectNode childNode = nodes.get(child.asInt());
+                if (childNode != null && childNode.has("text")) {
+                    texts.add(childNode.path("text").asText());
+                }
+            });
+            if (texts.contains(caption)) {
+                return node;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,173 @@
+package org.vaadin.application.load;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * Latencies and errors of a load test, per endpoint.
+ *
+ * <p>
+ * Only requests that start and complete inside the measurement window are
+ * counted, so warm-up traffic and requests cut off at the end do not skew the
+ * results. Endpoints are named by method and path, with IDs replaced by
+ * {@code {id}} and the query string dropped, for example
+ * {@code DELETE /expense/delete/{id}}.
+ * </p>
+ */
+final class LoadStats {
+
+    private static final Pattern ID_SEGMENT = Pattern
+            .compile("/(\\d+|[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12})(?=/|$)");
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentSkipListMap<>();
+
+    private final long measureFrom;
+
+    private final long measureUntil;
+
+    /**
+     * Creates statistics for a measurement window.
+     *
+     * @param measureFrom  the start of the window, in {@link System#nanoTime()}
+     * @param measureUntil the end of the window, in {@link System#nanoTime()}
+     */
+    LoadStats(long measureFrom, long measureUntil) {
+        this.measureFrom = measureFrom;
+        this.measureUntil = measureUntil;
+    }
+
+    /**
+     * Returns the name under which requests to a path are recorded.
+     *
+     * @param method the HTTP method
+     * @param path   the path, with or without a query string
+     * @return the endpoint name
+     */
+    static String endpoint(String method, String path) {
+        int query = path.indexOf('?');
+        String withoutQuery = query < 0 ? path : path.substring(0, query);
+        return method + " " + ID_SEGMENT.matcher(withoutQuery).replaceAll("/{id}");
+    }
+
+    /**
+     * Records a completed request if it falls inside the measurement window.
+     *
+     * @param endpoint  the endpoint name
+     * @param start     the time the request was sent, in {@link System#nanoTime()}
+     * @param succeeded whether the request succeeded
+     */
+    void record(String endpoint, long start, boolean succeeded) {
+        long end = System.nanoTime();
+        if (start < measureFrom || end > measureUntil) {
+            return;
+        }
+        endpoints.computeIfAbsent(endpoint, key -> new Endpoint()).record(end - start, succeeded);
+    }
+
+    /**
+     * Returns whether the measurement window has ended.
+     *
+     * @return true once the window is over
+     */
+    boolean isOver() {
+        return System.nanoTime() >= measureUntil;
+    }
+
+    /**
+     * Gets the number of requests recorded over all endpoints.
+     *
+     * @return the number of requests
+     */
+    long getRequests() {
+        return endpoints.values().stream().mapToLong(Endpoint::requests).sum();
+    }
+
+    /**
+     * Gets the number of failed requests over all endpoints.
+     *
+     * @return the number of failed requests
+     */
+    long getErrors() {
+        return endpoints.values().stream().mapToLong(Endpoint::errors).sum();
+    }
+
+    /**
+     * Prints throughput, error rate and latency percentiles of every endpoint
+     * and of all of them together.
+     *
+     * @param out     the stream to print to
+     * @param seconds the duration the throughput is computed over
+     */
+    void print(PrintStream out, double seconds) {
+        out.printf("%-48s %9s %7s %8s %9s %9s %9s %9s%n", "endpoint", "requests", "errors", "req/s", "p50 ms",
+                "p95 ms", "p99 ms", "max ms");
+        long[] all = new long[0];
+        for (Map.Entry<String, Endpoint> entry : endpoints.entrySet()) {
+            long[] latencies = entry.getValue().sortedLatencies();
+            print(out, entry.getKey(), latencies, entry.getValue().requests(), entry.getValue().errors(), seconds);
+            all = concat(all, latencies);
+        }
+        Arrays.sort(all);
+        print(out, "total", all, getRequests(), getErrors(), seconds);
+    }
+
+    private static void print(PrintStream out, String name, long[] sortedLatencies, long requests, long errors,
+            double seconds) {
+        out.printf("%-48s %9d %6.2f%% %8.1f %9.1f %9.1f %9.1f %9.1f%n", name, requests,
+                requests == 0 ? 0 : 100.0 * errors / requests, requests / seconds,
+                percentile(sortedLatencies, 0.50), percentile(sortedLatencies, 0.95),
+                percentile(sortedLatencies, 0.99), percentile(sortedLatencies, 1.0));
+    }
+
+    private static long[] concat(long[] first, long[] second) {
+        long[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+
+    static double percentile(long[] sortedNanos, double quantile) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(index, 0)] / 1e6;
+    }
+
+    /**
+     * The latencies of the successful requests to one endpoint and the number
+     * of failed ones.
+     */
+    private static final class Endpoint {
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+
+        private synchronized void record(long latencyNanos, boolean succeeded) {
+            if (!succeeded) {
+                errors++;
+                return;
+            }
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latencyNanos;
+        }
+
+        private synchronized long requests() {
+            return count + errors;
+        }
+
+        private synchronized long errors() {
+            return errors;
+        }
+
+        private synchronized long[] sortedLatencies() {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+}
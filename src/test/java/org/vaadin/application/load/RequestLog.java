@@ -0,0 +1,154 @@
+package org.vaadin.application.load;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A log of REST requests that a load test can write and replay.
+ *
+ * <p>
+ * Each line holds the time of the request in milliseconds from the start of the
+ * run, the method, the path with its query string and, for requests with a
+ * body, the body on a single line:
+ * </p>
+ *
+ * <pre>
+ * 1520 POST /expense/add {"description":"Coffee","amount":3.5,"date":"2024-05-02","user":{"id":7}}
+ * </pre>
+ *
+ * <p>
+ * Tomcat access logs in the common or combined format
+ * ({@code server.tomcat.accesslog.enabled=true}) can be replayed as well;
+ * they carry no bodies, so they suit read traffic best.
+ * </p>
+ */
+final class RequestLog implements Closeable {
+
+    private static final Pattern ACCESS_LOG_LINE = Pattern.compile("\\[([^\\]]+)\\] \"(\\S+) (\\S+)[^\"]*\"");
+
+    private static final DateTimeFormatter ACCESS_LOG_TIME = DateTimeFormatter.ofPattern("dd/MMM/yyyy:HH:mm:ss Z",
+            Locale.ENGLISH);
+
+    /**
+     * One request of a log.
+     */
+    static final class Entry {
+        private final long offsetMillis;
+        private final String method;
+        private final String path;
+        private final String body;
+
+        Entry(long offsetMillis, String method, String path, String body) {
+            this.offsetMillis = offsetMillis;
+            this.method = method;
+            this.path = path;
+            this.body = body;
+        }
+
+        long getOffsetMillis() {
+            return offsetMillis;
+        }
+
+        String getMethod() {
+            return method;
+        }
+
+        String getPath() {
+            return path;
+        }
+
+        /**
+         * Gets the body of the request.
+         *
+         * @return the body, or null for a request without one
+         */
+        String getBody() {
+            return body;
+        }
+    }
+
+    private final BufferedWriter writer;
+
+    /**
+     * Opens a log for writing, replacing an existing file.
+     *
+     * @param file the file to write to
+     * @throws IOException if the file cannot be created
+     */
+    RequestLog(Path file) throws IOException {
+        this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Appends a request to the log.
+     *
+     * @param offsetMillis the time of the request from the start of the run
+     * @param method       the HTTP method
+     * @param path         the path with its query string
+     * @param body         the body, or null for a request without one
+     */
+    synchronized void append(long offsetMillis, String method, String path, String body) {
+        try {
+            writer.write(offsetMillis + " " + method + " " + path);
+            if (body != null) {
+                writer.write(' ');
+                writer.write(body.replace('\n', ' '));
+            }
+            writer.newLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+
+    /**
+     * Reads a log written by {@link #append} or a Tomcat access log, ordered by
+     * time. Blank lines and lines starting with {@code #} are skipped.
+     *
+     * @param file the file to read
+     * @return the requests of the log, with times relative to the first request
+     * @throws IOException if the file cannot be read
+     */
+    static List<Entry> read(Path file) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        Long firstAccessTime = null;
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            Matcher accessLog = ACCESS_LOG_LINE.matcher(line);
+            if (accessLog.find()) {
+                long time = OffsetDateTime.parse(accessLog.group(1), ACCESS_LOG_TIME).toInstant().toEpochMilli();
+                if (firstAccessTime == null) {
+                    firstAccessTime = time;
+                }
+                entries.add(new Entry(time - firstAccessTime, accessLog.group(2), accessLog.group(3), null));
+                continue;
+            }
+            String[] fields = line.split(" ", 4);
+            if (fields.length < 3) {
+                throw new IOException("Unrecognized request log line: " + line);
+            }
+            entries.add(new Entry(Long.parseLong(fields[0]), fields[1], fields[2],
+                    fields.length == 4 ? fields[3] : null));
+        }
+        entries.sort((first, second) -> Long.compare(first.offsetMillis, second.offsetMillis));
+        return entries;
+    }
+}
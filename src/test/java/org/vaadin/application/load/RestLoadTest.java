@@ -0,0 +1,150 @@
+package org.vaadin.application.load;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+/**
+ * Closed-loop load test of the REST read endpoints against a running instance.
+ *
+ * <p>
+ * Each simulated client sends one request, waits for the response and sends
+ * the next. The test reports throughput and latency percentiles, so the same run
+ * can be repeated against the platform-thread mode and the virtual-thread mode
+ * ({@code -Pjdk21}) for comparison. It is skipped unless
+ * {@code loadtest.baseUrl} is set:
+ * </p>
+ *
+ * <pre>
+ * mvn test -Dtest=RestLoadTest -Dloadtest.baseUrl=http://localhost:8080 -Dloadtest.userId=1
+ * </pre>
+ *
+ * <p>
+ * Optional properties: {@code loadtest.clients} (default 2000),
+ * {@code loadtest.seconds} (default 60) and {@code loadtest.warmupSeconds}
+ * (default 10).
+ * </p>
+ */
+@EnabledIfSystemProperty(named = "loadtest.baseUrl", matches = ".+")
+public class RestLoadTest {
+
+    private static final int CLIENTS = Integer.getInteger("loadtest.clients", 2000);
+    private static final long DURATION_NANOS = TimeUnit.SECONDS.toNanos(Long.getLong("loadtest.seconds", 60));
+    private static final long WARM_UP_NANOS = TimeUnit.SECONDS.toNanos(Long.getLong("loadtest.warmupSeconds", 10));
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    @Test
+    void testRestEndpointsUnderConcurrentLoad() throws InterruptedException {
+        String baseUrl = System.getProperty("loadtest.baseUrl");
+        String userId = System.getProperty("loadtest.userId", "1");
+        List<URI> endpoints = List.of(
+                URI.create(baseUrl + "/expense/user/" + userId),
+                URI.create(baseUrl + "/income/user/" + userId),
+                URI.create(baseUrl + "/budget/user/" + userId),
+                URI.create(baseUrl + "/expense-category/user/" + userId),
+                URI.create(baseUrl + "/asset/user/" + userId));
+        HttpClient httpClient = HttpClient.newBuilder().connectTimeout(REQUEST_TIMEOUT).build();
+
+        long measureFrom = System.nanoTime() + WARM_UP_NANOS;
+        long measureUntil = measureFrom + DURATION_NANOS;
+        CountDownLatch finished = new CountDownLatch(CLIENTS);
+        AtomicLong failures = new AtomicLong();
+        Client[] clients = new Client[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            clients[i] = new Client(httpClient, endpoints, i, measureFrom, measureUntil, failures, finished);
+            clients[i].sendNext();
+        }
+        assertTrue(finished.await(DURATION_NANOS + WARM_UP_NANOS + REQUEST_TIMEOUT.toNanos() * 2,
+                TimeUnit.NANOSECONDS), "Clients did not finish in time");
+
+        long[] latencies = Arrays.stream(clients)
+                .flatMapToLong(client -> Arrays.stream(client.latencies, 0, client.count))
+                .sorted()
+                .toArray();
+        double seconds = DURATION_NANOS / 1e9;
+        System.out.printf("clients=%d requests=%d failures=%d throughput=%.1f req/s%n",
+                CLIENTS, latencies.length, failures.get(), latencies.length / seconds);
+        System.out.printf("latency p50=%.1f ms p95=%.1f ms p99=%.1f ms max=%.1f ms%n",
+                percentile(latencies, 0.50), percentile(latencies, 0.95), percentile(latencies, 0.99),
+                percentile(latencies, 1.0));
+
+        assertEquals(0, failures.get(), "Requests failed during the load test");
+    }
+
+    private static double percentile(long[] sortedNanos, double quantile) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(index, 0)] / 1e6;
+    }
+
+    /**
+     * A simulated client that sends its requests one after the other and records
+     * the latency of those completed inside the measurement window.
+     */
+    private static final class Client {
+        private final HttpClient httpClient;
+        private final List<URI> endpoints;
+        private final long measureFrom;
+        private final long measureUntil;
+        private final AtomicLong failures;
+        private final CountDownLatch finished;
+        private long[] latencies = new long[256];
+        private int count;
+        private int nextEndpoint;
+
+        private Client(HttpClient httpClient, List<URI> endpoints, int index, long measureFrom, long measureUntil,
+                AtomicLong failures, CountDownLatch finished) {
+            this.httpClient = httpClient;
+            this.endpoints = endpoints;
+            this.nextEndpoint = index % endpoints.size();
+            this.measureFrom = measureFrom;
+            this.measureUntil = measureUntil;
+            this.failures = failures;
+            this.finished = finished;
+        }
+
+        private void sendNext() {
+            long start = System.nanoTime();
+            if (start >= measureUntil) {
+                finished.countDown();
+                return;
+            }
+            URI uri = endpoints.get(nextEndpoint);
+            nextEndpoint = (nextEndpoint + 1) % endpoints.size();
+            HttpRequest request = HttpRequest.newBuilder(uri).timeout(REQUEST_TIMEOUT).GET().build();
+            httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        long end = System.nanoTime();
+                        if (start >= measureFrom && end <= measureUntil) {
+                            if (error != null || response.statusCode() >= 400) {
+                                failures.incrementAndGet();
+                            } else {
+                                record(end - start);
+                            }
+                        }
+                        sendNext();
+                    });
+        }
+
+        private void record(long latencyNanos) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latencyNanos;
+        }
+    }
+}
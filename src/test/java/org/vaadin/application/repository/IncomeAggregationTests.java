@@ -0,0 +1,118 @@
+package org.vaadin.application.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.vaadin.application.model.Income;
+import org.vaadin.application.model.Series;
+import org.vaadin.application.model.User;
+import org.vaadin.application.service.ReportService;
+
+/**
+ * Checks the income series per bucket against an in-memory H2 database in
+ * MySQL mode, through the real aggregation query.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:aggregation;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE;"
+                + "IGNORE_UNKNOWN_SETTINGS=TRUE",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.sql.init.mode=never",
+        "spring.jpa.show-sql=false" })
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class IncomeAggregationTests {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private IncomeRepository incomeRepository;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    private ReportService reportService;
+
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        reportService = new ReportService();
+        ReflectionTestUtils.setField(reportService, "incomeRepository", incomeRepository);
+        ReflectionTestUtils.setField(reportService, "expenseRepository", expenseRepository);
+        ReflectionTestUtils.setField(reportService, "maxBuckets", 1000);
+
+        User user = new User();
+        user.setName("aggregation");
+        user.setPassword("hash");
+        userId = userRepository.save(user).getId();
+        User other = new User();
+        other.setName("aggregation-other");
+        other.setPassword("hash");
+        other = userRepository.save(other);
+
+        incomeRepository.save(income(user, "100.00", LocalDate.of(2024, 3, 4), "Weekly"));
+        incomeRepository.save(income(user, "250.00", LocalDate.of(2024, 3, 4), "Biweekly"));
+        incomeRepository.save(income(user, "1000.00", LocalDate.of(2024, 3, 15), "Monthly"));
+        incomeRepository.save(income(user, "40.00", LocalDate.of(2024, 11, 2), "One-off"));
+        incomeRepository.save(income(other, "999.00", LocalDate.of(2024, 3, 4), "Monthly"));
+    }
+
+    @Test
+    void testDailyBucketsHoldEachIncomeOnceOnItsDate() {
+        Series series = reportService.getSeries(userId, Series.Metric.INCOME, Series.Bucket.DAY,
+                Series.GroupBy.NONE, LocalDate.of(2024, 3, 3), LocalDate.of(2024, 3, 5));
+
+        assertValues(series, "0", "350.00", "0");
+    }
+
+    @Test
+    void testMonthlyBucketsSumTheMonthsIncomes() {
+        Series series = reportService.getSeries(userId, Series.Metric.INCOME, Series.Bucket.MONTH,
+                Series.GroupBy.NONE, LocalDate.of(2024, 2, 1), LocalDate.of(2024, 4, 30));
+
+        assertValues(series, "0", "1350.00", "0");
+    }
+
+    @Test
+    void testYearlyBucketMatchesTotalIncomeBetween() {
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to = LocalDate.of(2024, 12, 31);
+
+        Series series = reportService.getSeries(userId, Series.Metric.INCOME, Series.Bucket.YEAR,
+                Series.GroupBy.NONE, from, to);
+
+        assertValues(series, "1390.00");
+        assertEquals(0, incomeRepository.findTotalIncomeForPeriod(userId, from, to)
+                .compareTo(series.getColumns().get(0).getValues()[0]));
+    }
+
+    private static void assertValues(Series series, String... expected) {
+        assertEquals(1, series.getColumns().size());
+        BigDecimal[] values = series.getColumns().get(0).getValues();
+        assertEquals(expected.length, values.length, Arrays.toString(values));
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(0, new BigDecimal(expected[i]).compareTo(values[i]),
+                    "Bucket " + i + " of " + Arrays.toString(values));
+        }
+    }
+
+    private static Income income(User user, String amount, LocalDate date, String paymentFrequency) {
+        Income income = new Income();
+        income.setUser(user);
+        income.setSource("Test");
+        income.setAmount(new BigDecimal(amount));
+        income.setDate(date);
+        income.setPaymentFrequency(paymentFrequency);
+        return income;
+    }
+}
@@ -0,0 +1,122 @@
+package org.vaadin.application.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.vaadin.application.model.SyntheticDataSpec;
+import org.vaadin.application.model.User;
+
+/**
+ * Loads synthetic data into an in-memory H2 database in MySQL mode, with the
+ * schema Hibernate generates from the entities.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:synthetic;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE;"
+                + "IGNORE_UNKNOWN_SETTINGS=TRUE",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.sql.init.mode=never",
+        "spring.jpa.show-sql=false" })
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class SyntheticDataGeneratorTests {
+
+    private static final List<String> TABLES = List.of("user", "budget", "expense_category", "expense", "income",
+            "invoice", "asset", "financial_goal", "employee");
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private SyntheticDataSpec spec(String prefix, int threads) {
+        SyntheticDataSpec spec = new SyntheticDataSpec();
+        spec.setUserNamePrefix(prefix);
+        spec.setUsers(12);
+        spec.setExpensesPerUser(60);
+        spec.setInvoicesPerUser(6);
+        spec.setEndDate(LocalDate.of(2024, 6, 15));
+        spec.setHistoryMonths(12);
+        spec.setBatchSize(100);
+        spec.setThreads(threads);
+        return spec;
+    }
+
+    private long countRows() {
+        long rows = 0;
+        for (String table : TABLES) {
+            rows += jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+        }
+        return rows;
+    }
+
+    private BigDecimal expenseTotal(String prefix) {
+        return jdbcTemplate.queryForObject("SELECT SUM(e.amount) FROM expense e JOIN user u ON u.id = e.user_id "
+                + "WHERE u.name LIKE ?", BigDecimal.class, prefix + "-%");
+    }
+
+    @Test
+    public void testGenerateLoadsAllRows() throws SQLException {
+        long before = countRows();
+
+        SyntheticDataGenerator.Result result = new SyntheticDataGenerator(dataSource, spec("counted", 3)).generate();
+
+        assertEquals(12, result.getUsers());
+        assertEquals(result.getRows(), countRows() - before);
+        assertEquals(12L, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user WHERE name LIKE 'counted-%'",
+                Long.class));
+        assertEquals(0L, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM expense e JOIN user u ON u.id = e.user_id "
+                + "WHERE u.name LIKE 'counted-%' AND e.date > DATE '2024-06-15'", Long.class));
+    }
+
+    @Test
+    public void testGenerateIsDeterministicAcrossThreadCounts() throws SQLException {
+        new SyntheticDataGenerator(dataSource, spec("single", 1)).generate();
+        new SyntheticDataGenerator(dataSource, spec("parallel", 4)).generate();
+
+        assertEquals(expenseTotal("single"), expenseTotal("parallel"));
+    }
+
+    @Test
+    public void testUserSequenceCoversTrackedRows() throws SQLException {
+        new SyntheticDataGenerator(dataSource, spec("sequenced", 2)).generate();
+
+        List<Long> mismatches = jdbcTemplate.queryForList("SELECT u.id FROM user u WHERE u.name LIKE 'sequenced-%' "
+                + "AND u.change_sequence <> (SELECT COUNT(*) FROM expense WHERE user_id = u.id) "
+                + "+ (SELECT COUNT(*) FROM income WHERE user_id = u.id) "
+                + "+ (SELECT COUNT(*) FROM budget WHERE user_id = u.id) "
+                + "+ (SELECT COUNT(*) FROM invoice WHERE user_id = u.id) "
+                + "+ (SELECT COUNT(*) FROM asset WHERE user_id = u.id)", Long.class);
+        assertTrue(mismatches.isEmpty(), "Users with a change sequence below their rows: " + mismatches);
+    }
+
+    @Test
+    public void testEntitiesSavedAfterLoadGetFreshIds() throws SQLException {
+        new SyntheticDataGenerator(dataSource, spec("identity", 2)).generate();
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM user", Long.class);
+
+        User user = new User();
+        user.setName("saved-after-load");
+        user.setPassword("hash");
+        User saved = userRepository.save(user);
+
+        assertTrue(saved.getId() > maxId);
+    }
+}
@@ -0,0 +1,184 @@
+package org.vaadin.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.vaadin.application.model.BatchResult;
+import org.vaadin.application.model.Income;
+
+public class BatchWriterTests {
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private BatchWriter batchWriter;
+
+    private final List<Integer> chunkSizes = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(batchWriter, "validator",
+                Validation.buildDefaultValidatorFactory().getValidator());
+        ReflectionTestUtils.setField(batchWriter, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(batchWriter, "chunkSize", 2);
+        ReflectionTestUtils.setField(batchWriter, "maxItems", 10);
+    }
+
+    @Test
+    void testWriteSplitsItemsIntoChunks() {
+        BatchResult result = batchWriter.write(incomes(5).iterator(), recordingWriter());
+
+        assertEquals(Arrays.asList(2, 2, 1), chunkSizes);
+        assertEquals(5, result.getCreated());
+        assertEquals(0, result.getRejected());
+        assertEquals(4L, result.getItems().get(4).getId());
+    }
+
+    @Test
+    void testInvalidItemsAreReportedAndSkipped() {
+        List<Income> incomes = incomes(3);
+        incomes.get(1).setAmount(null);
+
+        BatchResult result = batchWriter.write(incomes.iterator(), recordingWriter());
+
+        assertEquals(2, result.getCreated());
+        assertEquals(BatchResult.Status.INVALID, result.getItems().get(1).getStatus());
+        assertEquals("amount must not be null", result.getItems().get(1).getError());
+        assertEquals(Arrays.asList(2), chunkSizes);
+    }
+
+    @Test
+    void testCheckErrorsRejectSingleItems() {
+        BatchResult result = batchWriter.write(incomes(2).iterator(), new BatchWriter.ChunkWriter<Income>() {
+            @Override
+            public List<String> check(List<Income> chunk) {
+                return Arrays.asList(null, "user.id is required");
+            }
+
+            @Override
+            public List<?> insert(List<Income> items) {
+                return Collections.singletonList(42L);
+            }
+        });
+
+        assertEquals(BatchResult.Status.CREATED, result.getItems().get(0).getStatus());
+        assertEquals(42L, result.getItems().get(0).getId());
+        assertEquals(BatchResult.Status.INVALID, result.getItems().get(1).getStatus());
+    }
+
+    @Test
+    void testFailedChunkDoesNotAffectOtherChunks() {
+        BatchResult result = batchWriter.write(incomes(4).iterator(), new BatchWriter.ChunkWriter<Income>() {
+            private int chunks;
+
+            @Override
+            public List<String> check(List<Income> chunk) {
+                return Arrays.asList(new String[chunk.size()]);
+            }
+
+            @Override
+            public List<?> insert(List<Income> items) {
+                if (chunks++ == 0) {
+                    throw new IllegalStateException("constraint violated");
+                }
+                return Arrays.asList(3L, 4L);
+            }
+        });
+
+        assertEquals(BatchResult.Status.FAILED, result.getItems().get(0).getStatus());
+        assertEquals(BatchResult.Status.FAILED, result.getItems().get(1).getStatus());
+        assertEquals(BatchResult.Status.CREATED, result.getItems().get(2).getStatus());
+        assertEquals(2, result.getCreated());
+    }
+
+    @Test
+    void testItemsBeyondLimitAreRejected() {
+        BatchResult result = batchWriter.write(incomes(12).iterator(), recordingWriter());
+
+        assertEquals(10, result.getCreated());
+        assertEquals(11, result.getReceived());
+        assertEquals(BatchResult.Status.INVALID, result.getItems().get(10).getStatus());
+    }
+
+    @Test
+    void testReadItemsAcceptsArrayAndNdjson() throws IOException {
+        String item = "{\"source\":\"Salary\",\"amount\":10,\"date\":\"2024-05-01\",\"paymentFrequency\":\"Monthly\"}";
+
+        Iterator<Income> fromArray = batchWriter.readItems(stream("[" + item + "," + item + "]"), Income.class);
+        Iterator<Income> fromNdjson = batchWriter.readItems(stream(item + "\n" + item + "\n"), Income.class);
+
+        assertEquals(2, batchWriter.write(fromArray, recordingWriter()).getCreated());
+        assertEquals(2, batchWriter.write(fromNdjson, recordingWriter()).getCreated());
+    }
+
+    @Test
+    void testMalformedInputStopsReading() throws IOException {
+        String item = "{\"source\":\"Salary\",\"amount\":10,\"date\":\"2024-05-01\",\"paymentFrequency\":\"Monthly\"}";
+
+        BatchResult result = batchWriter.write(
+                batchWriter.readItems(stream(item + "\n{\"source\": \n"), Income.class), recordingWriter());
+
+        assertEquals(1, result.getCreated());
+        assertEquals(BatchResult.Status.INVALID, result.getItems().get(1).getStatus());
+        assertNull(result.getItems().get(1).getId());
+    }
+
+    private BatchWriter.ChunkWriter<Income> recordingWriter() {
+        return new BatchWriter.ChunkWriter<Income>() {
+            private long nextId;
+
+            @Override
+            public List<String> check(List<Income> chunk) {
+                return Arrays.asList(new String[chunk.size()]);
+            }
+
+            @Override
+            public List<?> insert(List<Income> items) {
+                chunkSizes.add(items.size());
+                List<Long> ids = new ArrayList<>();
+                for (int i = 0; i < items.size(); i++) {
+                    ids.add(nextId++);
+                }
+                return ids;
+            }
+        };
+    }
+
+    private static List<Income> incomes(int count) {
+        List<Income> incomes = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Income income = new Income();
+            income.setSource("Salary " + i);
+            income.setAmount(new BigDecimal("100.00"));
+            income.setDate(LocalDate.of(2024, 5, 1));
+            income.setPaymentFrequency("Monthly");
+            incomes.add(income);
+        }
+        return incomes;
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
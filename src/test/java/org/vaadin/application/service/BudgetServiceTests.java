@@ -24,6 +24,15 @@ public class BudgetServiceTests {
     @Mock
     private BudgetRepository budgetRepository;
 
+    @Mock
+    private UserChangeBroadcaster changeBroadcaster;
+
+    @Mock
+    private ChangeTracker changeTracker;
+
+    @Mock
+    private LedgerCache ledgerCache;
+
     @InjectMocks
     private BudgetService budgetService;
 
@@ -101,7 +110,18 @@ public class BudgetServiceTests {
     void testDeleteBudget() {
         Long id = 1L;
         budgetService.deleteBudget(id);
+        verify(budgetRepository, times(1)).findUserIdById(id);
         verify(budgetRepository, times(1)).deleteById(id);
     }
 
+    @Test
+    void testDeleteBudgetPublishesChangeForOwner() {
+        Long id = 1L;
+        when(budgetRepository.findUserIdById(id)).thenReturn(java.util.Optional.of(7L));
+
+        budgetService.deleteBudget(id);
+
+        verify(changeBroadcaster, times(1)).publishAfterCommit(7L, UserChangeBroadcaster.ChangeType.BUDGET);
+    }
+
 }
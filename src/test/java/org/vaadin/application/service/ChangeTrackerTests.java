@@ -0,0 +1,138 @@
+package org.vaadin.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.vaadin.application.model.Expense;
+import org.vaadin.application.model.SyncEntityType;
+import org.vaadin.application.model.SyncTombstone;
+import org.vaadin.application.model.User;
+import org.vaadin.application.repository.SyncTombstoneRepository;
+import org.vaadin.application.repository.UserRepository;
+
+public class ChangeTrackerTests {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private SyncTombstoneRepository tombstoneRepository;
+
+    @InjectMocks
+    private ChangeTracker changeTracker;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testAllocateReturnsFirstOfConsecutiveValues() {
+        when(userRepository.advanceChangeSequence(1L, 3)).thenReturn(1);
+        when(userRepository.findChangeSequence(1L)).thenReturn(Optional.of(12L));
+
+        assertEquals(10L, changeTracker.allocate(1L, 3));
+    }
+
+    @Test
+    void testAllocateRejectsUnknownUser() {
+        when(userRepository.advanceChangeSequence(9L, 1)).thenReturn(0);
+
+        assertThrows(IllegalArgumentException.class, () -> changeTracker.allocate(9L, 1));
+    }
+
+    @Test
+    void testMarkChangedAllocatesOncePerUserInIdOrder() {
+        when(userRepository.advanceChangeSequence(any(), anyLong())).thenReturn(1);
+        when(userRepository.findChangeSequence(1L)).thenReturn(Optional.of(20L));
+        when(userRepository.findChangeSequence(2L)).thenReturn(Optional.of(5L));
+        List<Expense> expenses = Arrays.asList(expense(2L), expense(1L), expense(2L), expense(null));
+
+        changeTracker.markChanged(expenses);
+
+        InOrder order = inOrder(userRepository);
+        order.verify(userRepository).advanceChangeSequence(1L, 1);
+        order.verify(userRepository).advanceChangeSequence(2L, 2);
+        assertEquals(4L, expenses.get(0).getChangeSequence());
+        assertEquals(20L, expenses.get(1).getChangeSequence());
+        assertEquals(5L, expenses.get(2).getChangeSequence());
+        assertNotNull(expenses.get(2).getUpdatedAt());
+        assertNull(expenses.get(3).getChangeSequence());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void testRecordDeletionsWritesOneTombstonePerEntity() {
+        when(userRepository.advanceChangeSequence(1L, 2)).thenReturn(1);
+        when(userRepository.findChangeSequence(1L)).thenReturn(Optional.of(8L));
+
+        changeTracker.recordDeletions(1L, SyncEntityType.EXPENSE, Arrays.asList(3L, 4L));
+
+        ArgumentCaptor<List<SyncTombstone>> saved = ArgumentCaptor.forClass(List.class);
+        verify(tombstoneRepository).saveAll(saved.capture());
+        List<SyncTombstone> tombstones = new ArrayList<>(saved.getValue());
+        assertEquals("3", tombstones.get(0).getEntityId());
+        assertEquals(7L, tombstones.get(0).getChangeSequence());
+        assertEquals(8L, tombstones.get(1).getChangeSequence());
+    }
+
+    @Test
+    void testDeletionOfUnknownEntityIsNotRecorded() {
+        changeTracker.recordDeletion(null, SyncEntityType.ASSET, 3L);
+
+        verify(userRepository, never()).advanceChangeSequence(any(), anyLong());
+        verify(tombstoneRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void testEntityTagFollowsChangeSequence() {
+        when(userRepository.findChangeSequence(1L)).thenReturn(Optional.of(4L));
+        String before = changeTracker.getEntityTag(1L);
+
+        when(userRepository.findChangeSequence(1L)).thenReturn(Optional.of(5L));
+
+        assertNotEquals(before, changeTracker.getEntityTag(1L));
+        assertNotEquals(before, changeTracker.getEntityTag(2L));
+        assertTrue(before.startsWith("\"") && before.endsWith("\""));
+    }
+
+    @Test
+    void testMarkUserChangedAdvancesSequence() {
+        changeTracker.markUserChanged(1L);
+        changeTracker.markUserChanged(null);
+
+        verify(userRepository).advanceChangeSequence(1L, 1);
+        verify(userRepository, never()).advanceChangeSequence(null, 1);
+    }
+
+    private static Expense expense(Long userId) {
+        Expense expense = new Expense();
+        if (userId != null) {
+            User user = new User();
+            user.setId(userId);
+            expense.setUser(user);
+        }
+        return expense;
+    }
+}
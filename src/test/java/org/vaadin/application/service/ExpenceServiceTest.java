@@ -1,7 +1,12 @@
 package org.vaadin.application.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -14,13 +19,23 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.ArgumentCaptor;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.vaadin.application.model.Expense;
+import org.vaadin.application.model.ExpenseCursor;
+import org.vaadin.application.model.ExpenseFilter;
+import org.vaadin.application.model.MonthlySeries;
 import org.vaadin.application.repository.ExpenseRepository;
 import org.vaadin.application.service.ExpenseService;
 
-import java.sql.Date;
 import java.time.LocalDate;
+import java.time.YearMonth;
 
 import jakarta.inject.Inject;
 
@@ -29,12 +44,28 @@ public class ExpenceServiceTest {
     @Mock
     private ExpenseRepository expenseRepository;
 
+    @Mock
+    private UserChangeBroadcaster changeBroadcaster;
+
+    @Mock
+    private ChangeTracker changeTracker;
+
+    @Mock
+    private FullTextSearchService fullTextSearchService;
+
+    @Mock
+    private LedgerCache ledgerCache;
+
+    @Mock
+    private RangeSumIndex rangeSumIndex;
+
     @InjectMocks
     private ExpenseService expenseService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(expenseService, "maxSearchPageSize", 100);
     }
 
     @Test
@@ -46,13 +77,13 @@ public class ExpenceServiceTest {
         expense1.setId(1L);
         expense1.setDescription("Napkins");
         expense1.setAmount(new BigDecimal("25.00"));
-        expense1.setDate(Date.valueOf(LocalDate.of(2021, 10, 15)));
+        expense1.setDate(LocalDate.of(2021, 10, 15));
 
         Expense expense2 = new Expense();
         expense2.setId(2L);
         expense1.setDescription("Peaches");
         expense1.setAmount(new BigDecimal("150.00"));
-        expense1.setDate(Date.valueOf(LocalDate.of(2024, 1, 13)));
+        expense1.setDate(LocalDate.of(2024, 1, 13));
 
         List<Expense> expenses = Arrays.asList(expense1, expense2);
 
@@ -69,7 +100,7 @@ public class ExpenceServiceTest {
         expense.setId(1L);
         expense.setDescription("Napkins");
         expense.setAmount(new BigDecimal("25.00"));
-        expense.setDate(Date.valueOf(LocalDate.of(2021, 10, 15)));
+        expense.setDate(LocalDate.of(2021, 10, 15));
 
         when(expenseRepository.save(expense)).thenReturn(expense);
 
@@ -77,7 +108,7 @@ public class ExpenceServiceTest {
         assertEquals(1L, result.getId());
         assertEquals("Napkins", result.getDescription());
         assertEquals(new BigDecimal("25.00"), result.getAmount());
-        assertEquals(Date.valueOf(LocalDate.of(2021, 10, 15)), result.getDate());
+        assertEquals(LocalDate.of(2021, 10, 15), result.getDate());
         verify(expenseRepository, times(1)).save(expense);
     }
 
@@ -88,7 +119,7 @@ public class ExpenceServiceTest {
         expense.setId(id);
         expense.setDescription("Napkins");
         expense.setAmount(new BigDecimal("25.00"));
-        expense.setDate(Date.valueOf(LocalDate.of(2021, 10, 15)));
+        expense.setDate(LocalDate.of(2021, 10, 15));
 
         when(expenseRepository.findById(id)).thenReturn(Optional.of(expense));
 
@@ -96,7 +127,7 @@ public class ExpenceServiceTest {
         assertEquals(1L, result.getId());
         assertEquals("Napkins", result.getDescription());
         assertEquals(new BigDecimal("25.00"), result.getAmount());
-        assertEquals(Date.valueOf(LocalDate.of(2021, 10, 15)), result.getDate());
+        assertEquals(LocalDate.of(2021, 10, 15), result.getDate());
         verify(expenseRepository, times(1)).findById(id);
     }
 
@@ -105,6 +136,7 @@ public class ExpenceServiceTest {
         Long id = 1L;
         doNothing().when(expenseRepository).deleteById(id);
         expenseService.deleteExpense(id);
+        verify(expenseRepository, times(1)).findOwnerAndValuesById(id);
         verify(expenseRepository, times(1)).deleteById(id);
     }
 
@@ -122,4 +154,110 @@ public class ExpenceServiceTest {
         assertEquals(new BigDecimal("100.00"), result);
         verify(expenseRepository, times(1)).findTotalExpensesForPeriod(userId, startOfMonth, endOfMonth);
     }
+
+    @Test
+    void testGetRecentExpensesByUserId() {
+        Long userId = 1L;
+        PageRequest pageRequest = PageRequest.of(0, 2);
+
+        Expense expense1 = new Expense();
+        expense1.setId(2L);
+        expense1.setDate(LocalDate.of(2024, 1, 13));
+        Expense expense2 = new Expense();
+        expense2.setId(1L);
+        expense2.setDate(LocalDate.of(2021, 10, 15));
+
+        when(expenseRepository.findByUserIdOrderByDateDescIdDesc(userId, pageRequest))
+                .thenReturn(new SliceImpl<>(Arrays.asList(expense1, expense2), pageRequest, true));
+
+        Slice<Expense> result = expenseService.getRecentExpensesByUserId(userId, 0, 2);
+        assertEquals(2, result.getNumberOfElements());
+        assertEquals(2L, result.getContent().get(0).getId());
+        assertTrue(result.hasNext());
+        verify(expenseRepository, times(1)).findByUserIdOrderByDateDescIdDesc(userId, pageRequest);
+    }
+
+    @Test
+    void testSearchExpensesDefaultsToNewestFirstAndCapsPageSize() {
+        when(expenseRepository.findSlice(any(), any())).thenReturn(new SliceImpl<>(List.of()));
+
+        expenseService.searchExpenses(1L, new ExpenseFilter(), PageRequest.of(0, 1000));
+
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(expenseRepository).findSlice(any(), pageable.capture());
+        assertEquals(100, pageable.getValue().getPageSize());
+        assertEquals(Sort.by(Sort.Direction.DESC, "date", "id"), pageable.getValue().getSort());
+    }
+
+    @Test
+    void testSearchExpensesRejectsUnsupportedSortProperty() {
+        assertThrows(IllegalArgumentException.class, () -> expenseService.searchExpenses(1L, new ExpenseFilter(),
+                PageRequest.of(0, 20, Sort.by("user.password"))));
+    }
+
+    @Test
+    void testSearchExpensesAfterCursorStartsAtFirstPage() {
+        when(expenseRepository.findSlice(any(), any())).thenReturn(new SliceImpl<>(List.of()));
+        ExpenseCursor after = new ExpenseCursor();
+        after.setAfterId(7L);
+        after.setAfterDate(LocalDate.of(2024, 3, 1));
+
+        expenseService.searchExpenses(1L, new ExpenseFilter(), PageRequest.of(40, 25), after);
+
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(expenseRepository).findSlice(any(), pageable.capture());
+        assertEquals(0, pageable.getValue().getPageNumber());
+        assertEquals(25, pageable.getValue().getPageSize());
+    }
+
+    @Test
+    void testSearchExpensesRejectsCursorWithoutSortValue() {
+        ExpenseCursor after = new ExpenseCursor();
+        after.setAfterId(7L);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> expenseService.searchExpenses(1L, new ExpenseFilter(), PageRequest.of(1, 25), after));
+        verify(expenseRepository, never()).findSlice(any(), any());
+    }
+
+    @Test
+    void testGetTotalExpenses() {
+        when(expenseRepository.findTotalExpenses(eq(1L))).thenReturn(new BigDecimal("42.50"));
+
+        assertEquals(new BigDecimal("42.50"), expenseService.getTotalExpenses(1L));
+    }
+
+    @Test
+    void testGetTotalExpensesBetweenUsesRangeSums() {
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to = LocalDate.of(2024, 3, 31);
+        when(rangeSumIndex.sumExpenses(1L, from, to)).thenReturn(new BigDecimal("12.00"));
+
+        assertEquals(new BigDecimal("12.00"), expenseService.getTotalExpensesBetween(1L, from, to));
+        verify(expenseRepository, times(0)).findTotalExpensesForPeriod(any(), any(), any());
+    }
+
+    @Test
+    void testGetExpensesForPreviousMonthsKeepsYearsApart() {
+        YearMonth currentMonth = YearMonth.now();
+        Expense lastYear = new Expense();
+        lastYear.setAmount(new BigDecimal("10.00"));
+        lastYear.setDate(currentMonth.minusMonths(12).atDay(1));
+        Expense thisMonth = new Expense();
+        thisMonth.setAmount(new BigDecimal("2.50"));
+        thisMonth.setDate(currentMonth.atDay(1));
+        Expense tooOld = new Expense();
+        tooOld.setAmount(new BigDecimal("99.00"));
+        tooOld.setDate(currentMonth.minusMonths(13).atEndOfMonth());
+        when(expenseRepository.findByUserId(1L)).thenReturn(Arrays.asList(lastYear, thisMonth, tooOld));
+
+        MonthlySeries series = expenseService.getExpensesForPreviousMonths(1L, 12, "no-budget");
+        verify(expenseRepository, times(1)).findByUserId(1L);
+
+        assertEquals(currentMonth.minusMonths(12), series.getStart());
+        assertEquals(13, series.size());
+        assertEquals(1000, series.getCents(0));
+        assertEquals(250, series.getCents(12));
+        assertEquals(1250, series.sum());
+    }
 }
@@ -9,6 +9,7 @@ import org.vaadin.application.model.Expense;
 import org.vaadin.application.model.ExpenseCategory;
 import org.vaadin.application.model.User;
 import org.vaadin.application.repository.ExpenseCategoryRepository;
+import org.vaadin.application.repository.ExpenseRepository;
 import org.vaadin.application.service.ExpenseCategoryService;
 
 import java.util.List;
@@ -26,6 +27,24 @@ public class ExpenseCategoryServiceTests {
     @Mock
     private ExpenseCategoryRepository expenseCategoryRepository;
 
+    @Mock
+    private UserChangeBroadcaster changeBroadcaster;
+
+    @Mock
+    private ChangeTracker changeTracker;
+
+    @Mock
+    private ExpenseRepository expenseRepository;
+
+    @Mock
+    private FullTextSearchService fullTextSearchService;
+
+    @Mock
+    private RangeSumIndex rangeSumIndex;
+
+    @Mock
+    private LedgerCache ledgerCache;
+
     @InjectMocks
     private ExpenseCategoryService expenseCategoryService;
 
@@ -0,0 +1,190 @@
+package org.vaadin.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.vaadin.application.model.Budget;
+import org.vaadin.application.model.Expense;
+import org.vaadin.application.model.ExpenseCategory;
+import org.vaadin.application.model.ExpenseCursor;
+import org.vaadin.application.model.ExpenseFilter;
+import org.vaadin.application.model.User;
+import org.vaadin.application.repository.BudgetRepository;
+import org.vaadin.application.repository.ExpenseCategoryRepository;
+import org.vaadin.application.repository.ExpenseRepository;
+import org.vaadin.application.repository.SyncTombstoneRepository;
+import org.vaadin.application.repository.UserRepository;
+
+/**
+ * Pins the SQL statements the expense read, add and delete paths issue against
+ * an in-memory H2 database in MySQL mode, counted by the
+ * {@link org.vaadin.application.config.SqlStatementCounter} installed as
+ * Hibernate's statement inspector. The tests run outside a test transaction,
+ * so each service call commits and flushes its own.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:statements;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE;"
+                + "IGNORE_UNKNOWN_SETTINGS=TRUE",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.sql.init.mode=never",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "org.vaadin.application.config.SqlStatementCounter" })
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ ExpenseService.class, ChangeTracker.class })
+public class ExpenseServiceStatementTests {
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BudgetRepository budgetRepository;
+
+    @Autowired
+    private ExpenseCategoryRepository categoryRepository;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private SyncTombstoneRepository tombstoneRepository;
+
+    @MockBean
+    private UserChangeBroadcaster changeBroadcaster;
+
+    @MockBean
+    private FullTextSearchService fullTextSearchService;
+
+    @MockBean
+    private LedgerCache ledgerCache;
+
+    @MockBean
+    private RangeSumIndex rangeSumIndex;
+
+    private static int users;
+
+    private User user;
+
+    private Budget budget;
+
+    private ExpenseCategory category;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setName("statements-" + ++users);
+        user.setPassword("hash");
+        user = userRepository.save(user);
+
+        budget = new Budget();
+        budget.setName("Groceries");
+        budget.setAmount(new BigDecimal("500.00"));
+        budget.setUser(user);
+        budget = budgetRepository.save(budget);
+
+        category = new ExpenseCategory();
+        category.setName("Food");
+        category.setUser(user);
+        category = categoryRepository.save(category);
+    }
+
+    private Expense expense(String description, LocalDate date) {
+        Expense expense = new Expense();
+        expense.setDescription(description);
+        expense.setAmount(new BigDecimal("12.50"));
+        expense.setDate(date);
+        expense.setUser(user);
+        return expense;
+    }
+
+    @Test
+    void testSearchFetchesBudgetsAndCategoriesWithThePage() {
+        for (int day = 1; day <= 5; day++) {
+            Expense expense = expense("Lunch " + day, LocalDate.of(2024, 3, day));
+            expense.setBudget(budget);
+            expense.setCategory(category);
+            expenseRepository.save(expense);
+        }
+
+        QueryCounter queries = QueryCounter.start();
+        Slice<Expense> page = expenseService.searchExpenses(user.getId(), new ExpenseFilter(), PageRequest.of(0, 3));
+        assertEquals("Groceries", page.getContent().get(0).getBudget().getName());
+        assertEquals("Food", page.getContent().get(0).getCategory().getName());
+
+        // The page with its budgets and categories, then the owner they share, whatever the page size
+        queries.assertSelects(2).assertInserts(0).assertUpdates(0).assertDeletes(0);
+        assertEquals(3, page.getNumberOfElements());
+        assertTrue(page.hasNext());
+    }
+
+    @Test
+    void testAddAllocatesAChangeSequenceAndInsertsOnce() {
+        Expense expense = expense("Lunch", LocalDate.of(2024, 3, 1));
+        expense.setBudget(budget);
+        expense.setCategory(category);
+
+        QueryCounter queries = QueryCounter.start();
+        Expense saved = expenseService.addExpense(expense);
+
+        // Advancing the owner's change sequence, reading it back, then the insert
+        queries.assertUpdates(1).assertSelects(1).assertInserts(1).assertDeletes(0);
+        assertEquals(userRepository.findChangeSequence(user.getId()).orElseThrow(), saved.getChangeSequence());
+    }
+
+    @Test
+    void testDeleteRecordsATombstoneAndDeletesOnce() {
+        Long id = expenseRepository.save(expense("Lunch", LocalDate.of(2024, 3, 1))).getId();
+        long tombstones = tombstoneRepository.count();
+
+        QueryCounter queries = QueryCounter.start();
+        expenseService.deleteExpense(id);
+
+        // Selects of the locked old values, of the entity to delete and of the advanced change sequence; the
+        // tombstone is the one insert
+        queries.assertSelects(3).assertUpdates(1).assertInserts(1).assertDeletes(1);
+        assertFalse(expenseRepository.existsById(id));
+        assertEquals(tombstones + 1, tombstoneRepository.count());
+    }
+
+    @Test
+    void testCursorPagesContinueAfterTheLastExpenseOfTheSameDate() {
+        for (int day = 1; day <= 2; day++) {
+            for (int i = 1; i <= 3; i++) {
+                expenseRepository.save(expense("Lunch " + day + "-" + i, LocalDate.of(2024, 3, day)));
+            }
+        }
+
+        Slice<Expense> first = expenseService.searchExpenses(user.getId(), new ExpenseFilter(), PageRequest.of(0, 4));
+        ExpenseCursor after = ExpenseCursor.after(first.getContent().get(3));
+        QueryCounter queries = QueryCounter.start();
+        Slice<Expense> second = expenseService.searchExpenses(user.getId(), new ExpenseFilter(), PageRequest.of(1, 4),
+                after);
+
+        // The seek replaces the offset; the page and its owner are read as on the first page
+        queries.assertSelects(2);
+        assertEquals(List.of("Lunch 1-2", "Lunch 1-1"),
+                second.getContent().stream().map(Expense::getDescription).toList());
+        assertFalse(second.hasNext());
+    }
+}
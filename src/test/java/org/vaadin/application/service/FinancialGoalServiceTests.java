@@ -27,6 +27,12 @@ public class FinancialGoalServiceTests {
     @Mock
     private FinancialGoalRepository financialGoalRepository;
 
+    @Mock
+    private UserChangeBroadcaster changeBroadcaster;
+
+    @Mock
+    private ChangeTracker changeTracker;
+
     @InjectMocks
     private FinancialGoalService financialGoalService;
 
@@ -81,6 +87,7 @@ public class FinancialGoalServiceTests {
 
         assertEquals(financialGoal, result);
         verify(financialGoalRepository, times(1)).save(financialGoal);
+        verify(changeTracker).markUserChanged(1L);
     }
 
     @Test
@@ -0,0 +1,162 @@
+package org.vaadin.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import org.apache.lucene.index.SegmentInfos;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.vaadin.application.model.SearchHit;
+import org.vaadin.application.repository.ExpenseRepository;
+import org.vaadin.application.repository.IncomeRepository;
+import org.vaadin.application.repository.InvoiceRepository;
+import org.vaadin.application.repository.NoteRepository;
+
+public class FullTextSearchServiceTests {
+
+    @TempDir
+    Path indexDir;
+
+    @Mock
+    private ExpenseRepository expenseRepository;
+
+    @Mock
+    private IncomeRepository incomeRepository;
+
+    @Mock
+    private InvoiceRepository invoiceRepository;
+
+    @Mock
+    private NoteRepository noteRepository;
+
+    private FullTextSearchService searchService;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        MockitoAnnotations.openMocks(this);
+        searchService = new FullTextSearchService();
+        ReflectionTestUtils.setField(searchService, "expenseRepository", expenseRepository);
+        ReflectionTestUtils.setField(searchService, "incomeRepository", incomeRepository);
+        ReflectionTestUtils.setField(searchService, "invoiceRepository", invoiceRepository);
+        ReflectionTestUtils.setField(searchService, "noteRepository", noteRepository);
+        ReflectionTestUtils.setField(searchService, "backgroundExecutor", (Executor) Runnable::run);
+        ReflectionTestUtils.setField(searchService, "indexDir", indexDir.toString());
+        ReflectionTestUtils.setField(searchService, "commitIntervalSeconds", 60L);
+        ReflectionTestUtils.setField(searchService, "maxResults", 100);
+        searchService.open();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        searchService.close();
+    }
+
+    @Test
+    void testSearchMatchesPrefixesAndTypos() {
+        searchService.index(SearchHit.Type.EXPENSE, 1L, 1L, "Uber ride to the airport");
+        searchService.index(SearchHit.Type.NOTE, 2L, 1L, "Groceries for the week");
+
+        assertEquals(List.of("1"), ids(searchService.search(1L, "ub", null, 0, 10)));
+        assertEquals(List.of("2"), ids(searchService.search(1L, "grocerise", null, 0, 10)));
+        assertEquals(List.of("1"), ids(searchService.search(1L, "uber airport", null, 0, 10)));
+        assertTrue(searchService.search(1L, "uber groceries", null, 0, 10).isEmpty());
+    }
+
+    @Test
+    void testExactMatchesRankFirst() {
+        searchService.index(SearchHit.Type.EXPENSE, 1L, 1L, "Ubers");
+        searchService.index(SearchHit.Type.EXPENSE, 2L, 1L, "Uber");
+
+        assertEquals(List.of("2", "1"), ids(searchService.search(1L, "uber", null, 0, 10)));
+        assertEquals(List.of("1"), ids(searchService.search(1L, "uber", null, 1, 10)));
+    }
+
+    @Test
+    void testSearchIsLimitedToUserAndTypes() {
+        searchService.index(SearchHit.Type.EXPENSE, 1L, 1L, "Rent");
+        searchService.index(SearchHit.Type.INCOME, 1L, 1L, "Rent from tenant");
+        searchService.index(SearchHit.Type.EXPENSE, 2L, 2L, "Rent");
+
+        List<SearchHit> hits = searchService.search(1L, "rent", Set.of(SearchHit.Type.INCOME), 0, 10);
+
+        assertEquals(1, hits.size());
+        assertEquals(SearchHit.Type.INCOME, hits.get(0).getType());
+        assertEquals(2, searchService.search(1L, "rent", null, 0, 10).size());
+    }
+
+    @Test
+    void testUpdatesAndRemovalsReplaceEarlierText() {
+        searchService.index(SearchHit.Type.EXPENSE, 1L, 1L, "Coffee");
+        searchService.index(SearchHit.Type.EXPENSE, 1L, 1L, "Tea");
+        searchService.index(SearchHit.Type.EXPENSE, 2L, 1L, "Tea");
+        searchService.remove(SearchHit.Type.EXPENSE, List.of(2L));
+
+        assertTrue(searchService.search(1L, "coffee", null, 0, 10).isEmpty());
+        assertEquals(List.of("1"), ids(searchService.search(1L, "tea", null, 0, 10)));
+    }
+
+    @Test
+    void testRebuildLoadsDatabaseRows() {
+        searchService.index(SearchHit.Type.EXPENSE, 9L, 1L, "Stale");
+        List<Object[]> expenses = new ArrayList<>();
+        expenses.add(new Object[] { 1L, 1L, "Uber" });
+        when(expenseRepository.findSearchDocuments(eq(0L), any())).thenReturn(expenses);
+        List<Object[]> notes = new ArrayList<>();
+        notes.add(new Object[] { 3L, 1L, "Call the uber driver" });
+        when(noteRepository.findSearchDocuments(eq(0L), any())).thenReturn(notes);
+
+        assertTrue(searchService.rebuild());
+
+        assertEquals(2, searchService.search(1L, "uber", null, 0, 10).size());
+        assertTrue(searchService.search(1L, "stale", null, 0, 10).isEmpty());
+    }
+
+    @Test
+    void testFailedRebuildKeepsPreviousIndexAndIsNotMarkedClean() throws IOException {
+        searchService.index(SearchHit.Type.EXPENSE, 1L, 1L, "Uber");
+        List<Object[]> expenses = new ArrayList<>();
+        expenses.add(new Object[] { 2L, 1L, "Lyft" });
+        when(expenseRepository.findSearchDocuments(eq(0L), any())).thenReturn(expenses);
+        when(incomeRepository.findSearchDocuments(eq(0L), any())).thenThrow(new IllegalStateException("down"));
+
+        assertFalse(searchService.rebuild());
+        searchService.index(SearchHit.Type.NOTE, 3L, 1L, "Uber receipt");
+
+        assertEquals(Set.of("1", "3"), Set.copyOf(ids(searchService.search(1L, "uber", null, 0, 10))));
+        assertTrue(searchService.search(1L, "lyft", null, 0, 10).isEmpty());
+        assertFalse(searchService.isRebuilding());
+
+        searchService.close();
+        try (Directory directory = FSDirectory.open(indexDir)) {
+            assertEquals("false", SegmentInfos.readLatestCommit(directory).getUserData().get("cleanShutdown"));
+        }
+        searchService.open();
+    }
+
+    @Test
+    void testResultsBeyondMaximumAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> searchService.search(1L, "uber", null, 90, 20));
+    }
+
+    private static List<String> ids(List<SearchHit> hits) {
+        return hits.stream().map(SearchHit::getId).toList();
+    }
+}
@@ -1,6 +1,7 @@
 package org.vaadin.application.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -11,6 +12,9 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.vaadin.application.model.Expense;
 import org.vaadin.application.model.Income;
 import org.vaadin.application.model.User;
@@ -27,6 +31,21 @@ public class IncomeServiceTests {
     @Mock
     private IncomeRepository incomeRepository;
 
+    @Mock
+    private UserChangeBroadcaster changeBroadcaster;
+
+    @Mock
+    private ChangeTracker changeTracker;
+
+    @Mock
+    private FullTextSearchService fullTextSearchService;
+
+    @Mock
+    private LedgerCache ledgerCache;
+
+    @Mock
+    private RangeSumIndex rangeSumIndex;
+
     @InjectMocks
     private IncomeService incomeService;
 
@@ -118,4 +137,33 @@ public class IncomeServiceTests {
         assertEquals(totalIncome, result);
         verify(incomeRepository, times(1)).findTotalIncomeForPeriod(userId, startOfMonth, endOfMonth);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGetRecentIncomesByUserId() {
+        Long userId = 1L;
+        PageRequest pageRequest = PageRequest.of(1, 50);
+        Income income = new Income();
+        income.setId(1L);
+
+        when(incomeRepository.findByUserIdOrderByDateDescIdDesc(userId, pageRequest))
+                .thenReturn(new SliceImpl<>(List.of(income), pageRequest, false));
+
+        Slice<Income> result = incomeService.getRecentIncomesByUserId(userId, 1, 50);
+        assertEquals(1, result.getNumberOfElements());
+        assertFalse(result.hasNext());
+        verify(incomeRepository, times(1)).findByUserIdOrderByDateDescIdDesc(userId, pageRequest);
+    }
+
+    @Test
+    void testGetRecurringIncomeBetweenWithoutLedger() {
+        Long userId = 1L;
+        when(incomeRepository.findLedgerRows(userId)).thenReturn(List.<Object[]>of(
+                new Object[] { LocalDate.of(2024, 1, 1), new BigDecimal("50.00"), "Weekly" },
+                new Object[] { LocalDate.of(2024, 2, 1), new BigDecimal("1000.00"), "Monthly" }));
+
+        BigDecimal result = incomeService.getRecurringIncomeBetween(userId, LocalDate.of(2024, 2, 1),
+                LocalDate.of(2024, 2, 29));
+        assertEquals(new BigDecimal("1200.00"), result);
+        verify(ledgerCache, times(1)).get(userId);
+    }
+}
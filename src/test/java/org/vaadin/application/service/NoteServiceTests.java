@@ -22,6 +22,9 @@ public class NoteServiceTests {
     @Mock
     private NoteRepository noteRepository;
 
+    @Mock
+    private FullTextSearchService fullTextSearchService;
+
     @InjectMocks
     private NoteService noteService;
 
@@ -0,0 +1,92 @@
+package org.vaadin.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.vaadin.application.config.SqlStatementCounter;
+
+/**
+ * Asserts how many queries the code under test issues, so that a change adding
+ * a query to a hot path fails a test instead of slowing down production.
+ *
+ * <p>
+ * Start a counter right before calling the code under test, on the thread that
+ * calls it. It reads the per-thread counts kept by {@link SqlStatementCounter},
+ * which must be installed as Hibernate's statement inspector, so it only
+ * applies to tests against a real database.
+ * </p>
+ */
+public final class QueryCounter {
+
+    private final long[] startStatements;
+
+    private QueryCounter() {
+        SqlStatementCounter.Kind[] kinds = SqlStatementCounter.Kind.values();
+        this.startStatements = new long[kinds.length];
+        for (SqlStatementCounter.Kind kind : kinds) {
+            startStatements[kind.ordinal()] = SqlStatementCounter.current(kind);
+        }
+    }
+
+    /**
+     * Starts counting on the current thread.
+     *
+     * @return the counter
+     */
+    public static QueryCounter start() {
+        return new QueryCounter();
+    }
+
+    /**
+     * Asserts the number of statements of one kind Hibernate prepared since
+     * the counter started.
+     *
+     * @param kind     the kind of statement
+     * @param expected the expected number of statements
+     * @return this counter
+     */
+    public QueryCounter assertStatements(SqlStatementCounter.Kind kind, long expected) {
+        assertEquals(expected, SqlStatementCounter.current(kind) - startStatements[kind.ordinal()],
+                () -> "Number of " + kind + " statements");
+        return this;
+    }
+
+    /**
+     * Asserts the number of SELECT statements since the counter started.
+     *
+     * @param expected the expected number of statements
+     * @return this counter
+     */
+    public QueryCounter assertSelects(long expected) {
+        return assertStatements(SqlStatementCounter.Kind.SELECT, expected);
+    }
+
+    /**
+     * Asserts the number of INSERT statements since the counter started.
+     *
+     * @param expected the expected number of statements
+     * @return this counter
+     */
+    public QueryCounter assertInserts(long expected) {
+        return assertStatements(SqlStatementCounter.Kind.INSERT, expected);
+    }
+
+    /**
+     * Asserts the number of UPDATE statements since the counter started.
+     *
+     * @param expected the expected number of statements
+     * @return this counter
+     */
+    public QueryCounter assertUpdates(long expected) {
+        return assertStatements(SqlStatementCounter.Kind.UPDATE, expected);
+    }
+
+    /**
+     * Asserts the number of DELETE statements since the counter started.
+     *
+     * @param expected the expected number of statements
+     * @return this counter
+     */
+    public QueryCounter assertDeletes(long expected) {
+        return assertStatements(SqlStatementCounter.Kind.DELETE, expected);
+    }
+}
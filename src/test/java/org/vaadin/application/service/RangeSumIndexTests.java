@@ -0,0 +1,140 @@
+package org.vaadin.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.vaadin.application.repository.ExpenseRepository;
+import org.vaadin.application.repository.IncomeRepository;
+import org.vaadin.application.repository.UserRepository;
+
+public class RangeSumIndexTests {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Mock
+    private ExpenseRepository expenseRepository;
+
+    @Mock
+    private IncomeRepository incomeRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private RangeSumIndex rangeSumIndex;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(rangeSumIndex, "enabled", true);
+        ReflectionTestUtils.setField(rangeSumIndex, "maxBytes", 1_000_000L);
+        ReflectionTestUtils.setField(rangeSumIndex, "maxDays", 7320);
+        rangeSumIndex.init();
+        when(userRepository.findChangeSequence(1L)).thenReturn(Optional.of(10L));
+    }
+
+    @Test
+    void testFenwickTreeRangeSums() {
+        FenwickTree tree = FenwickTree.of(new long[] { 5, 0, 3, 7, 1 });
+
+        assertEquals(16, tree.prefixSum(4));
+        assertEquals(10, tree.rangeSum(1, 3));
+        assertEquals(0, tree.rangeSum(3, 2));
+
+        tree.add(2, -3);
+        tree.add(0, 4);
+
+        assertEquals(16, tree.rangeSum(0, 3));
+        assertEquals(0, tree.prefixSum(-1));
+    }
+
+    @Test
+    void testSumsBetweenDays() {
+        when(expenseRepository.sumByDay(1L)).thenReturn(rows(TODAY.minusDays(40), "10.50", TODAY, "25"));
+        when(incomeRepository.sumByDay(1L)).thenReturn(rows(TODAY.minusDays(10), "1000.00"));
+
+        assertEquals(new BigDecimal("35.50"), rangeSumIndex.sumExpenses(1L, TODAY.minusDays(40), TODAY));
+        assertEquals(new BigDecimal("25.00"), rangeSumIndex.sumExpenses(1L, TODAY.minusDays(39), TODAY));
+        assertEquals(new BigDecimal("35.50"), rangeSumIndex.sumExpenses(1L, LocalDate.MIN, LocalDate.MAX));
+        assertEquals(new BigDecimal("0.00"), rangeSumIndex.sumIncomes(1L, TODAY.minusDays(9), TODAY));
+        verify(expenseRepository, times(1)).sumByDay(1L);
+    }
+
+    @Test
+    void testWritesUpdateBuiltSums() {
+        when(expenseRepository.sumByDay(1L)).thenReturn(rows(TODAY, "25.00"));
+        rangeSumIndex.sumExpenses(1L, TODAY, TODAY);
+
+        rangeSumIndex.addExpense(1L, 11L, TODAY.minusDays(1), new BigDecimal("4.25"));
+        rangeSumIndex.removeExpense(1L, 12L, TODAY, new BigDecimal("25.00"));
+        // Already part of the snapshot
+        rangeSumIndex.addExpense(1L, 10L, TODAY, new BigDecimal("99.00"));
+
+        assertEquals(new BigDecimal("4.25"), rangeSumIndex.sumExpenses(1L, TODAY.minusYears(1), TODAY));
+        verify(expenseRepository, times(1)).sumByDay(1L);
+    }
+
+    @Test
+    void testWritesDuringBuildAreReplayed() {
+        when(expenseRepository.sumByDay(1L)).thenAnswer(invocation -> {
+            rangeSumIndex.addExpense(1L, 9L, TODAY, new BigDecimal("5.00"));
+            rangeSumIndex.addExpense(1L, 11L, TODAY, new BigDecimal("7.00"));
+            return rows(TODAY, "5.00");
+        });
+
+        assertEquals(new BigDecimal("12.00"), rangeSumIndex.sumExpenses(1L, TODAY, TODAY));
+    }
+
+    @Test
+    void testWriteOutsideIndexedDaysRebuilds() {
+        when(expenseRepository.sumByDay(1L)).thenReturn(rows(TODAY, "1.00"));
+        rangeSumIndex.sumExpenses(1L, TODAY, TODAY);
+
+        rangeSumIndex.addExpense(1L, 11L, TODAY.plusYears(5), new BigDecimal("2.00"));
+        rangeSumIndex.sumExpenses(1L, TODAY, TODAY);
+
+        verify(expenseRepository, times(2)).sumByDay(1L);
+    }
+
+    @Test
+    void testTruncatedHistoryFallsBackToDatabase() {
+        ReflectionTestUtils.setField(rangeSumIndex, "maxDays", 1000);
+        when(expenseRepository.sumByDay(1L)).thenReturn(rows(TODAY.minusYears(10), "3.00", TODAY, "2.00"));
+
+        assertEquals(new BigDecimal("2.00"), rangeSumIndex.sumExpenses(1L, TODAY.minusDays(30), TODAY));
+        assertNull(rangeSumIndex.sumExpenses(1L, TODAY.minusYears(11), TODAY));
+    }
+
+    @Test
+    void testDisabledIndexReturnsNull() {
+        ReflectionTestUtils.setField(rangeSumIndex, "enabled", false);
+
+        assertNull(rangeSumIndex.sumExpenses(1L, TODAY, TODAY));
+    }
+
+    private static List<Object[]> rows(Object... dayAndAmounts) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < dayAndAmounts.length; i += 2) {
+            rows.add(new Object[] { dayAndAmounts[i], new BigDecimal((String) dayAndAmounts[i + 1]) });
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,267 @@
+package org.vaadin.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.vaadin.application.config.CacheConfig;
+import org.vaadin.application.model.Budget;
+import org.vaadin.application.model.BusinessProfile;
+import org.vaadin.application.model.Employee;
+import org.vaadin.application.model.ExpenseCategory;
+import org.vaadin.application.model.User;
+import org.vaadin.application.repository.BudgetRepository;
+import org.vaadin.application.repository.BusinessProfileRepository;
+import org.vaadin.application.repository.EmployeeRopository;
+import org.vaadin.application.repository.ExpenseCategoryRepository;
+import org.vaadin.application.repository.ExpenseRepository;
+import org.vaadin.application.repository.UserRepository;
+
+/**
+ * Verifies that the cached reference-data reads never return stale data after
+ * a write through the corresponding service.
+ */
+@SpringJUnitConfig(classes = { CacheConfig.class, BudgetService.class, ExpenseCategoryService.class,
+        BusinessProfileService.class, EmployeeService.class, UserService.class })
+public class ReferenceDataCachingTests {
+
+    private static final Long USER_ID = 1L;
+    private static final Long OTHER_USER_ID = 2L;
+
+    @MockBean
+    private BudgetRepository budgetRepository;
+
+    @MockBean
+    private ExpenseCategoryRepository expenseCategoryRepository;
+
+    @MockBean
+    private BusinessProfileRepository businessProfileRepository;
+
+    @MockBean
+    private EmployeeRopository employeeRopository;
+
+    @MockBean
+    private UserRepository userRepository;
+
+    @MockBean
+    private UserChangeBroadcaster changeBroadcaster;
+
+    @MockBean
+    private ChangeTracker changeTracker;
+
+    @MockBean
+    private ExpenseRepository expenseRepository;
+
+    @MockBean
+    private FullTextSearchService fullTextSearchService;
+
+    @MockBean
+    private RangeSumIndex rangeSumIndex;
+
+    @MockBean
+    private LedgerCache ledgerCache;
+
+    @Autowired
+    private BudgetService budgetService;
+
+    @Autowired
+    private ExpenseCategoryService expenseCategoryService;
+
+    @Autowired
+    private BusinessProfileService businessProfileService;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        for (String cacheName : CacheConfig.CACHE_NAMES) {
+            cacheManager.getCache(cacheName).clear();
+        }
+    }
+
+    @Test
+    void testBudgetsAreServedFromCache() {
+        List<Budget> budgets = Arrays.asList(budgetOf(USER_ID));
+        when(budgetRepository.findByUserId(USER_ID)).thenReturn(budgets);
+
+        assertSame(budgets, budgetService.getBudgetsByUserId(USER_ID));
+        assertSame(budgets, budgetService.getBudgetsByUserId(USER_ID));
+        verify(budgetRepository, times(1)).findByUserId(USER_ID);
+    }
+
+    @Test
+    void testReloadBypassesAndRefreshesCachedBudgets() {
+        List<Budget> stale = Arrays.asList(budgetOf(USER_ID));
+        List<Budget> fresh = Arrays.asList(budgetOf(USER_ID), budgetOf(USER_ID));
+        when(budgetRepository.findByUserId(USER_ID)).thenReturn(stale, fresh);
+        budgetService.getBudgetsByUserId(USER_ID);
+
+        assertSame(fresh, budgetService.reloadBudgetsByUserId(USER_ID));
+        assertSame(fresh, budgetService.getBudgetsByUserId(USER_ID));
+        verify(budgetRepository, times(2)).findByUserId(USER_ID);
+    }
+
+    @Test
+    void testAddBudgetEvictsOnlyOwner() {
+        List<Budget> before = Arrays.asList(budgetOf(USER_ID));
+        List<Budget> after = Arrays.asList(budgetOf(USER_ID), budgetOf(USER_ID));
+        List<Budget> otherUser = Arrays.asList(budgetOf(OTHER_USER_ID));
+        when(budgetRepository.findByUserId(USER_ID)).thenReturn(before, after);
+        when(budgetRepository.findByUserId(OTHER_USER_ID)).thenReturn(otherUser);
+        budgetService.getBudgetsByUserId(USER_ID);
+        budgetService.getBudgetsByUserId(OTHER_USER_ID);
+
+        Budget budget = budgetOf(USER_ID);
+        when(budgetRepository.save(budget)).thenReturn(budget);
+        budgetService.addBudget(budget);
+
+        assertSame(after, budgetService.getBudgetsByUserId(USER_ID));
+        assertSame(otherUser, budgetService.getBudgetsByUserId(OTHER_USER_ID));
+        verify(budgetRepository, times(1)).findByUserId(OTHER_USER_ID);
+    }
+
+    @Test
+    void testDeleteBudgetEvictsOwner() {
+        List<Budget> before = Arrays.asList(budgetOf(USER_ID));
+        List<Budget> after = List.of();
+        when(budgetRepository.findByUserId(USER_ID)).thenReturn(before, after);
+        when(budgetRepository.findUserIdById(5L)).thenReturn(Optional.of(USER_ID));
+        budgetService.getBudgetsByUserId(USER_ID);
+
+        budgetService.deleteBudget(5L);
+
+        assertSame(after, budgetService.getBudgetsByUserId(USER_ID));
+    }
+
+    @Test
+    void testDeleteMissingBudgetKeepsCache() {
+        List<Budget> budgets = Arrays.asList(budgetOf(USER_ID));
+        when(budgetRepository.findByUserId(USER_ID)).thenReturn(budgets);
+        when(budgetRepository.findUserIdById(5L)).thenReturn(Optional.empty());
+        budgetService.getBudgetsByUserId(USER_ID);
+
+        budgetService.deleteBudget(5L);
+
+        assertSame(budgets, budgetService.getBudgetsByUserId(USER_ID));
+        verify(budgetRepository, times(1)).findByUserId(USER_ID);
+    }
+
+    @Test
+    void testCurrentAmountChangeEvictsOwner() {
+        Budget budget = budgetOf(USER_ID);
+        budget.setCurrentAmount(BigDecimal.ZERO);
+        List<Budget> before = Arrays.asList(budget);
+        List<Budget> after = Arrays.asList(budgetOf(USER_ID));
+        when(budgetRepository.findByUserId(USER_ID)).thenReturn(before, after);
+        when(budgetRepository.findById(5L)).thenReturn(Optional.of(budget));
+        when(budgetRepository.save(any(Budget.class))).thenReturn(budget);
+        budgetService.getBudgetsByUserId(USER_ID);
+
+        budgetService.increaseCurrentAmount(5L, BigDecimal.TEN);
+
+        assertSame(after, budgetService.getBudgetsByUserId(USER_ID));
+    }
+
+    @Test
+    void testExpenseCategoryWritesEvictOwner() {
+        List<ExpenseCategory> first = Arrays.asList(new ExpenseCategory());
+        List<ExpenseCategory> second = Arrays.asList(new ExpenseCategory(), new ExpenseCategory());
+        List<ExpenseCategory> third = List.of();
+        when(expenseCategoryRepository.findByUserId(USER_ID)).thenReturn(first, second, third);
+        assertSame(first, expenseCategoryService.getExpenseCategoriesByUserId(USER_ID));
+
+        ExpenseCategory category = new ExpenseCategory();
+        category.setUser(userOf(USER_ID));
+        when(expenseCategoryRepository.save(category)).thenReturn(category);
+        expenseCategoryService.addExpenseCategory(category);
+        assertSame(second, expenseCategoryService.getExpenseCategoriesByUserId(USER_ID));
+
+        when(expenseCategoryRepository.findUserIdById(9L)).thenReturn(Optional.of(USER_ID));
+        expenseCategoryService.deleteExpenseCategory(9L);
+        assertSame(third, expenseCategoryService.getExpenseCategoriesByUserId(USER_ID));
+    }
+
+    @Test
+    void testBusinessProfileWritesEvictOwner() {
+        BusinessProfile profile = new BusinessProfile();
+        profile.setUser(userOf(USER_ID));
+        when(businessProfileRepository.findByUserId(USER_ID))
+                .thenReturn(List.of(), Arrays.asList(profile), List.of());
+        assertNull(businessProfileService.getLastBusinessProfileByUserId(USER_ID));
+
+        when(businessProfileRepository.save(profile)).thenReturn(profile);
+        businessProfileService.addBusinessProfile(profile);
+        assertSame(profile, businessProfileService.getLastBusinessProfileByUserId(USER_ID));
+
+        when(businessProfileRepository.findUserIdById(3L)).thenReturn(Optional.of(USER_ID));
+        businessProfileService.deleteBusinessProfile(3L);
+        assertNull(businessProfileService.getLastBusinessProfileByUserId(USER_ID));
+        verify(businessProfileRepository, times(3)).findByUserId(USER_ID);
+    }
+
+    @Test
+    void testEmployeeWritesEvictOwner() {
+        List<Employee> first = List.of();
+        List<Employee> second = Arrays.asList(new Employee());
+        List<Employee> third = List.of();
+        when(employeeRopository.findByUserId(USER_ID)).thenReturn(first, second, third);
+        assertSame(first, employeeService.getEmployeesByUserId(USER_ID));
+
+        Employee employee = new Employee();
+        employee.setUser(userOf(USER_ID));
+        when(employeeRopository.save(employee)).thenReturn(employee);
+        employeeService.addEmployee(employee);
+        assertSame(second, employeeService.getEmployeesByUserId(USER_ID));
+
+        when(employeeRopository.findUserIdById(4L)).thenReturn(Optional.of(USER_ID));
+        employeeService.deleteEmployee(4L);
+        assertSame(third, employeeService.getEmployeesByUserId(USER_ID));
+    }
+
+    @Test
+    void testRegisterUserReplacesCachedMiss() {
+        User user = userOf(USER_ID);
+        when(userRepository.findById(USER_ID)).thenReturn(Optional.empty());
+        assertNull(userService.findUserById(USER_ID));
+
+        when(userRepository.save(any(User.class))).thenReturn(user);
+        when(userRepository.findById(USER_ID)).thenReturn(Optional.of(user));
+        userService.registerUser("alice", "secret");
+
+        assertSame(user, userService.findUserById(USER_ID));
+        assertSame(user, userService.findUserById(USER_ID));
+        verify(userRepository, times(2)).findById(USER_ID);
+    }
+
+    private static User userOf(Long userId) {
+        User user = new User();
+        user.setId(userId);
+        return user;
+    }
+
+    private static Budget budgetOf(Long userId) {
+        Budget budget = new Budget();
+        budget.setUser(userOf(userId));
+        return budget;
+    }
+}
@@ -0,0 +1,103 @@
+package org.vaadin.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.vaadin.application.model.PeriodTotal;
+import org.vaadin.application.model.Series;
+import org.vaadin.application.repository.ExpenseRepository;
+import org.vaadin.application.repository.IncomeRepository;
+
+public class ReportServiceTests {
+
+    private static final Long USER_ID = 1L;
+    private static final LocalDate FROM = LocalDate.of(2024, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2024, 6, 30);
+
+    @Mock
+    private ExpenseRepository expenseRepository;
+
+    @Mock
+    private IncomeRepository incomeRepository;
+
+    @InjectMocks
+    private ReportService reportService;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(reportService, "maxBuckets", 100);
+    }
+
+    @Test
+    void testMonthlyTotalsAreRolledUpIntoQuarters() {
+        when(expenseRepository.sumByPeriod(USER_ID, FROM, TO, false, Series.GroupBy.BUDGET)).thenReturn(Arrays.asList(
+                new PeriodTotal(LocalDate.of(2024, 1, 1), 7L, "Rent", new BigDecimal("800.00")),
+                new PeriodTotal(LocalDate.of(2024, 2, 1), 7L, "Rent", new BigDecimal("800.00")),
+                new PeriodTotal(LocalDate.of(2024, 5, 1), null, null, new BigDecimal("12.50")),
+                new PeriodTotal(LocalDate.of(2024, 4, 1), 3L, "Food", new BigDecimal("40.00"))));
+
+        Series series = reportService.getSeries(USER_ID, Series.Metric.EXPENSE, Series.Bucket.QUARTER,
+                Series.GroupBy.BUDGET, FROM, TO);
+
+        assertEquals(Arrays.asList(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 4, 1)), series.getBuckets());
+        List<Series.Column> columns = series.getColumns();
+        assertEquals("Food", columns.get(0).getLabel());
+        assertArrayEquals(new BigDecimal[] { BigDecimal.ZERO, new BigDecimal("40.00") }, columns.get(0).getValues());
+        assertEquals(7L, columns.get(1).getKey());
+        assertArrayEquals(new BigDecimal[] { new BigDecimal("1600.00"), BigDecimal.ZERO },
+                columns.get(1).getValues());
+        assertNull(columns.get(2).getKey());
+    }
+
+    @Test
+    void testNetSubtractsExpensesFromIncomesPerWeek() {
+        LocalDate from = LocalDate.of(2024, 7, 3);
+        LocalDate to = LocalDate.of(2024, 7, 10);
+        when(incomeRepository.sumByPeriod(USER_ID, from, to, true)).thenReturn(List.of(
+                new PeriodTotal(LocalDate.of(2024, 7, 5), null, null, new BigDecimal("100"))));
+        when(expenseRepository.sumByPeriod(USER_ID, from, to, true, Series.GroupBy.NONE)).thenReturn(List.of(
+                new PeriodTotal(LocalDate.of(2024, 7, 4), null, null, new BigDecimal("30")),
+                new PeriodTotal(LocalDate.of(2024, 7, 9), null, null, new BigDecimal("5"))));
+
+        Series series = reportService.getSeries(USER_ID, Series.Metric.NET, Series.Bucket.WEEK,
+                Series.GroupBy.NONE, from, to);
+
+        assertEquals(Arrays.asList(LocalDate.of(2024, 7, 1), LocalDate.of(2024, 7, 8)), series.getBuckets());
+        assertArrayEquals(new BigDecimal[] { new BigDecimal("70"), new BigDecimal("-5") },
+                series.getColumns().get(0).getValues());
+    }
+
+    @Test
+    void testEmptyRangeReturnsZeroColumn() {
+        Series series = reportService.getSeries(USER_ID, Series.Metric.INCOME, Series.Bucket.MONTH,
+                Series.GroupBy.NONE, FROM, TO);
+
+        assertEquals(6, series.getBuckets().size());
+        assertEquals(1, series.getColumns().size());
+        assertEquals(BigDecimal.ZERO, series.getColumns().get(0).getValues()[5]);
+    }
+
+    @Test
+    void testInvalidRequestsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> reportService.getSeries(USER_ID, Series.Metric.EXPENSE,
+                Series.Bucket.DAY, Series.GroupBy.NONE, TO, FROM));
+        assertThrows(IllegalArgumentException.class, () -> reportService.getSeries(USER_ID, Series.Metric.INCOME,
+                Series.Bucket.DAY, Series.GroupBy.BUDGET, FROM, TO));
+        assertThrows(IllegalArgumentException.class, () -> reportService.getSeries(USER_ID, Series.Metric.EXPENSE,
+                Series.Bucket.DAY, Series.GroupBy.NONE, FROM, FROM.plusDays(100)));
+    }
+}
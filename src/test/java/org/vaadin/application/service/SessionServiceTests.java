@@ -1,6 +1,8 @@
 package org.vaadin.application.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -17,6 +19,10 @@ import org.mockito.MockitoAnnotations;
 import org.vaadin.application.service.SessionService;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 public class SessionServiceTests {
 
@@ -63,8 +69,27 @@ public class SessionServiceTests {
         verify(vaadinSession, times(1)).close();
     }
 
+    @Test
+    void testRestRequestKeepsUserInHttpSession() {
+        vaadinSessionMockedStatic.when(VaadinSession::getCurrent).thenReturn(null);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        assertNull(sessionService.getLoggedInUserId());
+        sessionService.setLoggedInUserId(1L);
+
+        assertEquals(1L, request.getSession().getAttribute("userId"));
+        assertEquals(1L, sessionService.getLoggedInUserId());
+
+        MockHttpSession httpSession = (MockHttpSession) request.getSession();
+        sessionService.logout();
+
+        assertTrue(httpSession.isInvalid());
+    }
+
     @AfterEach
     void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
         vaadinSessionMockedStatic.close();
     }
 }
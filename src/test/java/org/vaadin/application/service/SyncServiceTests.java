@@ -0,0 +1,131 @@
+package org.vaadin.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.vaadin.application.model.Budget;
+import org.vaadin.application.model.Expense;
+import org.vaadin.application.model.Income;
+import org.vaadin.application.model.SyncChange;
+import org.vaadin.application.model.SyncEntityType;
+import org.vaadin.application.model.SyncPage;
+import org.vaadin.application.model.SyncTombstone;
+import org.vaadin.application.repository.AssetRepository;
+import org.vaadin.application.repository.BudgetRepository;
+import org.vaadin.application.repository.ExpenseRepository;
+import org.vaadin.application.repository.IncomeRepository;
+import org.vaadin.application.repository.InvoiceRepository;
+import org.vaadin.application.repository.SyncTombstoneRepository;
+
+public class SyncServiceTests {
+
+    private static final Long USER_ID = 1L;
+
+    @Mock
+    private ExpenseRepository expenseRepository;
+
+    @Mock
+    private IncomeRepository incomeRepository;
+
+    @Mock
+    private BudgetRepository budgetRepository;
+
+    @Mock
+    private InvoiceRepository invoiceRepository;
+
+    @Mock
+    private AssetRepository assetRepository;
+
+    @Mock
+    private SyncTombstoneRepository tombstoneRepository;
+
+    @InjectMocks
+    private SyncService syncService;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(syncService, "maxPageSize", 100);
+    }
+
+    @Test
+    void testChangesAreMergedInSequenceOrder() {
+        when(expenseRepository.findByUserIdAndChangeSequenceGreaterThanOrderByChangeSequence(eq(USER_ID), eq(5L),
+                any())).thenReturn(Arrays.asList(expense(1L, 6), expense(2L, 9)));
+        when(incomeRepository.findByUserIdAndChangeSequenceGreaterThanOrderByChangeSequence(eq(USER_ID), eq(5L),
+                any())).thenReturn(List.of(income(3L, 8)));
+        when(tombstoneRepository.findByUserIdAndChangeSequenceGreaterThanOrderByChangeSequence(eq(USER_ID), eq(5L),
+                any())).thenReturn(List.of(new SyncTombstone(USER_ID, SyncEntityType.BUDGET, "4", 7, Instant.now())));
+
+        SyncPage page = syncService.getChanges(USER_ID, 5, 10);
+
+        List<SyncChange> changes = page.getChanges();
+        assertEquals(Arrays.asList(6L, 7L, 8L, 9L), changes.stream().map(SyncChange::getSequence).toList());
+        assertEquals(SyncEntityType.BUDGET, changes.get(1).getType());
+        assertTrue(changes.get(1).isDeleted());
+        assertNull(changes.get(1).getData());
+        assertEquals(3L, changes.get(2).getId());
+        assertEquals(9L, page.getNextSince());
+        assertFalse(page.isHasMore());
+    }
+
+    @Test
+    void testPageIsCutAtLimit() {
+        PageRequest firstRows = PageRequest.of(0, 3);
+        when(expenseRepository.findByUserIdAndChangeSequenceGreaterThanOrderByChangeSequence(USER_ID, 0L, firstRows))
+                .thenReturn(Arrays.asList(expense(1L, 1), expense(2L, 4), expense(3L, 5)));
+        when(budgetRepository.findByUserIdAndChangeSequenceGreaterThanOrderByChangeSequence(USER_ID, 0L, firstRows))
+                .thenReturn(Arrays.asList(budget(7L, 2), budget(8L, 3)));
+
+        SyncPage page = syncService.getChanges(USER_ID, 0, 2);
+
+        assertEquals(Arrays.asList(1L, 2L), page.getChanges().stream().map(SyncChange::getSequence).toList());
+        assertEquals(2L, page.getNextSince());
+        assertTrue(page.isHasMore());
+    }
+
+    @Test
+    void testEmptyPageKeepsCursor() {
+        SyncPage page = syncService.getChanges(USER_ID, 42, 500);
+
+        assertTrue(page.getChanges().isEmpty());
+        assertEquals(42L, page.getNextSince());
+        assertFalse(page.isHasMore());
+    }
+
+    private static Expense expense(Long id, long sequence) {
+        Expense expense = new Expense();
+        expense.setId(id);
+        expense.setChangeSequence(sequence);
+        return expense;
+    }
+
+    private static Income income(Long id, long sequence) {
+        Income income = new Income();
+        income.setId(id);
+        income.setChangeSequence(sequence);
+        return income;
+    }
+
+    private static Budget budget(Long id, long sequence) {
+        Budget budget = new Budget();
+        budget.setId(id);
+        budget.setChangeSequence(sequence);
+        return budget;
+    }
+}
@@ -0,0 +1,94 @@
+package org.vaadin.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.vaadin.flow.shared.Registration;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.vaadin.application.service.UserChangeBroadcaster.ChangeType;
+
+public class UserChangeBroadcasterTests {
+
+    private UserChangeBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        broadcaster = new UserChangeBroadcaster(20);
+    }
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.shutdown();
+    }
+
+    @Test
+    void testChangesAreCoalescedPerListener() throws InterruptedException {
+        List<Set<ChangeType>> received = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(1);
+        broadcaster.register(1L, changes -> {
+            received.add(changes);
+            latch.countDown();
+        });
+
+        broadcaster.publishAfterCommit(1L, ChangeType.EXPENSE);
+        broadcaster.publishAfterCommit(1L, ChangeType.EXPENSE);
+        broadcaster.publishAfterCommit(1L, ChangeType.BUDGET);
+
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        assertEquals(1, received.size());
+        assertEquals(EnumSet.of(ChangeType.EXPENSE, ChangeType.BUDGET), received.get(0));
+    }
+
+    @Test
+    void testChangesAreOnlyDeliveredToTheOwningUser() throws InterruptedException {
+        CountDownLatch otherUser = new CountDownLatch(1);
+        broadcaster.register(2L, changes -> otherUser.countDown());
+
+        broadcaster.publishAfterCommit(1L, ChangeType.INCOME);
+
+        assertFalse(otherUser.await(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void testRemovedRegistrationIsReleased() {
+        Registration registration = broadcaster.register(1L, changes -> { });
+        assertEquals(1, broadcaster.getListenerCount(1L));
+
+        registration.remove();
+        assertEquals(0, broadcaster.getListenerCount(1L));
+    }
+
+    @Test
+    void testFailingListenerIsRemoved() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        broadcaster.register(1L, changes -> {
+            latch.countDown();
+            throw new IllegalStateException("UI detached");
+        });
+
+        broadcaster.publishAfterCommit(1L, ChangeType.EXPENSE);
+
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        long deadline = System.currentTimeMillis() + 2000;
+        while (broadcaster.getListenerCount(1L) > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, broadcaster.getListenerCount(1L));
+    }
+
+    @Test
+    void testNullUserIsIgnored() {
+        assertDoesNotThrow(() -> broadcaster.publishAfterCommit(null, ChangeType.EXPENSE));
+    }
+}
@@ -0,0 +1,262 @@
+package org.vaadin.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.vaadin.application.repository.ExpenseRepository;
+import org.vaadin.application.repository.IncomeRepository;
+import org.vaadin.application.repository.UserRepository;
+
+public class UserLedgerTests {
+
+    @Mock
+    private ExpenseRepository expenseRepository;
+
+    @Mock
+    private IncomeRepository incomeRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private LedgerCache ledgerCache;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(ledgerCache, "enabled", true);
+        ReflectionTestUtils.setField(ledgerCache, "maxBytes", 1_000_000L);
+        ReflectionTestUtils.setField(ledgerCache, "maxPendingWrites", 64);
+        ledgerCache.init();
+        when(userRepository.findChangeSequence(1L)).thenReturn(Optional.of(10L));
+    }
+
+    @Test
+    void testRangeTotals() {
+        UserLedger ledger = UserLedger.build(expenses(), incomes());
+
+        assertEquals(new BigDecimal("35.50"), ledger.sumExpenses(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31)));
+        assertEquals(new BigDecimal("0.00"), ledger.sumExpenses(LocalDate.of(2023, 1, 1), LocalDate.of(2023, 12, 31)));
+        assertEquals(new BigDecimal("135.50"), ledger.sumExpenses(LocalDate.MIN, LocalDate.MAX));
+        assertEquals(new BigDecimal("1000.00"), ledger.sumIncomes(LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 1)));
+    }
+
+    @Test
+    void testMonthlyTotalsByBudgetName() {
+        UserLedger ledger = UserLedger.build(expenses(), incomes());
+
+        assertArrayEquals(new long[] { 1050, 10000, 0 },
+                ledger.sumExpensesByMonth(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 3, 31), "FOOD"));
+        assertArrayEquals(new long[] { 2500, 0, 0 },
+                ledger.sumExpensesByMonth(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 3, 31), "no-budget"));
+        assertEquals(new BigDecimal("25.00"),
+                ledger.sumExpensesInCategory(7L, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31)));
+    }
+
+    @Test
+    void testMonthlyIncomeCountsRecurrences() {
+        UserLedger ledger = UserLedger.build(expenses(), incomes());
+
+        // 1000 monthly + 4 x 50 weekly; one-off incomes are not counted
+        assertEquals(new BigDecimal("1200.00"), ledger.getMonthlyIncome());
+    }
+
+    @Test
+    void testRecurringIncomesCountEveryPayment() {
+        UserLedger ledger = UserLedger.build(expenses(), incomes());
+
+        // 4 weekly payments of 50 and the monthly 1000; the one-off income is paid from March
+        assertEquals(new BigDecimal("1200.00"),
+                ledger.sumRecurringIncomes(LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 29)));
+        assertEquals(new BigDecimal("1500.00"),
+                ledger.sumRecurringIncomes(LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 31)));
+        assertEquals(new BigDecimal("0.00"),
+                ledger.sumRecurringIncomes(LocalDate.of(2023, 1, 1), LocalDate.of(2023, 12, 31)));
+
+        UserLedger endOfMonth = UserLedger.build(List.of(), List.<Object[]>of(
+                new Object[] { LocalDate.of(2024, 1, 3), new BigDecimal("10.00"), "Biweekly" },
+                new Object[] { LocalDate.of(2024, 1, 31), new BigDecimal("100.00"), "Monthly" }));
+        assertEquals(new BigDecimal("120.00"),
+                endOfMonth.sumRecurringIncomes(LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 29)));
+        assertEquals(new BigDecimal("20.00"),
+                endOfMonth.sumRecurringIncomes(LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 30)));
+        assertEquals(new BigDecimal("100.00"),
+                endOfMonth.sumRecurringIncomes(LocalDate.of(2024, 3, 31), LocalDate.of(2024, 3, 31)));
+    }
+
+    @Test
+    void testRowsAreAddedAndRemovedInDateOrder() {
+        UserLedger ledger = UserLedger.build(expenses(), incomes());
+
+        UserLedger updated = ledger.withExpenses(
+                List.of(new Object[] { LocalDate.of(2024, 1, 10), new BigDecimal("2.00"), 1L, "Food", null },
+                        new Object[] { LocalDate.of(2024, 3, 2), new BigDecimal("4.00"), 2L, "Rent", 7L }),
+                List.<Object[]>of(new Object[] { LocalDate.of(2024, 2, 3), new BigDecimal("100"), 1L, null, null }));
+
+        assertEquals(4, updated.getExpenseCount());
+        assertArrayEquals(new long[] { 1250, 0, 0 },
+                updated.sumExpensesByMonth(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 3, 31), "Food"));
+        assertArrayEquals(new long[] { 0, 0, 400 },
+                updated.sumExpensesByMonth(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 3, 31), "rent"));
+        assertEquals(new BigDecimal("29.00"),
+                updated.sumExpensesInCategory(7L, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31)));
+        // The original is unchanged
+        assertEquals(new BigDecimal("135.50"), ledger.sumExpenses(LocalDate.MIN, LocalDate.MAX));
+
+        UserLedger withIncome = ledger.withIncomes(
+                List.<Object[]>of(new Object[] { LocalDate.of(2024, 1, 15), new BigDecimal("20.00"), "Biweekly" }),
+                List.<Object[]>of(new Object[] { LocalDate.of(2024, 1, 1), new BigDecimal("50.00"), "Weekly" }));
+        assertEquals(new BigDecimal("1040.00"), withIncome.getMonthlyIncome());
+    }
+
+    @Test
+    void testRemovingMissingRowReturnsNull() {
+        UserLedger ledger = UserLedger.build(expenses(), incomes());
+
+        assertNull(ledger.withExpenses(List.of(),
+                List.<Object[]>of(new Object[] { LocalDate.of(2024, 1, 5), new BigDecimal("10.50"), 2L, null, null })));
+        assertNull(ledger.withIncomes(List.of(),
+                List.<Object[]>of(new Object[] { LocalDate.of(2024, 2, 1), new BigDecimal("1000.00"), "Weekly" })));
+    }
+
+    @Test
+    void testWritesUpdateCachedLedger() {
+        when(expenseRepository.findLedgerRows(1L)).thenReturn(expenses());
+        when(incomeRepository.findLedgerRows(1L)).thenReturn(incomes());
+        UserLedger first = ledgerCache.get(1L);
+        assertSame(first, ledgerCache.get(1L));
+
+        ledgerCache.addExpense(1L, 11L, LocalDate.of(2024, 2, 10), new BigDecimal("5.00"), 1L, "Food", null);
+        ledgerCache.removeExpense(1L, 12L, LocalDate.of(2024, 1, 5), new BigDecimal("10.50"), 1L, null);
+        ledgerCache.addIncome(1L, 13L, LocalDate.of(2024, 2, 15), new BigDecimal("10.00"), "Monthly");
+        // Already part of the snapshot
+        ledgerCache.addExpense(1L, 10L, LocalDate.of(2024, 2, 10), new BigDecimal("99.00"), 1L, "Food", null);
+
+        UserLedger updated = ledgerCache.get(1L);
+        assertArrayEquals(new long[] { 0, 10500 },
+                updated.sumExpensesByMonth(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 2, 29), "Food"));
+        assertEquals(new BigDecimal("1210.00"), updated.getMonthlyIncome());
+        verify(expenseRepository, times(1)).findLedgerRows(1L);
+    }
+
+    @Test
+    void testBufferedWritesThatCancelOutLeaveLedgerUncopied() {
+        when(expenseRepository.findLedgerRows(1L)).thenReturn(expenses());
+        when(incomeRepository.findLedgerRows(1L)).thenReturn(incomes());
+        UserLedger first = ledgerCache.get(1L);
+
+        ledgerCache.addExpense(1L, 11L, LocalDate.of(2024, 2, 10), new BigDecimal("5.00"), 1L, "Food", null);
+        ledgerCache.removeExpense(1L, 12L, LocalDate.of(2024, 2, 10), new BigDecimal("5.00"), 1L, null);
+
+        assertSame(first, ledgerCache.get(1L));
+    }
+
+    @Test
+    void testWritesOverTheBufferLimitAreFolded() {
+        ReflectionTestUtils.setField(ledgerCache, "maxPendingWrites", 1);
+        when(expenseRepository.findLedgerRows(1L)).thenReturn(expenses());
+        when(incomeRepository.findLedgerRows(1L)).thenReturn(incomes());
+        ledgerCache.get(1L);
+
+        for (long sequence = 11; sequence < 16; sequence++) {
+            ledgerCache.addExpense(1L, sequence, LocalDate.of(2024, 3, 1), new BigDecimal("1.00"), null, null, null);
+        }
+
+        assertEquals(new BigDecimal("5.00"),
+                ledgerCache.get(1L).sumExpenses(LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 1)));
+    }
+
+    @Test
+    void testUnmatchedWriteRebuildsLedger() {
+        when(expenseRepository.findLedgerRows(1L)).thenReturn(expenses());
+        when(incomeRepository.findLedgerRows(1L)).thenReturn(incomes());
+        ledgerCache.get(1L);
+
+        ledgerCache.removeExpense(1L, 11L, LocalDate.of(2024, 1, 5), new BigDecimal("99.00"), null, null);
+        assertNotNull(ledgerCache.get(1L));
+
+        ledgerCache.invalidate(1L);
+        assertNotNull(ledgerCache.get(1L));
+        verify(expenseRepository, times(3)).findLedgerRows(1L);
+    }
+
+    @Test
+    void testWritesDuringBuildAreReplayed() {
+        when(expenseRepository.findLedgerRows(1L)).thenAnswer(invocation -> {
+            ledgerCache.addExpense(1L, 9L, LocalDate.of(2024, 2, 3), new BigDecimal("100.00"), 1L, "Food", null);
+            ledgerCache.addExpense(1L, 11L, LocalDate.of(2024, 3, 3), new BigDecimal("7.00"), 1L, "Food", null);
+            return expenses();
+        });
+        when(incomeRepository.findLedgerRows(1L)).thenReturn(incomes());
+
+        assertArrayEquals(new long[] { 1050, 10000, 700 }, ledgerCache.get(1L)
+                .sumExpensesByMonth(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 3, 31), "Food"));
+    }
+
+    @Test
+    void testConcurrentReadersShareOneBuild() throws Exception {
+        CountDownLatch building = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(expenseRepository.findLedgerRows(1L)).thenAnswer(invocation -> {
+            building.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return expenses();
+        });
+        when(incomeRepository.findLedgerRows(1L)).thenReturn(incomes());
+
+        CompletableFuture<UserLedger> first = CompletableFuture.supplyAsync(() -> ledgerCache.get(1L));
+        building.await(10, TimeUnit.SECONDS);
+        CompletableFuture<UserLedger> second = CompletableFuture.supplyAsync(() -> ledgerCache.get(1L));
+        release.countDown();
+
+        assertSame(first.get(10, TimeUnit.SECONDS), second.get(10, TimeUnit.SECONDS));
+        verify(expenseRepository, times(1)).findLedgerRows(1L);
+    }
+
+    @Test
+    void testDisabledCacheReturnsNull() {
+        ReflectionTestUtils.setField(ledgerCache, "enabled", false);
+
+        assertNull(ledgerCache.get(1L));
+    }
+
+    private static List<Object[]> expenses() {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[] { LocalDate.of(2024, 1, 5), new BigDecimal("10.50"), 1L, "Food", null });
+        rows.add(new Object[] { LocalDate.of(2024, 1, 20), new BigDecimal("25"), null, null, 7L });
+        rows.add(new Object[] { LocalDate.of(2024, 2, 3), new BigDecimal("100.00"), 1L, "Food", null });
+        return rows;
+    }
+
+    private static List<Object[]> incomes() {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[] { LocalDate.of(2024, 1, 1), new BigDecimal("50.00"), "Weekly" });
+        rows.add(new Object[] { LocalDate.of(2024, 2, 1), new BigDecimal("1000.00"), "Monthly" });
+        rows.add(new Object[] { LocalDate.of(2024, 3, 1), new BigDecimal("300.00"), "One-off" });
+        return rows;
+    }
+}
@@ -0,0 +1,108 @@
+package org.vaadin.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.vaadin.application.model.Budget;
+import org.vaadin.application.model.User;
+
+public class UserReferenceDataCacheTests {
+
+    @Mock
+    private SessionService sessionService;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private BudgetService budgetService;
+
+    @Mock
+    private ExpenseCategoryService expenseCategoryService;
+
+    @Mock
+    private BusinessProfileService businessProfileService;
+
+    @Mock
+    private ChangeTracker changeTracker;
+
+    @InjectMocks
+    private UserReferenceDataCache cache;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(cache, "maxEntities", 500);
+        when(sessionService.getLoggedInUserId()).thenReturn(1L);
+    }
+
+    @Test
+    void testGetBudgetsLoadsOnlyOnce() {
+        when(budgetService.reloadBudgetsByUserId(1L)).thenReturn(Arrays.asList(new Budget(), new Budget()));
+
+        cache.getBudgets();
+        List<Budget> result = cache.getBudgets();
+
+        assertEquals(2, result.size());
+        assertEquals(2, cache.getCachedEntityCount());
+        verify(budgetService, times(1)).reloadBudgetsByUserId(1L);
+    }
+
+    @Test
+    void testGetBudgetsReloadsAfterChange() {
+        when(budgetService.reloadBudgetsByUserId(1L)).thenReturn(Arrays.asList(new Budget()));
+        when(changeTracker.getChangeSequence(1L)).thenReturn(4L);
+        cache.getBudgets();
+
+        when(changeTracker.getChangeSequence(1L)).thenReturn(5L);
+        cache.getBudgets();
+
+        verify(budgetService, times(2)).reloadBudgetsByUserId(1L);
+        assertEquals(1, cache.getCachedEntityCount());
+    }
+
+    @Test
+    void testGetUserClearsCacheWhenUserChanges() {
+        User first = new User();
+        User second = new User();
+        when(userService.findUserById(1L)).thenReturn(first);
+        when(userService.findUserById(2L)).thenReturn(second);
+
+        assertEquals(first, cache.getUser());
+        when(sessionService.getLoggedInUserId()).thenReturn(2L);
+        assertEquals(second, cache.getUser());
+        assertEquals(1, cache.getCachedEntityCount());
+    }
+
+    @Test
+    void testValuesOverLimitAreNotCached() {
+        ReflectionTestUtils.setField(cache, "maxEntities", 1);
+        when(budgetService.reloadBudgetsByUserId(1L)).thenReturn(Arrays.asList(new Budget(), new Budget()));
+
+        cache.getBudgets();
+        cache.getBudgets();
+
+        verify(budgetService, times(2)).reloadBudgetsByUserId(1L);
+        assertEquals(0, cache.getCachedEntityCount());
+    }
+
+    @Test
+    void testNoLoggedInUserReturnsNull() {
+        when(sessionService.getLoggedInUserId()).thenReturn(null);
+
+        assertNull(cache.getUser());
+        verify(userService, never()).findUserById(null);
+    }
+}